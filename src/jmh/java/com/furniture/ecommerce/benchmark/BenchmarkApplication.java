@@ -0,0 +1,44 @@
+package com.furniture.ecommerce.benchmark;
+
+import com.furniture.ecommerce.ProductCatalogServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Boots the service without a web server on a generated catalog for benchmarks.
+ */
+public final class BenchmarkApplication {
+
+    /** Default catalog size for benchmarks. */
+    public static final long DEFAULT_CATALOG_SIZE = 100_000;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Start an application context.
+     *
+     * @param catalogSize number of generated products
+     * @param properties additional {@code key=value} properties
+     * @return the running context; close it in the benchmark's tear-down
+     */
+    public static ConfigurableApplicationContext start(long catalogSize, String... properties) {
+        List<String> all = new ArrayList<>(Arrays.asList(
+                "catalog.seed.size=" + catalogSize,
+                "catalog.warmup.enabled=false",
+                "spring.h2.console.enabled=false",
+                "logging.level.root=WARN",
+                "logging.level.com.furniture.ecommerce=WARN"));
+        all.addAll(Arrays.asList(properties));
+        return new SpringApplicationBuilder(ProductCatalogServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("large-catalog")
+                .properties(all.toArray(new String[0]))
+                .run();
+    }
+}
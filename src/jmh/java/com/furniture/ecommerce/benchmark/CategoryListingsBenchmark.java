@@ -0,0 +1,92 @@
+package com.furniture.ecommerce.benchmark;
+
+import com.furniture.ecommerce.config.SyntheticCatalogGenerator;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.CategoryListings;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a price change in one large category of the materialized listings, and of reading a page
+ * of it. Run with {@code -Pjmh.profilers=gc} to see how much a write allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryListingsBenchmark {
+
+    private static final ProductOrder PRICE_ASCENDING = ProductOrder.parse("price,asc");
+
+    /** Number of products in the category. */
+    @Param({"100000", "1000000"})
+    public int categorySize;
+
+    private CategoryListings listings;
+    private ProductSnapshot[] products;
+    private SplittableRandom random;
+
+    /**
+     * List the generated catalog under one category.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        listings = new CategoryListings(true);
+        listings.clear();
+        products = new ProductSnapshot[categorySize];
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(42);
+        for (int i = 0; i < categorySize; i++) {
+            Product product = generator.next();
+            product.setId(i + 1L);
+            product.setCategory("Sofas");
+            products[i] = ProductSnapshot.of(product);
+            listings.add(products[i]);
+        }
+        listings.afterRebuild();
+        random = new SplittableRandom(7);
+    }
+
+    /**
+     * Move a random product to a new price.
+     *
+     * @return the category size, to defeat dead-code elimination
+     */
+    @Benchmark
+    public Integer priceChange() {
+        int index = random.nextInt(categorySize);
+        ProductSnapshot previous = products[index];
+        Product product = new Product();
+        product.setId(previous.getId());
+        product.setName(previous.getName());
+        product.setCategory(previous.getCategory());
+        product.setPrice(BigDecimal.valueOf(random.nextInt(2_000, 500_000), 2));
+        product.setStock(previous.getStock());
+        product.setCreatedAt(previous.getCreatedAt());
+        products[index] = ProductSnapshot.of(product);
+        listings.update(previous, products[index]);
+        return listings.size("Sofas");
+    }
+
+    /**
+     * A page of the category by price.
+     *
+     * @return the product IDs, to defeat dead-code elimination
+     */
+    @Benchmark
+    public List<Long> page() {
+        return listings.page("Sofas", PRICE_ASCENDING, random.nextInt(categorySize - 24), 24);
+    }
+}
@@ -0,0 +1,65 @@
+package com.furniture.ecommerce.benchmark;
+
+import com.furniture.ecommerce.config.SyntheticCatalogGenerator;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.FuzzySearchIndex;
+import com.furniture.ecommerce.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typo-tolerant search latency on generated catalogs of up to a million products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FuzzySearchBenchmark {
+
+    private static final String[] QUERIES = {
+        "scandanavian sofa", "walnutt table", "modrn chair", "nordik bed storage", "industral desk",
+        "minimalst shelf", "rustik coffee table", "velvett armchair", "oak", "sofaa"
+    };
+
+    /** Number of indexed products. */
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    private FuzzySearchIndex fuzzySearchIndex;
+    private SplittableRandom random;
+
+    /**
+     * Index the generated catalog.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        fuzzySearchIndex = new FuzzySearchIndex();
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(42);
+        for (long id = 1; id <= catalogSize; id++) {
+            Product product = generator.next();
+            product.setId(id);
+            fuzzySearchIndex.add(ProductSnapshot.of(product));
+        }
+        random = new SplittableRandom(7);
+    }
+
+    /**
+     * Top 50 results for a misspelled query.
+     *
+     * @return the product IDs, to defeat dead-code elimination
+     */
+    @Benchmark
+    public List<Long> search() {
+        return fuzzySearchIndex.search(QUERIES[random.nextInt(QUERIES.length)], 50);
+    }
+}
@@ -0,0 +1,141 @@
+package com.furniture.ecommerce.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.ecommerce.config.SyntheticCatalogGenerator;
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.json.ProductJsonCache;
+import com.furniture.ecommerce.json.ProductJsonHttpMessageConverter;
+import com.furniture.ecommerce.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing product responses with Jackson on every request versus from the encoded JSON cache.
+ *
+ * <p>Both variants build the response DTOs from entities, as the service does, and write them
+ * through the same message converter API Spring MVC uses. Run with {@code -Pjmh.profilers=gc} to
+ * compare {@code gc.alloc.rate.norm}, the bytes allocated per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProductJsonBenchmark {
+
+    private static final Type PRODUCT_LIST = new ParameterizedTypeReference<List<ProductResponseDTO>>() { }.getType();
+
+    /** Products per response: a detail page or a page of search results. */
+    @Param({"1", "50"})
+    public int responseSize;
+
+    private List<Product> products;
+    private MappingJackson2HttpMessageConverter jacksonConverter;
+    private ProductJsonHttpMessageConverter cachedConverter;
+    private BufferedOutputMessage output;
+
+    /**
+     * Generate the products and warm the encoded JSON cache.
+     *
+     * @throws IOException never; the cache is written to memory
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Configured like the application's mapper, including indent_output
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().indentOutput(true).build();
+        jacksonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        cachedConverter = new ProductJsonHttpMessageConverter(
+                new ProductJsonCache(objectMapper, new SimpleMeterRegistry(), true, 64L << 20));
+
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(42);
+        products = new ArrayList<>(responseSize);
+        for (long id = 1; id <= responseSize; id++) {
+            Product product = generator.next();
+            product.setId(id);
+            product.setVersion(0L);
+            products.add(product);
+        }
+        output = new BufferedOutputMessage();
+        cachedList();
+    }
+
+    /**
+     * Serialize every response with Jackson.
+     *
+     * @return bytes written
+     * @throws IOException never; responses are written to memory
+     */
+    @Benchmark
+    public int jacksonList() throws IOException {
+        output.reset();
+        jacksonConverter.write(toResponses(), PRODUCT_LIST, MediaType.APPLICATION_JSON, output);
+        return output.size();
+    }
+
+    /**
+     * Copy the cached encodings into the response.
+     *
+     * @return bytes written
+     * @throws IOException never; responses are written to memory
+     */
+    @Benchmark
+    public int cachedList() throws IOException {
+        output.reset();
+        cachedConverter.write(toResponses(), PRODUCT_LIST, MediaType.APPLICATION_JSON, output);
+        return output.size();
+    }
+
+    private List<ProductResponseDTO> toResponses() {
+        List<ProductResponseDTO> responses = new ArrayList<>(products.size());
+        for (Product product : products) {
+            responses.add(ProductResponseDTO.fromProduct(product));
+        }
+        return responses;
+    }
+
+    /** A response body in a reusable buffer, so the benchmark measures encoding, not buffer growth. */
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 16);
+        private HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            body.reset();
+            headers = new HttpHeaders();
+        }
+
+        int size() {
+            return body.size();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
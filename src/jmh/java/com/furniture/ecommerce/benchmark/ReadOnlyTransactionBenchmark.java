@@ -0,0 +1,79 @@
+package com.furniture.ecommerce.benchmark;
+
+import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of running catalog scans in read-write versus read-only transactions.
+ *
+ * <p>In a read-write transaction Hibernate keeps a snapshot of every loaded entity and
+ * dirty-checks all of them at flush; a read-only transaction skips both. The query cache is
+ * disabled so every invocation loads its entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReadOnlyTransactionBenchmark {
+
+    private static final String[] CATEGORIES = {"Sofas", "Chairs", "Tables", "Storage", "Beds"};
+
+    /** Whether the transaction is marked read-only. */
+    @Param({"true", "false"})
+    public boolean readOnly;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private TransactionTemplate transactionTemplate;
+    private SplittableRandom random;
+
+    /**
+     * Boot the application and prepare a transaction template with the setting under test.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(BenchmarkApplication.DEFAULT_CATALOG_SIZE,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        productRepository = context.getBean(ProductRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(readOnly);
+        random = new SplittableRandom(7);
+    }
+
+    /**
+     * Shut the application down.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Filtered search returning a few hundred to a few thousand products.
+     *
+     * @return the products, to defeat dead-code elimination
+     */
+    @Benchmark
+    public List<Product> searchProducts() {
+        String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        return transactionTemplate.execute(status -> productRepository.searchProducts(
+                category, null, null, BigDecimal.valueOf(100), BigDecimal.valueOf(1000), true));
+    }
+}
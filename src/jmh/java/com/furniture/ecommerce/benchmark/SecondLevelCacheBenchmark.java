@@ -0,0 +1,103 @@
+package com.furniture.ecommerce.benchmark;
+
+import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Effect of the Hibernate second-level and query caches on the hottest repository reads.
+ *
+ * <p>Product ids follow the same hot-head skew as the load test, so the entity cache sees a
+ * realistic hit rate rather than a perfect one. Hit rates are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SecondLevelCacheBenchmark {
+
+    private static final String[] CATEGORIES = {"Sofas", "Chairs", "Tables", "Storage", "Beds"};
+
+    /** Whether the second-level and query caches are enabled. */
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private Statistics statistics;
+    private SplittableRandom random;
+
+    /**
+     * Boot the application with the cache setting under test.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(BenchmarkApplication.DEFAULT_CATALOG_SIZE,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache);
+        productRepository = context.getBean(ProductRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        random = new SplittableRandom(7);
+    }
+
+    /**
+     * Print cache hit rates and shut the application down.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf(Locale.ROOT, "%nsecondLevelCache=%s: entity hit rate %.1f%% (%d/%d), "
+                        + "query cache hit rate %.1f%% (%d/%d)%n",
+                secondLevelCache,
+                rate(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()),
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheHitCount() + statistics.getSecondLevelCacheMissCount(),
+                rate(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheHitCount() + statistics.getQueryCacheMissCount());
+        context.close();
+    }
+
+    /**
+     * Point read of a product with a skewed id distribution.
+     *
+     * @return the product, to defeat dead-code elimination
+     */
+    @Benchmark
+    public Optional<Product> findById() {
+        long id = 1 + (long) (BenchmarkApplication.DEFAULT_CATALOG_SIZE * Math.pow(random.nextDouble(), 3));
+        return productRepository.findById(id);
+    }
+
+    /**
+     * Category listing, served from the query cache when enabled.
+     *
+     * @return the products, to defeat dead-code elimination
+     */
+    @Benchmark
+    public List<Product> findByCategoryIgnoreCase() {
+        return productRepository.findByCategoryIgnoreCase(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+    }
+
+    private static double rate(long hits, long misses) {
+        return hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses);
+    }
+}
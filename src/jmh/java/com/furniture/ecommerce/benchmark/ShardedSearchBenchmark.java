@@ -0,0 +1,135 @@
+package com.furniture.ecommerce.benchmark;
+
+import com.furniture.ecommerce.config.SyntheticCatalogGenerator;
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.shard.ShardedProductStore;
+import com.furniture.ecommerce.shard.ShardingStrategy;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point reads and searches over the partitioned catalog as the shard count grows.
+ *
+ * <p>Each shard is its own in-memory H2 database. Single-threaded runs show what the parallel
+ * fan-out saves on one large search; runs with several JMH threads show how concurrent searches
+ * spread over the shards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ShardedSearchBenchmark {
+
+    private static final SearchCriteria PRICE_RANGE = SearchCriteria.of(
+            null, null, null, new BigDecimal("200"), new BigDecimal("900"), true);
+    private static final SearchCriteria CATEGORY = SearchCriteria.of("Chairs", null, null, null, null, true);
+    private static final ProductOrder BY_PRICE = ProductOrder.parse("price,asc");
+
+    /** Number of shards. */
+    @Param({"1", "2", "4", "8"})
+    public int shardCount;
+
+    /** How products are assigned to shards. */
+    @Param({"CATEGORY", "ID_HASH"})
+    public ShardingStrategy strategy;
+
+    /** Number of products. */
+    @Param({"200000"})
+    public int catalogSize;
+
+    private ShardedProductStore store;
+
+    /**
+     * Create the shards and load the generated catalog.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<DataSource> dataSources = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:bench-" + strategy + "-" + shardCount + "-" + i + ";DB_CLOSE_DELAY=-1");
+            dataSource.setMaximumPoolSize(16);
+            dataSources.add(dataSource);
+        }
+        store = new ShardedProductStore(dataSources, strategy, shardCount * 4, new SimpleMeterRegistry());
+
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(42);
+        store.clear();
+        for (long id = 1; id <= catalogSize; id++) {
+            Product product = generator.next();
+            product.setId(id);
+            store.add(ProductSnapshot.of(product));
+        }
+        store.afterRebuild();
+    }
+
+    /**
+     * Drop the shard databases.
+     *
+     * @throws Exception if a pool fails to close
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        store.close();
+    }
+
+    /**
+     * Read one product by id.
+     *
+     * @return the product
+     */
+    @Benchmark
+    public ProductResponseDTO pointRead() {
+        return store.findById(ThreadLocalRandom.current().nextLong(1, catalogSize + 1));
+    }
+
+    /**
+     * First page of a price range across every category, cheapest first.
+     *
+     * @return the products
+     */
+    @Benchmark
+    public List<ProductResponseDTO> priceRangeTop50() {
+        return store.search(PRICE_RANGE, BY_PRICE, 50);
+    }
+
+    /**
+     * First page of one category, cheapest first; a single shard under category sharding.
+     *
+     * @return the products
+     */
+    @Benchmark
+    public List<ProductResponseDTO> categoryTop50() {
+        return store.search(CATEGORY, BY_PRICE, 50);
+    }
+
+    /**
+     * Every in-stock product of a price range, by id; the merge handles the whole result.
+     *
+     * @return the products
+     */
+    @Benchmark
+    public List<ProductResponseDTO> priceRangeAll() {
+        return store.search(PRICE_RANGE, ProductOrder.BY_ID, 0);
+    }
+}
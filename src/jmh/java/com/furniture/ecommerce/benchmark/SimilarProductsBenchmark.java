@@ -0,0 +1,88 @@
+package com.furniture.ecommerce.benchmark;
+
+import com.furniture.ecommerce.config.SyntheticCatalogGenerator;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.ProductFeatures;
+import com.furniture.ecommerce.index.SimilarProducts;
+import com.furniture.ecommerce.index.VantagePointTree;
+import com.furniture.ecommerce.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 similar product latency on generated catalogs: the vantage-point tree against a scan of
+ * every product.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimilarProductsBenchmark {
+
+    private static final int K = 10;
+
+    /** Number of indexed products. */
+    @Param({"100000", "1000000"})
+    public int catalogSize;
+
+    private SimilarProducts similarProducts;
+    private ProductFeatures[] features;
+    private SplittableRandom random;
+
+    /**
+     * Index the generated catalog.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        similarProducts = new SimilarProducts(true, 2048);
+        similarProducts.clear();
+        features = new ProductFeatures[catalogSize];
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(42);
+        for (int i = 0; i < catalogSize; i++) {
+            Product product = generator.next();
+            product.setId(i + 1L);
+            ProductSnapshot snapshot = ProductSnapshot.of(product);
+            similarProducts.add(snapshot);
+            features[i] = ProductFeatures.of(snapshot);
+        }
+        similarProducts.afterRebuild();
+        random = new SplittableRandom(7);
+    }
+
+    /**
+     * Nearest products from the index.
+     *
+     * @return the product IDs, to defeat dead-code elimination
+     */
+    @Benchmark
+    public List<Long> vantagePointTree() {
+        return similarProducts.nearest(random.nextInt(catalogSize) + 1L, K);
+    }
+
+    /**
+     * Nearest products by computing the distance to every product.
+     *
+     * @return the product IDs, to defeat dead-code elimination
+     */
+    @Benchmark
+    public List<Long> bruteForce() {
+        ProductFeatures query = features[random.nextInt(catalogSize)];
+        VantagePointTree.Neighbours neighbours = new VantagePointTree.Neighbours(K);
+        for (ProductFeatures candidate : features) {
+            if (candidate != query) {
+                neighbours.offer(candidate, query.distance(candidate));
+            }
+        }
+        return neighbours.ids();
+    }
+}
@@ -0,0 +1,66 @@
+package com.furniture.ecommerce.benchmark;
+
+import com.furniture.ecommerce.config.SyntheticCatalogGenerator;
+import com.furniture.ecommerce.dto.SuggestionDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.SuggestIndex;
+import com.furniture.ecommerce.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 autocomplete latency on a generated catalog, for one to four typed characters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SuggestBenchmark {
+
+    private SuggestIndex suggestIndex;
+    private String[] prefixes;
+    private SplittableRandom random;
+
+    /**
+     * Index the catalog and collect prefixes of real product names.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        suggestIndex = new SuggestIndex();
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(42);
+        List<String> typed = new ArrayList<>();
+        for (long id = 1; id <= BenchmarkApplication.DEFAULT_CATALOG_SIZE; id++) {
+            Product product = generator.next();
+            product.setId(id);
+            suggestIndex.add(ProductSnapshot.of(product));
+            if (id % 100 == 0) {
+                String name = product.getName();
+                typed.add(name.substring(0, Math.min(name.length(), 1 + (int) (id / 100 % 4))));
+            }
+        }
+        prefixes = typed.toArray(new String[0]);
+        random = new SplittableRandom(7);
+        System.out.println();
+        System.out.println("Suggest index " + suggestIndex.getStats());
+    }
+
+    /**
+     * Suggestions for a random prefix.
+     *
+     * @return the suggestions, to defeat dead-code elimination
+     */
+    @Benchmark
+    public List<SuggestionDTO> suggest() {
+        return suggestIndex.suggest(prefixes[random.nextInt(prefixes.length)], 10);
+    }
+}
@@ -0,0 +1,49 @@
+package com.furniture.ecommerce.loadtest;
+
+/**
+ * Endpoints exercised by the load test.
+ */
+public enum Endpoint {
+
+    /** {@code GET /products/{id}}. */
+    GET_BY_ID("get"),
+
+    /** {@code GET /products/search}. */
+    SEARCH("search"),
+
+    /** {@code GET /products/filters}. */
+    FILTERS("filters"),
+
+    /** {@code PATCH /products/{id}/stock}. */
+    UPDATE_STOCK("stock");
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Get the short name used in {@code loadtest.mix}.
+     *
+     * @return the endpoint key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Look up an endpoint by its mix key.
+     *
+     * @param key the endpoint key
+     * @return the endpoint
+     */
+    public static Endpoint fromKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in loadtest.mix: " + key);
+    }
+}
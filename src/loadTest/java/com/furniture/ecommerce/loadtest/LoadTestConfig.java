@@ -0,0 +1,115 @@
+package com.furniture.ecommerce.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties.
+ */
+public final class LoadTestConfig {
+
+    private final int rate;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final long catalogSize;
+    private final String target;
+    private final Map<Endpoint, Integer> mix;
+    private final double idSkew;
+    private final int maxInFlight;
+    private final long seed;
+    private final String reportDir;
+
+    private LoadTestConfig() {
+        this.rate = Integer.getInteger("loadtest.rate", 500);
+        this.warmupSeconds = Integer.getInteger("loadtest.warmup", 15);
+        this.durationSeconds = Integer.getInteger("loadtest.duration", 60);
+        this.catalogSize = Long.getLong("loadtest.catalogSize", 100_000L);
+        this.target = System.getProperty("loadtest.target", "");
+        this.mix = parseMix(System.getProperty("loadtest.mix", "get=70,search=15,filters=5,stock=10"));
+        this.idSkew = Double.parseDouble(System.getProperty("loadtest.idSkew", "3"));
+        this.maxInFlight = Integer.getInteger("loadtest.maxInFlight", 10_000);
+        this.seed = Long.getLong("loadtest.seed", 7L);
+        this.reportDir = System.getProperty("loadtest.reportDir", "build/reports/loadtest");
+        if (rate <= 0 || durationSeconds <= 0) {
+            throw new IllegalArgumentException("loadtest.rate and loadtest.duration must be positive");
+        }
+    }
+
+    /**
+     * Read the configuration from system properties.
+     *
+     * @return the load test configuration
+     */
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String spec) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + part);
+            }
+            weights.put(Endpoint.fromKey(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+    /** Requests per second issued regardless of response times (open model). */
+    public int getRate() {
+        return rate;
+    }
+
+    /** Seconds of traffic before measurement starts. */
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    /** Seconds of measured traffic. */
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    /** Number of generated products; also the highest product id requested. */
+    public long getCatalogSize() {
+        return catalogSize;
+    }
+
+    /** Base URL of an already running service, or empty to boot one in-process. */
+    public String getTarget() {
+        return target;
+    }
+
+    /** Relative weight of each endpoint in the traffic mix. */
+    public Map<Endpoint, Integer> getMix() {
+        return mix;
+    }
+
+    /** Exponent skewing product ids towards a hot head; 1 is uniform. */
+    public double getIdSkew() {
+        return idSkew;
+    }
+
+    /** Outstanding requests beyond which new arrivals are counted as dropped. */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /** Random seed for the request stream. */
+    public long getSeed() {
+        return seed;
+    }
+
+    /** Directory receiving the histogram reports. */
+    public String getReportDir() {
+        return reportDir;
+    }
+
+    @Override
+    public String toString() {
+        return "rate=" + rate + "/s, warmup=" + warmupSeconds + "s, duration=" + durationSeconds
+                + "s, catalogSize=" + catalogSize + ", mix=" + mix + ", idSkew=" + idSkew
+                + (target.isEmpty() ? "" : ", target=" + target);
+    }
+}
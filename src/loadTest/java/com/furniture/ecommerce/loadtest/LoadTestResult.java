@@ -0,0 +1,129 @@
+package com.furniture.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Results of the measured phase of a load test run.
+ *
+ * <p>Besides the console summary, every histogram is written in HdrHistogram's percentile
+ * distribution format ({@code .hgrm}, values in milliseconds) so runs can be compared side by
+ * side, e.g. with the HdrHistogram plotter.
+ */
+public class LoadTestResult {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LoadTestConfig config;
+    private final Map<Endpoint, Histogram> histograms;
+    private final Map<Endpoint, Long> errors;
+    private final long issued;
+    private final long dropped;
+    private final long elapsedNanos;
+
+    /**
+     * Create a result.
+     *
+     * @param config configuration of the run
+     * @param histograms latency histograms in nanoseconds, per endpoint
+     * @param errors failed or non-2xx requests, per endpoint
+     * @param issued requests scheduled during the measured phase
+     * @param dropped requests not sent because too many were outstanding
+     * @param elapsedNanos wall-clock duration of the measured phase
+     */
+    public LoadTestResult(LoadTestConfig config, Map<Endpoint, Histogram> histograms, Map<Endpoint, Long> errors,
+                          long issued, long dropped, long elapsedNanos) {
+        this.config = config;
+        this.histograms = histograms;
+        this.errors = errors;
+        this.issued = issued;
+        this.dropped = dropped;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Print the summary table.
+     *
+     * @param out destination stream
+     */
+    public void printSummary(PrintStream out) {
+        Histogram total = totalHistogram();
+        long totalErrors = errors.values().stream().mapToLong(Long::longValue).sum();
+        double seconds = elapsedNanos / 1e9;
+
+        out.println();
+        out.println("Load test: " + config);
+        out.printf(Locale.ROOT, "Throughput: %.1f req/s completed (%d scheduled, %d dropped)%n",
+                total.getTotalCount() / seconds, issued, dropped);
+        out.printf(Locale.ROOT, "Error rate: %.3f%% (%d)%n",
+                issued > 0 ? 100.0 * totalErrors / issued : 0.0, totalErrors);
+        out.println();
+        out.printf(Locale.ROOT, "%-10s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, Histogram> entry : histograms.entrySet()) {
+            if (entry.getValue().getTotalCount() > 0 || errors.get(entry.getKey()) > 0) {
+                printRow(out, entry.getKey().getKey(), entry.getValue(), errors.get(entry.getKey()));
+            }
+        }
+        printRow(out, "all", total, totalErrors);
+    }
+
+    /**
+     * Write one {@code .hgrm} file per endpoint plus one for all requests.
+     *
+     * @param directory parent directory; a timestamped sub-directory is created for this run
+     * @return the directory the files were written to
+     * @throws IOException if the files cannot be written
+     */
+    public Path writeHistograms(String directory) throws IOException {
+        String runId = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path runDir = Paths.get(directory, runId);
+        Files.createDirectories(runDir);
+        for (Map.Entry<Endpoint, Histogram> entry : histograms.entrySet()) {
+            if (entry.getValue().getTotalCount() > 0) {
+                writeHistogram(runDir.resolve(entry.getKey().getKey() + ".hgrm"), entry.getValue());
+            }
+        }
+        writeHistogram(runDir.resolve("all.hgrm"), totalHistogram());
+        return runDir;
+    }
+
+    private Histogram totalHistogram() {
+        Histogram total = null;
+        for (Histogram histogram : histograms.values()) {
+            if (total == null) {
+                total = histogram.copy();
+            } else {
+                total.add(histogram);
+            }
+        }
+        return total;
+    }
+
+    private void printRow(PrintStream out, String name, Histogram histogram, long errorCount) {
+        out.printf(Locale.ROOT, "%-10s %9d %9d %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errorCount,
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxValue() / NANOS_PER_MILLI);
+    }
+
+    private void writeHistogram(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+}
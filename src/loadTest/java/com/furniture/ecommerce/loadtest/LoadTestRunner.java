@@ -0,0 +1,84 @@
+package com.furniture.ecommerce.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.ecommerce.ProductCatalogServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point of the load test.
+ *
+ * <p>Unless {@code loadtest.target} points at a running instance, boots the service in-process on
+ * a random port with a generated catalog of {@code loadtest.catalogSize} products, drives the
+ * configured traffic mix and prints throughput, latency percentiles and error rate.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    /**
+     * Run the load test.
+     *
+     * @param args ignored; configuration comes from {@code loadtest.*} system properties
+     * @throws Exception if the service cannot be started or reached
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext context = null;
+        String baseUrl = config.getTarget();
+        if (baseUrl.isEmpty()) {
+            context = bootService(config);
+            String port = context.getEnvironment().getProperty("local.server.port");
+            String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+            baseUrl = "http://localhost:" + port + contextPath;
+        }
+
+        try {
+            TrafficMix trafficMix = new TrafficMix(baseUrl, config, fetchFilters(baseUrl));
+            LoadTestResult result = new OpenModelLoadGenerator(config, trafficMix).run();
+            result.printSummary(System.out);
+            Path reportDir = result.writeHistograms(config.getReportDir());
+            System.out.println();
+            System.out.println("Histograms written to " + reportDir.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext bootService(LoadTestConfig config) {
+        System.out.printf("Starting service with a generated catalog of %d products%n", config.getCatalogSize());
+        return new SpringApplicationBuilder(ProductCatalogServiceApplication.class)
+                .profiles("large-catalog")
+                .properties(
+                        "server.port=0",
+                        "catalog.seed.size=" + config.getCatalogSize(),
+                        "spring.h2.console.enabled=false",
+                        "spring.jackson.serialization.indent_output=false",
+                        "logging.level.com.furniture.ecommerce=WARN")
+                .run();
+    }
+
+    private static Map<String, List<String>> fetchFilters(String baseUrl) throws IOException, InterruptedException {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/products/filters")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /products/filters returned " + response.statusCode());
+        }
+        return new ObjectMapper().readValue(response.body(), new TypeReference<Map<String, List<String>>>() {
+        });
+    }
+}
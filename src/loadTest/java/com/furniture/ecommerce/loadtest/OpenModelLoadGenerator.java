@@ -0,0 +1,140 @@
+package com.furniture.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the service at a fixed arrival rate (open model).
+ *
+ * <p>Requests are scheduled on a fixed timetable independent of response times, and latency is
+ * measured from each request's intended start time rather than from when it was actually sent.
+ * A slow server therefore shows up as queueing delay in the percentiles instead of silently
+ * lowering the offered load (coordinated omission).
+ */
+public class OpenModelLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final LoadTestConfig config;
+    private final TrafficMix trafficMix;
+    private final HttpClient client;
+    private final ExecutorService callbackExecutor;
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Create a load generator.
+     *
+     * @param config load test configuration
+     * @param trafficMix source of requests
+     */
+    public OpenModelLoadGenerator(LoadTestConfig config, TrafficMix trafficMix) {
+        this.config = config;
+        this.trafficMix = trafficMix;
+        this.callbackExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(callbackExecutor)
+                .build();
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    /**
+     * Run the warm-up phase followed by the measured phase.
+     *
+     * @return the results of the measured phase
+     * @throws InterruptedException if interrupted while waiting for outstanding requests
+     */
+    public LoadTestResult run() throws InterruptedException {
+        System.out.printf("Warm-up: %d s at %d req/s%n", config.getWarmupSeconds(), config.getRate());
+        drive(config.getWarmupSeconds());
+        awaitQuiescence();
+        resetStatistics();
+
+        System.out.printf("Measuring: %d s at %d req/s%n", config.getDurationSeconds(), config.getRate());
+        long started = System.nanoTime();
+        long issued = drive(config.getDurationSeconds());
+        awaitQuiescence();
+        long elapsedNanos = System.nanoTime() - started;
+
+        Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+        Map<Endpoint, Long> errorCounts = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            histograms.put(endpoint, recorders.get(endpoint).getIntervalHistogram());
+            errorCounts.put(endpoint, errors.get(endpoint).sum());
+        }
+        callbackExecutor.shutdown();
+        return new LoadTestResult(config, histograms, errorCounts, issued, dropped.sum(), elapsedNanos);
+    }
+
+    private long drive(int seconds) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRate();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long issued = 0;
+        for (long intendedStart = start; intendedStart < end; intendedStart += intervalNanos) {
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = trafficMix.nextEndpoint();
+            issued++;
+            if (inFlight.get() >= config.getMaxInFlight()) {
+                dropped.increment();
+                errors.get(endpoint).increment();
+                continue;
+            }
+            send(endpoint, trafficMix.buildRequest(endpoint), intendedStart);
+        }
+        return issued;
+    }
+
+    private void send(Endpoint endpoint, HttpRequest request, long intendedStart) {
+        inFlight.incrementAndGet();
+        CompletableFuture<HttpResponse<Void>> response =
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        response.whenComplete((result, failure) -> {
+            long latency = System.nanoTime() - intendedStart;
+            recorders.get(endpoint).recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+            if (failure != null || result.statusCode() >= 400) {
+                errors.get(endpoint).increment();
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private void awaitQuiescence() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void resetStatistics() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.get(endpoint).reset();
+            errors.get(endpoint).reset();
+        }
+        dropped.reset();
+    }
+}
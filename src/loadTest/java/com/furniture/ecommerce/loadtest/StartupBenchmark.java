@@ -0,0 +1,151 @@
+package com.furniture.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time-to-ready of the service in its startup modes.
+ *
+ * <p>Each run starts a fresh JVM on the application classpath and measures the wall-clock time
+ * until {@code /actuator/health/readiness} answers 200, i.e. until seeding, the index build and
+ * cache warm-up have finished and the instance would be put into rotation. Modes are the default
+ * configuration, the {@code faststart} profile, and the profile with the AppCDS archive and Spring
+ * AOT output when those have been built. Settings come from {@code startup.*} system properties,
+ * which the {@code startupBenchmark} Gradle task fills in.
+ */
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.furniture.ecommerce.ProductCatalogServiceApplication";
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(3);
+    private static final long POLL_INTERVAL_MILLIS = 10;
+
+    private StartupBenchmark() {
+    }
+
+    /**
+     * Run the startup benchmark.
+     *
+     * @param args ignored; configuration comes from {@code startup.*} system properties
+     * @throws Exception if an instance cannot be started or does not become ready
+     */
+    public static void main(String[] args) throws Exception {
+        String classpath = System.getProperty("startup.classpath");
+        if (classpath == null || classpath.isEmpty()) {
+            throw new IllegalArgumentException("startup.classpath is required; run ./gradlew startupBenchmark");
+        }
+        int runs = Integer.getInteger("startup.runs", 5);
+        Path cdsArchive = Paths.get(System.getProperty("startup.cdsArchive", "build/faststart/app.jsa"));
+        boolean aot = Boolean.getBoolean("startup.aot");
+        Path logDir = Files.createDirectories(Paths.get(System.getProperty("startup.logDir", "build/reports/startup")));
+
+        List<Mode> modes = new ArrayList<>();
+        modes.add(new Mode("default", List.of(), List.of()));
+        List<String> fastStartArgs = List.of("--spring.profiles.active=faststart");
+        modes.add(new Mode("faststart", List.of(), fastStartArgs));
+        if (Files.exists(cdsArchive)) {
+            modes.add(new Mode("faststart+cds", List.of("-XX:SharedArchiveFile=" + cdsArchive), fastStartArgs));
+        }
+        if (aot) {
+            List<String> aotJvmArgs = new ArrayList<>(List.of("-Dspring.aot.enabled=true"));
+            if (Files.exists(cdsArchive)) {
+                aotJvmArgs.add("-XX:SharedArchiveFile=" + cdsArchive);
+            }
+            modes.add(new Mode(Files.exists(cdsArchive) ? "faststart+cds+aot" : "faststart+aot",
+                    aotJvmArgs, fastStartArgs));
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        System.out.printf("%-20s %6s %10s %10s %10s%n", "Mode", "Runs", "Min ms", "Median ms", "Max ms");
+        for (Mode mode : modes) {
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                Path log = logDir.resolve(mode.name.replace('+', '-') + "-" + (run + 1) + ".log");
+                millis[run] = timeToReady(client, classpath, mode, log);
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-20s %6d %10d %10d %10d%n",
+                    mode.name, runs, millis[0], millis[runs / 2], millis[runs - 1]);
+        }
+        System.out.println();
+        System.out.println("Instance logs written to " + logDir.toAbsolutePath());
+    }
+
+    private static long timeToReady(HttpClient client, String classpath, Mode mode, Path log)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(mode.jvmArgs);
+        command.addAll(List.of("-cp", classpath, MAIN_CLASS, "--server.port=" + port));
+        command.addAll(mode.appArgs);
+        HttpRequest readiness = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(1))
+                .GET()
+                .build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = started + READY_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Instance exited with " + process.exitValue() + ", see " + log);
+                }
+                if (isReady(client, readiness)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                }
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+            throw new IllegalStateException("Instance not ready within " + READY_TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static boolean isReady(HttpClient client, HttpRequest readiness) throws InterruptedException {
+        try {
+            return client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            // Not listening yet
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static final class Mode {
+
+        private final String name;
+        private final List<String> jvmArgs;
+        private final List<String> appArgs;
+
+        Mode(String name, List<String> jvmArgs, List<String> appArgs) {
+            this.name = name;
+            this.jvmArgs = jvmArgs;
+            this.appArgs = appArgs;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.furniture.ecommerce.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Produces the request stream: picks an endpoint according to the configured weights and builds
+ * a realistic request for it.
+ *
+ * <p>Product ids are skewed towards a hot head ({@code id = 1 + n * u^skew}) so that caches see
+ * production-like reuse. Search criteria are drawn from the filter values the service reports.
+ */
+public class TrafficMix {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int[] PRICE_STEPS = {100, 250, 500, 1000, 2000, 5000};
+
+    private final String baseUrl;
+    private final long maxProductId;
+    private final double idSkew;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final List<String> categories;
+    private final List<String> materials;
+    private final List<String> colors;
+    private final SplittableRandom random;
+
+    /**
+     * Create a traffic mix.
+     *
+     * @param baseUrl service base URL including the context path
+     * @param config load test configuration
+     * @param filters filter values as returned by {@code GET /products/filters}
+     */
+    public TrafficMix(String baseUrl, LoadTestConfig config, Map<String, List<String>> filters) {
+        this.baseUrl = baseUrl;
+        this.maxProductId = config.getCatalogSize();
+        this.idSkew = config.getIdSkew();
+        this.random = new SplittableRandom(config.getSeed());
+        this.categories = nonEmpty(filters.get("categories"));
+        this.materials = nonEmpty(filters.get("materials"));
+        this.colors = nonEmpty(filters.get("colors"));
+
+        List<Endpoint> selected = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Endpoint, Integer> entry : config.getMix().entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                selected.add(entry.getKey());
+                cumulative.add(total);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no endpoint with a positive weight");
+        }
+        this.endpoints = selected.toArray(new Endpoint[0]);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Pick the next endpoint. Not thread-safe; called from the single arrival thread.
+     *
+     * @return the endpoint to call
+     */
+    public Endpoint nextEndpoint() {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    /**
+     * Build a request for the given endpoint.
+     *
+     * @param endpoint the endpoint to call
+     * @return the HTTP request
+     */
+    public HttpRequest buildRequest(Endpoint endpoint) {
+        switch (endpoint) {
+            case GET_BY_ID:
+                return get("/products/" + nextProductId());
+            case SEARCH:
+                return get("/products/search?" + searchQuery());
+            case FILTERS:
+                return get("/products/filters");
+            case UPDATE_STOCK:
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/products/" + nextProductId()
+                                + "/stock?quantity=" + random.nextInt(60)))
+                        .timeout(REQUEST_TIMEOUT)
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unsupported endpoint: " + endpoint);
+        }
+    }
+
+    private long nextProductId() {
+        return 1 + (long) (maxProductId * Math.pow(random.nextDouble(), idSkew));
+    }
+
+    private String searchQuery() {
+        StringBuilder query = new StringBuilder();
+        if (!categories.isEmpty() && random.nextInt(10) < 8) {
+            append(query, "category", pick(categories));
+        }
+        if (!materials.isEmpty() && random.nextInt(10) < 3) {
+            append(query, "material", pick(materials));
+        }
+        if (!colors.isEmpty() && random.nextInt(10) < 3) {
+            append(query, "color", pick(colors));
+        }
+        if (random.nextInt(10) < 5) {
+            int low = random.nextInt(PRICE_STEPS.length - 1);
+            append(query, "minPrice", Integer.toString(PRICE_STEPS[low]));
+            int high = low + 1 + random.nextInt(PRICE_STEPS.length - low - 1);
+            append(query, "maxPrice", Integer.toString(PRICE_STEPS[high]));
+        }
+        if (random.nextBoolean()) {
+            append(query, "inStock", "true");
+        }
+        return query.toString();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private String pick(List<String> values) {
+        // Squaring the uniform draw favours the head of the (alphabetical) list a little
+        double u = random.nextDouble();
+        return values.get((int) (values.size() * u * u));
+    }
+
+    private static void append(StringBuilder query, String name, String value) {
+        if (query.length() > 0) {
+            query.append('&');
+        }
+        query.append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    }
+
+    private static List<String> nonEmpty(List<String> values) {
+        return values != null ? values : new ArrayList<>();
+    }
+}
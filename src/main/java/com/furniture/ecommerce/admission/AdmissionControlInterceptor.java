@@ -0,0 +1,182 @@
+package com.furniture.ecommerce.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Admission control in front of the product endpoints.
+ *
+ * <p>Each request is first checked against its client's token bucket (clients are identified by
+ * a configurable header; requests without it are not rate limited) and rejected with
+ * {@code 429 Too Many Requests} when the bucket is empty. It then has to enter the bulkhead of its
+ * {@link RequestClass}. Scans, point reads and writes have separate concurrency limits, so a burst
+ * of expensive searches can no longer occupy every pooled connection while cheap lookups wait.
+ * When a bulkhead and its queue are full the request is rejected with
+ * {@code 503 Service Unavailable}. Both rejections carry a {@code Retry-After} header.
+ */
+@Component
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".PERMIT";
+    private static final Pattern POINT_READ_PATH =
+            Pattern.compile("^/products/(\\d+|\\d+/availability|\\d+/reservations/[0-9a-f-]+|\\d+/similar"
+                    + "|filters|check-name|suggest|suggest/stats|events|import/[0-9a-f-]+)/?$");
+
+    private final Map<RequestClass, Bulkhead> bulkheads = new EnumMap<>(RequestClass.class);
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final ObjectMapper objectMapper;
+    private final Counter rateLimited;
+    private final boolean enabled;
+    private final boolean rateLimitEnabled;
+    private final String clientHeader;
+    private final double requestsPerSecond;
+    private final double burst;
+    private final long bulkheadRetryAfterSeconds;
+
+    /**
+     * Constructor for AdmissionControlInterceptor.
+     *
+     * @param environment source of the {@code catalog.admission.*} settings
+     * @param meterRegistry registry for admission metrics
+     * @param objectMapper writes rejection bodies
+     */
+    public AdmissionControlInterceptor(Environment environment, MeterRegistry meterRegistry,
+                                       ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.enabled = environment.getProperty("catalog.admission.enabled", Boolean.class, true);
+        this.rateLimitEnabled = environment.getProperty("catalog.admission.rate-limit.enabled", Boolean.class, true);
+        this.clientHeader = environment.getProperty("catalog.admission.rate-limit.client-header", "X-Client-Id");
+        this.requestsPerSecond = environment.getProperty(
+                "catalog.admission.rate-limit.requests-per-second", Double.class, 50.0);
+        this.burst = environment.getProperty("catalog.admission.rate-limit.burst", Double.class, 100.0);
+        this.bulkheadRetryAfterSeconds = environment.getProperty(
+                "catalog.admission.retry-after-seconds", Long.class, 1L);
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.rateLimited = Counter.builder("catalog.admission.rate.limited")
+                .description("Requests rejected by per-client rate limiting")
+                .register(meterRegistry);
+
+        // Defaults leave at least one of the five pooled connections free of scans and writes
+        bulkheads.put(RequestClass.POINT_READ,
+                bulkhead(environment, meterRegistry, RequestClass.POINT_READ, 16, 200, 250));
+        bulkheads.put(RequestClass.SCAN, bulkhead(environment, meterRegistry, RequestClass.SCAN, 2, 20, 1000));
+        bulkheads.put(RequestClass.WRITE, bulkhead(environment, meterRegistry, RequestClass.WRITE, 2, 50, 2000));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!enabled || request.getDispatcherType() != DispatcherType.REQUEST) {
+            // Async re-dispatches were admitted by the original request
+            return true;
+        }
+
+        if (rateLimitEnabled) {
+            String clientId = request.getHeader(clientHeader);
+            if (clientId != null && !clientId.isBlank()) {
+                long now = System.nanoTime();
+                long waitNanos = clientBuckets.get(clientId, key -> new TokenBucket(burst, requestsPerSecond, now))
+                        .tryConsume(now);
+                if (waitNanos > 0) {
+                    rateLimited.increment();
+                    long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999);
+                    reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+                            "Rate limit exceeded for client " + clientId);
+                    return false;
+                }
+            }
+        }
+
+        Bulkhead bulkhead = bulkheads.get(classify(request.getMethod(), pathWithinApplication(request)));
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, bulkheadRetryAfterSeconds,
+                    "Too many concurrent " + bulkhead.getName() + " requests, please retry");
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Long-lived async responses (streams) must not hold a permit for their whole lifetime
+        releasePermit(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        releasePermit(request);
+    }
+
+    static RequestClass classify(String method, String path) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return RequestClass.WRITE;
+        }
+        return POINT_READ_PATH.matcher(path).matches() ? RequestClass.POINT_READ : RequestClass.SCAN;
+    }
+
+    private void releasePermit(HttpServletRequest request) {
+        Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit instanceof Bulkhead) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            ((Bulkhead) permit).release();
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        Map<String, String> error = new LinkedHashMap<>();
+        error.put("error", status.getReasonPhrase());
+        error.put("message", message);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static Bulkhead bulkhead(Environment environment, MeterRegistry meterRegistry, RequestClass requestClass,
+                                     int defaultConcurrent, int defaultQueued, long defaultWaitMillis) {
+        String prefix = "catalog.admission." + requestClass.getKey() + ".";
+        return new Bulkhead(requestClass.getKey(),
+                environment.getProperty(prefix + "max-concurrent", Integer.class, defaultConcurrent),
+                environment.getProperty(prefix + "max-queued", Integer.class, defaultQueued),
+                environment.getProperty(prefix + "max-wait-ms", Long.class, defaultWaitMillis),
+                meterRegistry);
+    }
+}
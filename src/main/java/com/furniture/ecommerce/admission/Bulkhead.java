@@ -0,0 +1,123 @@
+package com.furniture.ecommerce.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit with a bounded wait queue for one class of requests.
+ *
+ * <p>At most {@code maxConcurrent} requests run at once. Up to {@code maxQueued} further requests
+ * may wait, each for at most {@code maxWaitMillis}; anything beyond that is rejected immediately so
+ * that callers fail fast instead of piling up on the connection pool.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    /**
+     * Create a bulkhead.
+     *
+     * @param name bulkhead name, used as metric tag
+     * @param maxConcurrent maximum requests executing at once
+     * @param maxQueued maximum requests waiting for a permit
+     * @param maxWaitMillis maximum time a request waits for a permit
+     * @param meterRegistry registry for queue depth and rejection metrics
+     */
+    public Bulkhead(String name, int maxConcurrent, int maxQueued, long maxWaitMillis, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        Gauge.builder("catalog.admission.queue.depth", queued, AtomicInteger::get)
+                .description("Requests waiting for a bulkhead permit")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("catalog.admission.active", this, Bulkhead::getActive)
+                .description("Requests holding a bulkhead permit")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.queueFullRejections = rejectionCounter(meterRegistry, "queue_full");
+        this.timeoutRejections = rejectionCounter(meterRegistry, "timeout");
+    }
+
+    /**
+     * Try to enter the bulkhead, waiting in the queue if there is room.
+     *
+     * @return true if a permit was acquired; the caller must then call {@link #release()}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            queueFullRejections.increment();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            timeoutRejections.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Leave the bulkhead.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Get the bulkhead name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of requests currently holding a permit.
+     *
+     * @return active requests
+     */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * Get the number of requests currently waiting for a permit.
+     *
+     * @return queued requests
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    private Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("catalog.admission.rejected")
+                .description("Requests rejected by a bulkhead")
+                .tag("bulkhead", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
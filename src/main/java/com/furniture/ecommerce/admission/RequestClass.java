@@ -0,0 +1,31 @@
+package com.furniture.ecommerce.admission;
+
+/**
+ * Request classes that get their own bulkhead.
+ */
+public enum RequestClass {
+
+    /** Single-product lookups and other cheap, mostly cached reads. */
+    POINT_READ("point-read"),
+
+    /** List and search endpoints that may scan large parts of the catalog. */
+    SCAN("scan"),
+
+    /** Creates, updates, deletes and stock changes. */
+    WRITE("write");
+
+    private final String key;
+
+    RequestClass(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Get the key used in configuration properties and metric tags.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+}
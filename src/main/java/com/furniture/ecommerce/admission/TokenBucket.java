@@ -0,0 +1,45 @@
+package com.furniture.ecommerce.admission;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens, refilled continuously at
+ * {@code tokensPerSecond}. Each admitted request takes one token.
+ */
+public class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * Create a full bucket.
+     *
+     * @param capacity maximum burst size
+     * @param tokensPerSecond sustained request rate
+     * @param nowNanos current {@link System#nanoTime()}
+     */
+    public TokenBucket(double capacity, double tokensPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Take one token if available.
+     *
+     * @param nowNanos current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public synchronized long tryConsume(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = nowNanos;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
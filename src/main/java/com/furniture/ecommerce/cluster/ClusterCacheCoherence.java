@@ -0,0 +1,266 @@
+package com.furniture.ecommerce.cluster;
+
+import com.furniture.ecommerce.config.CacheConfig;
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.event.StockFlushedEvent;
+import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.repository.ProductBulkLoader;
+import com.furniture.ecommerce.repository.ProductRepository;
+import com.furniture.ecommerce.repository.ProductSecondLevelCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps this instance's product caches coherent with the other instances of a cluster.
+ *
+ * <p>Every committed change, and every write-behind stock flush, is broadcast as (product id,
+ * version). A receiving instance evicts the product from the second-level cache and the Spring
+ * caches, re-reads it and republishes the change locally as a {@link ProductChangedEvent#remote
+ * remote} event, so the in-memory indexes, the search result cache, the encoded JSON cache and the
+ * event stream catch up as they do for local changes.
+ *
+ * <p>Messages may arrive late, twice or out of order. A fence remembers the highest version seen
+ * per product, and messages at or below it are dropped, so a reordered older message can never
+ * bring back a version that has already been replaced. Because the receiver re-reads the product
+ * instead of trusting the message, a lost message only delays coherence until the product's next
+ * change.
+ */
+public class ClusterCacheCoherence {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterCacheCoherence.class);
+
+    private final InvalidationBus bus;
+    private final ProductRepository productRepository;
+    private final ProductSecondLevelCache secondLevelCache;
+    private final CacheManager cacheManager;
+    private final ProductBulkLoader productBulkLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long retryDelayMillis;
+    private final int maxAttempts;
+    private final Cache<Long, Long> fence;
+    private final ScheduledExecutorService worker;
+    private final Counter sent;
+    private final Counter received;
+    private final Counter stale;
+
+    /**
+     * Constructor for ClusterCacheCoherence.
+     *
+     * @param bus transport to the other instances
+     * @param productRepository re-reads invalidated products
+     * @param secondLevelCache the Hibernate second-level cache to evict from
+     * @param cacheManager the Spring caches to evict from
+     * @param productBulkLoader looks up the versions written by stock flushes
+     * @param eventPublisher republishes remote changes locally
+     * @param meterRegistry registry for the message counters
+     * @param retryDelayMillis delay before re-reading a product that is still older than its message
+     * @param maxAttempts reads of such a product before giving up
+     * @param fenceSize products whose latest version is remembered
+     * @param fenceTtl how long a remembered version is kept
+     */
+    public ClusterCacheCoherence(InvalidationBus bus,
+                                 ProductRepository productRepository,
+                                 ProductSecondLevelCache secondLevelCache,
+                                 CacheManager cacheManager,
+                                 ProductBulkLoader productBulkLoader,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry,
+                                 long retryDelayMillis,
+                                 int maxAttempts,
+                                 long fenceSize,
+                                 Duration fenceTtl) {
+        this.bus = bus;
+        this.productRepository = productRepository;
+        this.secondLevelCache = secondLevelCache;
+        this.cacheManager = cacheManager;
+        this.productBulkLoader = productBulkLoader;
+        this.eventPublisher = eventPublisher;
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxAttempts = maxAttempts;
+        this.fence = Caffeine.newBuilder()
+                .maximumSize(fenceSize)
+                .expireAfterWrite(fenceTtl)
+                .build();
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sent = Counter.builder("catalog.cluster.invalidations.sent")
+                .description("Invalidation messages sent to other instances")
+                .register(meterRegistry);
+        this.received = Counter.builder("catalog.cluster.invalidations.received")
+                .description("Invalidation messages received from other instances")
+                .register(meterRegistry);
+        this.stale = Counter.builder("catalog.cluster.invalidations.stale")
+                .description("Received invalidations ignored because a newer version was already seen")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start receiving once the application is ready to serve.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        bus.start(this::onMessage);
+    }
+
+    /**
+     * Broadcast a committed local change.
+     *
+     * @param event the committed change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        Long version = event.isDeleted() ? Long.valueOf(InvalidationMessage.DELETED) : event.getProduct().getVersion();
+        if (version == null) {
+            return;
+        }
+        advance(event.getProductId(), version);
+        publish(List.of(new InvalidationMessage(event.getProductId(), version)));
+    }
+
+    /**
+     * Broadcast the stock levels written by a write-behind flush, off the flushing thread.
+     *
+     * @param event the completed flush
+     */
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent event) {
+        submit(() -> {
+            Map<Long, Long> versions;
+            try {
+                versions = productBulkLoader.findVersions(event.getProductIds());
+            } catch (DataAccessException e) {
+                logger.warn("Cannot broadcast {} flushed stock levels: {}", event.getProductIds().size(),
+                        e.getMessage());
+                return;
+            }
+            List<InvalidationMessage> messages = new ArrayList<>(versions.size());
+            versions.forEach((id, version) -> {
+                advance(id, version);
+                messages.add(new InvalidationMessage(id, version));
+            });
+            publish(messages);
+        }, 0);
+    }
+
+    /**
+     * Stop receiving and drop queued work.
+     */
+    @PreDestroy
+    public void stop() {
+        bus.close();
+        worker.shutdownNow();
+    }
+
+    void onMessage(InvalidationMessage message) {
+        received.increment();
+        if (!advance(message.getProductId(), message.getVersion())) {
+            stale.increment();
+            return;
+        }
+        submit(() -> apply(message, 1), 0);
+    }
+
+    void apply(InvalidationMessage message, int attempt) {
+        Long id = message.getProductId();
+        evictLocally(id);
+        Optional<Product> product;
+        try {
+            product = message.isDeletion() ? Optional.empty() : productRepository.findById(id);
+        } catch (DataAccessException e) {
+            logger.warn("Cannot re-read product {} after a remote change: {}", id, e.getMessage());
+            return;
+        }
+        if (product.isPresent() && isOlder(product.get(), message)) {
+            // A lagging replica or an in-flight commit; try again unless a newer message took over
+            if (attempt < maxAttempts && isLatest(message)) {
+                submit(() -> apply(message, attempt + 1), retryDelayMillis);
+            }
+            return;
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.remote(id,
+                product.map(ProductSnapshot::of).orElse(null)));
+        // Catch a local read that loaded the old row before the eviction and cached it afterwards
+        submit(() -> evictLocally(id), retryDelayMillis);
+    }
+
+    private void publish(List<InvalidationMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        bus.publish(messages);
+        sent.increment(messages.size());
+    }
+
+    private boolean advance(long id, long version) {
+        AtomicBoolean advanced = new AtomicBoolean();
+        fence.asMap().compute(id, (key, seen) -> {
+            if (seen != null && seen >= version) {
+                return seen;
+            }
+            advanced.set(true);
+            return version;
+        });
+        return advanced.get();
+    }
+
+    private boolean isLatest(InvalidationMessage message) {
+        Long seen = fence.getIfPresent(message.getProductId());
+        return seen == null || seen <= message.getVersion();
+    }
+
+    private static boolean isOlder(Product product, InvalidationMessage message) {
+        return product.getVersion() != null && product.getVersion() < message.getVersion();
+    }
+
+    private void evictLocally(Long id) {
+        secondLevelCache.evict(Set.of(id));
+        org.springframework.cache.Cache products = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        if (products != null) {
+            products.evict(id);
+        }
+        org.springframework.cache.Cache filters = cacheManager.getCache(CacheConfig.PRODUCT_FILTERS_CACHE);
+        if (filters != null) {
+            filters.clear();
+        }
+    }
+
+    private void submit(Runnable task, long delayMillis) {
+        try {
+            worker.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            logger.debug("Dropping cache invalidation work during shutdown");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.furniture.ecommerce.cluster;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidation messages between the instances of a cluster.
+ *
+ * <p>Delivery is best effort: messages may be lost, duplicated or reordered, and receivers must
+ * cope with all three. An instance never receives its own messages. Register a bean of this type
+ * to replace the default UDP transport.
+ */
+public interface InvalidationBus extends AutoCloseable {
+
+    /**
+     * Start receiving.
+     *
+     * @param listener called for every message from another instance, on a receiver thread
+     */
+    void start(Consumer<InvalidationMessage> listener);
+
+    /**
+     * Send messages to every other instance without waiting for delivery.
+     *
+     * @param messages the messages; empty lists are ignored
+     */
+    void publish(List<InvalidationMessage> messages);
+
+    /**
+     * Stop receiving and release the transport.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,65 @@
+package com.furniture.ecommerce.cluster;
+
+/**
+ * A product changed on some instance: every cache holding a version of it older than
+ * {@link #getVersion()} is stale.
+ */
+public final class InvalidationMessage {
+
+    /** Version carried by deletions; newer than any stored version. */
+    public static final long DELETED = Long.MAX_VALUE;
+
+    private final long productId;
+    private final long version;
+
+    /**
+     * Create a message.
+     *
+     * @param productId the changed product
+     * @param version the product's version after the change, or {@link #DELETED}
+     */
+    public InvalidationMessage(long productId, long version) {
+        this.productId = productId;
+        this.version = version;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Whether the product was deleted.
+     *
+     * @return true for deletions
+     */
+    public boolean isDeletion() {
+        return version == DELETED;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InvalidationMessage)) {
+            return false;
+        }
+        InvalidationMessage other = (InvalidationMessage) o;
+        return productId == other.productId && version == other.version;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(productId) * 31 + Long.hashCode(version);
+    }
+
+    @Override
+    public String toString() {
+        return "InvalidationMessage{productId=" + productId + ", version="
+                + (isDeletion() ? "deleted" : String.valueOf(version)) + "}";
+    }
+}
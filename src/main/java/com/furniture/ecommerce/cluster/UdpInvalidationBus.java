@@ -0,0 +1,170 @@
+package com.furniture.ecommerce.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * {@link InvalidationBus} over UDP datagrams, either to a multicast group or to a fixed list of
+ * peers.
+ *
+ * <p>Multicast on the loopback interface lets several instances on one machine share a port and
+ * hear each other without any configuration; unicast peers work where multicast is not routed.
+ * Each datagram carries the sender's node id and up to {@value #MAX_ENTRIES_PER_DATAGRAM}
+ * messages of 16 bytes each, so a batch of invalidations stays within one unfragmented packet.
+ */
+public class UdpInvalidationBus implements InvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(UdpInvalidationBus.class);
+
+    private static final byte MAGIC = 'I';
+    private static final byte FORMAT = 1;
+    // Magic, format, node id, entry count
+    private static final int HEADER_BYTES = 1 + 1 + Long.BYTES + Short.BYTES;
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+    private static final int MAX_ENTRIES_PER_DATAGRAM = 64;
+    private static final int MAX_DATAGRAM_BYTES = HEADER_BYTES + MAX_ENTRIES_PER_DATAGRAM * ENTRY_BYTES;
+
+    private final long nodeId = UUID.randomUUID().getMostSignificantBits();
+    private final DatagramSocket socket;
+    private final List<SocketAddress> targets;
+    private volatile boolean closed;
+
+    private UdpInvalidationBus(DatagramSocket socket, List<SocketAddress> targets) {
+        this.socket = socket;
+        this.targets = List.copyOf(targets);
+    }
+
+    /**
+     * Join a multicast group. Every instance uses the same group and port.
+     *
+     * @param group the multicast group address
+     * @param port the shared port
+     * @param networkInterface the interface to send and receive on, e.g. loopback for one machine
+     * @param timeToLive hops a datagram may travel; 0 keeps it on this host
+     * @return the bus
+     * @throws IOException if the socket cannot be opened or the group joined
+     */
+    public static UdpInvalidationBus multicast(InetAddress group, int port, NetworkInterface networkInterface,
+                                               int timeToLive) throws IOException {
+        // Binding a MulticastSocket enables SO_REUSEADDR, so instances on one host share the port
+        MulticastSocket socket = new MulticastSocket(port);
+        try {
+            socket.setNetworkInterface(networkInterface);
+            socket.setTimeToLive(timeToLive);
+            socket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+            socket.joinGroup(new InetSocketAddress(group, port), networkInterface);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        return new UdpInvalidationBus(socket, List.of(new InetSocketAddress(group, port)));
+    }
+
+    /**
+     * Listen on a port of its own and send to a fixed list of peers.
+     *
+     * @param bindAddress local address and port to receive on; port 0 picks a free one
+     * @param peers the other instances' addresses
+     * @return the bus
+     * @throws IOException if the socket cannot be bound
+     */
+    public static UdpInvalidationBus unicast(InetSocketAddress bindAddress, List<InetSocketAddress> peers)
+            throws IOException {
+        return new UdpInvalidationBus(new DatagramSocket(bindAddress), new ArrayList<>(peers));
+    }
+
+    @Override
+    public void start(Consumer<InvalidationMessage> listener) {
+        Thread receiver = new Thread(() -> receive(listener), "cache-invalidation-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void publish(List<InvalidationMessage> messages) {
+        for (int from = 0; from < messages.size(); from += MAX_ENTRIES_PER_DATAGRAM) {
+            byte[] datagram = encode(nodeId, messages.subList(from,
+                    Math.min(from + MAX_ENTRIES_PER_DATAGRAM, messages.size())));
+            for (SocketAddress target : targets) {
+                try {
+                    socket.send(new DatagramPacket(datagram, datagram.length, target));
+                } catch (IOException e) {
+                    // Best effort: receivers recover from lost messages when the product next changes
+                    logger.warn("Failed to send cache invalidations to {}: {}", target, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the local port messages are received on.
+     *
+     * @return the bound port
+     */
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        socket.close();
+    }
+
+    private void receive(Consumer<InvalidationMessage> listener) {
+        byte[] buffer = new byte[MAX_DATAGRAM_BYTES];
+        while (!closed) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (SocketException e) {
+                // Closed
+                break;
+            } catch (IOException e) {
+                logger.warn("Failed to receive cache invalidations: {}", e.getMessage());
+                continue;
+            }
+            ByteBuffer datagram = ByteBuffer.wrap(packet.getData(), packet.getOffset(), packet.getLength());
+            try {
+                if (datagram.get() != MAGIC || datagram.get() != FORMAT) {
+                    continue;
+                }
+                if (datagram.getLong() == nodeId) {
+                    continue;
+                }
+                int count = datagram.getShort();
+                for (int i = 0; i < count; i++) {
+                    listener.accept(new InvalidationMessage(datagram.getLong(), datagram.getLong()));
+                }
+            } catch (BufferUnderflowException e) {
+                logger.debug("Ignoring truncated invalidation datagram from {}", packet.getSocketAddress());
+            }
+        }
+    }
+
+    static byte[] encode(long nodeId, List<InvalidationMessage> messages) {
+        ByteBuffer datagram = ByteBuffer.allocate(HEADER_BYTES + messages.size() * ENTRY_BYTES);
+        datagram.put(MAGIC).put(FORMAT).putLong(nodeId).putShort((short) messages.size());
+        for (InvalidationMessage message : messages) {
+            datagram.putLong(message.getProductId()).putLong(message.getVersion());
+        }
+        return datagram.array();
+    }
+}
@@ -0,0 +1,41 @@
+package com.furniture.ecommerce.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Cache of product responses keyed by product id. */
+    public static final String PRODUCTS_CACHE = "products";
+
+    /** Cache of the available filter values (categories, materials, colors). */
+    public static final String PRODUCT_FILTERS_CACHE = "productFilters";
+
+    @Bean
+    public CacheManager cacheManager(VersionedProductCache productsCache,
+                                     @Value("${spring.cache.caffeine.spec:}") String specification) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache createCaffeineCache(String name) {
+                // Products need the version checks of their own cache implementation
+                return PRODUCTS_CACHE.equals(name) ? productsCache : super.createCaffeineCache(name);
+            }
+        };
+        if (!specification.isEmpty()) {
+            cacheManager.setCacheSpecification(specification);
+        }
+        cacheManager.setCacheNames(List.of(PRODUCTS_CACHE, PRODUCT_FILTERS_CACHE));
+        // Defer puts and evictions until commit so a rolled-back write never reaches the cache
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,121 @@
+package com.furniture.ecommerce.config;
+
+import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.repository.ProductRepository;
+import com.furniture.ecommerce.service.ProductService;
+import com.furniture.ecommerce.service.ProductViewTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Preloads the hot working set into the caches before the application reports ready.
+ *
+ * <p>Runs after {@link DataInitializer}. The hot set is the most viewed products recorded by the
+ * previous run (see {@link ProductViewTracker}), topped up with the most recently updated products,
+ * plus the filter facets. Because application runners complete before {@link ApplicationReadyEvent}
+ * is published, readiness is only reported once the caches are warm.
+ */
+@Configuration
+@Order(CacheWarmupRunner.ORDER)
+public class CacheWarmupRunner implements ApplicationRunner {
+
+    /** Runner order; after data initialization. */
+    public static final int ORDER = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupRunner.class);
+
+    private final ProductService productService;
+    private final ProductRepository productRepository;
+    private final ProductViewTracker productViewTracker;
+
+    @Value("${catalog.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${catalog.warmup.hot-products:200}")
+    private int hotProducts;
+
+    private long warmupMillis = -1;
+
+    public CacheWarmupRunner(ProductService productService,
+                             ProductRepository productRepository,
+                             ProductViewTracker productViewTracker) {
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.productViewTracker = productViewTracker;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+
+        productService.getProductFilters();
+
+        Set<Long> hotIds = new LinkedHashSet<>(productViewTracker.loadPersistedHotSet());
+        if (hotIds.size() < hotProducts) {
+            PageRequest recent = PageRequest.of(0, hotProducts - hotIds.size(),
+                    Sort.by(Sort.Direction.DESC, "updatedAt"));
+            for (Product product : productRepository.findAll(recent)) {
+                hotIds.add(product.getId());
+            }
+        }
+
+        int warmed = 0;
+        long firstColdNanos = -1;
+        Long probeId = null;
+        for (Long id : hotIds) {
+            long callStarted = System.nanoTime();
+            try {
+                productService.getProductById(id);
+            } catch (NoSuchElementException e) {
+                // Product deleted since the hot set was recorded
+                continue;
+            }
+            if (probeId == null) {
+                probeId = id;
+                firstColdNanos = System.nanoTime() - callStarted;
+            }
+            warmed++;
+        }
+
+        warmupMillis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Cache warm-up loaded {} hot products and filter facets in {} ms", warmed, warmupMillis);
+
+        if (probeId != null) {
+            long probeStarted = System.nanoTime();
+            productService.getProductById(probeId);
+            long warmNanos = System.nanoTime() - probeStarted;
+            logger.info("Hot product read latency: {} us cold, {} us warm",
+                    firstColdNanos / 1_000, warmNanos / 1_000);
+        }
+    }
+
+    /**
+     * Log time-to-ready, i.e. the earliest point at which hot reads are served from cache.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void logTimeToReady() {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (warmupMillis >= 0) {
+            logger.info("Ready with warm caches {} ms after JVM start (warm-up took {} ms)", uptime, warmupMillis);
+        } else {
+            logger.info("Ready {} ms after JVM start (cache warm-up disabled)", uptime);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.furniture.ecommerce.config;
+
+import com.furniture.ecommerce.cluster.ClusterCacheCoherence;
+import com.furniture.ecommerce.cluster.InvalidationBus;
+import com.furniture.ecommerce.cluster.UdpInvalidationBus;
+import com.furniture.ecommerce.repository.ProductBulkLoader;
+import com.furniture.ecommerce.repository.ProductRepository;
+import com.furniture.ecommerce.repository.ProductSecondLevelCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cluster mode. Enabled with {@code catalog.cluster.enabled=true} (see the {@code cluster}
+ * profile): instances sharing one database broadcast their product changes, so each can keep its
+ * caches and indexes coherent with writes made elsewhere.
+ *
+ * <p>Without {@code catalog.cluster.peers} the instances find each other through a multicast group,
+ * on the loopback interface unless {@code catalog.cluster.interface} names another one. Declare an
+ * {@link InvalidationBus} bean to use a different transport.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.cluster.enabled", havingValue = "true")
+public class ClusterConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public InvalidationBus invalidationBus(
+            @Value("${catalog.cluster.port:45678}") int port,
+            @Value("${catalog.cluster.peers:}") List<String> peers,
+            @Value("${catalog.cluster.multicast-group:239.255.77.77}") String multicastGroup,
+            @Value("${catalog.cluster.interface:}") String interfaceName,
+            @Value("${catalog.cluster.multicast-ttl:0}") int timeToLive) throws IOException {
+        if (!peers.isEmpty()) {
+            List<InetSocketAddress> peerAddresses = new ArrayList<>(peers.size());
+            for (String peer : peers) {
+                peerAddresses.add(parseAddress(peer.trim(), port));
+            }
+            return UdpInvalidationBus.unicast(new InetSocketAddress(port), peerAddresses);
+        }
+        NetworkInterface networkInterface = interfaceName.isBlank()
+                ? NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress())
+                : NetworkInterface.getByName(interfaceName.trim());
+        if (networkInterface == null) {
+            throw new IllegalStateException("Unknown network interface for catalog.cluster.interface: "
+                    + (interfaceName.isBlank() ? "loopback" : interfaceName));
+        }
+        return UdpInvalidationBus.multicast(InetAddress.getByName(multicastGroup), port, networkInterface,
+                timeToLive);
+    }
+
+    @Bean
+    public ClusterCacheCoherence clusterCacheCoherence(
+            InvalidationBus invalidationBus,
+            ProductRepository productRepository,
+            ProductSecondLevelCache secondLevelCache,
+            CacheManager cacheManager,
+            ProductBulkLoader productBulkLoader,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.cluster.retry-delay-ms:100}") long retryDelayMillis,
+            @Value("${catalog.cluster.max-attempts:5}") int maxAttempts,
+            @Value("${catalog.cluster.fence-size:100000}") long fenceSize,
+            @Value("${catalog.cluster.fence-ttl:10m}") Duration fenceTtl) {
+        return new ClusterCacheCoherence(invalidationBus, productRepository, secondLevelCache, cacheManager,
+                productBulkLoader, eventPublisher, meterRegistry, retryDelayMillis, maxAttempts, fenceSize,
+                fenceTtl);
+    }
+
+    private static InetSocketAddress parseAddress(String peer, int defaultPort) {
+        int colon = peer.lastIndexOf(':');
+        if (colon < 0) {
+            return new InetSocketAddress(peer, defaultPort);
+        }
+        return new InetSocketAddress(peer.substring(0, colon), Integer.parseInt(peer.substring(colon + 1)));
+    }
+}
@@ -45,6 +45,8 @@ public class CorsConfig {
             "Authorization",
             "Content-Type",
             "X-Total-Count",
+            "X-Total-Count-Accuracy",
+            "X-Statement-Count",
             "X-Page-Number",
             "X-Page-Size"
         ));
@@ -1,12 +1,15 @@
 package com.furniture.ecommerce.config;
 
 import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.repository.ProductBulkLoader;
 import com.furniture.ecommerce.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -14,13 +17,29 @@ import java.util.List;
 
 @Configuration
 @Profile("!test") // Don't run during tests
+@Order(DataInitializer.ORDER)
 public class DataInitializer implements CommandLineRunner {
 
+    /** Runner order; data must exist before anything that reads the catalog on startup. */
+    public static final int ORDER = 0;
+
     private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
     private final ProductRepository productRepository;
+    private final ProductBulkLoader productBulkLoader;
+
+    // Number of synthetic products to generate; 0 loads the hand-written sample catalog instead
+    @Value("${catalog.seed.size:0}")
+    private long seedSize;
+
+    @Value("${catalog.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${catalog.seed.batch-size:1000}")
+    private int batchSize;
 
-    public DataInitializer(ProductRepository productRepository) {
+    public DataInitializer(ProductRepository productRepository, ProductBulkLoader productBulkLoader) {
         this.productRepository = productRepository;
+        this.productBulkLoader = productBulkLoader;
     }
 
     @Override
@@ -31,6 +50,13 @@ public class DataInitializer implements CommandLineRunner {
             return;
         }
 
+        if (seedSize > 0) {
+            logger.info("Generating synthetic catalog of {} products (seed {})...", seedSize, randomSeed);
+            SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(randomSeed);
+            productBulkLoader.load(generator::next, seedSize, batchSize);
+            return;
+        }
+
         logger.info("Initializing sample furniture data...");
 
         List<Product> products = Arrays.asList(
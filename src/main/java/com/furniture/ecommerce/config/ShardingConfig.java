@@ -0,0 +1,67 @@
+package com.furniture.ecommerce.config;
+
+import com.furniture.ecommerce.service.ProductService;
+import com.furniture.ecommerce.service.ShardedProductService;
+import com.furniture.ecommerce.service.StockWriteBehindBuffer;
+import com.furniture.ecommerce.shard.ShardedProductStore;
+import com.furniture.ecommerce.shard.ShardingStrategy;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Partitioned mode. Enabled with {@code catalog.sharding.enabled=true} (see the {@code sharded}
+ * profile): the catalog is copied into {@code catalog.sharding.shards} databases and reads are
+ * served from there, while writes keep going to the primary.
+ *
+ * <p>The shard pools are owned by the store rather than registered as beans, so Spring Boot's
+ * auto-configured primary data source stays in place.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final String DEFAULT_URL_TEMPLATE = "jdbc:h2:mem:catalog-shard-%d;DB_CLOSE_DELAY=-1";
+
+    @Bean
+    public ShardedProductStore shardedProductStore(
+            MeterRegistry meterRegistry,
+            @Value("${catalog.sharding.shards:4}") int shardCount,
+            @Value("${catalog.sharding.strategy:category}") String strategy,
+            @Value("${catalog.sharding.url-template:" + DEFAULT_URL_TEMPLATE + "}") String urlTemplate,
+            @Value("${catalog.sharding.maximum-pool-size:8}") int poolSize,
+            @Value("${catalog.sharding.query-threads:0}") int queryThreads) {
+        List<DataSource> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + i);
+            shard.setJdbcUrl(String.format(Locale.ROOT, urlTemplate, i));
+            shard.setMaximumPoolSize(poolSize);
+            shards.add(shard);
+        }
+        ShardingStrategy shardingStrategy = ShardingStrategy.valueOf(
+                strategy.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        // Enough threads for a few concurrent scatter-gather searches to reach every shard at once
+        int threads = queryThreads > 0 ? queryThreads : shardCount * 4;
+        return new ShardedProductStore(shards, shardingStrategy, threads, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public ProductService shardedProductService(
+            @Qualifier("productServiceImpl") ProductService productService,
+            ShardedProductStore shardedProductStore,
+            StockWriteBehindBuffer stockWriteBehindBuffer) {
+        return new ShardedProductService(productService, shardedProductStore, stockWriteBehindBuffer);
+    }
+}
@@ -0,0 +1,33 @@
+package com.furniture.ecommerce.config;
+
+import com.furniture.ecommerce.admission.AdmissionControlInterceptor;
+import com.furniture.ecommerce.index.CatalogIndex;
+import com.furniture.ecommerce.index.CatalogIndexMaintainer;
+import com.furniture.ecommerce.service.ProductService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Startup tuning for the {@code faststart} profile.
+ *
+ * <p>With {@code spring.main.lazy-initialization=true} every bean is created on first use, which
+ * moves work off the startup path but onto the first requests. The beans listed here stay eager:
+ * the in-memory indexes must be complete before the instance reports ready, and the product
+ * service and admission control sit on every request. Beans with {@code @Scheduled} methods are
+ * kept eager by Spring Boot itself. Without lazy initialization this filter has no effect.
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Keep request-path and index beans out of lazy initialization.
+     *
+     * @return the exclude filter
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerCatalogBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(CatalogIndex.class, CatalogIndexMaintainer.class,
+                ProductService.class, AdmissionControlInterceptor.class);
+    }
+}
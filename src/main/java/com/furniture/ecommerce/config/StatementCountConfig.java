@@ -0,0 +1,46 @@
+package com.furniture.ecommerce.config;
+
+import com.furniture.ecommerce.datasource.StatementCountFilter;
+import com.furniture.ecommerce.datasource.StatementCountingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request statement counts. Enabled with {@code catalog.debug.statement-count=true} (see the
+ * {@code debug} profile): every statement executed through the application's data source is
+ * counted, and each response carries the count of its request in {@code X-Statement-Count}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.debug.statement-count", havingValue = "true")
+public class StatementCountConfig {
+
+    // Static, so the post-processor exists before the data source it wraps
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the data source the application uses; with replicas, the pools behind it stay as they are
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter() {
+        FilterRegistrationBean<StatementCountFilter> registration =
+                new FilterRegistrationBean<>(new StatementCountFilter());
+        // Outermost, so statements run by other filters count too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
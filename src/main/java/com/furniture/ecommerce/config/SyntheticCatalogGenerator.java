@@ -0,0 +1,207 @@
+package com.furniture.ecommerce.config;
+
+import com.furniture.ecommerce.model.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Generates realistic synthetic furniture catalogs of arbitrary size.
+ *
+ * <p>Categories, materials and colors follow Zipf-like distributions so that a few values dominate
+ * the catalog the same way they do in production. The generator is deterministic for a given seed
+ * and produces products one at a time, so millions of rows can be streamed without holding them in
+ * memory.
+ */
+public class SyntheticCatalogGenerator {
+
+    private static final String[] CATEGORIES = {
+        "Sofas", "Chairs", "Tables", "Storage", "Beds", "Desks", "Outdoor", "Lighting", "Rugs", "Decor"
+    };
+
+    private static final String[][] CATEGORY_TYPES = {
+        {"Sofa", "Sectional", "Loveseat", "Sleeper Sofa", "Chaise"},
+        {"Dining Chair", "Accent Chair", "Office Chair", "Armchair", "Bar Stool"},
+        {"Dining Table", "Coffee Table", "Console Table", "Side Table", "Bistro Table"},
+        {"Dresser", "Bookshelf", "Cabinet", "Wardrobe", "Storage Bench"},
+        {"Platform Bed", "Bunk Bed", "Canopy Bed", "Daybed", "Bed Frame"},
+        {"Writing Desk", "Standing Desk", "Corner Desk", "Secretary Desk", "Computer Desk"},
+        {"Patio Chair", "Garden Bench", "Lounger", "Hammock", "Patio Table"},
+        {"Floor Lamp", "Table Lamp", "Pendant Light", "Chandelier", "Wall Sconce"},
+        {"Area Rug", "Runner", "Round Rug", "Shag Rug", "Outdoor Rug"},
+        {"Wall Mirror", "Vase", "Planter", "Wall Clock", "Throw Pillow"}
+    };
+
+    // Width, height and depth ranges in centimeters, per category: {minW, maxW, minH, maxH, minD, maxD}
+    private static final double[][] CATEGORY_DIMENSIONS = {
+        {150, 320, 70, 95, 80, 180},
+        {40, 90, 75, 125, 40, 90},
+        {45, 240, 40, 80, 35, 120},
+        {60, 200, 45, 220, 30, 65},
+        {90, 210, 30, 180, 190, 220},
+        {90, 180, 70, 125, 50, 90},
+        {50, 220, 30, 110, 50, 200},
+        {15, 60, 30, 190, 15, 60},
+        {60, 300, 1, 3, 90, 400},
+        {10, 90, 10, 120, 5, 40}
+    };
+
+    // Typical price in dollars per category; actual prices are log-normally spread around it
+    private static final double[] CATEGORY_BASE_PRICE = {
+        1400, 320, 650, 520, 1100, 480, 380, 160, 290, 70
+    };
+
+    private static final String[] MATERIALS = {
+        "Solid Oak wood", "Engineered wood", "Velvet upholstery", "Linen fabric", "Genuine leather",
+        "Powder-coated steel", "Solid Pine wood", "Walnut wood", "Tempered glass", "Rattan",
+        "Faux leather", "Bamboo", "Marble", "Solid Mahogany wood", "Wool", "Teak wood",
+        "Chrome steel", "Ceramic", "Cotton", "Reclaimed wood"
+    };
+
+    private static final String[] COLORS = {
+        "White", "Black", "Natural", "Light Gray", "Charcoal Gray", "Navy Blue", "Walnut",
+        "Espresso", "Beige", "Cognac Brown", "Emerald Green", "Matte Black", "Cream",
+        "Terracotta", "Mustard Yellow", "Blush Pink", "Sage Green", "Burgundy"
+    };
+
+    private static final String[] STYLES = {
+        "Modern", "Scandinavian", "Mid-Century", "Industrial", "Rustic", "Classic", "Minimalist",
+        "Coastal", "Bohemian", "Farmhouse", "Contemporary", "Vintage", "Luxe", "Urban", "Nordic"
+    };
+
+    private static final String[] FEATURES = {
+        "clean lines", "tapered legs", "soft-close drawers", "removable cushions", "a sturdy frame",
+        "hand-finished details", "adjustable height", "built-in storage", "stain-resistant finish",
+        "easy assembly"
+    };
+
+    private static final int MAX_AGE_DAYS = 730;
+
+    private final SplittableRandom random;
+    private final ZipfSampler categorySampler;
+    private final ZipfSampler materialSampler;
+    private final ZipfSampler colorSampler;
+    private final ZipfSampler styleSampler;
+    private final LocalDateTime now;
+    private long sequence;
+
+    /**
+     * Create a generator.
+     *
+     * @param seed random seed; the same seed always yields the same catalog
+     */
+    public SyntheticCatalogGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+        this.categorySampler = new ZipfSampler(CATEGORIES.length, 1.1);
+        this.materialSampler = new ZipfSampler(MATERIALS.length, 1.0);
+        this.colorSampler = new ZipfSampler(COLORS.length, 0.9);
+        this.styleSampler = new ZipfSampler(STYLES.length, 0.7);
+        this.now = LocalDateTime.now();
+    }
+
+    /**
+     * Generate the next product. The returned product has no id and carries explicit
+     * creation and update timestamps spread over the last two years.
+     *
+     * @return a new transient product
+     */
+    public Product next() {
+        sequence++;
+        int category = categorySampler.sample(random);
+        String[] types = CATEGORY_TYPES[category];
+        String type = types[random.nextInt(types.length)];
+        String style = STYLES[styleSampler.sample(random)];
+        String material = MATERIALS[materialSampler.sample(random)];
+        String color = COLORS[colorSampler.sample(random)];
+
+        double[] dims = CATEGORY_DIMENSIONS[category];
+        Product product = new Product(
+                style + " " + type + " " + sequence,
+                "A " + style.toLowerCase() + " " + type.toLowerCase() + " in " + color.toLowerCase()
+                + ", made from " + material.toLowerCase() + " with "
+                + FEATURES[random.nextInt(FEATURES.length)] + " and "
+                + FEATURES[random.nextInt(FEATURES.length)] + ".",
+                CATEGORIES[category],
+                price(CATEGORY_BASE_PRICE[category]),
+                stock(),
+                dimension(dims[0], dims[1]),
+                dimension(dims[2], dims[3]),
+                dimension(dims[4], dims[5]),
+                material,
+                color,
+                random.nextInt(4) == 0 ? null : "https://images.example.com/products/" + sequence + ".jpg"
+        );
+
+        LocalDateTime createdAt = now.minusMinutes(random.nextLong((long) MAX_AGE_DAYS * 24 * 60));
+        product.setCreatedAt(createdAt);
+        product.setUpdatedAt(random.nextInt(3) == 0
+                ? createdAt.plusMinutes(random.nextLong(1, 60L * 24 * 30))
+                : createdAt);
+        return product;
+    }
+
+    private BigDecimal price(double base) {
+        // Log-normal spread: most items near the base price, a long tail of premium pieces
+        double value = base * Math.exp(random.nextDouble() * 1.2 - 0.6 + gaussian() * 0.25);
+        return BigDecimal.valueOf(Math.max(9.99, Math.floor(value) + 0.99)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private int stock() {
+        int bucket = random.nextInt(100);
+        if (bucket < 8) {
+            return 0;
+        }
+        if (bucket < 25) {
+            return 1 + random.nextInt(5);
+        }
+        return 5 + (int) (-Math.log(1 - random.nextDouble()) * 20);
+    }
+
+    private Double dimension(double min, double max) {
+        return Math.round((min + random.nextDouble() * (max - min)) * 2) / 2.0;
+    }
+
+    private double gaussian() {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    /**
+     * Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^exponent.
+     */
+    private static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int size, double exponent) {
+            cumulative = new double[size];
+            double total = 0;
+            for (int i = 0; i < size; i++) {
+                total += 1.0 / Math.pow(i + 1, exponent);
+                cumulative[i] = total;
+            }
+            for (int i = 0; i < size; i++) {
+                cumulative[i] /= total;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            double u = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.furniture.ecommerce.config;
+
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The {@code products} cache: product responses by id, where a response is only stored if it is
+ * at least as new as what the cache already knows about the product.
+ *
+ * <p>A cache-miss read that loaded a product before a concurrent write committed would otherwise
+ * store its stale response after the write's, to be served until the entry expires. Every
+ * committed change therefore leaves a marker of its version behind, as {@code ProductJsonCache}
+ * does, and a deletion one that no version passes. Responses without a version carry a buffered
+ * stock level; they are not cached, and the response they supersede is replaced by a marker
+ * requiring the version the buffered level will be written with.
+ */
+@Component
+public class VersionedProductCache extends CaffeineCache {
+
+    private static final long DELETED = Long.MAX_VALUE;
+
+    /**
+     * Constructor for VersionedProductCache.
+     *
+     * @param specification Caffeine specification of the cache
+     */
+    public VersionedProductCache(
+            @Value("${spring.cache.caffeine.spec:maximumSize=50000,expireAfterWrite=30m,recordStats}")
+            String specification) {
+        super(CacheConfig.PRODUCTS_CACHE, Caffeine.from(specification).build(), true);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        return value instanceof VersionMarker ? null : value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        getNativeCache().asMap().compute(key, (k, current) -> merge(current, toStoreValue(value)));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Object existing = lookup(key);
+        if (existing != null) {
+            return toValueWrapper(existing);
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object existing = lookup(key);
+        if (existing != null) {
+            return (T) fromStoreValue(existing);
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Record that a version of a product has been committed, so older responses are not stored.
+     *
+     * @param id the product ID
+     * @param version the committed version
+     */
+    public void markCommitted(Long id, long version) {
+        getNativeCache().asMap().compute(id, (key, current) ->
+                current != null && floor(current) >= version ? current : new VersionMarker(version));
+    }
+
+    /**
+     * Leave a marker of every committed change.
+     *
+     * @param event the committed change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            markCommitted(event.getProductId(), DELETED);
+        } else if (event.getProduct().getVersion() != null) {
+            markCommitted(event.getProductId(), event.getProduct().getVersion());
+        } else {
+            evict(event.getProductId());
+        }
+    }
+
+    private static Object merge(Object current, Object candidate) {
+        if (!(candidate instanceof ProductResponseDTO)) {
+            return candidate;
+        }
+        Long version = ((ProductResponseDTO) candidate).getVersion();
+        if (current == null) {
+            return version != null ? candidate : null;
+        }
+        if (version == null) {
+            // The buffered level is written with the next version; nothing older may be stored meanwhile
+            return current instanceof VersionMarker ? current : new VersionMarker(floor(current) + 1);
+        }
+        // On a tie the candidate wins: it is the same version, or fills in a marker
+        return version >= floor(current) ? candidate : current;
+    }
+
+    // The oldest version the entry lets in
+    private static long floor(Object entry) {
+        if (entry instanceof VersionMarker) {
+            return ((VersionMarker) entry).version;
+        }
+        if (entry instanceof ProductResponseDTO && ((ProductResponseDTO) entry).getVersion() != null) {
+            return ((ProductResponseDTO) entry).getVersion();
+        }
+        return -1;
+    }
+
+    /** The latest known version of a product whose response is not cached. */
+    private static final class VersionMarker {
+        private final long version;
+
+        VersionMarker(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.furniture.ecommerce.config;
+
+import com.furniture.ecommerce.admission.AdmissionControlInterceptor;
+import com.furniture.ecommerce.json.ProductJsonCache;
+import com.furniture.ecommerce.json.ProductJsonHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+    private final ProductJsonCache productJsonCache;
+
+    public WebConfig(AdmissionControlInterceptor admissionControlInterceptor, ProductJsonCache productJsonCache) {
+        this.admissionControlInterceptor = admissionControlInterceptor;
+        this.productJsonCache = productJsonCache;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor)
+                .addPathPatterns("/products", "/products/**");
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Ahead of Jackson, which still handles everything that is not a product response
+        converters.add(0, new ProductJsonHttpMessageConverter(productJsonCache));
+    }
+}
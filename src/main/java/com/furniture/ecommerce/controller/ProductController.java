@@ -1,9 +1,20 @@
 package com.furniture.ecommerce.controller;
 
+import com.furniture.ecommerce.dto.CatalogStatsDTO;
 import com.furniture.ecommerce.dto.ProductRequestDTO;
 import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.query.QueryResult;
+import com.furniture.ecommerce.query.SearchQuery;
+import com.furniture.ecommerce.service.CatalogStatsService;
+import com.furniture.ecommerce.service.ProductArchiver;
+import com.furniture.ecommerce.service.ProductCountService;
 import com.furniture.ecommerce.service.ProductService;
+import com.furniture.ecommerce.service.ProductViewTracker;
+import com.furniture.ecommerce.service.TotalCount;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -22,6 +33,7 @@ import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,16 +44,36 @@ import java.util.NoSuchElementException;
 @Validated
 public class ProductController {
     
+    private static final int MAX_FUZZY_RESULTS = 200;
+    
+    // Exposed to browsers by CorsConfig
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String TOTAL_COUNT_ACCURACY_HEADER = "X-Total-Count-Accuracy";
+    
     private final ProductService productService;
+    private final ProductViewTracker productViewTracker;
+    private final CatalogStatsService catalogStatsService;
+    private final ProductArchiver productArchiver;
+    private final ProductCountService productCountService;
     
     /**
      * Constructor for ProductController.
      *
      * @param productService the product service
+     * @param productViewTracker tracks product views for cache warm-up
+     * @param catalogStatsService computes catalog statistics
+     * @param productArchiver reads the archive when archived products are requested
+     * @param productCountService counts the total of limited searches
      */
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductViewTracker productViewTracker,
+                             CatalogStatsService catalogStatsService, ProductArchiver productArchiver,
+                             ProductCountService productCountService) {
         this.productService = productService;
+        this.productViewTracker = productViewTracker;
+        this.catalogStatsService = catalogStatsService;
+        this.productArchiver = productArchiver;
+        this.productCountService = productCountService;
     }
     
     /**
@@ -60,23 +92,42 @@ public class ProductController {
      * Get product by ID.
      *
      * @param id the product ID
+     * @param includeArchived whether to look in the archive when the product is not in the catalog
      * @return the product
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDTO> getProductById(@PathVariable @Min(1) Long id) {
-        ProductResponseDTO product = productService.getProductById(id);
+    public ResponseEntity<ProductResponseDTO> getProductById(
+            @PathVariable @Min(1) Long id,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        ProductResponseDTO product;
+        try {
+            product = productService.getProductById(id);
+        } catch (NoSuchElementException e) {
+            if (!includeArchived) {
+                throw e;
+            }
+            return ResponseEntity.ok(productArchiver.getArchivedProduct(id));
+        }
+        productViewTracker.recordView(id);
         return ResponseEntity.ok(product);
     }
     
     /**
      * Get all products.
      *
+     * @param includeArchived whether to append archived products
      * @return list of all products
      */
     @GetMapping
-    public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
+    public ResponseEntity<List<ProductResponseDTO>> getAllProducts(
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         List<ProductResponseDTO> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+        if (includeArchived) {
+            products = ProductArchiver.combine(products,
+                    productArchiver.searchArchived(SearchCriteria.of(null, null, null, null, null, null),
+                            ProductOrder.BY_ID, 0), ProductOrder.BY_ID, 0);
+        }
+        return withTotalCount(products);
     }
     
     /**
@@ -110,50 +161,133 @@ public class ProductController {
     }
     
     /**
-     * Search products with filters.
+     * Search products with filters. The number of matches without the limit is returned in
+     * {@code X-Total-Count}, and {@code X-Total-Count-Accuracy} says whether it is exact.
      *
+     * @param q query such as {@code category:sofas price:<800 instock}, combined with the other filters
      * @param category product category
      * @param material product material
      * @param color product color
      * @param minPrice minimum price
      * @param maxPrice maximum price
      * @param inStock whether product is in stock
+     * @param sort result order, {@code field[,asc|desc]} over id, name, price, stock or createdAt
+     * @param limit maximum number of results
+     * @param includeArchived whether to search the archive as well
      * @return list of matching products
      */
     @GetMapping("/search")
     public ResponseEntity<List<ProductResponseDTO>> searchProducts(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String material,
             @RequestParam(required = false) String color,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
-            @RequestParam(required = false) Boolean inStock) {
-        List<ProductResponseDTO> products = productService.searchProducts(
-                category, material, color, minPrice, maxPrice, inStock);
-        return ResponseEntity.ok(products);
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) @Min(1) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        if (q != null) {
+            if (includeArchived) {
+                throw new IllegalArgumentException("Queries do not search the archive; drop q or includeArchived");
+            }
+            SearchQuery query = SearchQuery.parse(q)
+                    .and(SearchCriteria.of(category, material, color, minPrice, maxPrice, inStock));
+            QueryResult<ProductResponseDTO> result = productService.searchProducts(query, ProductOrder.parse(sort),
+                    limit != null ? limit : 0);
+            return withTotalCount(result.getItems(), TotalCount.exact(result.getTotal()));
+        }
+        if (sort == null && limit == null && !includeArchived) {
+            return withTotalCount(productService.searchProducts(
+                    category, material, color, minPrice, maxPrice, inStock));
+        }
+        SearchCriteria criteria = SearchCriteria.of(category, material, color, minPrice, maxPrice, inStock);
+        ProductOrder order = ProductOrder.parse(sort);
+        int maxResults = limit != null ? limit : 0;
+        List<ProductResponseDTO> products = productService.searchProducts(criteria, order, maxResults);
+        if (includeArchived) {
+            products = ProductArchiver.combine(products, productArchiver.searchArchived(criteria, order, maxResults),
+                    order, maxResults);
+        }
+        if (maxResults == 0 || products.size() < maxResults) {
+            return withTotalCount(products);
+        }
+        // A full page: the total has to come from elsewhere
+        TotalCount total = productCountService.count(criteria);
+        if (includeArchived) {
+            total = total.plus(productArchiver.countArchived(criteria));
+        }
+        return withTotalCount(products, total);
+    }
+    
+    /**
+     * Get per-category statistics and price histograms, optionally filtered like search.
+     *
+     * @param category product category
+     * @param material product material
+     * @param color product color
+     * @param minPrice minimum price
+     * @param maxPrice maximum price
+     * @param inStock whether product is in stock
+     * @param bucketWidth width of the price histogram buckets
+     * @return counts, price range, average price, stock value and histogram per category
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<CatalogStatsDTO> getCatalogStats(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String material,
+            @RequestParam(required = false) String color,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "100") BigDecimal bucketWidth) {
+        SearchCriteria criteria = SearchCriteria.of(category, material, color, minPrice, maxPrice, inStock);
+        return ResponseEntity.ok(catalogStatsService.getStats(criteria, bucketWidth));
     }
     
     /**
-     * Get products by category.
+     * Get products by category, optionally a page of them in order. The category size is returned
+     * in {@code X-Total-Count}.
      *
      * @param category the product category
+     * @param sort page order, {@code field[,asc|desc]} as for search
+     * @param offset number of products to skip
+     * @param limit maximum number of results
      * @return list of products in the category
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ProductResponseDTO>> getProductsByCategory(@PathVariable String category) {
-        List<ProductResponseDTO> products = productService.getProductsByCategory(category);
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductResponseDTO>> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "0") @Min(0) int offset,
+            @RequestParam(required = false) @Min(1) Integer limit) {
+        int maxResults = limit != null ? limit : 0;
+        List<ProductResponseDTO> products = productService.getProductsByCategory(category,
+                ProductOrder.parse(sort), offset, maxResults);
+        if (offset == 0 && (maxResults == 0 || products.size() < maxResults)) {
+            return withTotalCount(products);
+        }
+        return withTotalCount(products,
+                productCountService.count(SearchCriteria.of(category, null, null, null, null, null)));
     }
     
     /**
      * Search products by name.
      *
      * @param query the search query
+     * @param fuzzy whether to tolerate typos, matching names and descriptions word by word
+     * @param limit maximum number of fuzzy results (1-200)
      * @return list of matching products
      */
     @GetMapping("/search/name")
-    public ResponseEntity<List<ProductResponseDTO>> searchByName(@RequestParam String query) {
-        List<ProductResponseDTO> products = productService.searchByName(query);
+    public ResponseEntity<List<ProductResponseDTO>> searchByName(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<ProductResponseDTO> products = fuzzy
+                ? productService.fuzzySearchByName(query, Math.max(1, Math.min(limit, MAX_FUZZY_RESULTS)))
+                : productService.searchByName(query);
         return ResponseEntity.ok(products);
     }
     
@@ -169,7 +303,7 @@ public class ProductController {
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice) {
         List<ProductResponseDTO> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+        return withTotalCount(products);
     }
     
     /**
@@ -178,15 +312,21 @@ public class ProductController {
      * @param maxWidth maximum width
      * @param maxHeight maximum height
      * @param maxDepth maximum depth
+     * @param includeArchived whether to append archived products
      * @return list of products within dimensions
      */
     @GetMapping("/dimensions")
     public ResponseEntity<List<ProductResponseDTO>> getProductsByDimensions(
             @RequestParam(required = false) Double maxWidth,
             @RequestParam(required = false) Double maxHeight,
-            @RequestParam(required = false) Double maxDepth) {
+            @RequestParam(required = false) Double maxDepth,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         List<ProductResponseDTO> products = productService.getProductsByDimensions(maxWidth, maxHeight, maxDepth);
-        return ResponseEntity.ok(products);
+        if (includeArchived) {
+            products = new ArrayList<>(products);
+            products.addAll(productArchiver.getArchivedProductsByDimensions(maxWidth, maxHeight, maxDepth));
+        }
+        return withTotalCount(products);
     }
     
     /**
@@ -204,6 +344,18 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
     
+    /**
+     * Archive a discontinued product: it leaves the catalog and is only returned with
+     * {@code includeArchived=true}.
+     *
+     * @param id the product ID
+     * @return the archived product
+     */
+    @PostMapping("/{id}/archive")
+    public ResponseEntity<ProductResponseDTO> archiveProduct(@PathVariable @Min(1) Long id) {
+        return ResponseEntity.ok(productArchiver.archive(id));
+    }
+    
     /**
      * Get in-stock products.
      *
@@ -212,7 +364,7 @@ public class ProductController {
     @GetMapping("/in-stock")
     public ResponseEntity<List<ProductResponseDTO>> getInStockProducts() {
         List<ProductResponseDTO> products = productService.getInStockProducts();
-        return ResponseEntity.ok(products);
+        return withTotalCount(products);
     }
     
     /**
@@ -225,7 +377,7 @@ public class ProductController {
     public ResponseEntity<List<ProductResponseDTO>> getLowStockProducts(
             @RequestParam(defaultValue = "10") @Min(1) Integer threshold) {
         List<ProductResponseDTO> products = productService.getLowStockProducts(threshold);
-        return ResponseEntity.ok(products);
+        return withTotalCount(products);
     }
     
     /**
@@ -269,6 +421,18 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProducts);
     }
     
+    private static ResponseEntity<List<ProductResponseDTO>> withTotalCount(List<ProductResponseDTO> products) {
+        return withTotalCount(products, TotalCount.exact(products.size()));
+    }
+    
+    private static ResponseEntity<List<ProductResponseDTO>> withTotalCount(List<ProductResponseDTO> products,
+                                                                           TotalCount total) {
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, Long.toString(total.getValue()))
+                .header(TOTAL_COUNT_ACCURACY_HEADER, total.getAccuracy().headerValue())
+                .body(products);
+    }
+    
     /**
      * Handle not found exceptions.
      *
@@ -283,6 +447,20 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
     
+    /**
+     * Handle writes that lost a race with a concurrent write of the same product.
+     *
+     * @param e the exception
+     * @return error response
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(OptimisticLockingFailureException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Conflict");
+        error.put("message", "The product was modified concurrently; reload it and retry");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
     /**
      * Handle bad request exceptions.
      *
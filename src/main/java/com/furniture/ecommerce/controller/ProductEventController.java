@@ -0,0 +1,62 @@
+package com.furniture.ecommerce.controller;
+
+import com.furniture.ecommerce.stream.ProductEventBroadcaster;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/products/events")
+public class ProductEventController {
+
+    private final ProductEventBroadcaster productEventBroadcaster;
+
+    /**
+     * Constructor for ProductEventController.
+     *
+     * @param productEventBroadcaster fans product changes out to the open streams
+     */
+    public ProductEventController(ProductEventBroadcaster productEventBroadcaster) {
+        this.productEventBroadcaster = productEventBroadcaster;
+    }
+
+    /**
+     * Stream product changes as Server-Sent Events.
+     *
+     * @param ids only stream changes of these products
+     * @param category only stream changes of products in this category
+     * @return the event stream
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) String category) {
+        Set<Long> productIds = ids != null ? new HashSet<>(ids) : Set.of();
+        String categoryFilter = category != null && !category.isBlank() ? category.trim() : null;
+        return productEventBroadcaster.subscribe(productIds, categoryFilter);
+    }
+
+    /**
+     * Handle subscriptions beyond the stream limit.
+     *
+     * @param e the exception
+     * @return an empty 503 response with a Retry-After header
+     */
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Void> handleTooManyStreams(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.furniture.ecommerce.controller;
+
+import com.furniture.ecommerce.dto.ImportJobDTO;
+import com.furniture.ecommerce.service.ProductImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/products/import")
+public class ProductImportController {
+
+    private final ProductImportService productImportService;
+
+    /**
+     * Constructor for ProductImportController.
+     *
+     * @param productImportService runs the import jobs
+     */
+    public ProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    /**
+     * Start importing products from a CSV or NDJSON file.
+     *
+     * @param file the file to import
+     * @param format csv or ndjson; detected from the file name or content type when omitted
+     * @return the queued job, with its status URL in the Location header
+     * @throws IOException if the upload cannot be stored for processing
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> startImport(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) String format) throws IOException {
+        ImportJobDTO job = productImportService.submit(file, format);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.getJobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    /**
+     * Get the progress of an import job.
+     *
+     * @param jobId the job ID returned when the import was started
+     * @return progress, throughput and per-row errors
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobDTO> getImport(@PathVariable String jobId) {
+        return ResponseEntity.ok(productImportService.getJob(jobId));
+    }
+
+    /**
+     * Handle unknown or expired jobs.
+     *
+     * @param e the exception
+     * @return error response
+     */
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(NoSuchElementException e) {
+        return error(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    /**
+     * Handle empty uploads and unknown formats.
+     *
+     * @param e the exception
+     * @return error response
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    /**
+     * Handle uploads arriving while the import queue is full.
+     *
+     * @param e the exception
+     * @return error response with a Retry-After header
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleQueueFull(RejectedExecutionException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+        error.put("message", "Too many imports in progress, please retry later");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(error);
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", status.getReasonPhrase());
+        error.put("message", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
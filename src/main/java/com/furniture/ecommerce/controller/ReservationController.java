@@ -0,0 +1,166 @@
+package com.furniture.ecommerce.controller;
+
+import com.furniture.ecommerce.dto.ReservationDTO;
+import com.furniture.ecommerce.dto.ReservationRequestDTO;
+import com.furniture.ecommerce.dto.StockAvailabilityDTO;
+import com.furniture.ecommerce.reservation.Reservation;
+import com.furniture.ecommerce.service.StockReservationService;
+import jakarta.validation.Valid;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/products/{productId}")
+public class ReservationController {
+
+    private final StockReservationService reservationService;
+
+    /**
+     * Constructor for ReservationController.
+     *
+     * @param reservationService grants and settles the reservations
+     */
+    public ReservationController(StockReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    /**
+     * Hold units of a product for a checkout.
+     *
+     * @param productId the product ID
+     * @param request the units to hold and, optionally, for how long
+     * @return the active reservation, with its URL in the Location header
+     */
+    @PostMapping("/reservations")
+    public ResponseEntity<ReservationDTO> reserve(
+            @PathVariable Long productId,
+            @Valid @RequestBody ReservationRequestDTO request) {
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : null;
+        Reservation reservation = reservationService.reserve(productId, request.getQuantity(), ttl);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{reservationId}")
+                .buildAndExpand(reservation.getId())
+                .toUri();
+        return ResponseEntity.created(location)
+                .body(ReservationDTO.fromReservation(reservation, ReservationDTO.ACTIVE));
+    }
+
+    /**
+     * Get an active reservation.
+     *
+     * @param productId the product ID
+     * @param reservationId the reservation ID
+     * @return the reservation
+     */
+    @GetMapping("/reservations/{reservationId}")
+    public ResponseEntity<ReservationDTO> getReservation(@PathVariable Long productId,
+                                                         @PathVariable String reservationId) {
+        Reservation reservation = reservationService.getReservation(productId, reservationId);
+        return ResponseEntity.ok(ReservationDTO.fromReservation(reservation, ReservationDTO.ACTIVE));
+    }
+
+    /**
+     * Confirm a reservation, taking its units out of stock.
+     *
+     * @param productId the product ID
+     * @param reservationId the reservation ID
+     * @return the confirmed reservation
+     */
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public ResponseEntity<ReservationDTO> confirm(@PathVariable Long productId, @PathVariable String reservationId) {
+        Reservation reservation = reservationService.confirm(productId, reservationId);
+        return ResponseEntity.ok(ReservationDTO.fromReservation(reservation, ReservationDTO.CONFIRMED));
+    }
+
+    /**
+     * Release a reservation, giving its units back.
+     *
+     * @param productId the product ID
+     * @param reservationId the reservation ID
+     * @return the released reservation
+     */
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<ReservationDTO> release(@PathVariable Long productId, @PathVariable String reservationId) {
+        Reservation reservation = reservationService.release(productId, reservationId);
+        return ResponseEntity.ok(ReservationDTO.fromReservation(reservation, ReservationDTO.RELEASED));
+    }
+
+    /**
+     * Get the stock of a product that is not held by reservations.
+     *
+     * @param productId the product ID
+     * @return stock, reserved and available units
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<StockAvailabilityDTO> getAvailability(@PathVariable Long productId) {
+        return ResponseEntity.ok(reservationService.getAvailability(productId));
+    }
+
+    /**
+     * Handle unknown products and reservations that are not active.
+     *
+     * @param e the exception
+     * @return error response
+     */
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(NoSuchElementException e) {
+        return error(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    /**
+     * Handle hold times over the limit.
+     *
+     * @param e the exception
+     * @return error response
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    /**
+     * Handle reservations for more units than are available.
+     *
+     * @param e the exception
+     * @return error response
+     */
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleUnavailable(IllegalStateException e) {
+        return error(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    /**
+     * Handle confirmations racing another stock update.
+     *
+     * @param e the exception
+     * @return error response
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(OptimisticLockingFailureException e) {
+        return error(HttpStatus.CONFLICT, "The product was modified concurrently; the reservation is still active, "
+                + "retry the confirmation");
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", status.getReasonPhrase());
+        error.put("message", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -0,0 +1,62 @@
+package com.furniture.ecommerce.controller;
+
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.service.ProductService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@RestController
+public class SimilarProductsController {
+
+    private static final int MAX_K = 50;
+
+    private final ProductService productService;
+
+    /**
+     * Constructor for SimilarProductsController.
+     *
+     * @param productService the product service
+     */
+    public SimilarProductsController(ProductService productService) {
+        this.productService = productService;
+    }
+
+    /**
+     * Products most like a product in category, material, color, price and dimensions.
+     *
+     * @param id the product ID
+     * @param k maximum number of products (1-50)
+     * @return the similar products, most similar first, without the product itself
+     */
+    @GetMapping("/products/{id}/similar")
+    public ResponseEntity<List<ProductResponseDTO>> getSimilarProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int k) {
+        int effectiveK = Math.max(1, Math.min(k, MAX_K));
+        return ResponseEntity.ok(productService.getSimilarProducts(id, effectiveK));
+    }
+
+    /**
+     * Handle unknown products.
+     *
+     * @param e the exception
+     * @return error response
+     */
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(NoSuchElementException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", HttpStatus.NOT_FOUND.getReasonPhrase());
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+}
@@ -0,0 +1,55 @@
+package com.furniture.ecommerce.controller;
+
+import com.furniture.ecommerce.dto.SuggestionDTO;
+import com.furniture.ecommerce.index.SuggestIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/products/suggest")
+public class SuggestController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final SuggestIndex suggestIndex;
+
+    /**
+     * Constructor for SuggestController.
+     *
+     * @param suggestIndex the in-memory autocomplete index
+     */
+    public SuggestController(SuggestIndex suggestIndex) {
+        this.suggestIndex = suggestIndex;
+    }
+
+    /**
+     * Autocomplete product names, categories and materials.
+     *
+     * @param prefix what the user has typed so far
+     * @param limit maximum number of suggestions (1-50)
+     * @return suggestions, highest weight first
+     */
+    @GetMapping
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        int effectiveLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(suggestIndex.suggest(prefix, effectiveLimit));
+    }
+
+    /**
+     * Size and memory footprint of the autocomplete index.
+     *
+     * @return term count, node count and estimated heap bytes
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Long>> getStats() {
+        return ResponseEntity.ok(suggestIndex.getStats());
+    }
+}
@@ -0,0 +1,119 @@
+package com.furniture.ecommerce.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import jakarta.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures replica lag with a heartbeat row and takes lagging replicas out of read routing.
+ *
+ * <p>Every interval the primary's heartbeat row is stamped with the current time, then each
+ * replica's copy of that row is read back. Its age is the replication lag (to within one
+ * interval). A replica that is unreachable, has no heartbeat yet, or lags by more than the limit
+ * stops receiving reads until it catches up again.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String CREATE_SQL = "CREATE TABLE IF NOT EXISTS replica_heartbeat "
+            + "(id INT PRIMARY KEY, beat_at BIGINT NOT NULL)";
+    private static final String UPDATE_SQL = "UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String INSERT_SQL = "INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)";
+    private static final String SELECT_SQL = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new ConcurrentHashMap<>();
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+    private final long maxLagMillis;
+
+    /**
+     * Constructor for ReplicaLagMonitor.
+     *
+     * @param routingDataSource the routing data source whose replicas are monitored
+     * @param primary the primary data source, written directly rather than through the router
+     * @param meterRegistry registry for the per-replica lag gauges
+     * @param maxLagMillis lag beyond which a replica stops receiving reads
+     */
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, DataSource primary,
+                             MeterRegistry meterRegistry, long maxLagMillis) {
+        this.routingDataSource = routingDataSource;
+        this.primary = new JdbcTemplate(primary);
+        this.maxLagMillis = maxLagMillis;
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            String name = replica.getKey();
+            JdbcTemplate template = new JdbcTemplate(replica.getValue());
+            template.setQueryTimeout(1);
+            replicas.put(name, template);
+            Gauge.builder("catalog.datasource.replica.lag", lagMillis, lags -> lags.getOrDefault(name, -1L))
+                    .description("Replication lag in milliseconds; -1 when unknown")
+                    .baseUnit("milliseconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Create the heartbeat table on the primary if it does not exist yet.
+     */
+    @PostConstruct
+    public void createHeartbeatTable() {
+        primary.execute(CREATE_SQL);
+    }
+
+    /**
+     * Stamp the primary heartbeat and re-evaluate every replica.
+     */
+    @Scheduled(fixedDelayString = "${catalog.datasource.heartbeat-interval-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update(UPDATE_SQL, now) == 0) {
+                primary.update(INSERT_SQL, now);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not write replica heartbeat: {}", e.getMessage());
+            return;
+        }
+        replicas.forEach((name, replica) -> checkReplica(name, replica));
+    }
+
+    /**
+     * Get the last measured lag of a replica.
+     *
+     * @param name the replica name
+     * @return lag in milliseconds, or -1 if unknown
+     */
+    public long getLagMillis(String name) {
+        return lagMillis.getOrDefault(name, -1L);
+    }
+
+    private void checkReplica(String name, JdbcTemplate replica) {
+        long lag;
+        try {
+            List<Long> beats = replica.queryForList(SELECT_SQL, Long.class);
+            lag = beats.isEmpty() ? -1 : Math.max(0, System.currentTimeMillis() - beats.get(0));
+        } catch (DataAccessException e) {
+            logger.debug("Replica {} heartbeat unreadable: {}", name, e.getMessage());
+            lag = -1;
+        }
+        lagMillis.put(name, lag);
+        boolean healthy = lag >= 0 && lag <= maxLagMillis;
+        if (healthy != routingDataSource.isReplicaHealthy(name)) {
+            logger.info("Replica {} {} read routing (lag {} ms, limit {} ms)",
+                    name, healthy ? "joined" : "left", lag, maxLagMillis);
+        }
+        routingDataSource.setReplicaHealthy(name, healthy);
+    }
+}
@@ -0,0 +1,115 @@
+package com.furniture.ecommerce.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ *
+ * <p>The routing decision reads the transaction's read-only flag, which Spring only sets after
+ * the transaction manager has begun; wrap this data source in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the physical
+ * connection is fetched on the first statement. Replicas start out unhealthy and only receive
+ * reads once {@link ReplicaLagMonitor} has seen them within the lag limit.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    /** Lookup key of the primary data source. */
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final Set<String> healthyReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> routableReplicas = Collections.emptyList();
+
+    /**
+     * Create a routing data source.
+     *
+     * @param primary the read-write primary
+     * @param replicas read-only replicas by name, in preference order
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Get the replica data sources.
+     *
+     * @return replicas by name
+     */
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Include or exclude a replica from read routing.
+     *
+     * @param name the replica name
+     * @param healthy whether the replica is reachable and within the lag limit
+     */
+    public void setReplicaHealthy(String name, boolean healthy) {
+        boolean changed = healthy ? healthyReplicas.add(name) : healthyReplicas.remove(name);
+        if (changed) {
+            List<String> routable = new ArrayList<>();
+            for (String replica : replicas.keySet()) {
+                if (healthyReplicas.contains(replica)) {
+                    routable.add(replica);
+                }
+            }
+            routableReplicas = routable;
+        }
+    }
+
+    /**
+     * Whether a replica currently receives reads.
+     *
+     * @param name the replica name
+     * @return true if the replica is healthy
+     */
+    public boolean isReplicaHealthy(String name) {
+        return healthyReplicas.contains(name);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> routable = routableReplicas;
+        if (routable.isEmpty()) {
+            // No replica is fresh enough; the primary can always serve reads
+            return PRIMARY;
+        }
+        return routable.get(Math.floorMod(nextReplica.getAndIncrement(), routable.size()));
+    }
+
+    /**
+     * Close the replica pools. The primary pool is a bean of its own and closed by the container.
+     *
+     * @throws Exception if a replica pool fails to close
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.furniture.ecommerce.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Counts the statements each request executes and returns the count in the
+ * {@value #STATEMENT_COUNT_HEADER} response header.
+ *
+ * <p>The body is buffered until the handler returns, so the header can still be added after the
+ * last statement; the product change stream is left unbuffered and uncounted. Meant for the
+ * {@code debug} profile and the statement budget tests, not for production traffic.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    /** Response header carrying the statement count of the request. */
+    public static final String STATEMENT_COUNT_HEADER = "X-Statement-Count";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        StatementCounter.start();
+        try {
+            chain.doFilter(request, buffered);
+        } finally {
+            buffered.setHeader(STATEMENT_COUNT_HEADER, Integer.toString(StatementCounter.stop()));
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/products/events");
+    }
+}
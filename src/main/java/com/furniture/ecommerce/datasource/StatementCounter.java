@@ -0,0 +1,52 @@
+package com.furniture.ecommerce.datasource;
+
+/**
+ * Per-thread count of the JDBC statements executed through a {@link StatementCountingDataSource}.
+ *
+ * <p>Counting is scoped explicitly: statements are only counted on a thread between
+ * {@link #start()} and {@link #stop()}, which {@link StatementCountFilter} wraps around each
+ * request. Statements run by background threads, such as the write-behind flushes, are never
+ * attributed to a request.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    /**
+     * Start counting on the current thread, from zero.
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Stop counting on the current thread.
+     *
+     * @return the statements executed since {@link #start()}, or 0 if counting was not started
+     */
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    /**
+     * Statements executed on the current thread so far.
+     *
+     * @return the count since {@link #start()}, or 0 if counting was not started
+     */
+    public static int current() {
+        int[] count = COUNT.get();
+        return count != null ? count[0] : 0;
+    }
+
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
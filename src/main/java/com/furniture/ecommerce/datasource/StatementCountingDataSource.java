@@ -0,0 +1,80 @@
+package com.furniture.ecommerce.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Data source wrapper that reports every executed statement to the {@link StatementCounter} of
+ * the executing thread.
+ *
+ * <p>A statement counts once per execution, so a JDBC batch is one statement, as it is one round
+ * trip. Being a {@link DelegatingDataSource}, it is unwrapped transparently by the pool metrics.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    private static final Set<String> EXECUTIONS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    /**
+     * Constructor for StatementCountingDataSource.
+     *
+     * @param targetDataSource the data source whose statements are counted
+     */
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countStatements(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countStatements(super.getConnection(username, password));
+    }
+
+    private static Connection countStatements(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(method.getName())) {
+                return countExecutions(method.getReturnType(), statement);
+            }
+            return result;
+        });
+    }
+
+    private static Object countExecutions(Class<?> statementType, Statement statement) {
+        // Proxies the declared type, so prepared and callable statements keep their interface
+        return proxy(statementType, (proxy, method, args) -> {
+            if (EXECUTIONS.contains(method.getName())) {
+                StatementCounter.increment();
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
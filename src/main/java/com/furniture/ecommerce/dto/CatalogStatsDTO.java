@@ -0,0 +1,45 @@
+package com.furniture.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class CatalogStatsDTO {
+
+    private BigDecimal bucketWidth;
+    private CategoryStatsDTO total;
+    private List<CategoryStatsDTO> categories;
+
+    public CatalogStatsDTO() {
+    }
+
+    public CatalogStatsDTO(BigDecimal bucketWidth, CategoryStatsDTO total, List<CategoryStatsDTO> categories) {
+        this.bucketWidth = bucketWidth;
+        this.total = total;
+        this.categories = categories;
+    }
+
+    // Getters and Setters
+    public BigDecimal getBucketWidth() {
+        return bucketWidth;
+    }
+
+    public void setBucketWidth(BigDecimal bucketWidth) {
+        this.bucketWidth = bucketWidth;
+    }
+
+    public CategoryStatsDTO getTotal() {
+        return total;
+    }
+
+    public void setTotal(CategoryStatsDTO total) {
+        this.total = total;
+    }
+
+    public List<CategoryStatsDTO> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryStatsDTO> categories) {
+        this.categories = categories;
+    }
+}
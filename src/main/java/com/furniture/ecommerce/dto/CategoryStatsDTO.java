@@ -0,0 +1,84 @@
+package com.furniture.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class CategoryStatsDTO {
+
+    private String category;
+    private long productCount;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal averagePrice;
+    private long totalStock;
+    private BigDecimal stockValue;
+    private List<PriceBucketDTO> priceHistogram;
+
+    public CategoryStatsDTO() {
+    }
+
+    // Getters and Setters
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(long productCount) {
+        this.productCount = productCount;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public BigDecimal getAveragePrice() {
+        return averagePrice;
+    }
+
+    public void setAveragePrice(BigDecimal averagePrice) {
+        this.averagePrice = averagePrice;
+    }
+
+    public long getTotalStock() {
+        return totalStock;
+    }
+
+    public void setTotalStock(long totalStock) {
+        this.totalStock = totalStock;
+    }
+
+    public BigDecimal getStockValue() {
+        return stockValue;
+    }
+
+    public void setStockValue(BigDecimal stockValue) {
+        this.stockValue = stockValue;
+    }
+
+    public List<PriceBucketDTO> getPriceHistogram() {
+        return priceHistogram;
+    }
+
+    public void setPriceHistogram(List<PriceBucketDTO> priceHistogram) {
+        this.priceHistogram = priceHistogram;
+    }
+}
@@ -0,0 +1,197 @@
+package com.furniture.ecommerce.dto;
+
+import com.furniture.ecommerce.importer.ImportJob;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ImportJobDTO {
+
+    private String jobId;
+    private String status;
+    private String format;
+    private String fileName;
+    private long totalBytes;
+    private long bytesRead;
+    private int percentComplete;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private double rowsPerSecond;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String failureMessage;
+    private List<ImportErrorDTO> errors;
+    private boolean errorsTruncated;
+
+    public ImportJobDTO() {
+    }
+
+    /**
+     * Snapshot the progress of an import job.
+     *
+     * @param job the job
+     * @return the job's current state
+     */
+    public static ImportJobDTO fromJob(ImportJob job) {
+        ImportJobDTO dto = new ImportJobDTO();
+        dto.setJobId(job.getId());
+        dto.setStatus(job.getStatus().name());
+        dto.setFormat(job.getFormat().getValue());
+        dto.setFileName(job.getFileName());
+        dto.setTotalBytes(job.getTotalBytes());
+        dto.setBytesRead(job.getBytesRead());
+        dto.setPercentComplete(job.getTotalBytes() > 0 ? (int) (job.getBytesRead() * 100 / job.getTotalBytes()) : 100);
+        dto.setRowsRead(job.getRowsRead());
+        dto.setRowsImported(job.getRowsImported());
+        dto.setRowsFailed(job.getRowsFailed());
+        dto.setRowsPerSecond(Math.round(job.getRowsPerSecond() * 10) / 10.0);
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setFailureMessage(job.getFailureMessage());
+        dto.setErrors(job.getErrors().stream()
+                .map(error -> new ImportErrorDTO(error.getLine(), error.getMessage()))
+                .collect(Collectors.toList()));
+        dto.setErrorsTruncated(job.getRowsFailed() > dto.getErrors().size());
+        return dto;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    public int getPercentComplete() {
+        return percentComplete;
+    }
+
+    public void setPercentComplete(int percentComplete) {
+        this.percentComplete = percentComplete;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public void setRowsFailed(long rowsFailed) {
+        this.rowsFailed = rowsFailed;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public void setFailureMessage(String failureMessage) {
+        this.failureMessage = failureMessage;
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+}
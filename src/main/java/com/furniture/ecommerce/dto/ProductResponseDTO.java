@@ -1,5 +1,8 @@
 package com.furniture.ecommerce.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -18,6 +21,12 @@ public class ProductResponseDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean inStock;
+    // Only written for products read from the archive
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean archived;
+    // Entity version the response was built from; null when it does not match a stored version
+    @JsonIgnore
+    private Long version;
     
     // Nested DTO for dimensions
     public static class DimensionsDTO {
@@ -121,6 +130,7 @@ public class ProductResponseDTO {
         dto.setCreatedAt(product.getCreatedAt());
         dto.setUpdatedAt(product.getUpdatedAt());
         dto.setInStock(product.getStock() != null && product.getStock() > 0);
+        dto.setVersion(product.getVersion());
         
         return dto;
     }
@@ -229,4 +239,20 @@ public class ProductResponseDTO {
     public void setInStock(boolean inStock) {
         this.inStock = inStock;
     }
-} 
+    
+    public boolean isArchived() {
+        return archived;
+    }
+    
+    public void setArchived(boolean archived) {
+        this.archived = archived;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,91 @@
+package com.furniture.ecommerce.dto;
+
+import com.furniture.ecommerce.reservation.Reservation;
+
+import java.time.Instant;
+
+public class ReservationDTO {
+
+    /** Status of a reservation still holding stock. */
+    public static final String ACTIVE = "active";
+    /** Status of a reservation whose units were taken out of stock. */
+    public static final String CONFIRMED = "confirmed";
+    /** Status of a reservation given up before it expired. */
+    public static final String RELEASED = "released";
+
+    private String id;
+    private Long productId;
+    private int quantity;
+    private Instant createdAt;
+    private Instant expiresAt;
+    private String status;
+
+    public ReservationDTO() {
+    }
+
+    /**
+     * Describe a reservation.
+     *
+     * @param reservation the reservation
+     * @param status one of {@link #ACTIVE}, {@link #CONFIRMED} or {@link #RELEASED}
+     * @return the response
+     */
+    public static ReservationDTO fromReservation(Reservation reservation, String status) {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setId(reservation.getId());
+        dto.setProductId(reservation.getProductId());
+        dto.setQuantity(reservation.getQuantity());
+        dto.setCreatedAt(reservation.getCreatedAt());
+        dto.setExpiresAt(reservation.getExpiresAt());
+        dto.setStatus(status);
+        return dto;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
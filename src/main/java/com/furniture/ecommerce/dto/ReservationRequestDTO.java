@@ -0,0 +1,39 @@
+package com.furniture.ecommerce.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class ReservationRequestDTO {
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    // Optional; the configured default hold time when omitted
+    @Min(value = 1, message = "Hold time must be at least 1 second")
+    private Long ttlSeconds;
+
+    public ReservationRequestDTO() {
+    }
+
+    public ReservationRequestDTO(Integer quantity, Long ttlSeconds) {
+        this.quantity = quantity;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
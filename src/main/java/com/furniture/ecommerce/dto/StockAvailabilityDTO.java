@@ -0,0 +1,51 @@
+package com.furniture.ecommerce.dto;
+
+public class StockAvailabilityDTO {
+
+    private Long productId;
+    private int stock;
+    private int reserved;
+    private int available;
+
+    public StockAvailabilityDTO() {
+    }
+
+    public StockAvailabilityDTO(Long productId, int stock, int reserved, int available) {
+        this.productId = productId;
+        this.stock = stock;
+        this.reserved = reserved;
+        this.available = available;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+
+    public int getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,43 @@
+package com.furniture.ecommerce.dto;
+
+import java.util.List;
+
+public class SuggestionDTO {
+
+    private String text;
+    private List<String> types;
+    private long weight;
+
+    public SuggestionDTO() {
+    }
+
+    public SuggestionDTO(String text, List<String> types, long weight) {
+        this.text = text;
+        this.types = types;
+        this.weight = weight;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public List<String> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<String> types) {
+        this.types = types;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public void setWeight(long weight) {
+        this.weight = weight;
+    }
+}
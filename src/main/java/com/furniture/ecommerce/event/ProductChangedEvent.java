@@ -0,0 +1,84 @@
+package com.furniture.ecommerce.event;
+
+/**
+ * Published by the product service whenever a product is created, updated or deleted, and by the
+ * cluster coherence listener when another instance reports such a change.
+ *
+ * <p>Listeners that maintain derived state should use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT, fallbackExecution = true)} so that
+ * rolled-back changes are never applied.
+ */
+public final class ProductChangedEvent {
+
+    private final Long productId;
+    private final ProductSnapshot product;
+    private final boolean remote;
+
+    private ProductChangedEvent(Long productId, ProductSnapshot product, boolean remote) {
+        this.productId = productId;
+        this.product = product;
+        this.remote = remote;
+    }
+
+    /**
+     * A product was created or updated.
+     *
+     * @param product the product's new state
+     * @return the event
+     */
+    public static ProductChangedEvent saved(ProductSnapshot product) {
+        return new ProductChangedEvent(product.getId(), product, false);
+    }
+
+    /**
+     * A product was deleted.
+     *
+     * @param productId the deleted product's ID
+     * @return the event
+     */
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null, false);
+    }
+
+    /**
+     * Another instance changed a product; the snapshot was re-read from the database.
+     *
+     * @param productId the product's ID
+     * @param product the product's current state, or null if it no longer exists
+     * @return the event
+     */
+    public static ProductChangedEvent remote(Long productId, ProductSnapshot product) {
+        return new ProductChangedEvent(productId, product, true);
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    /**
+     * Get the product's new state.
+     *
+     * @return the snapshot, or null if the product was deleted
+     */
+    public ProductSnapshot getProduct() {
+        return product;
+    }
+
+    /**
+     * Whether the product was deleted.
+     *
+     * @return true for deletions
+     */
+    public boolean isDeleted() {
+        return product == null;
+    }
+
+    /**
+     * Whether the change was made by another instance.
+     *
+     * @return true for changes received from the cluster
+     */
+    public boolean isRemote() {
+        return remote;
+    }
+}
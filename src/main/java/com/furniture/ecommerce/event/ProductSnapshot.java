@@ -0,0 +1,174 @@
+package com.furniture.ecommerce.event;
+
+import com.furniture.ecommerce.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the searchable fields of a product, safe to hand to in-memory indexes after
+ * the transaction that produced it has ended.
+ *
+ * <p>The description is only carried to indexes as part of a product's new state; the copy the
+ * index maintainer keeps for later removal drops it (see {@link #withoutDescription()}) so that a
+ * large catalog's descriptions are not held in memory twice.
+ */
+public final class ProductSnapshot {
+
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final String category;
+    private final BigDecimal price;
+    private final int stock;
+    private final Double width;
+    private final Double height;
+    private final Double depth;
+    private final String material;
+    private final String color;
+    private final String imageUrl;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Long version;
+
+    private ProductSnapshot(Product product, int stock) {
+        this.id = product.getId();
+        this.name = product.getName();
+        this.description = product.getDescription();
+        this.category = product.getCategory();
+        this.price = product.getPrice();
+        this.stock = stock;
+        this.width = product.getWidth();
+        this.height = product.getHeight();
+        this.depth = product.getDepth();
+        this.material = product.getMaterial();
+        this.color = product.getColor();
+        this.imageUrl = product.getImageUrl();
+        this.createdAt = product.getCreatedAt();
+        this.updatedAt = product.getUpdatedAt();
+        this.version = product.getVersion();
+    }
+
+    private ProductSnapshot(ProductSnapshot source, String description) {
+        this.id = source.id;
+        this.name = source.name;
+        this.description = description;
+        this.category = source.category;
+        this.price = source.price;
+        this.stock = source.stock;
+        this.width = source.width;
+        this.height = source.height;
+        this.depth = source.depth;
+        this.material = source.material;
+        this.color = source.color;
+        this.imageUrl = source.imageUrl;
+        this.createdAt = source.createdAt;
+        this.updatedAt = source.updatedAt;
+        this.version = source.version;
+    }
+
+    /**
+     * Snapshot a product as stored.
+     *
+     * @param product the product
+     * @return the snapshot
+     */
+    public static ProductSnapshot of(Product product) {
+        return new ProductSnapshot(product, product.getStock() != null ? product.getStock() : 0);
+    }
+
+    /**
+     * Snapshot a product with a stock level that is not yet written to the entity.
+     *
+     * @param product the product
+     * @param stock the effective stock level
+     * @return the snapshot
+     */
+    public static ProductSnapshot of(Product product, int stock) {
+        return new ProductSnapshot(product, stock);
+    }
+
+    /**
+     * Copy of this snapshot without the description.
+     *
+     * @return the copy, or this snapshot if it has no description
+     */
+    public ProductSnapshot withoutDescription() {
+        return description == null ? this : new ProductSnapshot(this, null);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the description.
+     *
+     * @return the description, or null on snapshots handed back for removal
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public Double getWidth() {
+        return width;
+    }
+
+    public Double getHeight() {
+        return height;
+    }
+
+    public Double getDepth() {
+        return depth;
+    }
+
+    public String getMaterial() {
+        return material;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Get the entity version.
+     *
+     * @return the version, or null if the product was not persisted when the snapshot was taken
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductSnapshot{id=" + id + ", name='" + name + "', category='" + category + "'}";
+    }
+}
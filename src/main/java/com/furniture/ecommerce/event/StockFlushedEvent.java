@@ -0,0 +1,26 @@
+package com.furniture.ecommerce.event;
+
+import java.util.Set;
+
+/**
+ * Published by the stock write-behind buffer after buffered stock levels were written to the
+ * database. The products' change events went out when the stock was recorded; this only tells
+ * listeners that the stored rows, and their versions, have now caught up.
+ */
+public final class StockFlushedEvent {
+
+    private final Set<Long> productIds;
+
+    /**
+     * Create the event.
+     *
+     * @param productIds the products whose rows were written
+     */
+    public StockFlushedEvent(Set<Long> productIds) {
+        this.productIds = Set.copyOf(productIds);
+    }
+
+    public Set<Long> getProductIds() {
+        return productIds;
+    }
+}
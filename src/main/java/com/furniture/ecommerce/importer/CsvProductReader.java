@@ -0,0 +1,188 @@
+package com.furniture.ecommerce.importer;
+
+import com.furniture.ecommerce.dto.ProductRequestDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads RFC 4180 CSV. The first record is a header naming the product field of each column
+ * ({@code name}, {@code price}, {@code imageUrl} or {@code image_url}, ...); columns with other
+ * names are ignored and empty cells are treated as absent. Quoted cells may contain commas,
+ * doubled quotes and line breaks.
+ */
+class CsvProductReader implements ProductRecordReader {
+
+    private static final int EOF = -1;
+
+    private final BufferedReader reader;
+    private String[] columns;
+    private long lineNumber = 1;
+    private long recordLine;
+    private int pushedBack = EOF;
+
+    CsvProductReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        if (columns == null) {
+            List<String> header = readRecord();
+            if (header == null) {
+                return null;
+            }
+            columns = header.stream()
+                    .map(column -> column.trim().replace("_", "").toLowerCase(Locale.ROOT))
+                    .toArray(String[]::new);
+        }
+        List<String> cells = readRecord();
+        if (cells == null) {
+            return null;
+        }
+        ProductRequestDTO request = new ProductRequestDTO();
+        for (int i = 0; i < columns.length && i < cells.size(); i++) {
+            String cell = cells.get(i).trim();
+            if (cell.isEmpty()) {
+                continue;
+            }
+            try {
+                set(request, columns[i], cell);
+            } catch (NumberFormatException e) {
+                return ImportRow.failed(recordLine, "Invalid number in column " + columns[i] + ": '" + cell + "'");
+            }
+        }
+        return ImportRow.parsed(recordLine, request);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static void set(ProductRequestDTO request, String column, String value) {
+        switch (column) {
+            case "name":
+                request.setName(value);
+                break;
+            case "description":
+                request.setDescription(value);
+                break;
+            case "category":
+                request.setCategory(value);
+                break;
+            case "price":
+                request.setPrice(new BigDecimal(value));
+                break;
+            case "stock":
+                request.setStock(Integer.valueOf(value));
+                break;
+            case "width":
+                request.setWidth(Double.valueOf(value));
+                break;
+            case "height":
+                request.setHeight(Double.valueOf(value));
+                break;
+            case "depth":
+                request.setDepth(Double.valueOf(value));
+                break;
+            case "material":
+                request.setMaterial(value);
+                break;
+            case "color":
+                request.setColor(value);
+                break;
+            case "imageurl":
+                request.setImageUrl(value);
+                break;
+            default:
+                // Unknown columns are ignored
+                break;
+        }
+    }
+
+    /**
+     * Read one record, skipping blank lines.
+     *
+     * @return the cells of the record, or null at the end of the input
+     */
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        while (c == '\n' || c == '\r') {
+            skipLineBreak(c);
+            c = read();
+        }
+        if (c == EOF) {
+            return null;
+        }
+        recordLine = lineNumber;
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    // Unterminated quote: keep what was read rather than losing the record
+                    cells.add(cell.toString());
+                    return cells;
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n' || (c == '\r' && peek() != '\n')) {
+                        lineNumber++;
+                    }
+                    cell.append((char) c);
+                }
+            } else if (c == '"' && cell.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == EOF) {
+                cells.add(cell.toString());
+                if (c != EOF) {
+                    skipLineBreak(c);
+                }
+                return cells;
+            } else {
+                cell.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private void skipLineBreak(int c) throws IOException {
+        if (c == '\r' && peek() == '\n') {
+            read();
+        }
+        lineNumber++;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != EOF) {
+            int c = pushedBack;
+            pushedBack = EOF;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (pushedBack == EOF) {
+            pushedBack = reader.read();
+        }
+        return pushedBack;
+    }
+}
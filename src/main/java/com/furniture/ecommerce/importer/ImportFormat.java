@@ -0,0 +1,72 @@
+package com.furniture.ecommerce.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * File formats accepted by the product import.
+ */
+public enum ImportFormat {
+
+    /** Comma-separated values with a header row naming the product fields. */
+    CSV("csv"),
+
+    /** One JSON product object per line. */
+    NDJSON("ndjson");
+
+    private final String value;
+
+    ImportFormat(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Open a streaming reader over an import file.
+     *
+     * @param input the file contents, UTF-8 encoded
+     * @param objectMapper parses NDJSON records
+     * @return a reader positioned before the first record
+     */
+    public ProductRecordReader open(InputStream input, ObjectMapper objectMapper) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return this == CSV ? new CsvProductReader(reader) : new NdjsonProductReader(reader, objectMapper);
+    }
+
+    /**
+     * Work out the format of an upload.
+     *
+     * @param requested format named by the client, may be null
+     * @param fileName original file name, may be null
+     * @param contentType content type of the upload part, may be null
+     * @return the format
+     * @throws IllegalArgumentException if the format is unknown or cannot be determined
+     */
+    public static ImportFormat detect(String requested, String fileName, String contentType) {
+        if (requested != null && !requested.isBlank()) {
+            for (ImportFormat format : values()) {
+                if (format.value.equalsIgnoreCase(requested.trim())) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported import format: " + requested + " (use csv or ndjson)");
+        }
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv") || type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || type.startsWith("application/x-ndjson")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Cannot tell the import format from the file; pass format=csv or ndjson");
+    }
+}
@@ -0,0 +1,233 @@
+package com.furniture.ecommerce.importer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one product import. Updated by the import worker and read by status requests.
+ */
+public class ImportJob {
+
+    /**
+     * Lifecycle of an import job.
+     */
+    public enum Status {
+        /** Waiting for a free import worker. */
+        QUEUED,
+        /** Rows are being read, validated and written. */
+        RUNNING,
+        /** The whole file was processed; individual rows may still have failed. */
+        COMPLETED,
+        /** The file could not be processed to the end. */
+        FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final ImportFormat format;
+    private final String fileName;
+    private final long totalBytes;
+    private final int maxReportedErrors;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile long bytesRead;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failureMessage;
+
+    /**
+     * Constructor for ImportJob.
+     *
+     * @param format format of the uploaded file
+     * @param fileName original name of the uploaded file
+     * @param totalBytes size of the uploaded file
+     * @param maxReportedErrors row errors kept for reporting; further errors are only counted
+     */
+    public ImportJob(ImportFormat format, String fileName, long totalBytes, int maxReportedErrors) {
+        this.format = format;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Mark the job as picked up by a worker.
+     */
+    public void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    /**
+     * Mark the whole file as processed.
+     */
+    public void complete() {
+        bytesRead = totalBytes;
+        finish(Status.COMPLETED);
+    }
+
+    /**
+     * Mark the job as aborted.
+     *
+     * @param message why the file could not be processed
+     */
+    public void fail(String message) {
+        failureMessage = message;
+        finish(Status.FAILED);
+    }
+
+    /**
+     * Count records read from the file, whether or not they turn out to be valid.
+     *
+     * @param rows number of records
+     * @param bytes bytes of the file consumed so far
+     */
+    public void recordRead(int rows, long bytes) {
+        rowsRead.addAndGet(rows);
+        bytesRead = Math.min(bytes, totalBytes);
+    }
+
+    /**
+     * Count rows written to the catalog.
+     *
+     * @param rows number of rows
+     */
+    public void recordImported(int rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    /**
+     * Record a row that was not imported.
+     *
+     * @param line line of the file the row starts on
+     * @param message why the row was rejected
+     */
+    public void recordError(long line, String message) {
+        rowsFailed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    /**
+     * Get the reported row errors.
+     *
+     * @return a copy of the first row errors, in file order
+     */
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    /**
+     * Whether the job has stopped, successfully or not.
+     *
+     * @return true if the job is completed or failed
+     */
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    /**
+     * Rows processed per second since the job started, up to now or the end of the job.
+     *
+     * @return the throughput, or 0 before the job starts
+     */
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, end.toEpochMilli() - start.toEpochMilli());
+        return (rowsImported.get() + rowsFailed.get()) * 1000.0 / millis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.get();
+    }
+
+    private void finish(Status finalStatus) {
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+
+    /**
+     * A row that was not imported.
+     */
+    public static final class RowError {
+
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.furniture.ecommerce.importer;
+
+import com.furniture.ecommerce.dto.ProductRequestDTO;
+
+/**
+ * One record of an import file: the parsed product, or why it could not be used.
+ */
+public final class ImportRow {
+
+    private final long line;
+    private final ProductRequestDTO request;
+    private final String error;
+
+    private ImportRow(long line, ProductRequestDTO request, String error) {
+        this.line = line;
+        this.request = request;
+        this.error = error;
+    }
+
+    /**
+     * A record that was parsed into a product request.
+     *
+     * @param line line of the file the record starts on
+     * @param request the parsed request
+     * @return the row
+     */
+    public static ImportRow parsed(long line, ProductRequestDTO request) {
+        return new ImportRow(line, request, null);
+    }
+
+    /**
+     * A record that was rejected.
+     *
+     * @param line line of the file the record starts on
+     * @param error why the record was rejected
+     * @return the row
+     */
+    public static ImportRow failed(long line, String error) {
+        return new ImportRow(line, null, error);
+    }
+
+    /**
+     * The same record, now rejected by a later check.
+     *
+     * @param reason why the record was rejected
+     * @return the rejected row
+     */
+    public ImportRow reject(String reason) {
+        return new ImportRow(line, request, reason);
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public ProductRequestDTO getRequest() {
+        return request;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+}
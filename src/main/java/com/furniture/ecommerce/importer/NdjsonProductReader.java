@@ -0,0 +1,46 @@
+package com.furniture.ecommerce.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.ecommerce.dto.ProductRequestDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads newline-delimited JSON, one product object per line. Blank lines are skipped.
+ */
+class NdjsonProductReader implements ProductRecordReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    NdjsonProductReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String line = reader.readLine();
+        lineNumber++;
+        while (line != null && line.isBlank()) {
+            line = reader.readLine();
+            lineNumber++;
+        }
+        if (line == null) {
+            return null;
+        }
+        try {
+            return ImportRow.parsed(lineNumber, objectMapper.readValue(line, ProductRequestDTO.class));
+        } catch (JsonProcessingException e) {
+            return ImportRow.failed(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,19 @@
+package com.furniture.ecommerce.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streams the records of an import file one at a time, so memory use does not depend on file size.
+ */
+public interface ProductRecordReader extends Closeable {
+
+    /**
+     * Read the next record. Records that cannot be parsed are returned as failed rows rather than
+     * thrown, so one malformed line does not abort the import.
+     *
+     * @return the next record, or null at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    ImportRow next() throws IOException;
+}
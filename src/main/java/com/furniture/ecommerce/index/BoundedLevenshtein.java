@@ -0,0 +1,61 @@
+package com.furniture.ecommerce.index;
+
+/**
+ * Levenshtein distance that gives up as soon as the distance must exceed a bound.
+ *
+ * <p>Only the diagonal band of width {@code 2 * max + 1} is computed, so checking a candidate costs
+ * O(length * max) instead of O(length^2), and most non-matches are rejected after a few rows.
+ */
+final class BoundedLevenshtein {
+
+    private BoundedLevenshtein() {
+    }
+
+    /**
+     * Edit distance between two strings, if it is at most {@code max}.
+     *
+     * @param a first string
+     * @param b second string
+     * @param max largest distance of interest
+     * @return the distance, or -1 if it is greater than {@code max}
+     */
+    static int distance(CharSequence a, CharSequence b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return -1;
+        }
+        int infinity = max + 1;
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= max ? j : infinity;
+        }
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            current[0] = i <= max ? i : infinity;
+            if (from > 1) {
+                current[from - 1] = infinity;
+            }
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = Math.min(value, infinity);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = infinity;
+            }
+            if (rowMin > max) {
+                return -1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m] <= max ? previous[m] : -1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+
+/**
+ * An in-memory structure derived from the catalog, kept current by {@link CatalogIndexMaintainer}.
+ *
+ * <p>Implementations are registered as beans and receive the whole catalog on startup, then one
+ * call per committed product change. Calls are serialized by the maintainer; implementations only
+ * need to make their reads safe against a concurrent update. Snapshots handed back as the previous
+ * state have no description; indexes over descriptions must keep what they need themselves.
+ */
+public interface CatalogIndex {
+
+    /**
+     * Index a product.
+     *
+     * @param product the product to add
+     */
+    void add(ProductSnapshot product);
+
+    /**
+     * Remove a product.
+     *
+     * @param product the product as it was passed to {@link #add}, without its description
+     */
+    void remove(ProductSnapshot product);
+
+    /**
+     * Replace the indexed state of a product. Override when an in-place update is cheaper.
+     *
+     * @param previous the product as it was passed to {@link #add}, without its description
+     * @param current the product's new state
+     */
+    default void update(ProductSnapshot previous, ProductSnapshot current) {
+        remove(previous);
+        add(current);
+    }
+
+    /**
+     * Drop everything before a full rebuild.
+     */
+    void clear();
+
+    /**
+     * Called after a full rebuild has added every product.
+     */
+    default void afterRebuild() {
+    }
+}
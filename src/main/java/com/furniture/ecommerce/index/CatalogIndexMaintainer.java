@@ -0,0 +1,218 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Builds every {@link CatalogIndex} from the database on startup and applies committed product
+ * changes to them afterwards.
+ *
+ * <p>The maintainer keeps the last indexed snapshot of each product, so change events only need to
+ * carry the new state: the previous one is looked up here and handed to the indexes for removal.
+ * Applying the same event twice is harmless, which makes the rebuild safe against writes that
+ * commit while it is reading the catalog.
+ *
+ * <p>Listeners of concurrent transactions may run in a different order than the transactions
+ * committed. An event older than the snapshot already held is dropped, and a deletion leaves a
+ * marker behind that no later event for the product passes: product IDs are never reused, so such
+ * an event can only be a late one. Events of the same version are applied, as buffered
+ * write-behind stock levels keep the version of the row they will be written to.
+ *
+ * <p>Changes are applied one at a time, but readers of the snapshots never lock: scans run
+ * concurrently with each other and with changes, and a rebuild publishes its snapshots only once
+ * it has read them all.
+ *
+ * <p>A rebuild reads the catalog in batches of ascending IDs, so rows deleted or archived meanwhile
+ * cannot shift later rows past it, and holds back changes only while it adds a batch. Changes
+ * committed in between are applied to the snapshots being rebuilt, and the batch rows of products
+ * changed or deleted that way are skipped: the change is at least as recent as the row read.
+ */
+@Component
+@Order(CatalogIndexMaintainer.ORDER)
+public class CatalogIndexMaintainer implements ApplicationRunner {
+
+    /** Runner order; after data initialization and before cache warm-up. */
+    public static final int ORDER = 50;
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogIndexMaintainer.class);
+
+    private static final int BATCH_SIZE = 5000;
+
+    // Late events arrive within moments of the deletion; the markers only need to outlive that
+    private static final int DELETION_MARKERS = 100_000;
+    private static final Duration DELETION_MARKER_TTL = Duration.ofMinutes(10);
+
+    private final ProductRepository productRepository;
+    private final List<CatalogIndex> indexes;
+    private volatile Map<Long, ProductSnapshot> indexed = new ConcurrentHashMap<>();
+    // The snapshots a running rebuild is adding to the indexes, or null; guarded by this
+    private Map<Long, ProductSnapshot> rebuilding;
+    private final Object rebuildLock = new Object();
+    private final Cache<Long, Boolean> deleted = Caffeine.newBuilder()
+            .maximumSize(DELETION_MARKERS)
+            .expireAfterWrite(DELETION_MARKER_TTL)
+            .build();
+
+    /**
+     * Constructor for CatalogIndexMaintainer.
+     *
+     * @param productRepository the product repository
+     * @param indexes all catalog indexes in the application
+     */
+    public CatalogIndexMaintainer(ProductRepository productRepository, List<CatalogIndex> indexes) {
+        this.productRepository = productRepository;
+        this.indexes = indexes;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    /**
+     * Reload the whole catalog into every index.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            // Scans keep reading the previous snapshots until this one is complete
+            Map<Long, ProductSnapshot> rebuilt = new ConcurrentHashMap<>();
+            synchronized (this) {
+                rebuilding = rebuilt;
+                indexes.forEach(CatalogIndex::clear);
+            }
+
+            // One batch per transaction keeps the persistence context small on large catalogs
+            long lastId = 0;
+            List<Product> batch;
+            do {
+                batch = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(BATCH_SIZE));
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                    addRebuilt(batch.stream().map(ProductSnapshot::of).toList());
+                }
+            } while (batch.size() == BATCH_SIZE);
+
+            synchronized (this) {
+                indexed = rebuilt;
+                rebuilding = null;
+                indexes.forEach(CatalogIndex::afterRebuild);
+            }
+            logger.info("Built {} catalog indexes over {} products in {} ms",
+                    indexes.size(), rebuilt.size(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Apply a committed product change to every index.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        Long id = event.getProductId();
+        if (deleted.getIfPresent(id) != null) {
+            return;
+        }
+        // During a rebuild the indexes hold what it has added so far
+        Map<Long, ProductSnapshot> target = rebuilding != null ? rebuilding : indexed;
+        ProductSnapshot previous;
+        if (event.isDeleted()) {
+            deleted.put(id, Boolean.TRUE);
+            previous = target.remove(id);
+            indexed.remove(id);
+        } else if (isOlder(event.getProduct(), target.get(id)) || isOlder(event.getProduct(), indexed.get(id))) {
+            logger.debug("Dropped a late change of product {} to version {}", id, event.getProduct().getVersion());
+            return;
+        } else {
+            ProductSnapshot current = event.getProduct().withoutDescription();
+            previous = target.put(id, current);
+            if (target != indexed) {
+                indexed.put(id, current);
+            }
+        }
+        for (CatalogIndex index : indexes) {
+            if (previous == null) {
+                if (!event.isDeleted()) {
+                    index.add(event.getProduct());
+                }
+            } else if (event.isDeleted()) {
+                index.remove(previous);
+            } else {
+                index.update(previous, event.getProduct());
+            }
+        }
+    }
+
+    private synchronized void addRebuilt(List<ProductSnapshot> batch) {
+        for (ProductSnapshot snapshot : batch) {
+            Long id = snapshot.getId();
+            // Changed or deleted since the batch was read; the change has been applied already
+            if (rebuilding.containsKey(id) || deleted.getIfPresent(id) != null) {
+                continue;
+            }
+            rebuilding.put(id, snapshot.withoutDescription());
+            indexes.forEach(index -> index.add(snapshot));
+        }
+    }
+
+    /**
+     * Visit every indexed product, without holding back changes or other visits. A product changed
+     * during the visit is seen in either its previous or its new state.
+     *
+     * @param visitor called once per product, without its description
+     */
+    public void forEachProduct(Consumer<ProductSnapshot> visitor) {
+        indexed.values().forEach(visitor);
+    }
+
+    /**
+     * Visit the indexed products with the given IDs, such as the candidates an index selected.
+     *
+     * @param ids the product IDs; IDs of products not indexed are skipped
+     * @param visitor called once per indexed product, without its description
+     */
+    public void forEachProduct(Collection<Long> ids, Consumer<ProductSnapshot> visitor) {
+        Map<Long, ProductSnapshot> current = indexed;
+        for (Long id : ids) {
+            ProductSnapshot product = current.get(id);
+            if (product != null) {
+                visitor.accept(product);
+            }
+        }
+    }
+
+    /**
+     * Number of products currently indexed.
+     *
+     * @return the product count
+     */
+    public int size() {
+        return indexed.size();
+    }
+
+    private static boolean isOlder(ProductSnapshot product, ProductSnapshot held) {
+        return held != null && product.getVersion() != null && held.getVersion() != null
+                && product.getVersion() < held.getVersion();
+    }
+}
@@ -0,0 +1,341 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Materialized category listings: the product ids of each category, pre-sorted in every order a
+ * category page is commonly requested in, so a page is a slice of an array instead of a query.
+ *
+ * <p>Each order is a sort key packed into a {@code long} (price in cents, creation time in
+ * microseconds, negated for descending orders) with ties broken by ascending id, matching
+ * {@link ProductOrder}. A listing keeps, per order, the ids and their keys in parallel arrays split
+ * into chunks of one to two thousand entries. Writes are applied incrementally: a product is
+ * binary-searched into or out of one chunk of each order of its category, and only that chunk and
+ * the table of chunks are copied, so a write to a category of a million products copies tens of
+ * kilobytes rather than the whole category. A stock change, which moves nothing, costs nothing.
+ * Listings are immutable and replaced on every change, so readers never lock and always see one
+ * consistent version of a category. Only a full rebuild sorts from scratch.
+ */
+@Component
+public class CategoryListings implements CatalogIndex {
+
+    // Orders with a materialized listing; a listing's arrays are in this order
+    private static final ProductOrder[] ORDERS = {
+        ProductOrder.BY_ID,
+        ProductOrder.parse("price,asc"),
+        ProductOrder.parse("price,desc"),
+        ProductOrder.parse("createdAt,desc")
+    };
+
+    // The slot ordered by price in cents, which doubles as a price index
+    private static final int PRICE_ASCENDING = 1;
+
+    private static final List<ToLongFunction<ProductSnapshot>> KEYS = List.of(
+        product -> 0L,
+        product -> cents(product.getPrice()),
+        product -> -cents(product.getPrice()),
+        product -> -micros(product.getCreatedAt()));
+
+    private final boolean enabled;
+    private final Map<String, Listing> listings = new ConcurrentHashMap<>();
+    // Products added during a rebuild, sorted all at once when it completes
+    private final Map<String, List<ProductSnapshot>> pending = new HashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * Constructor for CategoryListings.
+     *
+     * @param enabled whether category listings are materialized
+     */
+    public CategoryListings(@Value("${catalog.category-listings.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void add(ProductSnapshot product) {
+        if (!enabled) {
+            return;
+        }
+        String category = key(product.getCategory());
+        if (!ready) {
+            pending.computeIfAbsent(category, c -> new ArrayList<>()).add(product);
+            return;
+        }
+        Listing listing = listings.getOrDefault(category, Listing.EMPTY);
+        listings.put(category, listing.with(product.getId(), sortKeys(product)));
+    }
+
+    @Override
+    public void remove(ProductSnapshot product) {
+        if (!enabled || !ready) {
+            return;
+        }
+        String category = key(product.getCategory());
+        Listing listing = listings.get(category);
+        if (listing == null) {
+            return;
+        }
+        Listing remaining = listing.without(product.getId(), sortKeys(product));
+        if (remaining.size() == 0) {
+            listings.remove(category);
+        } else {
+            listings.put(category, remaining);
+        }
+    }
+
+    @Override
+    public void update(ProductSnapshot previous, ProductSnapshot current) {
+        // Stock and description changes leave every listing as it is
+        if (key(previous.getCategory()).equals(key(current.getCategory()))
+                && Arrays.equals(sortKeys(previous), sortKeys(current))) {
+            return;
+        }
+        remove(previous);
+        add(current);
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        listings.clear();
+        pending.clear();
+    }
+
+    @Override
+    public void afterRebuild() {
+        if (!enabled) {
+            return;
+        }
+        pending.forEach((category, products) -> listings.put(category, Listing.of(products)));
+        pending.clear();
+        ready = true;
+    }
+
+    /**
+     * Whether a category page in the given order can be served from a listing.
+     *
+     * @param order the requested order
+     * @return false for orders without a listing, when disabled, or while the listings are built
+     */
+    public boolean supports(ProductOrder order) {
+        return ready && slot(order) >= 0;
+    }
+
+    /**
+     * A page of a category's product ids.
+     *
+     * @param category the category, matched ignoring case
+     * @param order the order; see {@link #supports}
+     * @param offset number of products to skip
+     * @param limit maximum number of ids, or 0 for all
+     * @return the ids in order, or null if the order is not {@link #supports supported}
+     */
+    public List<Long> page(String category, ProductOrder order, int offset, int limit) {
+        int slot = slot(order);
+        if (!ready || slot < 0) {
+            return null;
+        }
+        OrderedIds ids = listings.getOrDefault(key(category), Listing.EMPTY).orders[slot];
+        int from = Math.min(Math.max(0, offset), ids.size());
+        int to = limit > 0 ? (int) Math.min((long) from + limit, ids.size()) : ids.size();
+        List<Long> page = new ArrayList<>(to - from);
+        ids.addTo(page, from, to);
+        return page;
+    }
+
+    /**
+     * Ids of the products within a price range, by binary search of the price-ordered listings.
+     * Prices are compared in whole cents, so bounds with fractions of a cent may let a few products
+     * just outside the range through; callers check the exact bounds.
+     *
+     * @param category the category, matched ignoring case, or null for every category
+     * @param minPrice the lowest price, or null for no lower bound
+     * @param maxPrice the highest price, or null for no upper bound
+     * @return the ids, in ascending price order within each category, or null while the listings
+     *         are built or when disabled
+     */
+    public List<Long> priceRange(String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!ready) {
+            return null;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Listing listing : searched(category)) {
+            int from = minPrice != null ? listing.lowerBound(PRICE_ASCENDING, cents(minPrice)) : 0;
+            int to = maxPrice != null ? listing.lowerBound(PRICE_ASCENDING, cents(maxPrice) + 1) : listing.size();
+            listing.orders[PRICE_ASCENDING].addTo(ids, from, to);
+        }
+        return ids;
+    }
+
+    /**
+     * Lowest and highest price within a price range, read off the ends of the price-ordered
+     * listings without visiting the products in between. Compared in whole cents like
+     * {@link #priceRange}.
+     *
+     * @param category the category, matched ignoring case, or null for every category
+     * @param minPrice the lowest price, or null for no lower bound
+     * @param maxPrice the highest price, or null for no upper bound
+     * @return the lowest and highest price in cents, an empty array if no product is in the range,
+     *         or null while the listings are built or when disabled
+     */
+    public long[] priceBounds(String category, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!ready) {
+            return null;
+        }
+        long lowest = Long.MAX_VALUE;
+        long highest = Long.MIN_VALUE;
+        for (Listing listing : searched(category)) {
+            int from = minPrice != null ? listing.lowerBound(PRICE_ASCENDING, cents(minPrice)) : 0;
+            int to = maxPrice != null ? listing.lowerBound(PRICE_ASCENDING, cents(maxPrice) + 1) : listing.size();
+            if (from < to) {
+                lowest = Math.min(lowest, listing.orders[PRICE_ASCENDING].keyAt(from));
+                highest = Math.max(highest, listing.orders[PRICE_ASCENDING].keyAt(to - 1));
+            }
+        }
+        return lowest <= highest ? new long[] {lowest, highest} : new long[0];
+    }
+
+    /**
+     * Number of products in a category.
+     *
+     * @param category the category, matched ignoring case
+     * @return the product count, or null while the listings are built or when disabled
+     */
+    public Integer size(String category) {
+        if (!ready) {
+            return null;
+        }
+        return listings.getOrDefault(key(category), Listing.EMPTY).size();
+    }
+
+    private Collection<Listing> searched(String category) {
+        return category != null ? List.of(listings.getOrDefault(key(category), Listing.EMPTY)) : listings.values();
+    }
+
+    private static int slot(ProductOrder order) {
+        for (int i = 0; i < ORDERS.length; i++) {
+            if (ORDERS[i].getField() == order.getField() && ORDERS[i].isDescending() == order.isDescending()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long[] sortKeys(ProductSnapshot product) {
+        long[] keys = new long[KEYS.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = KEYS.get(i).applyAsLong(product);
+        }
+        return keys;
+    }
+
+    private static long cents(BigDecimal price) {
+        return price != null ? price.movePointRight(2).longValue() : 0;
+    }
+
+    private static long micros(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static String key(String category) {
+        return Objects.requireNonNullElse(category, "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The ids of one category in every order, each with the sort keys it is ordered by.
+     */
+    private static final class Listing {
+
+        static final Listing EMPTY = new Listing(emptyOrders());
+
+        private final OrderedIds[] orders;
+
+        private Listing(OrderedIds[] orders) {
+            this.orders = orders;
+        }
+
+        static Listing of(List<ProductSnapshot> products) {
+            int n = products.size();
+            long[][] productKeys = new long[n][];
+            for (int p = 0; p < n; p++) {
+                productKeys[p] = sortKeys(products.get(p));
+            }
+            OrderedIds[] orders = new OrderedIds[ORDERS.length];
+            for (int slot = 0; slot < ORDERS.length; slot++) {
+                final int s = slot;
+                Integer[] byKey = new Integer[n];
+                for (int p = 0; p < n; p++) {
+                    byKey[p] = p;
+                }
+                Arrays.sort(byKey, (a, b) -> OrderedIds.compare(productKeys[a][s], products.get(a).getId(),
+                        productKeys[b][s], products.get(b).getId()));
+                long[] ids = new long[n];
+                long[] keys = new long[n];
+                for (int i = 0; i < n; i++) {
+                    ids[i] = products.get(byKey[i]).getId();
+                    keys[i] = productKeys[byKey[i]][slot];
+                }
+                orders[slot] = OrderedIds.of(ids, keys);
+            }
+            return new Listing(orders);
+        }
+
+        private static OrderedIds[] emptyOrders() {
+            OrderedIds[] orders = new OrderedIds[ORDERS.length];
+            Arrays.fill(orders, OrderedIds.EMPTY);
+            return orders;
+        }
+
+        int size() {
+            return orders[0].size();
+        }
+
+        Listing with(long id, long[] sortKeys) {
+            if (orders[0].indexOf(sortKeys[0], id) >= 0) {
+                // Already listed; a rebuild may replay a change it has read
+                return this;
+            }
+            OrderedIds[] changed = new OrderedIds[ORDERS.length];
+            for (int slot = 0; slot < ORDERS.length; slot++) {
+                changed[slot] = orders[slot].with(sortKeys[slot], id);
+            }
+            return new Listing(changed);
+        }
+
+        Listing without(long id, long[] sortKeys) {
+            if (orders[0].indexOf(sortKeys[0], id) < 0) {
+                return this;
+            }
+            OrderedIds[] changed = new OrderedIds[ORDERS.length];
+            for (int slot = 0; slot < ORDERS.length; slot++) {
+                changed[slot] = orders[slot].without(sortKeys[slot], id);
+            }
+            return new Listing(changed);
+        }
+
+        // Position of the first entry whose key is at least the given key
+        int lowerBound(int slot, long key) {
+            // No product has the smallest id, so the search always ends at the insertion point
+            return -orders[slot].indexOf(key, Long.MIN_VALUE) - 1;
+        }
+    }
+}
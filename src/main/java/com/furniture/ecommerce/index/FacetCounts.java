@@ -0,0 +1,270 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Product counts per facet value, maintained on every committed change.
+ *
+ * <p>Counts are kept for the whole catalog and for each category, material and color, each both in
+ * total and for products in stock. That answers the count of any search filtering on at most one of
+ * those facets, with or without {@code inStock}, exactly and without a query. Other searches can be
+ * {@link #estimate estimated} from the same counters and a log-scale price histogram, assuming the
+ * filters are independent. Stock and dimensions have a {@link NumericHistogram} too, for the
+ * selectivity estimates of the query planner.
+ */
+@Component
+public class FacetCounts implements CatalogIndex {
+
+    /** Numeric product attributes with a value histogram. */
+    public enum Measure {
+        PRICE(product -> product.getPrice() != null ? product.getPrice().doubleValue() : null),
+        STOCK(product -> (double) product.getStock()),
+        WIDTH(ProductSnapshot::getWidth),
+        HEIGHT(ProductSnapshot::getHeight),
+        DEPTH(ProductSnapshot::getDepth);
+
+        private final Function<ProductSnapshot, Double> value;
+
+        Measure(Function<ProductSnapshot, Double> value) {
+            this.value = value;
+        }
+
+        /**
+         * The attribute's value for a product.
+         *
+         * @param product the product
+         * @return the value, or null if the product has none
+         */
+        public Double of(ProductSnapshot product) {
+            return value.apply(product);
+        }
+    }
+
+    private static final String ALL = "";
+    private static final String IN_STOCK = "+";
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final Map<Measure, NumericHistogram> histograms = new EnumMap<>(Measure.class);
+    private volatile boolean ready;
+
+    /**
+     * Constructor for FacetCounts.
+     */
+    public FacetCounts() {
+        for (Measure measure : Measure.values()) {
+            histograms.put(measure, new NumericHistogram());
+        }
+    }
+
+    @Override
+    public void add(ProductSnapshot product) {
+        apply(product, 1);
+    }
+
+    @Override
+    public void remove(ProductSnapshot product) {
+        apply(product, -1);
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        counts.clear();
+        histograms.values().forEach(NumericHistogram::clear);
+    }
+
+    @Override
+    public void afterRebuild() {
+        ready = true;
+    }
+
+    /**
+     * Whether the counters cover the whole catalog, that is, no rebuild is in progress.
+     *
+     * @return true once the first build has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of products in the catalog.
+     *
+     * @return the product count
+     */
+    public long total() {
+        return get(ALL, false);
+    }
+
+    /**
+     * Number of products in stock.
+     *
+     * @return the in-stock product count
+     */
+    public long inStockTotal() {
+        return get(ALL, true);
+    }
+
+    /**
+     * Number of products in a category.
+     *
+     * @param category the category, case-insensitive
+     * @return the product count
+     */
+    public long categoryCount(String category) {
+        return get(categoryKey(lower(category)), false);
+    }
+
+    /**
+     * Number of products of a material.
+     *
+     * @param material the material, case-insensitive
+     * @return the product count
+     */
+    public long materialCount(String material) {
+        return get(materialKey(lower(material)), false);
+    }
+
+    /**
+     * Number of products of a color.
+     *
+     * @param color the color, case-insensitive
+     * @return the product count
+     */
+    public long colorCount(String color) {
+        return get(colorKey(lower(color)), false);
+    }
+
+    /**
+     * The value histogram of a numeric attribute; products without a value are not in it.
+     *
+     * @param measure the attribute
+     * @return the live histogram, for reading only
+     */
+    public NumericHistogram histogram(Measure measure) {
+        return histograms.get(measure);
+    }
+
+    /**
+     * Count the products matching a search, if the counters can answer it exactly.
+     *
+     * @param criteria canonical search criteria
+     * @return the exact count, or null if the search filters on price or on more than one facet,
+     *         or the counters are still being built
+     */
+    public Long exactCount(SearchCriteria criteria) {
+        if (!ready || criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            return null;
+        }
+        String key = ALL;
+        int facets = 0;
+        if (criteria.getCategory() != null) {
+            key = categoryKey(criteria.getCategory());
+            facets++;
+        }
+        if (criteria.getMaterial() != null) {
+            key = materialKey(criteria.getMaterial());
+            facets++;
+        }
+        if (criteria.getColor() != null) {
+            key = colorKey(criteria.getColor());
+            facets++;
+        }
+        return facets > 1 ? null : get(key, criteria.getInStock() != null);
+    }
+
+    /**
+     * Estimate the number of products matching a search: the count of its most selective facet,
+     * scaled by the selectivity of every other filter.
+     *
+     * @param criteria canonical search criteria
+     * @return the estimated count, never more than the catalog size
+     */
+    public long estimate(SearchCriteria criteria) {
+        long total = total();
+        if (total == 0) {
+            return 0;
+        }
+        boolean inStock = criteria.getInStock() != null;
+        long[] facetCounts = {
+            criteria.getCategory() != null ? get(categoryKey(criteria.getCategory()), inStock) : -1,
+            criteria.getMaterial() != null ? get(materialKey(criteria.getMaterial()), false) : -1,
+            criteria.getColor() != null ? get(colorKey(criteria.getColor()), false) : -1
+        };
+        // Start from the category, the facet that also carries the stock filter, or the whole catalog
+        double estimate = facetCounts[0] >= 0 ? facetCounts[0] : get(ALL, inStock);
+        for (int i = 1; i < facetCounts.length; i++) {
+            if (facetCounts[i] >= 0) {
+                estimate *= (double) facetCounts[i] / total;
+            }
+        }
+        estimate *= priceSelectivity(criteria.getMinPrice(), criteria.getMaxPrice());
+        return Math.min(total, Math.round(estimate));
+    }
+
+    private void apply(ProductSnapshot product, int delta) {
+        boolean inStock = product.getStock() > 0;
+        increment(ALL, inStock, delta);
+        increment(categoryKey(lower(product.getCategory())), inStock, delta);
+        if (product.getMaterial() != null) {
+            increment(materialKey(lower(product.getMaterial())), inStock, delta);
+        }
+        if (product.getColor() != null) {
+            increment(colorKey(lower(product.getColor())), inStock, delta);
+        }
+        for (Map.Entry<Measure, NumericHistogram> histogram : histograms.entrySet()) {
+            Double value = histogram.getKey().of(product);
+            if (value != null) {
+                histogram.getValue().add(value, delta);
+            }
+        }
+    }
+
+    private void increment(String key, boolean inStock, int delta) {
+        counts.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+        if (inStock) {
+            counts.computeIfAbsent(key + IN_STOCK, k -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+
+    private long get(String key, boolean inStock) {
+        AtomicLong count = counts.get(inStock ? key + IN_STOCK : key);
+        return count != null ? count.get() : 0;
+    }
+
+    private double priceSelectivity(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return 1;
+        }
+        double min = minPrice != null ? minPrice.doubleValue() : 0;
+        double max = maxPrice != null ? maxPrice.doubleValue() : Double.MAX_VALUE;
+        NumericHistogram prices = histograms.get(Measure.PRICE);
+        long total = prices.total();
+        return total == 0 ? 0 : prices.count(min, max) / total;
+    }
+
+    private static String categoryKey(String category) {
+        return "c:" + category;
+    }
+
+    private static String materialKey(String material) {
+        return "m:" + material;
+    }
+
+    private static String colorKey(String color) {
+        return "k:" + color;
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,463 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Typo-tolerant search over product names and descriptions.
+ *
+ * <p>Two levels of inverted index keep the work proportional to the vocabulary rather than the
+ * catalog: character trigrams map to the distinct words containing them, and each word maps to
+ * the products using it. A query word is matched against the vocabulary by trigram overlap (a word
+ * within {@code k} edits shares all but at most {@code 3k} of its padded trigrams), the surviving
+ * candidates are verified with a bounded Levenshtein distance, and only then are the product
+ * posting lists touched. Every query word must match (AND); results are ranked by total edit
+ * distance. Allowed edits grow with word length: none up to 2 letters, one up to 5, two beyond.
+ *
+ * <p>Removed products are only flagged as deleted and skipped at query time; once a quarter of the
+ * documents are deleted the postings are compacted.
+ */
+@Component
+public class FuzzySearchIndex implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FuzzySearchIndex.class);
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MIN_WORD_LENGTH = 2;
+    private static final int COMPACT_MIN_DELETED = 1000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<int[]> overlapCounts = ThreadLocal.withInitial(() -> new int[0]);
+
+    // Vocabulary: word id -> word and its postings (document numbers, ascending)
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final List<String> words = new ArrayList<>();
+    private final List<IntList> wordPostings = new ArrayList<>();
+    private final Map<String, IntList> trigramWords = new HashMap<>();
+
+    // Documents: dense numbers assigned in insertion order
+    private final Map<Long, Integer> documents = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] productIds = new long[1024];
+    private int[] contentHashes = new int[1024];
+    private int documentCount;
+    private int deletedCount;
+
+    @Override
+    public void add(ProductSnapshot product) {
+        lock.writeLock().lock();
+        try {
+            index(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(ProductSnapshot product) {
+        lock.writeLock().lock();
+        try {
+            unindex(product.getId());
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(ProductSnapshot previous, ProductSnapshot current) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documents.get(current.getId());
+            if (document != null && contentHashes[document] == contentHash(current)) {
+                // Stock or price change: the searchable text is unchanged
+                return;
+            }
+            index(current);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            wordIds.clear();
+            words.clear();
+            wordPostings.clear();
+            trigramWords.clear();
+            documents.clear();
+            deleted.clear();
+            productIds = new long[1024];
+            contentHashes = new int[1024];
+            documentCount = 0;
+            deletedCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void afterRebuild() {
+        lock.readLock().lock();
+        try {
+            logger.info("Fuzzy search index: {} products, {} distinct words, {} trigrams",
+                    documents.size(), words.size(), trigramWords.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find products whose name or description contains every query word, allowing typos.
+     *
+     * @param query free text
+     * @param limit maximum number of results
+     * @return product IDs, closest matches first
+     */
+    public List<Long> search(String query, int limit) {
+        Set<String> terms = tokenize(query);
+        List<Long> result = new ArrayList<>();
+        if (terms.isEmpty() || limit <= 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            List<List<WordMatch>> matchesPerTerm = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                List<WordMatch> matches = matchWords(term);
+                if (matches.isEmpty()) {
+                    return result;
+                }
+                matchesPerTerm.add(matches);
+            }
+            // Drive the scan with the most selective term and probe the others' postings per document
+            matchesPerTerm.sort(Comparator.comparingLong(this::postingCount));
+            collect(matchesPerTerm, limit, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(ProductSnapshot product) {
+        unindex(product.getId());
+        int document = documentCount++;
+        if (document == productIds.length) {
+            productIds = Arrays.copyOf(productIds, document * 2);
+            contentHashes = Arrays.copyOf(contentHashes, document * 2);
+        }
+        productIds[document] = product.getId();
+        contentHashes[document] = contentHash(product);
+        documents.put(product.getId(), document);
+
+        Set<String> productWords = tokenize(product.getName());
+        productWords.addAll(tokenize(product.getDescription()));
+        for (String word : productWords) {
+            wordPostings.get(wordId(word)).add(document);
+        }
+    }
+
+    private void unindex(Long productId) {
+        Integer document = documents.remove(productId);
+        if (document != null) {
+            deleted.set(document);
+            deletedCount++;
+        }
+    }
+
+    private int wordId(String word) {
+        Integer existing = wordIds.get(word);
+        if (existing != null) {
+            return existing;
+        }
+        int id = words.size();
+        wordIds.put(word, id);
+        words.add(word);
+        wordPostings.add(new IntList());
+        for (String trigram : trigrams(word)) {
+            trigramWords.computeIfAbsent(trigram, key -> new IntList()).add(id);
+        }
+        return id;
+    }
+
+    private List<WordMatch> matchWords(String term) {
+        int maxEdits = term.length() <= 2 ? 0 : term.length() <= 5 ? 1 : 2;
+        List<String> grams = trigrams(term);
+        int threshold = Math.max(1, grams.size() - 3 * maxEdits);
+
+        int[] counts = overlapCounts.get();
+        if (counts.length < words.size()) {
+            counts = new int[Math.max(words.size(), counts.length * 2)];
+            overlapCounts.set(counts);
+        }
+        IntList touched = new IntList();
+        for (String gram : grams) {
+            IntList ids = trigramWords.get(gram);
+            if (ids == null) {
+                continue;
+            }
+            for (int i = 0; i < ids.size; i++) {
+                int id = ids.values[i];
+                if (counts[id]++ == 0) {
+                    touched.add(id);
+                }
+            }
+        }
+
+        List<WordMatch> matches = new ArrayList<>();
+        for (int i = 0; i < touched.size; i++) {
+            int id = touched.values[i];
+            if (counts[id] >= threshold) {
+                int distance = BoundedLevenshtein.distance(term, words.get(id), maxEdits);
+                if (distance >= 0 && wordPostings.get(id).size > 0) {
+                    matches.add(new WordMatch(id, distance));
+                }
+            }
+            counts[id] = 0;
+        }
+        return matches;
+    }
+
+    private long postingCount(List<WordMatch> matches) {
+        long count = 0;
+        for (WordMatch match : matches) {
+            count += wordPostings.get(match.wordId).size;
+        }
+        return count;
+    }
+
+    /**
+     * Walk the driving term's postings in document order and bucket every document that matches
+     * all terms by its total edit distance. The walk stops early once the best possible bucket is
+     * full, which is what makes queries on very common words cheap.
+     */
+    private void collect(List<List<WordMatch>> matchesPerTerm, int limit, List<Long> result) {
+        int minTotal = 0;
+        int maxTotal = 0;
+        for (List<WordMatch> matches : matchesPerTerm) {
+            minTotal += matches.stream().mapToInt(match -> match.distance).min().orElse(0);
+            maxTotal += matches.stream().mapToInt(match -> match.distance).max().orElse(0);
+        }
+        List<IntList> buckets = new ArrayList<>(maxTotal - minTotal + 1);
+        for (int i = minTotal; i <= maxTotal; i++) {
+            buckets.add(new IntList());
+        }
+
+        List<WordMatch> driver = matchesPerTerm.get(0);
+        int[] cursors = new int[driver.size()];
+        // Documents arrive in ascending order, so probes resume where the previous one stopped
+        int[][] probeCursors = new int[matchesPerTerm.size()][];
+        for (int i = 1; i < matchesPerTerm.size(); i++) {
+            probeCursors[i] = new int[matchesPerTerm.get(i).size()];
+        }
+        while (buckets.get(0).size < limit) {
+            int document = Integer.MAX_VALUE;
+            int distance = Integer.MAX_VALUE;
+            for (int k = 0; k < driver.size(); k++) {
+                IntList postings = wordPostings.get(driver.get(k).wordId);
+                if (cursors[k] < postings.size && postings.values[cursors[k]] <= document) {
+                    int head = postings.values[cursors[k]];
+                    distance = head < document ? driver.get(k).distance : Math.min(distance, driver.get(k).distance);
+                    document = head;
+                }
+            }
+            if (document == Integer.MAX_VALUE) {
+                break;
+            }
+            for (int k = 0; k < driver.size(); k++) {
+                IntList postings = wordPostings.get(driver.get(k).wordId);
+                if (cursors[k] < postings.size && postings.values[cursors[k]] == document) {
+                    cursors[k]++;
+                }
+            }
+            if (deleted.get(document)) {
+                continue;
+            }
+            int total = distance;
+            for (int i = 1; i < matchesPerTerm.size() && total >= 0; i++) {
+                int best = bestDistance(matchesPerTerm.get(i), probeCursors[i], document);
+                total = best < 0 ? -1 : total + best;
+            }
+            if (total >= 0) {
+                IntList bucket = buckets.get(total - minTotal);
+                if (bucket.size < limit) {
+                    bucket.add(document);
+                }
+            }
+        }
+
+        for (int i = 0; i < buckets.size() && result.size() < limit; i++) {
+            IntList bucket = buckets.get(i);
+            for (int j = 0; j < bucket.size && result.size() < limit; j++) {
+                result.add(productIds[bucket.values[j]]);
+            }
+        }
+    }
+
+    private int bestDistance(List<WordMatch> matches, int[] cursors, int document) {
+        int best = -1;
+        for (int j = 0; j < matches.size(); j++) {
+            IntList postings = wordPostings.get(matches.get(j).wordId);
+            cursors[j] = postings.seek(cursors[j], document);
+            boolean contains = cursors[j] < postings.size && postings.values[cursors[j]] == document;
+            if (contains && (best < 0 || matches.get(j).distance < best)) {
+                best = matches.get(j).distance;
+            }
+        }
+        return best;
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount < COMPACT_MIN_DELETED || deletedCount * 4 < documentCount) {
+            return;
+        }
+        long started = System.nanoTime();
+        int[] renumbered = new int[documentCount];
+        int live = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (deleted.get(document)) {
+                renumbered[document] = -1;
+            } else {
+                renumbered[document] = live;
+                productIds[live] = productIds[document];
+                contentHashes[live] = contentHashes[document];
+                live++;
+            }
+        }
+        documents.clear();
+        for (int document = 0; document < live; document++) {
+            documents.put(productIds[document], document);
+        }
+
+        // Rebuild the vocabulary so that words only used by deleted products disappear
+        List<String> oldWords = new ArrayList<>(words);
+        List<IntList> oldPostings = new ArrayList<>(wordPostings);
+        wordIds.clear();
+        words.clear();
+        wordPostings.clear();
+        trigramWords.clear();
+        for (int id = 0; id < oldWords.size(); id++) {
+            IntList postings = oldPostings.get(id).renumber(renumbered);
+            if (postings.size > 0) {
+                wordPostings.get(wordId(oldWords.get(id))).addAll(postings);
+            }
+        }
+        deleted.clear();
+        deletedCount = 0;
+        documentCount = live;
+        logger.debug("Compacted fuzzy search index to {} products and {} words in {} ms",
+                live, words.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static int contentHash(ProductSnapshot product) {
+        return Objects.hash(product.getName(), product.getDescription());
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        Matcher matcher = TOKEN.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            String token = matcher.group();
+            // Model numbers and other pure digits are not worth typo tolerance
+            if (token.length() >= MIN_WORD_LENGTH && !token.chars().allMatch(Character::isDigit)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> trigrams(String word) {
+        String padded = "$" + word + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static final class WordMatch {
+
+        private final int wordId;
+        private final int distance;
+
+        WordMatch(int wordId, int distance) {
+            this.wordId = wordId;
+            this.distance = distance;
+        }
+    }
+
+    /** Growable array of ascending ints. */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(IntList other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        /** Index of the first value at or after {@code from} that is not below {@code value}. */
+        int seek(int from, int value) {
+            // Gallop ahead, then binary search the last step
+            int bound = 1;
+            while (from + bound < size && values[from + bound] < value) {
+                bound <<= 1;
+            }
+            int low = from + (bound >> 1);
+            int high = Math.min(from + bound, size);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        IntList renumber(int[] mapping) {
+            IntList renumbered = new IntList();
+            for (int i = 0; i < size; i++) {
+                int value = mapping[values[i]];
+                if (value >= 0) {
+                    renumbered.add(value);
+                }
+            }
+            return renumbered;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.furniture.ecommerce.index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-scale histogram of non-negative values, for estimating how many fall in a range.
+ *
+ * <p>Buckets are a quarter of a doubling wide over the value in hundredths, so the relative error of
+ * a bucket is the same for a 20 EUR lamp and a 20,000 EUR sofa, and values up to about 10^10 fit. Values
+ * are assumed to be spread evenly within a bucket. Safe for concurrent updates and reads.
+ */
+public final class NumericHistogram {
+
+    private static final int BUCKETS_PER_OCTAVE = 4;
+    private static final int BUCKET_COUNT = 40 * BUCKETS_PER_OCTAVE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Count a value in or out.
+     *
+     * @param value the value
+     * @param delta 1 to add it, -1 to remove it
+     */
+    public void add(double value, int delta) {
+        buckets.addAndGet(bucket(value), delta);
+    }
+
+    /**
+     * Forget every value.
+     */
+    public void clear() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+    }
+
+    /**
+     * Number of values counted.
+     *
+     * @return the value count
+     */
+    public long total() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Estimate how many values lie between two bounds.
+     *
+     * @param min lower bound
+     * @param max upper bound
+     * @return the estimated count, 0 if max is below min
+     */
+    public double count(double min, double max) {
+        if (max < min) {
+            return 0;
+        }
+        double matching = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = buckets.get(i);
+            if (count == 0) {
+                continue;
+            }
+            double lower = lowerBound(i);
+            double upper = lowerBound(i + 1);
+            double overlap = Math.min(upper, max) - Math.max(lower, min);
+            if (overlap > 0) {
+                matching += count * Math.min(1, overlap / (upper - lower));
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Number of values in the bucket of a value; an upper bound on how many equal it.
+     *
+     * @param value the value
+     * @return the count of its bucket
+     */
+    public long bucketCount(double value) {
+        return buckets.get(bucket(value));
+    }
+
+    private static int bucket(double value) {
+        double hundredths = Math.max(1, value * 100);
+        int bucket = (int) Math.floor(Math.log(hundredths) / Math.log(2) * BUCKETS_PER_OCTAVE);
+        return Math.min(BUCKET_COUNT - 1, Math.max(0, bucket));
+    }
+
+    private static double lowerBound(int bucket) {
+        return bucket == 0 ? 0 : Math.pow(2, (double) bucket / BUCKETS_PER_OCTAVE) / 100;
+    }
+}
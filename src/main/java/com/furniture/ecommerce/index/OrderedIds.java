@@ -0,0 +1,196 @@
+package com.furniture.ecommerce.index;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The ids of one order with their sort keys, split into chunks of up to {@code 2 * CHUNK}
+ * entries. A write copies the chunk it lands in and the chunk table, never the whole order.
+ */
+final class OrderedIds {
+
+    static final int CHUNK = 1024;
+    static final OrderedIds EMPTY = new OrderedIds(new long[0][], new long[0][], new int[] {0});
+
+    private final long[][] ids;
+    private final long[][] keys;
+    // Position of each chunk's first entry, then the size
+    private final int[] starts;
+
+    private OrderedIds(long[][] ids, long[][] keys, int[] starts) {
+        this.ids = ids;
+        this.keys = keys;
+        this.starts = starts;
+    }
+
+    static OrderedIds of(long[] ids, long[] keys) {
+        int chunks = (ids.length + CHUNK - 1) / CHUNK;
+        long[][] chunkIds = new long[chunks][];
+        long[][] chunkKeys = new long[chunks][];
+        int[] starts = new int[chunks + 1];
+        for (int c = 0; c < chunks; c++) {
+            int to = Math.min(starts[c] + CHUNK, ids.length);
+            chunkIds[c] = Arrays.copyOfRange(ids, starts[c], to);
+            chunkKeys[c] = Arrays.copyOfRange(keys, starts[c], to);
+            starts[c + 1] = to;
+        }
+        return new OrderedIds(chunkIds, chunkKeys, starts);
+    }
+
+    /**
+     * Order of two entries: by key, then by id.
+     */
+    static int compare(long keyA, long idA, long keyB, long idB) {
+        int cmp = Long.compare(keyA, keyB);
+        return cmp != 0 ? cmp : Long.compare(idA, idB);
+    }
+
+    int size() {
+        return starts[ids.length];
+    }
+
+    // The sort key of the entry at a position
+    long keyAt(int position) {
+        int c = chunkAt(position);
+        return keys[c][position - starts[c]];
+    }
+
+    // Binary search for (key, id); like Arrays.binarySearch, -(insertion point) - 1 when absent
+    int indexOf(long key, long id) {
+        int c = chunkFor(key, id);
+        if (c < 0) {
+            return -1;
+        }
+        int at = search(c, key, id);
+        return at >= 0 ? starts[c] + at : at - starts[c];
+    }
+
+    // Adds the ids from position from to position to
+    void addTo(List<Long> out, int from, int to) {
+        for (int c = chunkAt(from); from < to; c++) {
+            int end = Math.min(to, starts[c + 1]);
+            for (int i = from - starts[c]; i < end - starts[c]; i++) {
+                out.add(ids[c][i]);
+            }
+            from = end;
+        }
+    }
+
+    OrderedIds with(long key, long id) {
+        if (ids.length == 0) {
+            return of(new long[] {id}, new long[] {key});
+        }
+        int c = chunkFor(key, id);
+        int at = -search(c, key, id) - 1;
+        long[] grownIds = insert(ids[c], at, id);
+        long[] grownKeys = insert(keys[c], at, key);
+        if (grownIds.length <= 2 * CHUNK) {
+            return replace(c, 1, new long[][] {grownIds}, new long[][] {grownKeys});
+        }
+        return replace(c, 1, split(grownIds), split(grownKeys));
+    }
+
+    OrderedIds without(long key, long id) {
+        int c = chunkFor(key, id);
+        int at = c >= 0 ? search(c, key, id) : -1;
+        if (at < 0) {
+            return this;
+        }
+        long[] shrunkIds = delete(ids[c], at);
+        long[] shrunkKeys = delete(keys[c], at);
+        // A small chunk is merged into its successor, so removals do not fragment the order
+        if (shrunkIds.length < CHUNK / 2 && c + 1 < ids.length
+                && shrunkIds.length + ids[c + 1].length <= 2 * CHUNK) {
+            return replace(c, 2, new long[][] {concat(shrunkIds, ids[c + 1])},
+                    new long[][] {concat(shrunkKeys, keys[c + 1])});
+        }
+        if (shrunkIds.length == 0) {
+            return replace(c, 1, new long[0][], new long[0][]);
+        }
+        return replace(c, 1, new long[][] {shrunkIds}, new long[][] {shrunkKeys});
+    }
+
+    // The chunk (key, id) is in or belongs in: the first whose last entry is not below it, else the last
+    private int chunkFor(long key, long id) {
+        int low = 0;
+        int high = ids.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int last = ids[mid].length - 1;
+            if (compare(keys[mid][last], ids[mid][last], key, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+
+    // The chunk holding a position
+    private int chunkAt(int position) {
+        int c = Arrays.binarySearch(starts, 0, ids.length, position);
+        return c >= 0 ? c : -c - 2;
+    }
+
+    private int search(int c, long key, long id) {
+        long[] chunkIds = ids[c];
+        long[] chunkKeys = keys[c];
+        int low = 0;
+        int high = chunkIds.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(chunkKeys[mid], chunkIds[mid], key, id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // Replaces count chunks from chunk c and renumbers the positions of those after them
+    private OrderedIds replace(int c, int count, long[][] newIds, long[][] newKeys) {
+        int chunks = ids.length - count + newIds.length;
+        long[][] resultIds = new long[chunks][];
+        long[][] resultKeys = new long[chunks][];
+        System.arraycopy(ids, 0, resultIds, 0, c);
+        System.arraycopy(keys, 0, resultKeys, 0, c);
+        System.arraycopy(newIds, 0, resultIds, c, newIds.length);
+        System.arraycopy(newKeys, 0, resultKeys, c, newKeys.length);
+        System.arraycopy(ids, c + count, resultIds, c + newIds.length, ids.length - c - count);
+        System.arraycopy(keys, c + count, resultKeys, c + newKeys.length, keys.length - c - count);
+        int[] resultStarts = Arrays.copyOf(starts, chunks + 1);
+        for (int i = c; i < chunks; i++) {
+            resultStarts[i + 1] = resultStarts[i] + resultIds[i].length;
+        }
+        return new OrderedIds(resultIds, resultKeys, resultStarts);
+    }
+
+    private static long[] insert(long[] array, int at, long value) {
+        long[] result = new long[array.length + 1];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+
+    private static long[] delete(long[] array, int at) {
+        long[] result = new long[array.length - 1];
+        System.arraycopy(array, 0, result, 0, at);
+        System.arraycopy(array, at + 1, result, at, array.length - at - 1);
+        return result;
+    }
+
+    private static long[][] split(long[] array) {
+        return new long[][] {Arrays.copyOf(array, CHUNK), Arrays.copyOfRange(array, CHUNK, array.length)};
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The attributes that make two products similar, and the distance between them.
+ *
+ * <p>The distance adds a fixed cost for each differing category, material and color, and the
+ * difference of the logarithms of price, width, height and depth, so a sofa at twice the price is
+ * as far away whether it costs 200 or 2,000. A different category weighs as much as a price about
+ * seven times higher or lower. Missing values count as 0. Every part is a metric, so the sum obeys
+ * the triangle inequality that {@link VantagePointTree} prunes with.
+ */
+public final class ProductFeatures {
+
+    static final double CATEGORY_WEIGHT = 4;
+    static final double MATERIAL_WEIGHT = 1;
+    static final double COLOR_WEIGHT = 1;
+    static final double PRICE_WEIGHT = 2;
+    static final double DIMENSION_WEIGHT = 1;
+
+    private final long id;
+    private final String category;
+    private final String material;
+    private final String color;
+    private final float price;
+    private final float width;
+    private final float height;
+    private final float depth;
+
+    private ProductFeatures(ProductSnapshot product) {
+        this.id = product.getId();
+        this.category = lower(product.getCategory());
+        this.material = lower(product.getMaterial());
+        this.color = lower(product.getColor());
+        this.price = log(product.getPrice() != null ? product.getPrice().doubleValue() : null);
+        this.width = log(product.getWidth());
+        this.height = log(product.getHeight());
+        this.depth = log(product.getDepth());
+    }
+
+    /**
+     * The features of a product.
+     *
+     * @param product the product
+     * @return its features
+     */
+    public static ProductFeatures of(ProductSnapshot product) {
+        return new ProductFeatures(product);
+    }
+
+    /**
+     * Distance to another product; 0 for identical features.
+     *
+     * @param other the other product's features
+     * @return the distance
+     */
+    public double distance(ProductFeatures other) {
+        double distance = PRICE_WEIGHT * Math.abs(price - other.price)
+                + DIMENSION_WEIGHT * (Math.abs(width - other.width) + Math.abs(height - other.height)
+                        + Math.abs(depth - other.depth));
+        if (!Objects.equals(category, other.category)) {
+            distance += CATEGORY_WEIGHT;
+        }
+        if (!Objects.equals(material, other.material)) {
+            distance += MATERIAL_WEIGHT;
+        }
+        if (!Objects.equals(color, other.color)) {
+            distance += COLOR_WEIGHT;
+        }
+        return distance;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProductFeatures)) {
+            return false;
+        }
+        ProductFeatures other = (ProductFeatures) o;
+        return id == other.id && price == other.price && width == other.width && height == other.height
+                && depth == other.depth && Objects.equals(category, other.category)
+                && Objects.equals(material, other.material) && Objects.equals(color, other.color);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, category, material, color, price, width, height, depth);
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static float log(Double value) {
+        return value != null && value > 0 ? (float) Math.log1p(value) : 0f;
+    }
+}
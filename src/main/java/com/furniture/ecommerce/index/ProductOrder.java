@@ -0,0 +1,129 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * The {@code sort} parameter of {@code GET /products/search}: one field and a direction, written
+ * {@code field[,asc|desc]}.
+ *
+ * <p>Ties are always broken by ascending id, so an order is total and the same products come back
+ * in the same order whether they were sorted by one database, merged from several, or sorted in
+ * memory. {@link #toSql()}, {@link #comparator()} and {@link #snapshotComparator()} describe the
+ * same order.
+ */
+public final class ProductOrder {
+
+    /** Ascending by id; the order of an unsorted search. */
+    public static final ProductOrder BY_ID = new ProductOrder(Field.ID, false);
+
+    /** Sortable fields. */
+    public enum Field {
+        ID("id", "id", ProductResponseDTO::getId, ProductSnapshot::getId),
+        NAME("name", "name", ProductResponseDTO::getName, ProductSnapshot::getName),
+        PRICE("price", "price", ProductResponseDTO::getPrice, ProductSnapshot::getPrice),
+        STOCK("stock", "stock", ProductResponseDTO::getStock, ProductSnapshot::getStock),
+        CREATED_AT("createdAt", "created_at", ProductResponseDTO::getCreatedAt, ProductSnapshot::getCreatedAt);
+
+        private final String parameter;
+        private final String column;
+        private final Comparator<ProductResponseDTO> comparator;
+        private final Comparator<ProductSnapshot> snapshotComparator;
+
+        <T extends Comparable<? super T>> Field(String parameter, String column,
+                                                Function<ProductResponseDTO, T> key,
+                                                Function<ProductSnapshot, T> snapshotKey) {
+            this.parameter = parameter;
+            this.column = column;
+            this.comparator = Comparator.comparing(key);
+            this.snapshotComparator = Comparator.comparing(snapshotKey);
+        }
+    }
+
+    private final Field field;
+    private final boolean descending;
+
+    private ProductOrder(Field field, boolean descending) {
+        this.field = field;
+        this.descending = descending;
+    }
+
+    /**
+     * Parse a sort parameter such as {@code price}, {@code price,desc} or {@code createdAt,desc}.
+     *
+     * @param value the parameter; null or blank for {@link #BY_ID}
+     * @return the order
+     * @throws IllegalArgumentException if the field or direction is unknown
+     */
+    public static ProductOrder parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return BY_ID;
+        }
+        String[] parts = value.trim().toLowerCase(Locale.ROOT).split("\\s*,\\s*");
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("Sort must be written field[,asc|desc]: " + value);
+        }
+        Field field = null;
+        for (Field candidate : Field.values()) {
+            if (candidate.parameter.toLowerCase(Locale.ROOT).equals(parts[0])) {
+                field = candidate;
+            }
+        }
+        if (field == null) {
+            throw new IllegalArgumentException("Cannot sort by '" + parts[0]
+                    + "'; use id, name, price, stock or createdAt");
+        }
+        if (parts.length == 2 && !"asc".equals(parts[1]) && !"desc".equals(parts[1])) {
+            throw new IllegalArgumentException("Sort direction must be asc or desc: " + parts[1]);
+        }
+        return new ProductOrder(field, parts.length == 2 && "desc".equals(parts[1]));
+    }
+
+    /**
+     * The order as a comparator over responses.
+     *
+     * @return a comparator consistent with {@link #toSql()}
+     */
+    public Comparator<ProductResponseDTO> comparator() {
+        Comparator<ProductResponseDTO> primary = descending ? field.comparator.reversed() : field.comparator;
+        return field == Field.ID ? primary : primary.thenComparing(Field.ID.comparator);
+    }
+
+    /**
+     * The order as a comparator over snapshots, for sorting in-memory index results.
+     *
+     * @return a comparator consistent with {@link #comparator()}
+     */
+    public Comparator<ProductSnapshot> snapshotComparator() {
+        Comparator<ProductSnapshot> primary = descending
+                ? field.snapshotComparator.reversed() : field.snapshotComparator;
+        return field == Field.ID ? primary : primary.thenComparing(Field.ID.snapshotComparator);
+    }
+
+    /**
+     * The order as an SQL {@code ORDER BY} list over the {@code products} columns.
+     *
+     * @return the order by list, without the keywords
+     */
+    public String toSql() {
+        String primary = field.column + (descending ? " DESC" : " ASC");
+        return field == Field.ID ? primary : primary + ", id ASC";
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    @Override
+    public String toString() {
+        return field.parameter + (descending ? ",desc" : ",asc");
+    }
+}
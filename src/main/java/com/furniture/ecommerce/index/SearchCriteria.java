@@ -0,0 +1,135 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The filters of {@code GET /products/search} in canonical form.
+ *
+ * <p>Text filters are trimmed and lower-cased, blank values and {@code inStock=false} (which does
+ * not filter anything) become null, and prices drop trailing zeros, so requests that select the
+ * same products compare equal. {@link #matches} applies the same rules as
+ * {@code ProductRepository.searchProducts} to an in-memory snapshot.
+ */
+public final class SearchCriteria {
+
+    private final String category;
+    private final String material;
+    private final String color;
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+    private final Boolean inStock;
+
+    private SearchCriteria(String category, String material, String color,
+                           BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+        this.category = category;
+        this.material = material;
+        this.color = color;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.inStock = inStock;
+    }
+
+    /**
+     * Canonicalize search filters.
+     *
+     * @param category product category, case-insensitive
+     * @param material product material, case-insensitive
+     * @param color product color, case-insensitive
+     * @param minPrice minimum price, inclusive
+     * @param maxPrice maximum price, inclusive
+     * @param inStock true to only include products with stock
+     * @return the canonical criteria
+     */
+    public static SearchCriteria of(String category, String material, String color,
+                                    BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+        return new SearchCriteria(text(category), text(material), text(color),
+                price(minPrice), price(maxPrice), Boolean.TRUE.equals(inStock) ? Boolean.TRUE : null);
+    }
+
+    /**
+     * Whether a product satisfies every filter.
+     *
+     * @param product the product
+     * @return true if the product would be returned by a search with these criteria
+     */
+    public boolean matches(ProductSnapshot product) {
+        return equalsIgnoreCase(category, product.getCategory())
+                && equalsIgnoreCase(material, product.getMaterial())
+                && equalsIgnoreCase(color, product.getColor())
+                && (minPrice == null || product.getPrice().compareTo(minPrice) >= 0)
+                && (maxPrice == null || product.getPrice().compareTo(maxPrice) <= 0)
+                && (inStock == null || product.getStock() > 0);
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getMaterial() {
+        return material;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Boolean getInStock() {
+        return inStock;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchCriteria)) {
+            return false;
+        }
+        SearchCriteria other = (SearchCriteria) o;
+        return Objects.equals(category, other.category)
+                && Objects.equals(material, other.material)
+                && Objects.equals(color, other.color)
+                && Objects.equals(minPrice, other.minPrice)
+                && Objects.equals(maxPrice, other.maxPrice)
+                && Objects.equals(inStock, other.inStock);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(category, material, color, minPrice, maxPrice, inStock);
+    }
+
+    @Override
+    public String toString() {
+        return "SearchCriteria{category=" + category + ", material=" + material + ", color=" + color
+                + ", minPrice=" + minPrice + ", maxPrice=" + maxPrice + ", inStock=" + inStock + "}";
+    }
+
+    private static boolean equalsIgnoreCase(String filter, String value) {
+        return filter == null || (value != null && filter.equals(value.toLowerCase(Locale.ROOT)));
+    }
+
+    private static String text(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static BigDecimal price(BigDecimal value) {
+        // 100, 100.0 and 100.00 filter identically; stripTrailingZeros makes them equal keys too
+        return value == null ? null : value.stripTrailingZeros();
+    }
+}
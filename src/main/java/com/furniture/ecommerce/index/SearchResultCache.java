@@ -0,0 +1,178 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of search result id lists keyed by canonical {@link SearchCriteria}.
+ *
+ * <p>Only ids are cached; the products themselves are loaded through the entity caches, so stock
+ * and price changes never make an entry stale. An entry only has to go when a write changes
+ * <em>which</em> products match it, and that is exactly what invalidation checks: a created or
+ * deleted product evicts the entries it matches, an updated product evicts the entries it matched
+ * before or after the change but not both. A stock change that does not cross zero evicts nothing.
+ *
+ * <p>A search that ran concurrently with a membership-changing write may have read the old state,
+ * so results are only stored if no such write committed since the search started.
+ */
+@Component
+public class SearchResultCache implements CatalogIndex {
+
+    /** Cache name used in the metrics. */
+    public static final String CACHE_NAME = "searchResults";
+
+    private final Cache<SearchCriteria, long[]> cache;
+    private final boolean enabled;
+    private final int maxIdsPerEntry;
+    private final AtomicLong version = new AtomicLong();
+    private final Counter invalidations;
+
+    /**
+     * Constructor for SearchResultCache.
+     *
+     * @param meterRegistry registry for the cache metrics
+     * @param enabled whether search results are cached
+     * @param maxEntries maximum number of cached searches
+     * @param maxIdsPerEntry results larger than this are not cached
+     * @param expireAfterWriteMinutes safety net for writes that bypass the service, such as bulk loads
+     */
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${catalog.search-cache.enabled:true}") boolean enabled,
+                             @Value("${catalog.search-cache.max-entries:10000}") int maxEntries,
+                             @Value("${catalog.search-cache.max-ids-per-entry:20000}") int maxIdsPerEntry,
+                             @Value("${catalog.search-cache.expire-after-write-minutes:30}")
+                             long expireAfterWriteMinutes) {
+        this.enabled = enabled;
+        this.maxIdsPerEntry = maxIdsPerEntry;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("catalog.search.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Fraction of searches answered from the result cache")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("catalog.search.cache.invalidations")
+                .description("Search result entries evicted because a write changed their membership")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Look up the cached result of a search.
+     *
+     * @param criteria canonical search criteria
+     * @return matching product ids in result order, or null on a miss
+     */
+    public List<Long> get(SearchCriteria criteria) {
+        if (!enabled) {
+            return null;
+        }
+        long[] ids = cache.getIfPresent(criteria);
+        if (ids == null) {
+            return null;
+        }
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    /**
+     * Size of a cached search result, without copying it.
+     *
+     * @param criteria canonical search criteria
+     * @return the number of matching products, or -1 on a miss
+     */
+    public int count(SearchCriteria criteria) {
+        // Through the map view, which does not count towards the hit ratio of searches
+        long[] ids = enabled ? cache.asMap().get(criteria) : null;
+        return ids != null ? ids.length : -1;
+    }
+
+    /**
+     * Version to read before running a search whose result will be stored.
+     *
+     * @return the current invalidation version
+     */
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Store a search result unless a membership-changing write committed since the search started.
+     *
+     * @param criteria canonical search criteria
+     * @param ids matching product ids in result order
+     * @param versionBeforeSearch the value of {@link #currentVersion()} read before searching
+     */
+    public synchronized void put(SearchCriteria criteria, List<Long> ids, long versionBeforeSearch) {
+        if (!enabled || ids.size() > maxIdsPerEntry || version.get() != versionBeforeSearch) {
+            return;
+        }
+        cache.put(criteria, ids.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    @Override
+    public void add(ProductSnapshot product) {
+        invalidate(product, null);
+    }
+
+    @Override
+    public void remove(ProductSnapshot product) {
+        invalidate(product, null);
+    }
+
+    @Override
+    public void update(ProductSnapshot previous, ProductSnapshot current) {
+        if (sameFilterFields(previous, current)) {
+            return;
+        }
+        invalidate(previous, current);
+    }
+
+    @Override
+    public synchronized void clear() {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private synchronized void invalidate(ProductSnapshot product, ProductSnapshot other) {
+        version.incrementAndGet();
+        for (SearchCriteria criteria : cache.asMap().keySet()) {
+            boolean matches = criteria.matches(product);
+            boolean membershipChanged = other == null ? matches : matches != criteria.matches(other);
+            if (membershipChanged) {
+                cache.invalidate(criteria);
+                invalidations.increment();
+            }
+        }
+    }
+
+    private static boolean sameFilterFields(ProductSnapshot previous, ProductSnapshot current) {
+        return Objects.equals(previous.getCategory(), current.getCategory())
+                && Objects.equals(previous.getMaterial(), current.getMaterial())
+                && Objects.equals(previous.getColor(), current.getColor())
+                && samePrice(previous.getPrice(), current.getPrice())
+                && (previous.getStock() > 0) == (current.getStock() > 0);
+    }
+
+    private static boolean samePrice(BigDecimal previous, BigDecimal current) {
+        return previous == null ? current == null : current != null && previous.compareTo(current) == 0;
+    }
+}
@@ -0,0 +1,246 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Nearest products by {@link ProductFeatures} distance, for "similar items" suggestions.
+ *
+ * <p>Products are held in a {@link VantagePointTree} plus a short list of products written since it
+ * was built, which queries scan. An update or removal leaves the old entry in place and it is
+ * skipped, as it no longer is the product's current features. Once
+ * {@code catalog.similar.rebuild-after} entries are new or stale, a tree of the current features
+ * is built on a background thread and swapped in when done. The write that triggers it only copies
+ * the features; writes and queries carry on against the old tree meanwhile and wait for nothing but
+ * the swap. Stock changes, the most frequent writes, do not change the features and cost nothing.
+ */
+@Component
+public class SimilarProducts implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarProducts.class);
+
+    private final boolean enabled;
+    private final int rebuildAfter;
+    private final ExecutorService rebuilder;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ProductFeatures> features = new HashMap<>();
+    // Written since the tree was built; possibly stale
+    private final List<ProductFeatures> recent = new ArrayList<>();
+    private VantagePointTree tree = VantagePointTree.build(List.of());
+    private int stale;
+    private boolean rebuilding;
+    // Advanced by clear(), so a background build of the cleared features is not swapped in
+    private long generation;
+    private volatile boolean ready;
+
+    /**
+     * Constructor for SimilarProducts.
+     *
+     * @param enabled whether the index is maintained
+     * @param rebuildAfter number of new or stale entries that triggers a rebuild of the tree
+     */
+    @Autowired
+    public SimilarProducts(@Value("${catalog.similar.enabled:true}") boolean enabled,
+                           @Value("${catalog.similar.rebuild-after:2048}") int rebuildAfter) {
+        this(enabled, rebuildAfter, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "similar-products-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    SimilarProducts(boolean enabled, int rebuildAfter, ExecutorService rebuilder) {
+        this.enabled = enabled;
+        this.rebuildAfter = rebuildAfter;
+        this.rebuilder = rebuilder;
+    }
+
+    @Override
+    public void add(ProductSnapshot product) {
+        if (enabled) {
+            put(ProductFeatures.of(product));
+        }
+    }
+
+    @Override
+    public void remove(ProductSnapshot product) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (features.remove(product.getId()) != null) {
+                stale++;
+            }
+            rebuildIfDue();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(ProductSnapshot previous, ProductSnapshot current) {
+        if (enabled && !ProductFeatures.of(current).equals(features.get(current.getId()))) {
+            put(ProductFeatures.of(current));
+        }
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            features.clear();
+            recent.clear();
+            tree = VantagePointTree.build(List.of());
+            stale = 0;
+            rebuilding = false;
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void afterRebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuild();
+        ready = true;
+        logger.info("Similar products index: {} products", tree.size());
+    }
+
+    /**
+     * Stop the background rebuilds.
+     */
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * The products nearest to a product, excluding itself.
+     *
+     * @param id the product ID
+     * @param k how many products to return, at least 1
+     * @return their IDs, nearest first; null while the index is being built or for a product it
+     *         does not hold
+     */
+    public List<Long> nearest(Long id, int k) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            ProductFeatures query = features.get(id);
+            if (query == null) {
+                return null;
+            }
+            VantagePointTree.Neighbours neighbours = new VantagePointTree.Neighbours(k);
+            tree.search(query, neighbours, candidate -> isCurrent(candidate) && candidate != query);
+            for (ProductFeatures candidate : recent) {
+                if (isCurrent(candidate) && candidate != query) {
+                    neighbours.offer(candidate, query.distance(candidate));
+                }
+            }
+            return neighbours.ids();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Entries replaced by an update or dropped by a removal stay in the tree until the next rebuild
+    private boolean isCurrent(ProductFeatures candidate) {
+        return features.get(candidate.getId()) == candidate;
+    }
+
+    private void put(ProductFeatures product) {
+        lock.writeLock().lock();
+        try {
+            if (features.put(product.getId(), product) != null) {
+                stale++;
+            }
+            if (ready) {
+                recent.add(product);
+            }
+            rebuildIfDue();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called with the write lock held. The build works on a copy, as writes go on while it runs
+    private void rebuildIfDue() {
+        if (!ready || rebuilding || recent.size() + stale < rebuildAfter) {
+            return;
+        }
+        List<ProductFeatures> current = new ArrayList<>(features.values());
+        int builtRecent = recent.size();
+        int builtStale = stale;
+        long builtGeneration = generation;
+        rebuilding = true;
+        try {
+            rebuilder.execute(() -> swapIn(build(current), builtRecent, builtStale, builtGeneration));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the current tree keeps answering
+            rebuilding = false;
+        }
+    }
+
+    private static VantagePointTree build(List<ProductFeatures> current) {
+        try {
+            return VantagePointTree.build(current);
+        } catch (RuntimeException e) {
+            logger.error("Similar products rebuild over {} products failed", current.size(), e);
+            return null;
+        }
+    }
+
+    private void swapIn(VantagePointTree rebuilt, int builtRecent, int builtStale, long builtGeneration) {
+        lock.writeLock().lock();
+        try {
+            if (generation != builtGeneration) {
+                return;
+            }
+            rebuilding = false;
+            if (rebuilt == null) {
+                return;
+            }
+            tree = rebuilt;
+            // Entries written during the build are not in the new tree and stay in the recent list
+            recent.subList(0, builtRecent).clear();
+            stale -= builtStale;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Runs within a full rebuild of every index, which holds back all writes
+    private void rebuild() {
+        VantagePointTree rebuilt = VantagePointTree.build(features.values());
+        lock.writeLock().lock();
+        try {
+            tree = rebuilt;
+            recent.clear();
+            stale = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
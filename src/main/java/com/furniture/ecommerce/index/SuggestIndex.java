@@ -0,0 +1,150 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.dto.SuggestionDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix autocomplete over product names, categories and materials.
+ *
+ * <p>Each product contributes {@code 1 + stock} to the weight of its name, category and material,
+ * so well-stocked products and large categories rank first and out-of-stock items still appear.
+ * Matching is case-insensitive on the start of the whole value.
+ */
+@Component
+public class SuggestIndex implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestIndex.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final SuggestionType[] TYPES = SuggestionType.values();
+
+    private final WeightedRadixTrie trie = new WeightedRadixTrie(TYPES.length);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void add(ProductSnapshot product) {
+        apply(product, 1);
+    }
+
+    @Override
+    public void remove(ProductSnapshot product) {
+        apply(product, -1);
+    }
+
+    @Override
+    public void update(ProductSnapshot previous, ProductSnapshot current) {
+        if (previous.getStock() == current.getStock()
+                && Objects.equals(previous.getName(), current.getName())
+                && Objects.equals(previous.getCategory(), current.getCategory())
+                && Objects.equals(previous.getMaterial(), current.getMaterial())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            apply(previous, -1);
+            apply(current, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void afterRebuild() {
+        Map<String, Long> stats = getStats();
+        logger.info("Suggest index: {} terms in {} nodes, about {} KB",
+                stats.get("terms"), stats.get("nodes"), stats.get("estimatedBytes") / 1024);
+    }
+
+    /**
+     * Highest weighted suggestions starting with a prefix.
+     *
+     * @param prefix what the user has typed so far
+     * @param limit maximum number of suggestions
+     * @return suggestions, highest weight first
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<SuggestionDTO> suggestions = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            for (WeightedRadixTrie.Term term : trie.topK(key, limit)) {
+                List<String> types = new ArrayList<>(TYPES.length);
+                for (SuggestionType type : TYPES) {
+                    if (term.getWeight(type.ordinal()) > 0) {
+                        types.add(type.getValue());
+                    }
+                }
+                suggestions.add(new SuggestionDTO(term.getText(), types, term.getTotal()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    /**
+     * Size and estimated memory footprint of the index.
+     *
+     * @return term count, node count and estimated heap bytes
+     */
+    public Map<String, Long> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> stats = new LinkedHashMap<>();
+            stats.put("terms", (long) trie.size());
+            stats.put("nodes", (long) trie.nodeCount());
+            stats.put("estimatedBytes", trie.estimateBytes());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(ProductSnapshot product, int sign) {
+        long weight = sign * (1L + Math.max(product.getStock(), 0));
+        lock.writeLock().lock();
+        try {
+            adjust(product.getName(), SuggestionType.NAME, weight);
+            adjust(product.getCategory(), SuggestionType.CATEGORY, weight);
+            adjust(product.getMaterial(), SuggestionType.MATERIAL, weight);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void adjust(String value, SuggestionType type, long weight) {
+        if (value != null) {
+            trie.adjust(normalize(value), value.trim(), type.ordinal(), weight);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
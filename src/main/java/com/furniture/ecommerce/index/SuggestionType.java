@@ -0,0 +1,21 @@
+package com.furniture.ecommerce.index;
+
+import java.util.Locale;
+
+/**
+ * Product fields offered as autocomplete suggestions.
+ */
+public enum SuggestionType {
+    NAME,
+    CATEGORY,
+    MATERIAL;
+
+    /**
+     * Name used in API responses.
+     *
+     * @return the lower-case type name
+     */
+    public String getValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,231 @@
+package com.furniture.ecommerce.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+/**
+ * Immutable vantage-point tree over product features, for k-nearest-neighbour queries.
+ *
+ * <p>Each node picks a product and splits the rest at the median distance from it into an inside
+ * and an outside half; a query descends into the half it falls in first and visits the other only
+ * if the triangle inequality allows a closer product there. The tree is laid out in one array: the
+ * subtree over {@code [lo, hi)} has its vantage point at {@code lo}, the inside half next, and the
+ * outside half from the midpoint on. Small subtrees are scanned. Building takes
+ * {@code O(n log n)} distance computations; queries typically touch a few hundred products.
+ */
+public final class VantagePointTree {
+
+    private static final int LEAF_SIZE = 16;
+    // Slack for float rounding in the pruning tests, far below any real distance
+    private static final double EPSILON = 1e-6;
+
+    private final ProductFeatures[] items;
+    private final double[] radii;
+
+    private VantagePointTree(ProductFeatures[] items, double[] radii) {
+        this.items = items;
+        this.radii = radii;
+    }
+
+    /**
+     * Build a tree.
+     *
+     * @param features the products to index
+     * @return the tree
+     */
+    public static VantagePointTree build(Collection<ProductFeatures> features) {
+        ProductFeatures[] items = features.toArray(new ProductFeatures[0]);
+        double[] radii = new double[items.length];
+        double[] distances = new double[items.length];
+        build(items, radii, distances, 0, items.length, new SplittableRandom(42));
+        return new VantagePointTree(items, radii);
+    }
+
+    /**
+     * Offer every accepted product in the tree that may be among the nearest to the query.
+     *
+     * @param query the features searched from
+     * @param neighbours the nearest products found so far, updated in place
+     * @param accept which products may be returned
+     */
+    public void search(ProductFeatures query, Neighbours neighbours, Predicate<ProductFeatures> accept) {
+        search(query, neighbours, accept, 0, items.length);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    private void search(ProductFeatures query, Neighbours neighbours, Predicate<ProductFeatures> accept,
+                        int lo, int hi) {
+        if (hi - lo <= LEAF_SIZE) {
+            for (int i = lo; i < hi; i++) {
+                offer(query, items[i], neighbours, accept);
+            }
+            return;
+        }
+        double distance = offer(query, items[lo], neighbours, accept);
+        double radius = radii[lo];
+        int mid = midpoint(lo, hi);
+        if (distance <= radius) {
+            search(query, neighbours, accept, lo + 1, mid);
+            if (distance + neighbours.bound() + EPSILON >= radius) {
+                search(query, neighbours, accept, mid, hi);
+            }
+        } else {
+            search(query, neighbours, accept, mid, hi);
+            if (distance - neighbours.bound() - EPSILON <= radius) {
+                search(query, neighbours, accept, lo + 1, mid);
+            }
+        }
+    }
+
+    private static double offer(ProductFeatures query, ProductFeatures item, Neighbours neighbours,
+                                Predicate<ProductFeatures> accept) {
+        double distance = query.distance(item);
+        if (accept.test(item)) {
+            neighbours.offer(item, distance);
+        }
+        return distance;
+    }
+
+    private static void build(ProductFeatures[] items, double[] radii, double[] distances, int lo, int hi,
+                              SplittableRandom random) {
+        if (hi - lo <= LEAF_SIZE) {
+            return;
+        }
+        swap(items, distances, lo, lo + random.nextInt(hi - lo));
+        ProductFeatures vantage = items[lo];
+        for (int i = lo + 1; i < hi; i++) {
+            distances[i] = vantage.distance(items[i]);
+        }
+        int mid = midpoint(lo, hi);
+        select(items, distances, lo + 1, hi - 1, mid);
+        radii[lo] = distances[mid];
+        build(items, radii, distances, lo + 1, mid, random);
+        build(items, radii, distances, mid, hi, random);
+    }
+
+    private static int midpoint(int lo, int hi) {
+        return lo + 1 + (hi - lo - 1) / 2;
+    }
+
+    // Quickselect: afterwards distances[k] is in sorted position, smaller ones before, larger after
+    private static void select(ProductFeatures[] items, double[] distances, int left, int right, int k) {
+        while (left < right) {
+            double pivot = distances[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (distances[i] < pivot) {
+                    i++;
+                }
+                while (distances[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(items, distances, i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(ProductFeatures[] items, double[] distances, int a, int b) {
+        ProductFeatures item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        double distance = distances[a];
+        distances[a] = distances[b];
+        distances[b] = distance;
+    }
+
+    /**
+     * The k nearest products offered so far, nearest first by distance and then by ID.
+     */
+    public static final class Neighbours {
+
+        private static final Comparator<Neighbour> FARTHEST_FIRST = Comparator
+                .comparingDouble((Neighbour n) -> n.distance).thenComparingLong(n -> n.id).reversed();
+
+        private final int k;
+        private final PriorityQueue<Neighbour> heap;
+
+        /**
+         * Constructor for Neighbours.
+         *
+         * @param k how many products to keep, at least 1
+         */
+        public Neighbours(int k) {
+            if (k < 1) {
+                throw new IllegalArgumentException("k must be at least 1");
+            }
+            this.k = k;
+            this.heap = new PriorityQueue<>(k + 1, FARTHEST_FIRST);
+        }
+
+        /**
+         * Keep a product if it is nearer than the farthest one kept.
+         *
+         * @param features the product
+         * @param distance its distance from the query
+         */
+        public void offer(ProductFeatures features, double distance) {
+            long id = features.getId();
+            if (heap.size() == k) {
+                Neighbour farthest = heap.peek();
+                if (distance > farthest.distance || distance == farthest.distance && id > farthest.id) {
+                    return;
+                }
+                heap.poll();
+            }
+            heap.add(new Neighbour(id, distance));
+        }
+
+        /**
+         * Distance within which a product can still be kept.
+         *
+         * @return the farthest kept distance, or infinity while fewer than k are kept
+         */
+        public double bound() {
+            return heap.size() < k ? Double.POSITIVE_INFINITY : heap.peek().distance;
+        }
+
+        /**
+         * The kept products.
+         *
+         * @return their IDs, nearest first
+         */
+        public List<Long> ids() {
+            List<Neighbour> sorted = new ArrayList<>(heap);
+            sorted.sort(FARTHEST_FIRST.reversed());
+            List<Long> ids = new ArrayList<>(sorted.size());
+            for (Neighbour neighbour : sorted) {
+                ids.add(neighbour.id);
+            }
+            return ids;
+        }
+    }
+
+    private static final class Neighbour {
+
+        private final long id;
+        private final double distance;
+
+        Neighbour(long id, double distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+    }
+}
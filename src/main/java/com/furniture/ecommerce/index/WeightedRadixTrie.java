@@ -0,0 +1,372 @@
+package com.furniture.ecommerce.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Compressed prefix tree whose nodes carry the highest term weight in their subtree.
+ *
+ * <p>Edges are labelled with whole character runs and children are kept in small arrays sorted by
+ * first character, so a catalog of 100k names needs roughly one node per distinct name. The
+ * subtree maximum lets {@link #topK} run a best-first search that visits only the branches that
+ * can still contribute, independent of how many terms share the prefix. Not thread-safe.
+ */
+final class WeightedRadixTrie {
+
+    private static final char[] EMPTY_LABEL = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    // Approximate sizes with compressed oops: object header 12 bytes, references 4, arrays 16 + data
+    private static final int NODE_BYTES = 40;
+    private static final int TERM_BYTES = 32;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int STRING_BYTES = 24;
+
+    private final Node root = new Node(EMPTY_LABEL);
+    private final int types;
+    private int size;
+
+    /**
+     * Create an empty trie.
+     *
+     * @param types number of weight slots per term (one per term type)
+     */
+    WeightedRadixTrie(int types) {
+        this.types = types;
+    }
+
+    /**
+     * Add {@code delta} to one weight slot of a term, creating the term on first use. The term is
+     * removed once all its weights drop to zero or below.
+     *
+     * @param key normalized key
+     * @param text display text, recorded when the term is created
+     * @param type weight slot
+     * @param delta weight change
+     */
+    void adjust(String key, String text, int type, long delta) {
+        if (key.isEmpty()) {
+            return;
+        }
+        adjust(root, key, 0, text, type, delta);
+    }
+
+    /**
+     * Highest weighted terms starting with a prefix.
+     *
+     * @param prefix normalized prefix
+     * @param k maximum number of terms
+     * @return up to {@code k} terms, highest total weight first
+     */
+    List<Term> topK(String prefix, int k) {
+        Node start = find(prefix);
+        List<Term> result = new ArrayList<>(Math.min(k, 16));
+        if (start == null || k <= 0) {
+            return result;
+        }
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(start, null, start.maxWeight));
+        while (!queue.isEmpty() && result.size() < k) {
+            Candidate next = queue.poll();
+            if (next.term != null) {
+                result.add(next.term);
+                continue;
+            }
+            Node node = next.node;
+            if (node.term != null) {
+                queue.add(new Candidate(null, node.term, node.term.total));
+            }
+            for (Node child : node.children) {
+                queue.add(new Candidate(child, null, child.maxWeight));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Look up a term.
+     *
+     * @param key normalized key
+     * @return the term, or null
+     */
+    Term get(String key) {
+        Node node = root;
+        int depth = 0;
+        while (depth < key.length()) {
+            int index = childIndex(node, key.charAt(depth));
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, depth);
+            if (common < child.label.length) {
+                return null;
+            }
+            node = child;
+            depth += common;
+        }
+        return node.term;
+    }
+
+    void clear() {
+        root.children = NO_CHILDREN;
+        root.term = null;
+        root.maxWeight = 0;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int nodeCount() {
+        return countNodes(root);
+    }
+
+    /**
+     * Estimated heap footprint of the trie, its labels and terms.
+     *
+     * @return bytes, assuming a 64-bit JVM with compressed references
+     */
+    long estimateBytes() {
+        return estimateBytes(root);
+    }
+
+    private long adjust(Node node, String key, int depth, String text, int type, long delta) {
+        if (depth == key.length()) {
+            if (node.term == null) {
+                if (delta <= 0) {
+                    return recompute(node);
+                }
+                node.term = new Term(text, types);
+                size++;
+            }
+            node.term.weights[type] += delta;
+            node.term.total += delta;
+            if (node.term.isEmpty()) {
+                node.term = null;
+                size--;
+            }
+            return recompute(node);
+        }
+
+        int index = childIndex(node, key.charAt(depth));
+        if (index < 0) {
+            if (delta <= 0) {
+                return recompute(node);
+            }
+            Node leaf = new Node(key.substring(depth).toCharArray());
+            insertChild(node, -index - 1, leaf);
+            adjust(leaf, key, key.length(), text, type, delta);
+            return recompute(node);
+        }
+
+        Node child = node.children[index];
+        int common = commonPrefix(child.label, key, depth);
+        if (common < child.label.length) {
+            if (delta <= 0) {
+                return recompute(node);
+            }
+            // Split the edge: the shared part becomes an inner node above the old child
+            Node inner = new Node(Arrays.copyOf(child.label, common));
+            child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+            inner.children = new Node[] {child};
+            inner.maxWeight = child.maxWeight;
+            node.children[index] = inner;
+            child = inner;
+        }
+        adjust(child, key, depth + common, text, type, delta);
+        compact(node, index);
+        return recompute(node);
+    }
+
+    /** Drop an empty child or merge a term-less child into its only grandchild. */
+    private void compact(Node parent, int index) {
+        Node child = parent.children[index];
+        if (child.term != null) {
+            return;
+        }
+        if (child.children.length == 0) {
+            Node[] children = new Node[parent.children.length - 1];
+            System.arraycopy(parent.children, 0, children, 0, index);
+            System.arraycopy(parent.children, index + 1, children, index, children.length - index);
+            parent.children = children.length == 0 ? NO_CHILDREN : children;
+        } else if (child.children.length == 1) {
+            Node grandchild = child.children[0];
+            char[] label = new char[child.label.length + grandchild.label.length];
+            System.arraycopy(child.label, 0, label, 0, child.label.length);
+            System.arraycopy(grandchild.label, 0, label, child.label.length, grandchild.label.length);
+            grandchild.label = label;
+            parent.children[index] = grandchild;
+        }
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            int index = childIndex(node, prefix.charAt(depth));
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, depth);
+            if (depth + common == prefix.length()) {
+                // The prefix ends on or inside this edge; everything below shares it
+                return child;
+            }
+            if (common < child.label.length) {
+                return null;
+            }
+            node = child;
+            depth += common;
+        }
+        return node;
+    }
+
+    private static long recompute(Node node) {
+        long max = node.term != null ? node.term.total : 0;
+        for (Node child : node.children) {
+            max = Math.max(max, child.maxWeight);
+        }
+        node.maxWeight = max;
+        return max;
+    }
+
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char c = node.children[mid].label[0];
+            if (c < first) {
+                low = mid + 1;
+            } else if (c > first) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void insertChild(Node node, int position, Node child) {
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.children, 0, children, 0, position);
+        children[position] = child;
+        System.arraycopy(node.children, position, children, position + 1, node.children.length - position);
+        node.children = children;
+    }
+
+    private static int commonPrefix(char[] label, String key, int offset) {
+        int max = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < max && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        for (Node child : node.children) {
+            count += countNodes(child);
+        }
+        return count;
+    }
+
+    private long estimateBytes(Node node) {
+        long bytes = NODE_BYTES + align(ARRAY_HEADER_BYTES + 2L * node.label.length);
+        if (node.children.length > 0) {
+            bytes += align(ARRAY_HEADER_BYTES + 4L * node.children.length);
+        }
+        if (node.term != null) {
+            bytes += TERM_BYTES + align(ARRAY_HEADER_BYTES + 8L * types)
+                    + STRING_BYTES + align(ARRAY_HEADER_BYTES + (long) node.term.text.length());
+        }
+        for (Node child : node.children) {
+            bytes += estimateBytes(child);
+        }
+        return bytes;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * A stored term with one weight per type.
+     */
+    static final class Term {
+
+        private final String text;
+        private final long[] weights;
+        private long total;
+
+        Term(String text, int types) {
+            this.text = text;
+            this.weights = new long[types];
+        }
+
+        String getText() {
+            return text;
+        }
+
+        long getWeight(int type) {
+            return weights[type];
+        }
+
+        long getTotal() {
+            return total;
+        }
+
+        private boolean isEmpty() {
+            for (long weight : weights) {
+                if (weight > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Node {
+
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private Term term;
+        private long maxWeight;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+
+        private final Node node;
+        private final Term term;
+        private final long priority;
+
+        Candidate(Node node, Term term, long priority) {
+            this.node = node;
+            this.term = term;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byWeight = Long.compare(other.priority, priority);
+            if (byWeight != 0) {
+                return byWeight;
+            }
+            // Expand nodes before emitting equally weighted terms, then break ties alphabetically
+            if (term == null || other.term == null) {
+                return Boolean.compare(term != null, other.term != null);
+            }
+            return term.text.compareTo(other.term.text);
+        }
+    }
+}
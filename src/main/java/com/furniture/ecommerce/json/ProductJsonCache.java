@@ -0,0 +1,133 @@
+package com.furniture.ecommerce.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache of product responses already encoded as JSON, so a product is serialized once per version
+ * instead of once per response.
+ *
+ * <p>Entries are looked up by product id and only used when they were encoded from the same entity
+ * version as the response being written; a response built from any other version is encoded
+ * afresh and replaces the entry, unless the entry is newer. A committed change, local or reported by
+ * another instance, leaves a marker of its version behind, so a slow reader that loaded the
+ * previous version cannot store its encoding after the change.
+ * Responses without a version, such as those carrying a buffered stock level, are never cached.
+ *
+ * <p>Encoding uses the application's {@link ObjectMapper}, so cached bytes are exactly what Jackson
+ * would have written for the response.
+ */
+@Component
+public class ProductJsonCache {
+
+    /** Cache name used in the metrics. */
+    public static final String CACHE_NAME = "productJson";
+
+    // Caffeine's per-entry overhead, roughly, so small entries are not undercounted
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final ObjectWriter writer;
+    private final Cache<Long, EncodedProduct> cache;
+    private final boolean enabled;
+
+    /**
+     * Constructor for ProductJsonCache.
+     *
+     * @param objectMapper the application's object mapper
+     * @param meterRegistry registry for the cache metrics
+     * @param enabled whether encoded responses are cached
+     * @param maxBytes upper bound of the encoded bytes held
+     */
+    public ProductJsonCache(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${catalog.json-cache.enabled:true}") boolean enabled,
+                            @Value("${catalog.json-cache.max-bytes:67108864}") long maxBytes) {
+        this.writer = objectMapper.writerFor(ProductResponseDTO.class);
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<Long, EncodedProduct>weigher((id, encoded) -> encoded.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Get the JSON encoding of a product response.
+     *
+     * @param product the response
+     * @return the encoded JSON; callers must not modify it
+     * @throws JsonProcessingException if the response cannot be serialized
+     */
+    public byte[] encode(ProductResponseDTO product) throws JsonProcessingException {
+        Long id = product.getId();
+        Long version = product.getVersion();
+        if (!enabled || id == null || version == null) {
+            return writer.writeValueAsBytes(product);
+        }
+        EncodedProduct cached = cache.getIfPresent(id);
+        if (cached != null && cached.json != null && cached.version == version) {
+            return cached.json;
+        }
+        byte[] json = writer.writeValueAsBytes(product);
+        EncodedProduct encoded = new EncodedProduct(version, json);
+        cache.asMap().merge(id, encoded, ProductJsonCache::newer);
+        return json;
+    }
+
+    /**
+     * Drop the encoding of a changed or deleted product.
+     *
+     * @param event the committed change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long version = event.isDeleted() ? null : event.getProduct().getVersion();
+        if (version == null) {
+            cache.invalidate(event.getProductId());
+            return;
+        }
+        // Leave the new version behind without bytes, so encodings of older versions cannot be stored
+        cache.asMap().merge(event.getProductId(), new EncodedProduct(version, null), ProductJsonCache::newer);
+    }
+
+    /**
+     * Number of cached entries, version markers included.
+     *
+     * @return the entry count, approximately
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static EncodedProduct newer(EncodedProduct current, EncodedProduct candidate) {
+        // On a tie the candidate wins: it is either the same encoding or fills in a version marker
+        return current.version > candidate.version ? current : candidate;
+    }
+
+    /** An encoding, or with null bytes only a marker of the latest known version. */
+    private static final class EncodedProduct {
+        private final long version;
+        private final byte[] json;
+
+        EncodedProduct(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+
+        int weight() {
+            return (json != null ? json.length : 0) + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.furniture.ecommerce.json;
+
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Writes product responses, and collections of them, from {@link ProductJsonCache} straight into
+ * the response body: a list is its products' cached encodings joined into a JSON array, without
+ * running Jackson over unchanged products again.
+ *
+ * <p>Registered ahead of the Jackson converter and write-only; every other type, and every request
+ * body, is left to Jackson.
+ */
+public class ProductJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final ProductJsonCache productJsonCache;
+
+    /**
+     * Constructor for ProductJsonHttpMessageConverter.
+     *
+     * @param productJsonCache the cache of encoded products
+     */
+    public ProductJsonHttpMessageConverter(ProductJsonCache productJsonCache) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.productJsonCache = productJsonCache;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isProductType(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProductResponseDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream out = outputMessage.getBody();
+        if (body instanceof ProductResponseDTO product) {
+            out.write(productJsonCache.encode(product));
+            return;
+        }
+        out.write('[');
+        boolean first = true;
+        for (Object product : (Collection<?>) body) {
+            if (!first) {
+                out.write(',');
+            }
+            out.write(productJsonCache.encode((ProductResponseDTO) product));
+            first = false;
+        }
+        out.write(']');
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Product responses are write-only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Product responses are write-only", inputMessage);
+    }
+
+    private static boolean isProductType(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return ProductResponseDTO.class.isAssignableFrom(clazz);
+        }
+        // Collections need their element type; with only the raw class Jackson writes them instead
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && Collection.class.isAssignableFrom(raw)) {
+            Type[] arguments = parameterized.getActualTypeArguments();
+            return arguments.length == 1 && arguments[0] instanceof Class<?> element
+                    && ProductResponseDTO.class.isAssignableFrom(element);
+        }
+        return false;
+    }
+}
@@ -1,18 +1,34 @@
 package com.furniture.ecommerce.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+// Indexes for the repository's equality and range lookups; ProductRepositoryQueryPlanTest checks they are used
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_category", columnList = "category"),
+    @Index(name = "idx_products_material", columnList = "material"),
+    @Index(name = "idx_products_color", columnList = "color"),
+    @Index(name = "idx_products_price", columnList = "price"),
+    @Index(name = "idx_products_updated_at", columnList = "updated_at"),
+    @Index(name = "idx_products_category_key", columnList = "category_key"),
+    @Index(name = "idx_products_name_key", columnList = "name_key")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Product {
     
     @Id
@@ -22,7 +38,7 @@ public class Product {
     @Column(nullable = false, length = 200)
     private String name;
     
-    @Column(columnDefinition = "TEXT")
+    @Column(length = 5000)
     private String description;
     
     @Column(nullable = false, length = 100)
@@ -59,6 +75,21 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Incremented on every write, including the write-behind stock batches; null until persisted
+    @Version
+    private Long version;
+    
+    // Lower-cased copies computed by the database, so case-insensitive lookups can use an index.
+    // Read-only: loaded with the entity but never written, so a product created or renamed in the
+    // current session keeps the previous value (null when new) until it is loaded again
+    @Column(name = "category_key", length = 100, insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(100) GENERATED ALWAYS AS (LOWER(category))")
+    private String categoryKey;
+    
+    @Column(name = "name_key", length = 200, insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(200) GENERATED ALWAYS AS (LOWER(name))")
+    private String nameKey;
+    
     // Constructors
     /**
      * Default constructor.
@@ -222,6 +253,14 @@ public class Product {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     @Override
     public String toString() {
         return "Product{"
@@ -0,0 +1,151 @@
+package com.furniture.ecommerce.query;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.CatalogIndexMaintainer;
+import com.furniture.ecommerce.index.CategoryListings;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Runs planned queries, in memory or in the database.
+ *
+ * <p>Once the catalog indexes are built, a plan is evaluated over the snapshots held by the
+ * {@link CatalogIndexMaintainer}, short-circuiting in plan order, and only the first page is sorted
+ * out of the matches. A plan with a selective category or price term only visits the products the
+ * {@link CategoryListings} select for it; others visit every product. Until the indexes are built,
+ * or with {@code catalog.query.in-memory=false}, the plan runs as one id query on the
+ * {@code products} table. Either way the result is ordered ids plus the exact number of matches.
+ */
+@Component
+public class QueryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryExecutor.class);
+
+    // Above this share of the catalog, looking candidates up by id costs more than visiting everything
+    private static final double CANDIDATE_SELECTIVITY = 0.25;
+
+    private final QueryPlanner queryPlanner;
+    private final CatalogIndexMaintainer catalogIndexMaintainer;
+    private final CategoryListings categoryListings;
+    private final ProductRepository productRepository;
+    private final boolean inMemory;
+
+    /**
+     * Constructor for QueryExecutor.
+     *
+     * @param queryPlanner orders the terms of a query
+     * @param catalogIndexMaintainer holds the catalog snapshots scanned in memory
+     * @param categoryListings selects the candidates of category and price terms
+     * @param productRepository runs plans in the database
+     * @param inMemory whether planned queries are evaluated in memory
+     */
+    public QueryExecutor(QueryPlanner queryPlanner,
+                         CatalogIndexMaintainer catalogIndexMaintainer,
+                         CategoryListings categoryListings,
+                         ProductRepository productRepository,
+                         @Value("${catalog.query.in-memory:true}") boolean inMemory) {
+        this.queryPlanner = queryPlanner;
+        this.catalogIndexMaintainer = catalogIndexMaintainer;
+        this.categoryListings = categoryListings;
+        this.productRepository = productRepository;
+        this.inMemory = inMemory;
+    }
+
+    /**
+     * Plan and run a query.
+     *
+     * @param query the query
+     * @param order the result order
+     * @param limit maximum number of ids, or 0 for all
+     * @return the ids of the first matches in order, and the number of matches
+     */
+    public QueryResult<Long> execute(SearchQuery query, ProductOrder order, int limit) {
+        QueryPlan plan = queryPlanner.plan(query);
+        QueryResult<Long> result;
+        if (inMemory && plan.isEstimated()) {
+            result = scan(plan, order, limit);
+        } else {
+            List<Long> ids = productRepository.findIdsByPlan(plan, order);
+            List<Long> page = limit > 0 && ids.size() > limit ? new ArrayList<>(ids.subList(0, limit)) : ids;
+            result = new QueryResult<>(page, ids.size(), plan);
+        }
+        logger.debug("Query '{}' ran as {}: {} matches", query, plan, result.getTotal());
+        return result;
+    }
+
+    private QueryResult<Long> scan(QueryPlan plan, ProductOrder order, int limit) {
+        Comparator<ProductSnapshot> comparator = order.snapshotComparator();
+        // With a limit, a heap of the best matches so far, worst on top; otherwise every match
+        PriorityQueue<ProductSnapshot> best = new PriorityQueue<>(comparator.reversed());
+        List<ProductSnapshot> all = new ArrayList<>();
+        long[] total = new long[1];
+        Consumer<ProductSnapshot> visitor = product -> {
+            if (!plan.matches(product)) {
+                return;
+            }
+            total[0]++;
+            if (limit == 0) {
+                all.add(product);
+            } else if (best.size() < limit) {
+                best.add(product);
+            } else if (comparator.compare(product, best.peek()) < 0) {
+                best.poll();
+                best.add(product);
+            }
+        };
+        List<Long> candidates = candidates(plan);
+        if (candidates != null) {
+            catalogIndexMaintainer.forEachProduct(candidates, visitor);
+        } else {
+            catalogIndexMaintainer.forEachProduct(visitor);
+        }
+        List<ProductSnapshot> matches = limit == 0 ? all : new ArrayList<>(best);
+        matches.sort(comparator);
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (ProductSnapshot product : matches) {
+            ids.add(product.getId());
+        }
+        return new QueryResult<>(ids, total[0], plan);
+    }
+
+    // Every product the plan can match, from the listings of its category and price terms; null to visit all
+    private List<Long> candidates(QueryPlan plan) {
+        String category = null;
+        BigDecimal minPrice = null;
+        BigDecimal maxPrice = null;
+        double selectivity = 1;
+        for (QueryPlan.Step step : plan.getSteps()) {
+            QueryTerm term = step.getTerm();
+            if (term.getField() == QueryField.CATEGORY && category == null) {
+                category = term.getText();
+            } else if (term.getField() == QueryField.PRICE) {
+                QueryTerm.Operator operator = term.getOperator();
+                if (operator != QueryTerm.Operator.LT && operator != QueryTerm.Operator.LE) {
+                    minPrice = minPrice == null ? term.getNumber() : minPrice.max(term.getNumber());
+                }
+                if (operator != QueryTerm.Operator.GT && operator != QueryTerm.Operator.GE) {
+                    maxPrice = maxPrice == null ? term.getNumber() : maxPrice.min(term.getNumber());
+                }
+            } else {
+                continue;
+            }
+            // The terms together select at most what the most selective of them does
+            selectivity = Math.min(selectivity, step.getSelectivity());
+        }
+        if ((category == null && minPrice == null && maxPrice == null) || !(selectivity <= CANDIDATE_SELECTIVITY)) {
+            return null;
+        }
+        return categoryListings.priceRange(category, minPrice, maxPrice);
+    }
+}
@@ -0,0 +1,79 @@
+package com.furniture.ecommerce.query;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.FacetCounts.Measure;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * The product fields a {@link SearchQuery} can filter on, with their column and in-memory value.
+ */
+public enum QueryField {
+    CATEGORY("category", "category", ProductSnapshot::getCategory),
+    MATERIAL("material", "material", ProductSnapshot::getMaterial),
+    COLOR("color", "color", ProductSnapshot::getColor),
+    NAME("name", "name", ProductSnapshot::getName),
+    PRICE("price", "price", Measure.PRICE),
+    STOCK("stock", "stock", Measure.STOCK),
+    WIDTH("width", "width_cm", Measure.WIDTH),
+    HEIGHT("height", "height_cm", Measure.HEIGHT),
+    DEPTH("depth", "depth_cm", Measure.DEPTH);
+
+    private final String keyword;
+    private final String column;
+    private final Function<ProductSnapshot, String> text;
+    private final Measure measure;
+
+    QueryField(String keyword, String column, Function<ProductSnapshot, String> text) {
+        this.keyword = keyword;
+        this.column = column;
+        this.text = text;
+        this.measure = null;
+    }
+
+    QueryField(String keyword, String column, Measure measure) {
+        this.keyword = keyword;
+        this.column = column;
+        this.text = null;
+        this.measure = measure;
+    }
+
+    /**
+     * Look a field up by the keyword it is written with in a query.
+     *
+     * @param keyword the keyword, case-insensitive
+     * @return the field
+     * @throws IllegalArgumentException if no field has that keyword
+     */
+    public static QueryField forKeyword(String keyword) {
+        String lower = keyword.toLowerCase(Locale.ROOT);
+        for (QueryField field : values()) {
+            if (field.keyword.equals(lower)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown query field '" + keyword + "'; use category, material, color, "
+                + "name, price, stock, width, height, depth or instock");
+    }
+
+    public boolean isNumeric() {
+        return measure != null;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public Measure getMeasure() {
+        return measure;
+    }
+
+    String textOf(ProductSnapshot product) {
+        return text.apply(product);
+    }
+}
@@ -0,0 +1,141 @@
+package com.furniture.ecommerce.query;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The terms of a {@link SearchQuery} in evaluation order, each with its estimated selectivity.
+ *
+ * <p>In memory, {@link #matches} stops at the first term that fails, so the order decides how many
+ * terms an average product costs. In SQL the order is the order of the {@code AND} conditions,
+ * which the database may or may not keep. Produced by {@link QueryPlanner}.
+ */
+public final class QueryPlan {
+
+    private final List<Step> steps;
+    private final long estimatedRows;
+
+    QueryPlan(List<Step> steps, long estimatedRows) {
+        this.steps = Collections.unmodifiableList(steps);
+        this.estimatedRows = estimatedRows;
+    }
+
+    /**
+     * A plan that evaluates the terms as written, for when no statistics are available.
+     *
+     * @param query the query
+     * @return the plan, without estimates
+     */
+    public static QueryPlan unplanned(SearchQuery query) {
+        List<Step> steps = new ArrayList<>();
+        for (QueryTerm term : query.getTerms()) {
+            steps.add(new Step(term, Double.NaN));
+        }
+        return new QueryPlan(steps, -1);
+    }
+
+    /**
+     * Whether a product satisfies every term, evaluated in plan order.
+     *
+     * @param product the product
+     * @return true if the product matches the query
+     */
+    public boolean matches(ProductSnapshot product) {
+        for (Step step : steps) {
+            if (!step.term.matches(product)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The plan as an SQL condition over the {@code products} columns.
+     *
+     * @param parameters receives the parameters, in order
+     * @return the condition, {@code TRUE} for a query without terms
+     */
+    public String toSql(List<Object> parameters) {
+        if (steps.isEmpty()) {
+            return "TRUE";
+        }
+        StringBuilder sql = new StringBuilder();
+        for (Step step : steps) {
+            if (sql.length() > 0) {
+                sql.append(" AND ");
+            }
+            step.term.appendSql(sql, parameters);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Whether the order was chosen from statistics.
+     *
+     * @return false for an {@link #unplanned} query
+     */
+    public boolean isEstimated() {
+        return estimatedRows >= 0;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    @Override
+    public String toString() {
+        if (steps.isEmpty()) {
+            return "all products";
+        }
+        String plan = steps.stream().map(Step::toString).collect(Collectors.joining(" -> "));
+        return isEstimated() ? plan + " (~" + estimatedRows + " rows)" : plan;
+    }
+
+    /**
+     * A term and the estimated share of products satisfying it.
+     */
+    public static final class Step {
+
+        private final QueryTerm term;
+        private final double selectivity;
+
+        Step(QueryTerm term, double selectivity) {
+            this.term = term;
+            this.selectivity = selectivity;
+        }
+
+        /**
+         * The planner's sort key: cost per product filtered out. A term that filters nothing goes last.
+         *
+         * @return the rank, lower first
+         */
+        double rank() {
+            return selectivity >= 1 ? Double.MAX_VALUE : term.cost() / (1 - selectivity);
+        }
+
+        public QueryTerm getTerm() {
+            return term;
+        }
+
+        public double getSelectivity() {
+            return selectivity;
+        }
+
+        @Override
+        public String toString() {
+            if (Double.isNaN(selectivity)) {
+                return term.toString();
+            }
+            return String.format(Locale.ROOT, "%s [%.3f]", term, selectivity);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.furniture.ecommerce.query;
+
+import com.furniture.ecommerce.index.FacetCounts;
+import com.furniture.ecommerce.index.NumericHistogram;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders the terms of a query so the cheapest and most selective are evaluated first.
+ *
+ * <p>Selectivities come from the maintained {@link FacetCounts}: exact counts for category,
+ * material, color and {@code instock}, and value histograms for the numeric fields. Name substrings
+ * have no statistics and are assumed to match {@value #CONTAINS_SELECTIVITY} of the catalog. Terms
+ * are sorted by cost divided by the share of products they reject, the order that minimizes the
+ * expected cost of a short-circuiting conjunction of independent terms. The row estimate multiplies
+ * the selectivities, so it assumes independence too.
+ */
+@Component
+public class QueryPlanner {
+
+    /** Assumed share of products whose name contains a given substring. */
+    public static final double CONTAINS_SELECTIVITY = 0.1;
+
+    private final FacetCounts facetCounts;
+
+    /**
+     * Constructor for QueryPlanner.
+     *
+     * @param facetCounts the maintained value statistics
+     */
+    public QueryPlanner(FacetCounts facetCounts) {
+        this.facetCounts = facetCounts;
+    }
+
+    /**
+     * Plan a query.
+     *
+     * @param query the query
+     * @return the plan; {@link QueryPlan#unplanned unplanned} while the statistics are being built
+     */
+    public QueryPlan plan(SearchQuery query) {
+        if (!facetCounts.isReady()) {
+            return QueryPlan.unplanned(query);
+        }
+        long total = facetCounts.total();
+        List<QueryPlan.Step> steps = new ArrayList<>();
+        double rows = total;
+        for (QueryTerm term : query.getTerms()) {
+            double selectivity = total == 0 ? 0 : Math.min(1, selectivity(term, total));
+            steps.add(new QueryPlan.Step(term, selectivity));
+            rows *= selectivity;
+        }
+        steps.sort(Comparator.comparingDouble(QueryPlan.Step::rank));
+        return new QueryPlan(steps, Math.round(rows));
+    }
+
+    private double selectivity(QueryTerm term, long total) {
+        switch (term.getField()) {
+            case CATEGORY:
+                return (double) facetCounts.categoryCount(term.getText()) / total;
+            case MATERIAL:
+                return (double) facetCounts.materialCount(term.getText()) / total;
+            case COLOR:
+                return (double) facetCounts.colorCount(term.getText()) / total;
+            case NAME:
+                return CONTAINS_SELECTIVITY;
+            default:
+                return numericSelectivity(term, total);
+        }
+    }
+
+    private double numericSelectivity(QueryTerm term, long total) {
+        double value = term.getNumber().doubleValue();
+        if (term.getField() == QueryField.STOCK && term.getOperator() == QueryTerm.Operator.GT
+                && term.getNumber().compareTo(BigDecimal.ZERO) == 0) {
+            // instock, which is counted exactly
+            return (double) facetCounts.inStockTotal() / total;
+        }
+        NumericHistogram histogram = facetCounts.histogram(term.getField().getMeasure());
+        // The histogram does not tell < from <=; the bucket of the bound is split evenly either way
+        switch (term.getOperator()) {
+            case LT:
+            case LE:
+                return histogram.count(0, value) / total;
+            case GT:
+            case GE:
+                return histogram.count(value, Double.MAX_VALUE) / total;
+            default:
+                return (double) histogram.bucketCount(value) / total;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.furniture.ecommerce.query;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The first page of a query's matches, with the number of matches and the plan that found them.
+ *
+ * @param <T> the result type: product ids, or products
+ */
+public final class QueryResult<T> {
+
+    private final List<T> items;
+    private final long total;
+    private final QueryPlan plan;
+
+    /**
+     * Constructor for QueryResult.
+     *
+     * @param items the matches of the page, in order
+     * @param total the number of matches without the limit
+     * @param plan the executed plan
+     */
+    public QueryResult(List<T> items, long total, QueryPlan plan) {
+        this.items = Collections.unmodifiableList(items);
+        this.total = total;
+        this.plan = plan;
+    }
+
+    /**
+     * The same result with its items replaced, typically ids by the products they identify.
+     *
+     * @param newItems the replacement items
+     * @param <R> the new item type
+     * @return the result
+     */
+    public <R> QueryResult<R> withItems(List<R> newItems) {
+        return new QueryResult<>(newItems, total, plan);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public QueryPlan getPlan() {
+        return plan;
+    }
+}
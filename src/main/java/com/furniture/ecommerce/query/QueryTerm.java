@@ -0,0 +1,177 @@
+package com.furniture.ecommerce.query;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One predicate of a {@link SearchQuery}, such as {@code category:sofas} or {@code price:<800},
+ * evaluated either in memory against a snapshot or as an SQL condition.
+ *
+ * <p>Text fields other than the name match whole values ignoring case; the name matches any
+ * substring, ignoring case. Numeric comparisons never match a product without a value, in memory as
+ * in SQL.
+ */
+public final class QueryTerm {
+
+    /** Comparison of a term. */
+    public enum Operator {
+        EQ("="),
+        LT("<"),
+        LE("<="),
+        GT(">"),
+        GE(">="),
+        CONTAINS("~");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+    }
+
+    // Relative cost of evaluating a term once: a comparison of doubles, of whole strings, or a substring search
+    private static final int NUMERIC_COST = 1;
+    private static final int EQUALS_COST = 2;
+    private static final int CONTAINS_COST = 8;
+
+    private final QueryField field;
+    private final Operator operator;
+    private final String text;
+    private final BigDecimal number;
+    private final double threshold;
+
+    private QueryTerm(QueryField field, Operator operator, String text, BigDecimal number) {
+        this.field = field;
+        this.operator = operator;
+        this.text = text;
+        this.number = number;
+        this.threshold = number != null ? number.doubleValue() : 0;
+    }
+
+    /**
+     * A text predicate: equality, or a substring match on the name.
+     *
+     * @param field a text field
+     * @param value the value, matched ignoring case
+     * @return the term
+     */
+    public static QueryTerm text(QueryField field, String value) {
+        if (field.isNumeric()) {
+            throw new IllegalArgumentException(field.getKeyword() + " takes a number, not '" + value + "'");
+        }
+        Operator operator = field == QueryField.NAME ? Operator.CONTAINS : Operator.EQ;
+        return new QueryTerm(field, operator, value.toLowerCase(Locale.ROOT), null);
+    }
+
+    /**
+     * A numeric comparison.
+     *
+     * @param field a numeric field
+     * @param operator the comparison
+     * @param value the number compared with
+     * @return the term
+     */
+    public static QueryTerm number(QueryField field, Operator operator, BigDecimal value) {
+        if (!field.isNumeric() || operator == Operator.CONTAINS) {
+            throw new IllegalArgumentException(field.getKeyword() + " cannot be compared with " + operator.symbol);
+        }
+        return new QueryTerm(field, operator, null, value);
+    }
+
+    /**
+     * Whether a product satisfies the term.
+     *
+     * @param product the product
+     * @return true if the term's SQL condition would select it
+     */
+    public boolean matches(ProductSnapshot product) {
+        if (number != null) {
+            Double value = field.getMeasure().of(product);
+            return value != null && compare(value);
+        }
+        String value = field.textOf(product);
+        if (value == null) {
+            return false;
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        return operator == Operator.CONTAINS ? lower.contains(text) : lower.equals(text);
+    }
+
+    /**
+     * Append the term as an SQL condition over the {@code products} columns.
+     *
+     * @param sql the statement being built
+     * @param parameters receives the term's parameter
+     */
+    public void appendSql(StringBuilder sql, List<Object> parameters) {
+        if (number != null) {
+            sql.append(field.getColumn()).append(' ').append(operator.symbol).append(" ?");
+            parameters.add(number);
+        } else if (operator == Operator.CONTAINS) {
+            sql.append("LOWER(").append(field.getColumn()).append(") LIKE ? ESCAPE '\\'");
+            parameters.add("%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+        } else {
+            sql.append("LOWER(").append(field.getColumn()).append(") = ?");
+            parameters.add(text);
+        }
+    }
+
+    /**
+     * Relative cost of evaluating the term against one product.
+     *
+     * @return the cost, 1 for a numeric comparison
+     */
+    public int cost() {
+        if (number != null) {
+            return NUMERIC_COST;
+        }
+        return operator == Operator.CONTAINS ? CONTAINS_COST : EQUALS_COST;
+    }
+
+    public QueryField getField() {
+        return field;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public BigDecimal getNumber() {
+        return number;
+    }
+
+    @Override
+    public String toString() {
+        if (number != null) {
+            String comparison = operator == Operator.EQ ? "" : operator.symbol;
+            return field.getKeyword() + ":" + comparison + number.toPlainString();
+        }
+        return field.getKeyword() + ":" + (text.indexOf(' ') >= 0 ? "\"" + text + "\"" : text);
+    }
+
+    private boolean compare(double value) {
+        switch (operator) {
+            case LT:
+                return value < threshold;
+            case LE:
+                return value <= threshold;
+            case GT:
+                return value > threshold;
+            case GE:
+                return value >= threshold;
+            default:
+                return value == threshold;
+        }
+    }
+}
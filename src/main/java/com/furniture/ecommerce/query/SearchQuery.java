@@ -0,0 +1,164 @@
+package com.furniture.ecommerce.query;
+
+import com.furniture.ecommerce.index.SearchCriteria;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code q} parameter of {@code GET /products/search}: whitespace-separated terms that must all
+ * hold, for example {@code category:sofas material:oak price:<800 width:<=220 instock}.
+ *
+ * <p>Terms are written {@code field:value}. Text fields ({@code category}, {@code material},
+ * {@code color}) match whole values and {@code name} matches any part of the name, all ignoring
+ * case; values with spaces are quoted, as in {@code name:"corner sofa"}. Numeric fields
+ * ({@code price}, {@code stock}, {@code width}, {@code height}, {@code depth}) take a number, a
+ * comparison such as {@code <800} or {@code >=2}, or an inclusive range such as {@code 100..400}.
+ * {@code instock} is short for {@code stock:>0}.
+ */
+public final class SearchQuery {
+
+    /** Most terms a query may have. */
+    public static final int MAX_TERMS = 20;
+
+    private static final String IN_STOCK = "instock";
+    private static final String RANGE = "..";
+
+    private final List<QueryTerm> terms;
+
+    private SearchQuery(List<QueryTerm> terms) {
+        this.terms = Collections.unmodifiableList(terms);
+    }
+
+    /**
+     * Parse a query.
+     *
+     * @param query the query; blank for one that matches every product
+     * @return the parsed query
+     * @throws IllegalArgumentException if the query is malformed
+     */
+    public static SearchQuery parse(String query) {
+        List<QueryTerm> terms = new ArrayList<>();
+        for (String token : tokenize(query != null ? query : "")) {
+            parseTerm(token, terms);
+        }
+        if (terms.size() > MAX_TERMS) {
+            throw new IllegalArgumentException("A query can have at most " + MAX_TERMS + " terms");
+        }
+        return new SearchQuery(terms);
+    }
+
+    /**
+     * This query with the filters of the other search parameters added.
+     *
+     * @param criteria canonical search criteria
+     * @return a query matching both
+     */
+    public SearchQuery and(SearchCriteria criteria) {
+        List<QueryTerm> combined = new ArrayList<>(terms);
+        if (criteria.getCategory() != null) {
+            combined.add(QueryTerm.text(QueryField.CATEGORY, criteria.getCategory()));
+        }
+        if (criteria.getMaterial() != null) {
+            combined.add(QueryTerm.text(QueryField.MATERIAL, criteria.getMaterial()));
+        }
+        if (criteria.getColor() != null) {
+            combined.add(QueryTerm.text(QueryField.COLOR, criteria.getColor()));
+        }
+        if (criteria.getMinPrice() != null) {
+            combined.add(QueryTerm.number(QueryField.PRICE, QueryTerm.Operator.GE, criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            combined.add(QueryTerm.number(QueryField.PRICE, QueryTerm.Operator.LE, criteria.getMaxPrice()));
+        }
+        if (criteria.getInStock() != null) {
+            combined.add(inStock());
+        }
+        return new SearchQuery(combined);
+    }
+
+    public List<QueryTerm> getTerms() {
+        return terms;
+    }
+
+    @Override
+    public String toString() {
+        return terms.stream().map(QueryTerm::toString).collect(Collectors.joining(" "));
+    }
+
+    private static void parseTerm(String token, List<QueryTerm> terms) {
+        if (token.equalsIgnoreCase(IN_STOCK)) {
+            terms.add(inStock());
+            return;
+        }
+        int colon = token.indexOf(':');
+        if (colon <= 0 || colon == token.length() - 1) {
+            throw new IllegalArgumentException("Query terms are written field:value or instock, not '" + token + "'");
+        }
+        QueryField field = QueryField.forKeyword(token.substring(0, colon));
+        String value = token.substring(colon + 1);
+        if (!field.isNumeric()) {
+            terms.add(QueryTerm.text(field, value));
+            return;
+        }
+        int range = value.indexOf(RANGE);
+        if (range >= 0) {
+            terms.add(QueryTerm.number(field, QueryTerm.Operator.GE, number(field, value.substring(0, range))));
+            terms.add(QueryTerm.number(field, QueryTerm.Operator.LE,
+                    number(field, value.substring(range + RANGE.length()))));
+            return;
+        }
+        // Longest symbols first, so <= is not read as < followed by =800
+        for (QueryTerm.Operator operator : List.of(QueryTerm.Operator.LE, QueryTerm.Operator.GE,
+                QueryTerm.Operator.LT, QueryTerm.Operator.GT, QueryTerm.Operator.EQ)) {
+            if (value.startsWith(operator.getSymbol())) {
+                terms.add(QueryTerm.number(field, operator,
+                        number(field, value.substring(operator.getSymbol().length()))));
+                return;
+            }
+        }
+        terms.add(QueryTerm.number(field, QueryTerm.Operator.EQ, number(field, value)));
+    }
+
+    private static QueryTerm inStock() {
+        return QueryTerm.number(QueryField.STOCK, QueryTerm.Operator.GT, BigDecimal.ZERO);
+    }
+
+    private static BigDecimal number(QueryField field, String value) {
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field.getKeyword() + " takes a number, not '" + value + "'");
+        }
+    }
+
+    // Splits on whitespace outside double quotes and drops the quotes
+    private static List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (token.length() > 0) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+            } else {
+                token.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote in query: " + query);
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
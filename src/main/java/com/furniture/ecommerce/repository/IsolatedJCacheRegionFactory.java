@@ -0,0 +1,29 @@
+package com.furniture.ecommerce.repository;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JCache region factory that gives each session factory a cache manager of its own.
+ *
+ * <p>The caching provider's default manager is shared by the whole JVM. Two session factories in
+ * one JVM, such as the application contexts of a test run, would otherwise cache rows of different
+ * databases under the same entity ids, and the first one to close would close the other's regions.
+ * The regions are still sized by {@code application.conf}.
+ */
+public class IsolatedJCacheRegionFactory extends JCacheRegionFactory {
+
+    @Override
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map<String, Object> properties) {
+        CachingProvider provider = getCachingProvider(properties);
+        // A URI no other session factory uses; closed with the session factory
+        URI uri = URI.create("urn:product-catalog:second-level-cache:" + UUID.randomUUID());
+        return provider.getCacheManager(uri, getClassLoader(provider));
+    }
+}
@@ -0,0 +1,241 @@
+package com.furniture.ecommerce.repository;
+
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The cold tier: archived products in {@code products_archive}, moved there from {@code products}
+ * with plain JDBC.
+ *
+ * <p>The archive has the columns of {@code products} plus {@code archived_at}. It is not mapped as
+ * an entity, so Hibernate's queries, second-level cache and in-memory indexes only ever see the
+ * hot table; archived rows are read back here as responses flagged {@code archived}.
+ */
+@Repository
+public class ProductArchiveRepository {
+
+    private static final String COLUMNS = "id, name, description, category, price, stock, width_cm, height_cm, "
+            + "depth_cm, material, color, image_url, created_at, updated_at, version";
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS products_archive ("
+            + "id BIGINT PRIMARY KEY, name VARCHAR(200) NOT NULL, description VARCHAR(5000), "
+            + "category VARCHAR(100) NOT NULL, price NUMERIC(10, 2) NOT NULL, stock INTEGER NOT NULL, "
+            + "width_cm FLOAT(53), height_cm FLOAT(53), depth_cm FLOAT(53), material VARCHAR(100), "
+            + "color VARCHAR(50), image_url VARCHAR(500), created_at TIMESTAMP(6) NOT NULL, "
+            + "updated_at TIMESTAMP(6), version BIGINT DEFAULT 0 NOT NULL, archived_at TIMESTAMP(6) NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_products_archive_category ON products_archive (category)"
+    };
+
+    // Out of stock and untouched since the cutoff; every stock change sets updated_at
+    private static final String ARCHIVABLE = "stock = 0 AND COALESCE(updated_at, created_at) < ?";
+
+    private static final String SELECT = "SELECT " + COLUMNS + " FROM products_archive";
+
+    private static final RowMapper<ProductResponseDTO> ROW_MAPPER = (rs, rowNum) -> {
+        ProductResponseDTO product = new ProductResponseDTO(
+                rs.getLong("id"), rs.getString("name"), rs.getString("description"), rs.getString("category"),
+                rs.getBigDecimal("price"), rs.getInt("stock"), rs.getObject("width_cm", Double.class),
+                rs.getObject("height_cm", Double.class), rs.getObject("depth_cm", Double.class),
+                rs.getString("material"), rs.getString("color"), rs.getString("image_url"),
+                toLocalDateTime(rs.getTimestamp("created_at")), toLocalDateTime(rs.getTimestamp("updated_at")));
+        product.setArchived(true);
+        return product;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for ProductArchiveRepository.
+     *
+     * @param jdbcTemplate the JDBC template
+     */
+    public ProductArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Create the archive table if it does not exist yet.
+     */
+    @PostConstruct
+    public void createSchema() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    /**
+     * Find hot products that meet the archival policy, in ID order.
+     *
+     * @param cutoff products last updated before this time qualify
+     * @param afterId only IDs greater than this, to continue after the previous batch
+     * @param limit maximum number of ids
+     * @return the product IDs
+     */
+    public List<Long> findArchivable(LocalDateTime cutoff, long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM products WHERE " + ARCHIVABLE
+                + " AND id > ? ORDER BY id LIMIT ?", Long.class, Timestamp.valueOf(cutoff), afterId, limit);
+    }
+
+    /**
+     * Move products from the hot table to the archive in one transaction.
+     *
+     * @param ids the products to move
+     * @param cutoff if not null, only products still meeting the archival policy for this cutoff move
+     * @param archivedAt the archival time recorded on each row
+     * @return IDs of the products moved
+     */
+    @Transactional
+    public List<Long> moveToArchive(Collection<Long> ids, LocalDateTime cutoff, LocalDateTime archivedAt) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Lock the rows first, so a concurrent update either commits before the move or waits for it
+        List<Object> args = new ArrayList<>(ids);
+        String lock = "SELECT id FROM products WHERE id IN (" + placeholders(ids.size()) + ")";
+        if (cutoff != null) {
+            lock += " AND " + ARCHIVABLE;
+            args.add(Timestamp.valueOf(cutoff));
+        }
+        List<Long> moving = jdbcTemplate.queryForList(lock + " FOR UPDATE", Long.class, args.toArray());
+        if (moving.isEmpty()) {
+            return moving;
+        }
+        String in = " WHERE id IN (" + placeholders(moving.size()) + ")";
+        List<Object> insertArgs = new ArrayList<>(moving.size() + 1);
+        insertArgs.add(Timestamp.valueOf(archivedAt));
+        insertArgs.addAll(moving);
+        jdbcTemplate.update("INSERT INTO products_archive (" + COLUMNS + ", archived_at) SELECT " + COLUMNS
+                + ", ? FROM products" + in, insertArgs.toArray());
+        jdbcTemplate.update("DELETE FROM products" + in, moving.toArray());
+        return moving;
+    }
+
+    /**
+     * Find an archived product.
+     *
+     * @param id the product ID
+     * @return the product, or null if it is not archived
+     */
+    public ProductResponseDTO findById(long id) {
+        List<ProductResponseDTO> rows = jdbcTemplate.query(SELECT + " WHERE id = ?", ROW_MAPPER, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Archived products matching search filters, with the semantics of
+     * {@code ProductRepository.searchProducts}.
+     *
+     * @param criteria the filters
+     * @param order result order
+     * @param limit maximum number of results, or 0 for all
+     * @return the matching products
+     */
+    public List<ProductResponseDTO> search(SearchCriteria criteria, ProductOrder order, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, criteria);
+        sql.append(" ORDER BY ").append(order.toSql());
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            args.add(limit);
+        }
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Count the archived products matching search filters.
+     *
+     * @param criteria the filters
+     * @return the number of matches
+     */
+    public long count(SearchCriteria criteria) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM products_archive");
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, criteria);
+        Long count = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> args, SearchCriteria criteria) {
+        sql.append(" WHERE 1 = 1");
+        appendEqualsIgnoreCase(sql, args, "category", criteria.getCategory());
+        appendEqualsIgnoreCase(sql, args, "material", criteria.getMaterial());
+        appendEqualsIgnoreCase(sql, args, "color", criteria.getColor());
+        if (criteria.getMinPrice() != null) {
+            sql.append(" AND price >= ?");
+            args.add(criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            sql.append(" AND price <= ?");
+            args.add(criteria.getMaxPrice());
+        }
+        if (criteria.getInStock() != null) {
+            sql.append(" AND stock > 0");
+        }
+    }
+
+    /**
+     * Archived products within the given dimensions, with the semantics of
+     * {@code ProductRepository.findByMaxDimensions}.
+     *
+     * @param maxWidth maximum width, or null
+     * @param maxHeight maximum height, or null
+     * @param maxDepth maximum depth, or null
+     * @return the matching products
+     */
+    public List<ProductResponseDTO> findByMaxDimensions(Double maxWidth, Double maxHeight, Double maxDepth) {
+        StringBuilder sql = new StringBuilder(SELECT).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        appendAtMost(sql, args, "width_cm", maxWidth);
+        appendAtMost(sql, args, "height_cm", maxHeight);
+        appendAtMost(sql, args, "depth_cm", maxDepth);
+        return jdbcTemplate.query(sql.append(" ORDER BY id").toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Number of archived products.
+     *
+     * @return the row count of the archive
+     */
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products_archive", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static void appendEqualsIgnoreCase(StringBuilder sql, List<Object> args, String column, String value) {
+        // Criteria values are already lower-cased
+        if (value != null) {
+            sql.append(" AND LOWER(").append(column).append(") = ?");
+            args.add(value);
+        }
+    }
+
+    private static void appendAtMost(StringBuilder sql, List<Object> args, String column, Double value) {
+        if (value != null) {
+            sql.append(" AND ").append(column).append(" <= ?");
+            args.add(value);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,176 @@
+package com.furniture.ecommerce.repository;
+
+import com.furniture.ecommerce.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Fast bulk insert path for large catalogs.
+ *
+ * <p>Bypasses the persistence context entirely: rows are written with batched JDBC on a single
+ * connection and committed in chunks, which is one to two orders of magnitude faster than
+ * {@code saveAll} for millions of products.
+ */
+@Repository
+public class ProductBulkLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBulkLoader.class);
+
+    private static final String INSERT_SQL = "INSERT INTO products (name, description, category, price, stock, "
+            + "width_cm, height_cm, depth_cm, material, color, image_url, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    // Bumps the version like a JPA update would, so version-keyed caches see the new stock
+    private static final String UPDATE_STOCK_SQL =
+            "UPDATE products SET stock = ?, updated_at = ?, version = version + 1 WHERE id = ?";
+
+    private static final int ROWS_PER_COMMIT = 50_000;
+
+    private static final int VERSION_LOOKUP_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductSecondLevelCache secondLevelCache;
+
+    /**
+     * Constructor for ProductBulkLoader.
+     *
+     * @param jdbcTemplate the JDBC template
+     * @param secondLevelCache the Hibernate second-level cache, evicted after each load
+     */
+    public ProductBulkLoader(JdbcTemplate jdbcTemplate, ProductSecondLevelCache secondLevelCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.secondLevelCache = secondLevelCache;
+    }
+
+    /**
+     * Insert {@code count} products pulled from the given source.
+     *
+     * @param source supplies the products to insert; ids are ignored and generated by the database
+     * @param count number of products to insert
+     * @param batchSize number of rows per JDBC batch
+     * @return number of rows inserted
+     */
+    public long load(Supplier<Product> source, long count, int batchSize) {
+        long started = System.nanoTime();
+        Long inserted = jdbcTemplate.execute((Connection connection) -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                long rows = 0;
+                while (rows < count) {
+                    bind(statement, source.get());
+                    statement.addBatch();
+                    rows++;
+                    if (rows % batchSize == 0 || rows == count) {
+                        statement.executeBatch();
+                    }
+                    if (rows % ROWS_PER_COMMIT == 0) {
+                        connection.commit();
+                        logger.debug("Bulk loaded {} of {} products", rows, count);
+                    }
+                }
+                connection.commit();
+                return rows;
+            } catch (RuntimeException | SQLException e) {
+                // Restoring auto-commit below would otherwise commit the partial chunk
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+        // The inserts bypassed Hibernate, so cached "all products in category X" results are now wrong
+        secondLevelCache.evictAll();
+
+        long rows = inserted != null ? inserted : 0;
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Bulk loaded {} products in {} ms ({} rows/s)",
+                rows, elapsedMillis, elapsedMillis > 0 ? rows * 1000 / elapsedMillis : rows);
+        return rows;
+    }
+
+    /**
+     * Write many stock levels in one JDBC batch.
+     *
+     * @param stockById new stock quantity per product ID
+     * @return number of rows updated
+     */
+    public int updateStock(Map<Long, Integer> stockById) {
+        if (stockById.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(stockById.size());
+        for (Map.Entry<Long, Integer> entry : stockById.entrySet()) {
+            rows.add(new Object[] {entry.getValue(), now, entry.getKey()});
+        }
+        int updated = 0;
+        for (int count : jdbcTemplate.batchUpdate(UPDATE_STOCK_SQL, rows)) {
+            // Drivers may report SUCCESS_NO_INFO (-2) instead of a row count
+            updated += count > 0 ? count : 0;
+        }
+        // No cached query depends on stock, so the query cache survives the frequent write-behind flushes
+        secondLevelCache.evictEntities(stockById.keySet());
+        return updated;
+    }
+
+    /**
+     * Read the current versions of many products.
+     *
+     * @param ids the product IDs
+     * @return version per product ID; products that no longer exist are absent
+     */
+    public Map<Long, Long> findVersions(Collection<Long> ids) {
+        Map<Long, Long> versions = new HashMap<>();
+        List<Long> remaining = new ArrayList<>(ids);
+        for (int from = 0; from < remaining.size(); from += VERSION_LOOKUP_CHUNK) {
+            List<Long> chunk = remaining.subList(from, Math.min(from + VERSION_LOOKUP_CHUNK, remaining.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT id, version FROM products WHERE id IN (" + placeholders + ")",
+                    rs -> {
+                        versions.put(rs.getLong(1), rs.getLong(2));
+                    }, chunk.toArray());
+        }
+        return versions;
+    }
+
+    private void bind(PreparedStatement statement, Product product) throws SQLException {
+        statement.setString(1, product.getName());
+        statement.setString(2, product.getDescription());
+        statement.setString(3, product.getCategory());
+        statement.setBigDecimal(4, product.getPrice());
+        statement.setInt(5, product.getStock());
+        setDouble(statement, 6, product.getWidth());
+        setDouble(statement, 7, product.getHeight());
+        setDouble(statement, 8, product.getDepth());
+        statement.setString(9, product.getMaterial());
+        statement.setString(10, product.getColor());
+        statement.setString(11, product.getImageUrl());
+        statement.setTimestamp(12, Timestamp.valueOf(product.getCreatedAt()));
+        statement.setTimestamp(13, Timestamp.valueOf(product.getUpdatedAt()));
+    }
+
+    private void setDouble(PreparedStatement statement, int index, Double value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.DOUBLE);
+        } else {
+            statement.setDouble(index, value);
+        }
+    }
+}
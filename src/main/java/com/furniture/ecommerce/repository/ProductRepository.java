@@ -1,22 +1,36 @@
 package com.furniture.ecommerce.repository;
 
 import com.furniture.ecommerce.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    
+    // Find a product and lock its row until the transaction ends, for read-modify-write updates
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
     
     // Find products by category
     List<Product> findByCategory(String category);
     
-    // Find products by category ignoring case
-    List<Product> findByCategoryIgnoreCase(String category);
+    // Find products by category ignoring case (query cache: category pages are read far more than written)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Product p WHERE p.categoryKey = LOWER(:category)")
+    List<Product> findByCategoryIgnoreCase(@Param("category") String category);
     
     // Find products by material
     List<Product> findByMaterial(String material);
@@ -51,6 +65,21 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                                 @Param("maxPrice") BigDecimal maxPrice,
                                 @Param("inStock") Boolean inStock);
     
+    // Count the products searchProducts would return, for the total of a limited search
+    @Query("SELECT COUNT(p) FROM Product p WHERE "
+           + "(:category IS NULL OR LOWER(p.category) = LOWER(:category)) AND "
+           + "(:material IS NULL OR LOWER(p.material) = LOWER(:material)) AND "
+           + "(:color IS NULL OR LOWER(p.color) = LOWER(:color)) AND "
+           + "(:minPrice IS NULL OR p.price >= :minPrice) AND "
+           + "(:maxPrice IS NULL OR p.price <= :maxPrice) AND "
+           + "(:inStock IS NULL OR (CASE WHEN :inStock = true THEN p.stock > 0 ELSE true END))")
+    long countProducts(@Param("category") String category,
+                       @Param("material") String material,
+                       @Param("color") String color,
+                       @Param("minPrice") BigDecimal minPrice,
+                       @Param("maxPrice") BigDecimal maxPrice,
+                       @Param("inStock") Boolean inStock);
+    
     // Find products within specific dimensions
     @Query("SELECT p FROM Product p WHERE "
            + "(:maxWidth IS NULL OR p.width <= :maxWidth) AND "
@@ -61,20 +90,27 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
                                      @Param("maxDepth") Double maxDepth);
     
     // Get distinct categories
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT p.category FROM Product p ORDER BY p.category")
     List<String> findDistinctCategories();
     
     // Get distinct materials
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT p.material FROM Product p WHERE p.material IS NOT NULL ORDER BY p.material")
     List<String> findDistinctMaterials();
     
     // Get distinct colors
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT p.color FROM Product p WHERE p.color IS NOT NULL ORDER BY p.color")
     List<String> findDistinctColors();
     
     // Check if product name already exists (for validation)
-    boolean existsByNameIgnoreCase(String name);
+    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN TRUE ELSE FALSE END FROM Product p WHERE p.nameKey = LOWER(:name)")
+    boolean existsByNameIgnoreCase(@Param("name") String name);
     
     // Find products updated after a certain date
     List<Product> findByUpdatedAtAfter(java.time.LocalDateTime date);
+    
+    // Next batch of products by ID, for reading the whole catalog without offsets or counts
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 } 
@@ -0,0 +1,17 @@
+package com.furniture.ecommerce.repository;
+
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.query.QueryPlan;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // Load products by id in the given order, from the second-level cache where possible.
+    // Ids of missing products are skipped.
+    List<Product> findAllByIdInOrder(List<Long> ids);
+
+    // Ids of the products matching a query plan, in the given order; the plan's terms are its WHERE clause
+    List<Long> findIdsByPlan(QueryPlan plan, ProductOrder order);
+}
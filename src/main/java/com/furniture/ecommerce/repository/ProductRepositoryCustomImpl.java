@@ -0,0 +1,60 @@
+package com.furniture.ecommerce.repository;
+
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.query.QueryPlan;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Ordered multi-load for id lists produced by in-memory indexes and result caches.
+ *
+ * <p>Unlike {@code findAllById}, which always issues an {@code IN} query, Hibernate's multi-load
+ * resolves ids from the persistence context and the second-level cache first and only batch-loads
+ * the misses, then returns the entities in the order of the ids.
+ *
+ * <p>Query plans run as a native id query, as their conditions are written over the columns.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Product> products = new ArrayList<>(entityManager.unwrap(Session.class)
+                .byMultipleIds(Product.class)
+                .enableOrderedReturn(true)
+                .withBatchSize(BATCH_SIZE)
+                .multiLoad(ids));
+        // Ordered multi-load returns null in the position of an id that no longer exists
+        products.removeIf(Objects::isNull);
+        return products;
+    }
+
+    @Override
+    public List<Long> findIdsByPlan(QueryPlan plan, ProductOrder order) {
+        List<Object> parameters = new ArrayList<>();
+        Query query = entityManager.createNativeQuery("SELECT id FROM products WHERE " + plan.toSql(parameters)
+                + " ORDER BY " + order.toSql());
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Object id : query.getResultList()) {
+            ids.add(((Number) id).longValue());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,62 @@
+package com.furniture.ecommerce.repository;
+
+import com.furniture.ecommerce.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Keeps the Hibernate second-level and query caches consistent with writes that bypass Hibernate.
+ *
+ * <p>JPQL bulk statements invalidate the affected regions automatically, but plain JDBC writes
+ * (such as {@link ProductBulkLoader}) are invisible to Hibernate and must evict explicitly.
+ */
+@Component
+public class ProductSecondLevelCache {
+
+    private final Cache cache;
+
+    /**
+     * Constructor for ProductSecondLevelCache.
+     *
+     * @param entityManagerFactory the JPA entity manager factory
+     */
+    public ProductSecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Evict the given products and all cached query results after a JDBC update of those rows.
+     *
+     * @param ids IDs of the modified products
+     */
+    public void evict(Collection<Long> ids) {
+        for (Long id : ids) {
+            cache.evictEntityData(Product.class, id);
+        }
+        cache.evictQueryRegions();
+    }
+
+    /**
+     * Evict the given products after a JDBC update of columns no cached query selects or filters on,
+     * such as stock. Cached query results stay valid and are kept.
+     *
+     * @param ids IDs of the modified products
+     */
+    public void evictEntities(Collection<Long> ids) {
+        for (Long id : ids) {
+            cache.evictEntityData(Product.class, id);
+        }
+    }
+
+    /**
+     * Evict every cached product and query result after a JDBC write of unknown extent.
+     */
+    public void evictAll() {
+        cache.evictEntityData(Product.class);
+        cache.evictQueryRegions();
+    }
+}
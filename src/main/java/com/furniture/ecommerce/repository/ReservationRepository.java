@@ -0,0 +1,110 @@
+package com.furniture.ecommerce.repository;
+
+import com.furniture.ecommerce.reservation.Reservation;
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Active stock reservations in {@code stock_reservations}, with plain JDBC.
+ *
+ * <p>The table only backs the in-memory ledger up: a row is written when a hold is granted and
+ * deleted when it is confirmed, released or expires, so after a restart the rows left are exactly
+ * the holds to restore.
+ */
+@Repository
+public class ReservationRepository {
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS stock_reservations ("
+            + "id VARCHAR(36) PRIMARY KEY, product_id BIGINT NOT NULL, quantity INTEGER NOT NULL, "
+            + "created_at TIMESTAMP(6) NOT NULL, expires_at TIMESTAMP(6) NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_stock_reservations_expires_at ON stock_reservations (expires_at)"
+    };
+
+    private static final RowMapper<Reservation> ROW_MAPPER = (rs, rowNum) -> new Reservation(
+            rs.getString("id"), rs.getLong("product_id"), rs.getInt("quantity"),
+            rs.getTimestamp("created_at").toInstant(), rs.getTimestamp("expires_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for ReservationRepository.
+     *
+     * @param jdbcTemplate the JDBC template
+     */
+    public ReservationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Create the reservation table if it does not exist yet.
+     */
+    @PostConstruct
+    public void createSchema() {
+        for (String statement : SCHEMA) {
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    /**
+     * Store a granted reservation.
+     *
+     * @param reservation the reservation
+     */
+    public void insert(Reservation reservation) {
+        jdbcTemplate.update("INSERT INTO stock_reservations (id, product_id, quantity, created_at, expires_at) "
+                + "VALUES (?, ?, ?, ?, ?)", reservation.getId(), reservation.getProductId(), reservation.getQuantity(),
+                Timestamp.from(reservation.getCreatedAt()), Timestamp.from(reservation.getExpiresAt()));
+    }
+
+    /**
+     * Delete a reservation.
+     *
+     * @param id the reservation ID
+     * @return whether it was stored
+     */
+    public boolean delete(String id) {
+        return jdbcTemplate.update("DELETE FROM stock_reservations WHERE id = ?", id) > 0;
+    }
+
+    /**
+     * Delete reservations in one batch.
+     *
+     * @param ids the reservation IDs
+     */
+    public void deleteAll(Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM stock_reservations WHERE id = ?",
+                    ids.stream().map(id -> new Object[] {id}).collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Delete the reservations that expired, for instance while the service was down.
+     *
+     * @param now the current time
+     * @return number of rows deleted
+     */
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM stock_reservations WHERE expires_at <= ?", Timestamp.from(now));
+    }
+
+    /**
+     * Find the reservations that have not expired.
+     *
+     * @param now the current time
+     * @return the active reservations
+     */
+    public List<Reservation> findActive(Instant now) {
+        return jdbcTemplate.query("SELECT id, product_id, quantity, created_at, expires_at FROM stock_reservations "
+                + "WHERE expires_at > ?", ROW_MAPPER, Timestamp.from(now));
+    }
+}
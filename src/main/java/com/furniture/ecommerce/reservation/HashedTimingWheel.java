@@ -0,0 +1,132 @@
+package com.furniture.ecommerce.reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: a ring of slots, each a doubly-linked list of timeouts, swept by a clock
+ * hand that moves one slot per tick.
+ *
+ * <p>A timeout is linked into the slot of its deadline tick, however many turns of the wheel away
+ * that is, so scheduling and cancelling are O(1) whatever the number of pending timeouts, and a
+ * tick only visits the timeouts of its own slot. Deadlines are rounded up to the next tick. Not
+ * thread-safe; callers synchronize.
+ *
+ * @param <T> the item expiring with each timeout
+ */
+final class HashedTimingWheel<T> {
+
+    private final long startMillis;
+    private final long tickMillis;
+    private final Timeout<T>[] slots;
+    private final int mask;
+    // The next tick to sweep; every timeout due before it has expired
+    private long tick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(long startMillis, long tickMillis, int slotCount) {
+        if (tickMillis <= 0 || slotCount <= 0 || Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Tick must be positive and slots a power of two: "
+                    + tickMillis + " ms, " + slotCount + " slots");
+        }
+        this.startMillis = startMillis;
+        this.tickMillis = tickMillis;
+        this.slots = (Timeout<T>[]) new Timeout[slotCount];
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Schedule an item to expire at a deadline; deadlines already past expire on the next sweep.
+     */
+    Timeout<T> schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.max(tick, -Math.floorDiv(startMillis - deadlineMillis, tickMillis));
+        Timeout<T> timeout = new Timeout<>(item, deadlineTick);
+        int slot = (int) (deadlineTick & mask);
+        timeout.slot = slot;
+        timeout.next = slots[slot];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        slots[slot] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancel a pending timeout.
+     *
+     * @return false if it had already expired or been cancelled
+     */
+    boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot < 0) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    /**
+     * Move the hand up to the given time, expiring every timeout due by then.
+     *
+     * @return the expired items, in no particular order
+     */
+    List<T> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        // After a long pause one turn visits every slot; later turns would find nothing new
+        long last = Math.min(nowTick, tick + slots.length - 1);
+        for (long t = tick; t <= last; t++) {
+            Timeout<T> timeout = slots[(int) (t & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                // Timeouts for later turns of the wheel share the slot and stay
+                if (timeout.deadlineTick <= nowTick) {
+                    unlink(timeout);
+                    expired.add(timeout.item);
+                }
+                timeout = next;
+            }
+        }
+        tick = Math.max(tick, nowTick + 1);
+        return expired;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.slot = -1;
+        size--;
+    }
+
+    /**
+     * A scheduled item; the handle used to cancel it.
+     *
+     * @param <T> the item type
+     */
+    static final class Timeout<T> {
+
+        private final T item;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private int slot = -1;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.furniture.ecommerce.reservation;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A timed hold on some of a product's stock. Immutable; while active it is held in the
+ * {@link ReservationLedger} and stored in {@code stock_reservations}.
+ */
+public final class Reservation {
+
+    private final String id;
+    private final long productId;
+    private final int quantity;
+    private final Instant createdAt;
+    private final Instant expiresAt;
+
+    /**
+     * Create a reservation.
+     *
+     * @param id unique reservation ID
+     * @param productId the product held
+     * @param quantity units held
+     * @param createdAt when the hold was granted
+     * @param expiresAt when the hold lapses unless confirmed or released first
+     */
+    public Reservation(String id, long productId, int quantity, Instant createdAt, Instant expiresAt) {
+        this.id = Objects.requireNonNull(id);
+        this.productId = productId;
+        this.quantity = quantity;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation{id=" + id + ", productId=" + productId + ", quantity=" + quantity
+                + ", expiresAt=" + expiresAt + "}";
+    }
+}
@@ -0,0 +1,191 @@
+package com.furniture.ecommerce.reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory ledger of the active stock reservations.
+ *
+ * <p>Units held are kept per product, so the available stock of a product is its stock minus one
+ * volatile read, without touching the product row. Granting, settling and expiring a reservation
+ * of a product are serialized on that product's holds, which is also where the caller's database
+ * writes run, so the table and the ledger change together. Expiry runs off a
+ * {@link HashedTimingWheel}: each tick costs the reservations due in it, not a scan of all of them.
+ */
+public class ReservationLedger {
+
+    private final Map<String, Entry> reservations = new ConcurrentHashMap<>();
+    private final Map<Long, Holds> holdsByProduct = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<String> expirations;
+
+    /**
+     * Create an empty ledger.
+     *
+     * @param startMillis the current time, where the expiry wheel starts
+     * @param tickMillis expiry resolution
+     * @param wheelSlots slots of the expiry wheel, a power of two
+     */
+    public ReservationLedger(long startMillis, long tickMillis, int wheelSlots) {
+        this.expirations = new HashedTimingWheel<>(startMillis, tickMillis, wheelSlots);
+    }
+
+    /**
+     * Grant a reservation if its product has the stock to cover it on top of the existing holds.
+     *
+     * @param reservation the reservation
+     * @param stock the product's current stock
+     * @param persist run once the stock is known to be available, before the hold takes effect;
+     *                if it throws, nothing is held
+     * @return false if too little stock is available
+     */
+    public boolean hold(Reservation reservation, int stock, Consumer<Reservation> persist) {
+        Holds holds = holdsFor(reservation.getProductId());
+        synchronized (holds) {
+            if (holds.units + reservation.getQuantity() > stock) {
+                return false;
+            }
+            persist.accept(reservation);
+            add(holds, reservation);
+            return true;
+        }
+    }
+
+    /**
+     * Re-enter a reservation granted before a restart, without checking stock again.
+     *
+     * @param reservation the stored reservation
+     */
+    public void restore(Reservation reservation) {
+        Holds holds = holdsFor(reservation.getProductId());
+        synchronized (holds) {
+            if (!reservations.containsKey(reservation.getId())) {
+                add(holds, reservation);
+            }
+        }
+    }
+
+    /**
+     * Get an active reservation.
+     *
+     * @param id the reservation ID
+     * @return the reservation, or null if it is not active
+     */
+    public Reservation get(String id) {
+        Entry entry = reservations.get(id);
+        return entry != null ? entry.reservation : null;
+    }
+
+    /**
+     * End a reservation before it expires, confirmed or released.
+     *
+     * @param id the reservation ID
+     * @param action run while the reservation is still held, before the hold is dropped; if it
+     *               throws, the reservation stays active
+     * @return the settled reservation, or null if it was not active
+     */
+    public Reservation settle(String id, Consumer<Reservation> action) {
+        Entry entry = reservations.get(id);
+        if (entry == null) {
+            return null;
+        }
+        Holds holds = holdsFor(entry.reservation.getProductId());
+        synchronized (holds) {
+            // It may have expired or been settled while this thread waited
+            if (reservations.get(id) != entry) {
+                return null;
+            }
+            action.accept(entry.reservation);
+            remove(holds, entry);
+        }
+        synchronized (expirations) {
+            expirations.cancel(entry.timeout);
+        }
+        return entry.reservation;
+    }
+
+    /**
+     * Drop the reservations whose time is up.
+     *
+     * @param nowMillis the current time
+     * @return the expired reservations
+     */
+    public List<Reservation> expire(long nowMillis) {
+        List<String> due;
+        synchronized (expirations) {
+            due = expirations.advance(nowMillis);
+        }
+        List<Reservation> expired = new ArrayList<>(due.size());
+        for (String id : due) {
+            Entry entry = reservations.get(id);
+            if (entry == null) {
+                continue;
+            }
+            Holds holds = holdsFor(entry.reservation.getProductId());
+            synchronized (holds) {
+                if (reservations.get(id) == entry) {
+                    remove(holds, entry);
+                    expired.add(entry.reservation);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Units of a product held by active reservations.
+     *
+     * @param productId the product ID
+     * @return the units held
+     */
+    public int held(long productId) {
+        Holds holds = holdsByProduct.get(productId);
+        return holds != null ? holds.units : 0;
+    }
+
+    /**
+     * Number of active reservations.
+     *
+     * @return the reservation count
+     */
+    public int size() {
+        return reservations.size();
+    }
+
+    private Holds holdsFor(long productId) {
+        return holdsByProduct.computeIfAbsent(productId, id -> new Holds());
+    }
+
+    private void add(Holds holds, Reservation reservation) {
+        HashedTimingWheel.Timeout<String> timeout;
+        synchronized (expirations) {
+            timeout = expirations.schedule(reservation.getId(), reservation.getExpiresAt().toEpochMilli());
+        }
+        reservations.put(reservation.getId(), new Entry(reservation, timeout));
+        holds.units += reservation.getQuantity();
+    }
+
+    private void remove(Holds holds, Entry entry) {
+        reservations.remove(entry.reservation.getId());
+        holds.units -= entry.reservation.getQuantity();
+    }
+
+    private static final class Entry {
+
+        private final Reservation reservation;
+        private final HashedTimingWheel.Timeout<String> timeout;
+
+        private Entry(Reservation reservation, HashedTimingWheel.Timeout<String> timeout) {
+            this.reservation = reservation;
+            this.timeout = timeout;
+        }
+    }
+
+    // Units held for one product; written under its own lock, read without one
+    private static final class Holds {
+
+        private volatile int units;
+    }
+}
@@ -0,0 +1,150 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.dto.CatalogStatsDTO;
+import com.furniture.ecommerce.dto.CategoryStatsDTO;
+import com.furniture.ecommerce.dto.PriceBucketDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.CatalogIndexMaintainer;
+import com.furniture.ecommerce.index.CategoryListings;
+import com.furniture.ecommerce.index.SearchCriteria;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Category statistics and price histograms for the merchandising dashboard.
+ *
+ * <p>Computed in a single pass over the in-memory catalog image kept by
+ * {@link CatalogIndexMaintainer}, in integer cents, without loading entities or building response
+ * objects per product. With a category filter, the pass only visits the products that the
+ * {@link CategoryListings} hold for the category and price range. Stock levels include buffered
+ * write-behind updates.
+ */
+@Service
+public class CatalogStatsService {
+
+    /** Upper bound on histogram buckets per category, to reject absurdly small bucket widths. */
+    static final int MAX_BUCKETS = 1000;
+
+    private final CatalogIndexMaintainer catalogIndexMaintainer;
+    private final CategoryListings categoryListings;
+
+    /**
+     * Constructor for CatalogStatsService.
+     *
+     * @param catalogIndexMaintainer holds the in-memory catalog image
+     * @param categoryListings selects the products of a category filter
+     */
+    public CatalogStatsService(CatalogIndexMaintainer catalogIndexMaintainer, CategoryListings categoryListings) {
+        this.catalogIndexMaintainer = catalogIndexMaintainer;
+        this.categoryListings = categoryListings;
+    }
+
+    /**
+     * Compute per-category and overall statistics of the products matching the criteria.
+     *
+     * @param criteria search filters
+     * @param bucketWidth width of the price histogram buckets, a positive amount in currency units
+     *                    with at most two decimals
+     * @return the statistics, categories in alphabetical order
+     * @throws IllegalArgumentException if the width is invalid, or so small that the prices in range
+     *                                  would need more than {@link #MAX_BUCKETS} buckets
+     */
+    public CatalogStatsDTO getStats(SearchCriteria criteria, BigDecimal bucketWidth) {
+        if (bucketWidth == null || bucketWidth.signum() <= 0 || bucketWidth.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Bucket width must be a positive amount with at most two decimals");
+        }
+        long bucketCents = bucketWidth.movePointRight(2).longValueExact();
+        // Rejected before the pass from the prices in range; without the listings, while the pass fills the buckets
+        long[] bounds = categoryListings.priceBounds(criteria.getCategory(), criteria.getMinPrice(),
+                criteria.getMaxPrice());
+        if (bounds != null && bounds.length == 2 && bounds[1] / bucketCents - bounds[0] / bucketCents >= MAX_BUCKETS) {
+            throw tooManyBuckets();
+        }
+
+        Map<String, Accumulator> byCategory = new HashMap<>();
+        Accumulator total = new Accumulator(bucketCents);
+        Consumer<ProductSnapshot> visitor = product -> {
+            if (criteria.matches(product)) {
+                total.add(product);
+                byCategory.computeIfAbsent(product.getCategory(), category -> new Accumulator(bucketCents))
+                        .add(product);
+            }
+        };
+        List<Long> candidates = criteria.getCategory() != null
+                ? categoryListings.priceRange(criteria.getCategory(), criteria.getMinPrice(), criteria.getMaxPrice())
+                : null;
+        if (candidates != null) {
+            catalogIndexMaintainer.forEachProduct(candidates, visitor);
+        } else {
+            catalogIndexMaintainer.forEachProduct(visitor);
+        }
+
+        List<CategoryStatsDTO> categories = new ArrayList<>(byCategory.size());
+        new TreeMap<>(byCategory).forEach((category, accumulator) -> categories.add(accumulator.toDto(category)));
+        return new CatalogStatsDTO(bucketWidth, total.toDto(null), categories);
+    }
+
+    private static IllegalArgumentException tooManyBuckets() {
+        return new IllegalArgumentException("Bucket width is too small: more than " + MAX_BUCKETS + " price buckets");
+    }
+
+    private static final class Accumulator {
+
+        private final long bucketCents;
+        private final Map<Long, long[]> histogram = new HashMap<>();
+        private long count;
+        private long minCents = Long.MAX_VALUE;
+        private long maxCents = Long.MIN_VALUE;
+        private long sumCents;
+        private long totalStock;
+        private long stockValueCents;
+
+        Accumulator(long bucketCents) {
+            this.bucketCents = bucketCents;
+        }
+
+        void add(ProductSnapshot product) {
+            long cents = product.getPrice().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+            long stock = Math.max(product.getStock(), 0);
+            count++;
+            minCents = Math.min(minCents, cents);
+            maxCents = Math.max(maxCents, cents);
+            sumCents += cents;
+            totalStock += stock;
+            stockValueCents += cents * stock;
+            histogram.computeIfAbsent(cents / bucketCents, bucket -> new long[1])[0]++;
+            if (histogram.size() > MAX_BUCKETS) {
+                throw tooManyBuckets();
+            }
+        }
+
+        CategoryStatsDTO toDto(String category) {
+            CategoryStatsDTO stats = new CategoryStatsDTO();
+            stats.setCategory(category);
+            stats.setProductCount(count);
+            stats.setTotalStock(totalStock);
+            stats.setStockValue(BigDecimal.valueOf(stockValueCents, 2));
+            if (count > 0) {
+                stats.setMinPrice(BigDecimal.valueOf(minCents, 2));
+                stats.setMaxPrice(BigDecimal.valueOf(maxCents, 2));
+                stats.setAveragePrice(BigDecimal.valueOf(sumCents, 2)
+                        .divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP));
+            }
+            List<PriceBucketDTO> buckets = new ArrayList<>(histogram.size());
+            new TreeMap<>(histogram).forEach((bucket, bucketCount) -> buckets.add(new PriceBucketDTO(
+                    BigDecimal.valueOf(bucket * bucketCents, 2),
+                    BigDecimal.valueOf((bucket + 1) * bucketCents, 2),
+                    bucketCount[0])));
+            stats.setPriceHistogram(buckets);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.config.CacheConfig;
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.repository.ProductArchiveRepository;
+import com.furniture.ecommerce.repository.ProductRepository;
+import com.furniture.ecommerce.repository.ProductSecondLevelCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hot/cold tiering of the catalog.
+ *
+ * <p>Products out of stock for {@code catalog.archive.out-of-stock-days} move from
+ * {@code products} to the {@code products_archive} table in background batches, and discontinued
+ * products can be archived on demand. Once archived, a product is gone from the hot table, so
+ * repository scans, the in-memory indexes and the caches only ever hold sellable products; reads
+ * that ask for {@code includeArchived} consult the archive as well. Archiving is one-way: the
+ * product is published as deleted, and it keeps its ID in the archive.
+ */
+@Component
+public class ProductArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductArchiver.class);
+
+    private final ProductArchiveRepository archiveRepository;
+    private final ProductRepository productRepository;
+    private final StockWriteBehindBuffer stockWriteBehindBuffer;
+    private final ProductSecondLevelCache secondLevelCache;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int outOfStockDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final AtomicLong hotProducts = new AtomicLong();
+    private final AtomicLong archivedProducts = new AtomicLong();
+    private final Counter archived;
+
+    /**
+     * Constructor for ProductArchiver.
+     *
+     * @param archiveRepository the archive table
+     * @param productRepository the hot table
+     * @param stockWriteBehindBuffer buffered stock levels, which keep a product hot until written
+     * @param secondLevelCache evicted after rows move, since the move bypasses Hibernate
+     * @param cacheManager the Spring caches to evict moved products from
+     * @param eventPublisher announces archived products as deleted
+     * @param meterRegistry registry for the tier sizes
+     * @param enabled whether the background archival runs
+     * @param outOfStockDays days without stock and without any update before a product is archived
+     * @param batchSize products moved per transaction
+     * @param maxBatchesPerRun batches per scheduled run, bounding the work of one run
+     */
+    public ProductArchiver(ProductArchiveRepository archiveRepository,
+                           ProductRepository productRepository,
+                           StockWriteBehindBuffer stockWriteBehindBuffer,
+                           ProductSecondLevelCache secondLevelCache,
+                           CacheManager cacheManager,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${catalog.archive.enabled:false}") boolean enabled,
+                           @Value("${catalog.archive.out-of-stock-days:180}") int outOfStockDays,
+                           @Value("${catalog.archive.batch-size:500}") int batchSize,
+                           @Value("${catalog.archive.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.archiveRepository = archiveRepository;
+        this.productRepository = productRepository;
+        this.stockWriteBehindBuffer = stockWriteBehindBuffer;
+        this.secondLevelCache = secondLevelCache;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.outOfStockDays = outOfStockDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.archived = Counter.builder("catalog.archive.archived")
+                .description("Products moved from the hot table to the archive")
+                .register(meterRegistry);
+        Gauge.builder("catalog.archive.products", hotProducts, AtomicLong::get)
+                .description("Products per storage tier, as of the last archival")
+                .tag("tier", "hot")
+                .register(meterRegistry);
+        Gauge.builder("catalog.archive.products", archivedProducts, AtomicLong::get)
+                .description("Products per storage tier, as of the last archival")
+                .tag("tier", "cold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archive the products that meet the policy, a batch per transaction, and refresh the tier sizes.
+     * Runs every archival interval; with archival disabled only the sizes are refreshed.
+     *
+     * @return number of products archived
+     */
+    @Scheduled(fixedDelayString = "${catalog.archive.interval-ms:600000}",
+            initialDelayString = "${catalog.archive.initial-delay-ms:60000}")
+    public int archiveDue() {
+        int moved = 0;
+        try {
+            if (enabled) {
+                moved = archiveOlderThan(LocalDateTime.now().minusDays(outOfStockDays));
+            }
+            refreshTierSizes();
+        } catch (DataAccessException e) {
+            // Whatever was committed stays archived; the next run continues from there
+            logger.error("Archival run failed: {}", e.getMessage());
+        }
+        return moved;
+    }
+
+    /**
+     * Archive a discontinued product now, whatever its stock.
+     *
+     * @param id the product ID
+     * @return the archived product
+     * @throws NoSuchElementException if the product is not in the hot table
+     */
+    public ProductResponseDTO archive(Long id) {
+        // The move copies the stored row, so a buffered stock level is written to it first
+        stockWriteBehindBuffer.flush(id);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> moved = archiveRepository.moveToArchive(List.of(id), null, now);
+        if (moved.isEmpty()) {
+            throw new NoSuchElementException("Product not found with id: " + id);
+        }
+        // A level recorded since has no row left to be written to
+        stockWriteBehindBuffer.discard(id);
+        afterMove(moved);
+        refreshTierSizes();
+        return archiveRepository.findById(id);
+    }
+
+    /**
+     * Get an archived product.
+     *
+     * @param id the product ID
+     * @return the product, flagged as archived
+     * @throws NoSuchElementException if the product is not archived
+     */
+    public ProductResponseDTO getArchivedProduct(Long id) {
+        ProductResponseDTO product = archiveRepository.findById(id);
+        if (product == null) {
+            throw new NoSuchElementException("Product not found with id: " + id);
+        }
+        return product;
+    }
+
+    /**
+     * Search the archive with the filters of {@code GET /products/search}.
+     *
+     * @param criteria the filters
+     * @param order result order
+     * @param limit maximum number of results, or 0 for all
+     * @return matching archived products
+     */
+    public List<ProductResponseDTO> searchArchived(SearchCriteria criteria, ProductOrder order, int limit) {
+        return archiveRepository.search(criteria, order, limit);
+    }
+
+    /**
+     * Count the archived products matching search filters.
+     *
+     * @param criteria the filters
+     * @return the exact count
+     */
+    public TotalCount countArchived(SearchCriteria criteria) {
+        return TotalCount.exact(archiveRepository.count(criteria));
+    }
+
+    /**
+     * Get archived products within the given dimensions.
+     *
+     * @param maxWidth maximum width, or null
+     * @param maxHeight maximum height, or null
+     * @param maxDepth maximum depth, or null
+     * @return matching archived products
+     */
+    public List<ProductResponseDTO> getArchivedProductsByDimensions(Double maxWidth, Double maxHeight,
+                                                                    Double maxDepth) {
+        return archiveRepository.findByMaxDimensions(maxWidth, maxHeight, maxDepth);
+    }
+
+    /**
+     * Append archived products to hot results, in the given order and within the limit.
+     *
+     * @param hot results from the hot table
+     * @param archived results from the archive
+     * @param order the order both lists are sorted in
+     * @param limit maximum number of results, or 0 for all
+     * @return the combined results
+     */
+    public static List<ProductResponseDTO> combine(List<ProductResponseDTO> hot, List<ProductResponseDTO> archived,
+                                                   ProductOrder order, int limit) {
+        List<ProductResponseDTO> combined = new ArrayList<>(hot.size() + archived.size());
+        combined.addAll(hot);
+        combined.addAll(archived);
+        // IDs are unique across both tiers, so the order is total
+        combined.sort(order.comparator());
+        return limit > 0 && combined.size() > limit ? new ArrayList<>(combined.subList(0, limit)) : combined;
+    }
+
+    int archiveOlderThan(LocalDateTime cutoff) {
+        int moved = 0;
+        long afterId = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> candidates = archiveRepository.findArchivable(cutoff, afterId, batchSize);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            afterId = candidates.get(candidates.size() - 1);
+            // A buffered stock level is newer than the stored zero; leave those for a later run
+            List<Long> ids = new ArrayList<>(candidates.size());
+            for (Long id : candidates) {
+                if (stockWriteBehindBuffer.getPendingStock(id) == null) {
+                    ids.add(id);
+                }
+            }
+            List<Long> archivedIds = archiveRepository.moveToArchive(ids, cutoff, LocalDateTime.now());
+            afterMove(archivedIds);
+            moved += archivedIds.size();
+            if (candidates.size() < batchSize) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            logger.info("Archived {} products out of stock since before {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    private void afterMove(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        archived.increment(ids.size());
+        secondLevelCache.evict(ids);
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS_CACHE);
+        for (Long id : ids) {
+            if (products != null) {
+                products.evict(id);
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+        }
+        Cache filters = cacheManager.getCache(CacheConfig.PRODUCT_FILTERS_CACHE);
+        if (filters != null) {
+            filters.clear();
+        }
+    }
+
+    private void refreshTierSizes() {
+        hotProducts.set(productRepository.count());
+        archivedProducts.set(archiveRepository.count());
+    }
+}
@@ -0,0 +1,110 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.index.FacetCounts;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.index.SearchResultCache;
+import com.furniture.ecommerce.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Total counts for limited searches, without a {@code COUNT(*)} per page.
+ *
+ * <p>Sources are tried from cheapest to most expensive: the maintained {@link FacetCounts}, which
+ * answer single-facet searches exactly; the size of a cached search result; a recent count from the
+ * count cache, which expires after {@code catalog.count.cache-ttl-ms}; and finally, on catalogs of
+ * up to {@code catalog.count.max-exact-products}, a count query whose result is cached. Larger
+ * catalogs get an estimate from the facet counters instead of a full scan.
+ */
+@Component
+public class ProductCountService {
+
+    /** Cache name used in the metrics. */
+    public static final String CACHE_NAME = "productCounts";
+
+    private final FacetCounts facetCounts;
+    private final SearchResultCache searchResultCache;
+    private final ProductRepository productRepository;
+    private final long maxExactProducts;
+    private final Cache<SearchCriteria, Long> counts;
+    private final Map<TotalCount.Accuracy, Counter> served = new EnumMap<>(TotalCount.Accuracy.class);
+
+    /**
+     * Constructor for ProductCountService.
+     *
+     * @param facetCounts the maintained per-facet counts
+     * @param searchResultCache cached search results, whose sizes are exact counts
+     * @param productRepository runs count queries
+     * @param meterRegistry registry for the count cache metrics
+     * @param cacheTtlMillis how long a queried count is reused
+     * @param maxCachedCounts maximum number of cached counts
+     * @param maxExactProducts catalog size above which uncached counts are estimated, not queried
+     */
+    public ProductCountService(FacetCounts facetCounts,
+                               SearchResultCache searchResultCache,
+                               ProductRepository productRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${catalog.count.cache-ttl-ms:5000}") long cacheTtlMillis,
+                               @Value("${catalog.count.max-cached:10000}") long maxCachedCounts,
+                               @Value("${catalog.count.max-exact-products:200000}") long maxExactProducts) {
+        this.facetCounts = facetCounts;
+        this.searchResultCache = searchResultCache;
+        this.productRepository = productRepository;
+        this.maxExactProducts = maxExactProducts;
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxCachedCounts)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, CACHE_NAME);
+        for (TotalCount.Accuracy accuracy : TotalCount.Accuracy.values()) {
+            served.put(accuracy, Counter.builder("catalog.count.served")
+                    .description("Total counts returned, by how they were obtained")
+                    .tag("accuracy", accuracy.headerValue())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Count the products matching a search.
+     *
+     * @param criteria canonical search criteria
+     * @return the count and its accuracy
+     */
+    public TotalCount count(SearchCriteria criteria) {
+        TotalCount total = lookUp(criteria);
+        served.get(total.getAccuracy()).increment();
+        return total;
+    }
+
+    private TotalCount lookUp(SearchCriteria criteria) {
+        Long exact = facetCounts.exactCount(criteria);
+        if (exact != null) {
+            return TotalCount.exact(exact);
+        }
+        int cachedResult = searchResultCache.count(criteria);
+        if (cachedResult >= 0) {
+            return TotalCount.exact(cachedResult);
+        }
+        Long cached = counts.getIfPresent(criteria);
+        if (cached != null) {
+            return TotalCount.cached(cached);
+        }
+        if (facetCounts.total() > maxExactProducts) {
+            return TotalCount.estimate(facetCounts.estimate(criteria));
+        }
+        long count = productRepository.countProducts(criteria.getCategory(), criteria.getMaterial(),
+                criteria.getColor(), criteria.getMinPrice(), criteria.getMaxPrice(), criteria.getInStock());
+        counts.put(criteria, count);
+        return TotalCount.exact(count);
+    }
+}
@@ -0,0 +1,288 @@
+package com.furniture.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.ecommerce.dto.ImportJobDTO;
+import com.furniture.ecommerce.dto.ProductRequestDTO;
+import com.furniture.ecommerce.importer.CountingInputStream;
+import com.furniture.ecommerce.importer.ImportFormat;
+import com.furniture.ecommerce.importer.ImportJob;
+import com.furniture.ecommerce.importer.ImportRow;
+import com.furniture.ecommerce.importer.ProductRecordReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous bulk import of products from CSV or NDJSON uploads.
+ *
+ * <p>An upload is copied to a temporary file and queued; the request returns a job id at once.
+ * A worker then streams the file in chunks of {@code chunk-size} records: each chunk is validated
+ * in parallel (bean validation plus the service's business rules) and its valid rows are written
+ * in one transaction through {@link ProductService#createProducts}, so memory use is bounded by
+ * the chunk size and a failure only loses the current chunk. If a chunk's transaction fails, its
+ * rows are retried one by one so a single bad row does not take the other rows down with it.
+ * Every rejected row is reported with its line number.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private final ProductService productService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, ImportJob> jobs;
+    private final ThreadPoolExecutor workers;
+    private final ForkJoinPool validationPool;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final Counter rowsImported;
+    private final Counter rowsFailed;
+
+    /**
+     * Constructor for ProductImportService.
+     *
+     * @param productService writes the imported products
+     * @param validator applies the request DTO's bean validation constraints
+     * @param objectMapper parses NDJSON records
+     * @param meterRegistry registry for import metrics
+     * @param chunkSize records validated and written per transaction
+     * @param maxConcurrentJobs imports processed at the same time
+     * @param maxQueuedJobs imports waiting for a worker before uploads are rejected
+     * @param validationParallelism threads validating a chunk; 0 uses one per CPU
+     * @param maxReportedErrors row errors kept per job
+     * @param jobRetentionMinutes how long job status stays available
+     */
+    public ProductImportService(ProductService productService, Validator validator, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${catalog.import.chunk-size:1000}") int chunkSize,
+                                @Value("${catalog.import.max-concurrent-jobs:1}") int maxConcurrentJobs,
+                                @Value("${catalog.import.max-queued-jobs:10}") int maxQueuedJobs,
+                                @Value("${catalog.import.validation-parallelism:0}") int validationParallelism,
+                                @Value("${catalog.import.max-reported-errors:1000}") int maxReportedErrors,
+                                @Value("${catalog.import.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.productService = productService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(Duration.ofMinutes(jobRetentionMinutes))
+                .build();
+        AtomicInteger workerNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs), runnable -> {
+                    Thread thread = new Thread(runnable, "product-import-" + workerNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.validationPool = new ForkJoinPool(validationParallelism > 0
+                ? validationParallelism : Runtime.getRuntime().availableProcessors());
+        this.rowsImported = Counter.builder("catalog.import.rows")
+                .tag("outcome", "imported")
+                .description("Rows processed by product imports")
+                .register(meterRegistry);
+        this.rowsFailed = Counter.builder("catalog.import.rows")
+                .tag("outcome", "failed")
+                .description("Rows processed by product imports")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an uploaded file for import.
+     *
+     * @param file the uploaded CSV or NDJSON file
+     * @param format format named by the client, or null to detect it from the file
+     * @return the queued job
+     * @throws IllegalArgumentException if the file is empty or its format is unknown
+     * @throws RejectedExecutionException if too many imports are already queued
+     * @throws IOException if the upload cannot be stored for processing
+     */
+    public ImportJobDTO submit(MultipartFile file, String format) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+        ImportFormat importFormat = ImportFormat.detect(format, file.getOriginalFilename(), file.getContentType());
+        // The multipart upload is deleted when the request ends, so the worker reads its own copy
+        Path copy = Files.createTempFile("product-import-", "." + importFormat.getValue());
+        try {
+            file.transferTo(copy);
+            ImportJob job = new ImportJob(importFormat, file.getOriginalFilename(), Files.size(copy),
+                    maxReportedErrors);
+            jobs.put(job.getId(), job);
+            try {
+                workers.execute(() -> run(job, copy));
+            } catch (RejectedExecutionException e) {
+                jobs.invalidate(job.getId());
+                throw e;
+            }
+            logger.info("Queued import job {} for {} ({} bytes)", job.getId(), job.getFileName(), job.getTotalBytes());
+            return ImportJobDTO.fromJob(job);
+        } catch (IOException | RejectedExecutionException e) {
+            Files.deleteIfExists(copy);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the progress of an import job.
+     *
+     * @param jobId the job ID
+     * @return the job's progress, throughput and row errors
+     * @throws NoSuchElementException if the job is unknown or has expired
+     */
+    public ImportJobDTO getJob(String jobId) {
+        ImportJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new NoSuchElementException("Import job not found with id: " + jobId);
+        }
+        return ImportJobDTO.fromJob(job);
+    }
+
+    /**
+     * Stop the import workers. Running jobs are interrupted and reported as failed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        validationPool.shutdownNow();
+    }
+
+    void run(ImportJob job, Path file) {
+        job.start();
+        try (CountingInputStream input = new CountingInputStream(Files.newInputStream(file));
+             ProductRecordReader reader = job.getFormat().open(input, objectMapper)) {
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            for (ImportRow row = reader.next(); row != null; row = reader.next()) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    job.recordRead(chunk.size(), input.getCount());
+                    process(job, chunk);
+                    chunk.clear();
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    job.fail("Import interrupted by shutdown");
+                    return;
+                }
+            }
+            job.recordRead(chunk.size(), input.getCount());
+            process(job, chunk);
+            job.complete();
+            logger.info("Import job {} finished: {} imported, {} rejected ({} rows/s)", job.getId(),
+                    job.getRowsImported(), job.getRowsFailed(), Math.round(job.getRowsPerSecond()));
+        } catch (IOException e) {
+            job.fail("Could not read the import file: " + e.getMessage());
+        } finally {
+            if (!job.isFinished()) {
+                job.fail("Import aborted unexpectedly");
+            }
+            if (job.getStatus() == ImportJob.Status.FAILED) {
+                logger.warn("Import job {} failed: {}", job.getId(), job.getFailureMessage());
+            }
+            deleteQuietly(file);
+        }
+    }
+
+    private void process(ImportJob job, List<ImportRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ImportRow> checked = validationPool.submit(() -> chunk.parallelStream()
+                .map(this::validate)
+                .collect(Collectors.toList())).join();
+        List<ImportRow> valid = new ArrayList<>(checked.size());
+        for (ImportRow row : checked) {
+            if (row.isFailed()) {
+                reject(job, row.getLine(), row.getError());
+            } else {
+                valid.add(row);
+            }
+        }
+        write(job, valid);
+    }
+
+    private ImportRow validate(ImportRow row) {
+        if (row.isFailed()) {
+            return row;
+        }
+        ProductRequestDTO request = row.getRequest();
+        List<String> violations = validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+        if (!violations.isEmpty()) {
+            return row.reject(String.join("; ", violations));
+        }
+        try {
+            ProductRequestValidator.validate(request);
+            return row;
+        } catch (IllegalArgumentException e) {
+            return row.reject(e.getMessage());
+        }
+    }
+
+    private void write(ImportJob job, List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            productService.createProducts(rows.stream().map(ImportRow::getRequest).collect(Collectors.toList()));
+            job.recordImported(rows.size());
+            rowsImported.increment(rows.size());
+            return;
+        } catch (DataAccessException | TransactionException e) {
+            logger.debug("Import job {} chunk failed, retrying its rows one by one: {}", job.getId(), e.getMessage());
+        }
+        for (ImportRow row : rows) {
+            try {
+                productService.createProduct(row.getRequest());
+                job.recordImported(1);
+                rowsImported.increment();
+            } catch (DataAccessException | TransactionException e) {
+                reject(job, row.getLine(),
+                        "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+    }
+
+    private void reject(ImportJob job, long line, String message) {
+        job.recordError(line, message);
+        rowsFailed.increment();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete import file {}: {}", file, e.getMessage());
+        }
+    }
+}
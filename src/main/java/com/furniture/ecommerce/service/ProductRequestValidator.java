@@ -0,0 +1,35 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.dto.ProductRequestDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Business rules every product write has to satisfy, shared by the single, batch and import paths.
+ */
+final class ProductRequestValidator {
+
+    private ProductRequestValidator() {
+    }
+
+    /**
+     * Check a product request.
+     *
+     * @param request the request to check
+     * @throws IllegalArgumentException describing the first rule the request breaks
+     */
+    static void validate(ProductRequestDTO request) {
+        if (request.getName() == null || request.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Product name is required");
+        }
+        if (request.getPrice() == null || request.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Product price must be greater than zero");
+        }
+        if (request.getStock() == null || request.getStock() < 0) {
+            throw new IllegalArgumentException("Product stock cannot be negative");
+        }
+        if (request.getCategory() == null || request.getCategory().trim().isEmpty()) {
+            throw new IllegalArgumentException("Product category is required");
+        }
+    }
+}
@@ -2,6 +2,10 @@ package com.furniture.ecommerce.service;
 
 import com.furniture.ecommerce.dto.ProductRequestDTO;
 import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.query.QueryResult;
+import com.furniture.ecommerce.query.SearchQuery;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -62,6 +66,26 @@ public interface ProductService {
     List<ProductResponseDTO> searchProducts(String category, String material, String color, 
                                           BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock);
     
+    /**
+     * Search products with filters, sorted and limited.
+     *
+     * @param criteria the canonical filters
+     * @param order the result order
+     * @param limit maximum number of results, or 0 for all
+     * @return the first matching products in order
+     */
+    List<ProductResponseDTO> searchProducts(SearchCriteria criteria, ProductOrder order, int limit);
+    
+    /**
+     * Search products with a query, planned by selectivity, sorted and limited.
+     *
+     * @param query the parsed query
+     * @param order the result order
+     * @param limit maximum number of results, or 0 for all
+     * @return the first matching products in order, with the number of matches
+     */
+    QueryResult<ProductResponseDTO> searchProducts(SearchQuery query, ProductOrder order, int limit);
+    
     /**
      * Get products by category.
      *
@@ -70,6 +94,17 @@ public interface ProductService {
      */
     List<ProductResponseDTO> getProductsByCategory(String category);
     
+    /**
+     * Get a page of a category's products in order.
+     *
+     * @param category the product category
+     * @param order the page order
+     * @param offset number of products to skip
+     * @param limit maximum number of products, or 0 for all
+     * @return the products of the page in order
+     */
+    List<ProductResponseDTO> getProductsByCategory(String category, ProductOrder order, int offset, int limit);
+    
     /**
      * Get products by price range.
      *
@@ -87,6 +122,25 @@ public interface ProductService {
      */
     List<ProductResponseDTO> searchByName(String name);
     
+    /**
+     * Typo-tolerant search over product names and descriptions.
+     *
+     * @param query the search query; every word must match, allowing small misspellings
+     * @param limit maximum number of results
+     * @return matching products, closest matches first
+     */
+    List<ProductResponseDTO> fuzzySearchByName(String query, int limit);
+    
+    /**
+     * Get the products most similar to a product.
+     *
+     * @param id the product ID
+     * @param k maximum number of products
+     * @return similar products, most similar first, without the product itself
+     * @throws java.util.NoSuchElementException if the product does not exist
+     */
+    List<ProductResponseDTO> getSimilarProducts(Long id, int k);
+    
     /**
      * Get products by dimensions.
      *
@@ -106,6 +160,16 @@ public interface ProductService {
      */
     ProductResponseDTO updateStock(Long id, Integer quantity);
     
+    /**
+     * Take units out of a product's stock, stopping at zero. Unlike reading the stock and writing
+     * back the difference, this cannot overwrite a stock change that commits in between.
+     *
+     * @param id the product ID
+     * @param quantity the units to take
+     * @return the updated product
+     */
+    ProductResponseDTO takeStock(Long id, int quantity);
+    
     /**
      * Get in-stock products.
      *
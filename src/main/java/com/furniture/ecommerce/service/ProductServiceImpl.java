@@ -1,10 +1,29 @@
 package com.furniture.ecommerce.service;
 
+import com.furniture.ecommerce.config.CacheConfig;
 import com.furniture.ecommerce.dto.ProductRequestDTO;
 import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.CategoryListings;
+import com.furniture.ecommerce.index.FuzzySearchIndex;
+import com.furniture.ecommerce.index.ProductFeatures;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.index.SearchResultCache;
+import com.furniture.ecommerce.index.SimilarProducts;
+import com.furniture.ecommerce.index.VantagePointTree;
 import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.query.QueryExecutor;
+import com.furniture.ecommerce.query.QueryResult;
+import com.furniture.ecommerce.query.SearchQuery;
 import com.furniture.ecommerce.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,80 +36,168 @@ import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class ProductServiceImpl implements ProductService {
     
     private final ProductRepository productRepository;
+    private final StockWriteBehindBuffer stockWriteBehindBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FuzzySearchIndex fuzzySearchIndex;
+    private final SearchResultCache searchResultCache;
+    private final CategoryListings categoryListings;
+    private final QueryExecutor queryExecutor;
+    private final SimilarProducts similarProducts;
     
     /**
      * Constructor for ProductServiceImpl.
      *
      * @param productRepository the product repository
+     * @param stockWriteBehindBuffer buffer for coalesced stock updates
+     * @param eventPublisher publishes product change events for in-memory indexes
+     * @param fuzzySearchIndex in-memory index for typo-tolerant search
+     * @param searchResultCache cache of search result ids
+     * @param categoryListings pre-sorted product ids per category
+     * @param queryExecutor runs planned search queries
+     * @param similarProducts nearest-neighbour index for similar products
      */
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository,
+                              StockWriteBehindBuffer stockWriteBehindBuffer,
+                              ApplicationEventPublisher eventPublisher,
+                              FuzzySearchIndex fuzzySearchIndex,
+                              SearchResultCache searchResultCache,
+                              CategoryListings categoryListings,
+                              QueryExecutor queryExecutor,
+                              SimilarProducts similarProducts) {
         this.productRepository = productRepository;
+        this.stockWriteBehindBuffer = stockWriteBehindBuffer;
+        this.eventPublisher = eventPublisher;
+        this.fuzzySearchIndex = fuzzySearchIndex;
+        this.searchResultCache = searchResultCache;
+        this.categoryListings = categoryListings;
+        this.queryExecutor = queryExecutor;
+        this.similarProducts = similarProducts;
     }
     
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_FILTERS_CACHE, allEntries = true)
+    @Transactional
     public ProductResponseDTO createProduct(ProductRequestDTO productRequest) {
-        validateProductRequest(productRequest);
+        ProductRequestValidator.validate(productRequest);
         
         Product product = new Product();
         mapRequestToProduct(productRequest, product);
         
         Product savedProduct = productRepository.save(product);
-        return ProductResponseDTO.fromProduct(savedProduct);
+        publishSaved(savedProduct);
+        return toResponse(savedProduct);
     }
     
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductResponseDTO getProductById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Product not found with id: " + id));
-        return ProductResponseDTO.fromProduct(product);
+        return toResponse(product);
     }
     
     @Override
     public List<ProductResponseDTO> getAllProducts() {
         return productRepository.findAll().stream()
-                .map(ProductResponseDTO::fromProduct)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.PRODUCT_FILTERS_CACHE, allEntries = true))
+    @Transactional
     public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequest) {
+        ProductRequestValidator.validate(productRequest);
+        // Discard before loading: a flush writing the buffered level finishes first, so the load sees
+        // its version and neither write overwrites the other or fails the update with a conflict
+        stockWriteBehindBuffer.discard(id);
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Product not found with id: " + id));
         
-        validateProductRequest(productRequest);
         mapRequestToProduct(productRequest, existingProduct);
         
         Product updatedProduct = productRepository.save(existingProduct);
-        return ProductResponseDTO.fromProduct(updatedProduct);
+        // Flush now, so the response and the change event carry the incremented version
+        productRepository.flush();
+        publishSaved(updatedProduct);
+        return toResponse(updatedProduct);
     }
     
     @Override
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.PRODUCT_FILTERS_CACHE, allEntries = true)
+    })
+    @Transactional
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new NoSuchElementException("Product not found with id: " + id);
-        }
-        productRepository.deleteById(id);
+        // Load and remove: the load is usually a second-level cache hit, so only the DELETE reaches the
+        // database, where existsById + deleteById always ran a count, a select and the delete
+        stockWriteBehindBuffer.discard(id);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Product not found with id: " + id));
+        productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
     
     @Override
     public List<ProductResponseDTO> searchProducts(String category, String material, String color,
                                                  BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
-        return productRepository.searchProducts(category, material, color, minPrice, maxPrice, inStock)
-                .stream()
-                .map(ProductResponseDTO::fromProduct)
+        SearchCriteria criteria = SearchCriteria.of(category, material, color, minPrice, maxPrice, inStock);
+        List<Long> cachedIds = searchResultCache.get(criteria);
+        if (cachedIds != null) {
+            return loadInOrder(cachedIds);
+        }
+        
+        long version = searchResultCache.currentVersion();
+        List<Product> products = productRepository.searchProducts(criteria.getCategory(), criteria.getMaterial(),
+                criteria.getColor(), criteria.getMinPrice(), criteria.getMaxPrice(), criteria.getInStock());
+        searchResultCache.put(criteria, products.stream().map(Product::getId).collect(Collectors.toList()), version);
+        return products.stream()
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    public List<ProductResponseDTO> searchProducts(SearchCriteria criteria, ProductOrder order, int limit) {
+        List<ProductResponseDTO> products = new ArrayList<>(searchProducts(criteria.getCategory(),
+                criteria.getMaterial(), criteria.getColor(), criteria.getMinPrice(), criteria.getMaxPrice(),
+                criteria.getInStock()));
+        products.sort(order.comparator());
+        return limit > 0 && products.size() > limit ? new ArrayList<>(products.subList(0, limit)) : products;
+    }
+    
+    @Override
+    public QueryResult<ProductResponseDTO> searchProducts(SearchQuery query, ProductOrder order, int limit) {
+        QueryResult<Long> matches = queryExecutor.execute(query, order, limit);
+        return matches.withItems(loadInOrder(matches.getItems()));
+    }
+    
     @Override
     public List<ProductResponseDTO> getProductsByCategory(String category) {
-        return productRepository.findByCategoryIgnoreCase(category).stream()
-                .map(ProductResponseDTO::fromProduct)
+        return getProductsByCategory(category, ProductOrder.BY_ID, 0, 0);
+    }
+    
+    @Override
+    public List<ProductResponseDTO> getProductsByCategory(String category, ProductOrder order, int offset, int limit) {
+        List<Long> ids = categoryListings.page(category, order, offset, limit);
+        if (ids != null) {
+            return loadInOrder(ids);
+        }
+        // Listings still being built, or an order without one
+        List<ProductResponseDTO> products = productRepository.findByCategoryIgnoreCase(category).stream()
+                .map(this::toResponse)
+                .sorted(order.comparator())
                 .collect(Collectors.toList());
+        int from = Math.min(offset, products.size());
+        int to = limit > 0 ? Math.min(from + limit, products.size()) : products.size();
+        return new ArrayList<>(products.subList(from, to));
     }
     
     @Override
@@ -102,25 +209,52 @@ public class ProductServiceImpl implements ProductService {
                 minPrice != null ? minPrice : BigDecimal.ZERO,
                 maxPrice != null ? maxPrice : new BigDecimal("999999.99")
         ).stream()
-                .map(ProductResponseDTO::fromProduct)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
     @Override
     public List<ProductResponseDTO> searchByName(String name) {
         return productRepository.findByNameContainingIgnoreCase(name).stream()
-                .map(ProductResponseDTO::fromProduct)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
+    @Override
+    public List<ProductResponseDTO> fuzzySearchByName(String query, int limit) {
+        return loadInOrder(fuzzySearchIndex.search(query, limit));
+    }
+    
+    @Override
+    public List<ProductResponseDTO> getSimilarProducts(Long id, int k) {
+        List<Long> ids = similarProducts.nearest(id, k);
+        if (ids != null) {
+            return loadInOrder(ids);
+        }
+        // Index still being built, or the product is newer than it: rank the product's own category
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Product not found with id: " + id));
+        ProductFeatures query = ProductFeatures.of(ProductSnapshot.of(product));
+        VantagePointTree.Neighbours neighbours = new VantagePointTree.Neighbours(k);
+        for (Product candidate : productRepository.findByCategoryIgnoreCase(product.getCategory())) {
+            if (!candidate.getId().equals(id)) {
+                ProductFeatures features = ProductFeatures.of(ProductSnapshot.of(candidate));
+                neighbours.offer(features, query.distance(features));
+            }
+        }
+        return loadInOrder(neighbours.ids());
+    }
+    
     @Override
     public List<ProductResponseDTO> getProductsByDimensions(Double maxWidth, Double maxHeight, Double maxDepth) {
         return productRepository.findByMaxDimensions(maxWidth, maxHeight, maxDepth).stream()
-                .map(ProductResponseDTO::fromProduct)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
     @Override
+    @CachePut(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    @Transactional
     public ProductResponseDTO updateStock(Long id, Integer quantity) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Product not found with id: " + id));
@@ -129,28 +263,67 @@ public class ProductServiceImpl implements ProductService {
             throw new IllegalArgumentException("Stock quantity cannot be negative");
         }
         
+        if (stockWriteBehindBuffer.isEnabled()) {
+            // Leave the entity untouched so no UPDATE is flushed; the buffer writes it in the next batch
+            stockWriteBehindBuffer.record(id, quantity);
+            publishSaved(product);
+            return toResponse(product);
+        }
+        
         product.setStock(quantity);
         Product updatedProduct = productRepository.save(product);
-        return ProductResponseDTO.fromProduct(updatedProduct);
+        productRepository.flush();
+        publishSaved(updatedProduct);
+        return toResponse(updatedProduct);
+    }
+    
+    @Override
+    @CachePut(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    @Transactional
+    public ProductResponseDTO takeStock(Long id, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Stock quantity cannot be negative");
+        }
+        // The row lock makes concurrent stock changes wait instead of being overwritten
+        Product product = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new NoSuchElementException("Product not found with id: " + id));
+        
+        if (stockWriteBehindBuffer.isEnabled() && stockWriteBehindBuffer.take(id, quantity)) {
+            publishSaved(product);
+            return toResponse(product);
+        }
+        
+        product.setStock(Math.max(0, product.getStock() - quantity));
+        Product updatedProduct = productRepository.save(product);
+        productRepository.flush();
+        publishSaved(updatedProduct);
+        return toResponse(updatedProduct);
     }
     
     @Override
     public List<ProductResponseDTO> getInStockProducts() {
+        flushBufferedStock();
         return productRepository.findByStockGreaterThan(0).stream()
-                .map(ProductResponseDTO::fromProduct)
+                .filter(product -> effectiveStock(product) > 0)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
     @Override
     public List<ProductResponseDTO> getLowStockProducts(Integer threshold) {
         final int effectiveThreshold = (threshold == null || threshold < 0) ? 10 : threshold;
+        flushBufferedStock();
         return productRepository.findByStockGreaterThanEqual(1).stream()
-                .filter(product -> product.getStock() <= effectiveThreshold)
-                .map(ProductResponseDTO::fromProduct)
+                .filter(product -> {
+                    int stock = effectiveStock(product);
+                    return stock >= 1 && stock <= effectiveThreshold;
+                })
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
     @Override
+    @Cacheable(CacheConfig.PRODUCT_FILTERS_CACHE)
     public Map<String, List<String>> getProductFilters() {
         Map<String, List<String>> filters = new HashMap<>();
         filters.put("categories", productRepository.findDistinctCategories());
@@ -176,38 +349,66 @@ public class ProductServiceImpl implements ProductService {
     
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_FILTERS_CACHE, allEntries = true)
     public List<ProductResponseDTO> createProducts(List<ProductRequestDTO> productRequests) {
         List<Product> products = new ArrayList<>();
         
         for (ProductRequestDTO request : productRequests) {
-            validateProductRequest(request);
+            ProductRequestValidator.validate(request);
             Product product = new Product();
             mapRequestToProduct(request, product);
             products.add(product);
         }
         
         List<Product> savedProducts = productRepository.saveAll(products);
+        savedProducts.forEach(this::publishSaved);
         return savedProducts.stream()
-                .map(ProductResponseDTO::fromProduct)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
     // Helper methods
-    private void validateProductRequest(ProductRequestDTO request) {
-        if (request.getName() == null || request.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Product name is required");
-        }
-        if (request.getPrice() == null || request.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Product price must be greater than zero");
+    private ProductResponseDTO toResponse(Product product) {
+        ProductResponseDTO response = ProductResponseDTO.fromProduct(product);
+        Integer pendingStock = stockWriteBehindBuffer.getPendingStock(product.getId());
+        if (pendingStock != null) {
+            response.setStock(pendingStock);
+            response.setInStock(pendingStock > 0);
+            // No longer the stored version's content; keeps it out of version-keyed caches
+            response.setVersion(null);
         }
-        if (request.getStock() == null || request.getStock() < 0) {
-            throw new IllegalArgumentException("Product stock cannot be negative");
+        return response;
+    }
+    
+    private List<ProductResponseDTO> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
         }
-        if (request.getCategory() == null || request.getCategory().trim().isEmpty()) {
-            throw new IllegalArgumentException("Product category is required");
+        // Keeps the given order; products deleted since the ids were produced are skipped
+        return productRepository.findAllByIdInOrder(ids).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+    
+    private void publishSaved(Product product) {
+        eventPublisher.publishEvent(ProductChangedEvent.saved(ProductSnapshot.of(product, effectiveStock(product))));
+    }
+    
+    /**
+     * Write buffered stock levels before a query that filters on stock, so the database selects the
+     * same products the buffered levels would. Levels buffered after this are filtered again in memory.
+     */
+    private void flushBufferedStock() {
+        if (stockWriteBehindBuffer.isEnabled()) {
+            stockWriteBehindBuffer.flush();
         }
     }
     
+    private int effectiveStock(Product product) {
+        Integer pendingStock = stockWriteBehindBuffer.getPendingStock(product.getId());
+        return pendingStock != null ? pendingStock : product.getStock();
+    }
+    
     private void mapRequestToProduct(ProductRequestDTO request, Product product) {
         product.setName(request.getName().trim());
         product.setDescription(request.getDescription());
@@ -0,0 +1,138 @@
+package com.furniture.ecommerce.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Counts product detail views so the hottest products can be preloaded into the caches on startup.
+ *
+ * <p>Tracking is approximate by design: once {@code maxTracked} distinct products have been seen,
+ * views of new products are ignored rather than growing the map without bound. When a hot-set file
+ * is configured the current top products are written there on shutdown and read back by the
+ * warm-up on the next start.
+ */
+@Component
+public class ProductViewTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductViewTracker.class);
+
+    private final Map<Long, LongAdder> views = new ConcurrentHashMap<>();
+    private final int maxTracked;
+    private final int hotSetSize;
+    private final String hotSetFile;
+
+    /**
+     * Constructor for ProductViewTracker.
+     *
+     * @param maxTracked maximum number of distinct products tracked
+     * @param hotSetSize number of products persisted to the hot-set file
+     * @param hotSetFile path of the hot-set file, or empty to disable persistence
+     */
+    public ProductViewTracker(@Value("${catalog.warmup.max-tracked-products:100000}") int maxTracked,
+                              @Value("${catalog.warmup.hot-products:200}") int hotSetSize,
+                              @Value("${catalog.warmup.hot-set-file:}") String hotSetFile) {
+        this.maxTracked = maxTracked;
+        this.hotSetSize = hotSetSize;
+        this.hotSetFile = hotSetFile;
+    }
+
+    /**
+     * Record a view of a product.
+     *
+     * @param id the product ID
+     */
+    public void recordView(Long id) {
+        LongAdder counter = views.get(id);
+        if (counter == null) {
+            if (views.size() >= maxTracked) {
+                return;
+            }
+            counter = views.computeIfAbsent(id, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Get the most viewed products seen by this instance.
+     *
+     * @param limit maximum number of IDs to return
+     * @return product IDs ordered by descending view count
+     */
+    public List<Long> getTopViewed(int limit) {
+        return views.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, LongAdder> e) -> e.getValue().sum()).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Read the hot set persisted by the previous run.
+     *
+     * @return product IDs from the hot-set file, hottest first; empty if there is none
+     */
+    public List<Long> loadPersistedHotSet() {
+        if (hotSetFile.isBlank()) {
+            return Collections.emptyList();
+        }
+        Path path = Paths.get(hotSetFile);
+        if (!Files.exists(path)) {
+            return Collections.emptyList();
+        }
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    ids.add(Long.parseLong(line.trim()));
+                }
+            }
+            return ids;
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Ignoring unreadable hot-set file {}: {}", path, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Persist the current hot set so the next start can warm the same products.
+     */
+    @PreDestroy
+    public void persistHotSet() {
+        if (hotSetFile.isBlank() || views.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(hotSetFile);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                for (Long id : getTopViewed(hotSetSize)) {
+                    writer.write(id.toString());
+                    writer.newLine();
+                }
+            }
+            logger.info("Persisted hot set of {} products to {}", Math.min(hotSetSize, views.size()), path);
+        } catch (IOException e) {
+            logger.warn("Could not persist hot set to {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.dto.ProductRequestDTO;
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.query.QueryResult;
+import com.furniture.ecommerce.query.SearchQuery;
+import com.furniture.ecommerce.shard.ShardedProductStore;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Product service of the partitioned mode: point reads, filtered searches and category listings
+ * are answered by the {@link ShardedProductStore}, everything else, writes in particular, by the
+ * regular service against the primary database.
+ *
+ * <p>Shards receive a change when its transaction commits, before the write request returns, so a
+ * client reads its own writes here just as it does from the primary. Stock levels still buffered
+ * by the {@link StockWriteBehindBuffer} are overlaid on what the shards return, as the regular
+ * service does, and reads go to the primary until the shards have been filled on startup.
+ */
+public class ShardedProductService implements ProductService {
+
+    private final ProductService delegate;
+    private final ShardedProductStore store;
+    private final StockWriteBehindBuffer stockWriteBehindBuffer;
+
+    /**
+     * Constructor for ShardedProductService.
+     *
+     * @param delegate the service over the primary database
+     * @param store the sharded catalog
+     * @param stockWriteBehindBuffer stock levels not yet written to the primary
+     */
+    public ShardedProductService(ProductService delegate, ShardedProductStore store,
+                                 StockWriteBehindBuffer stockWriteBehindBuffer) {
+        this.delegate = delegate;
+        this.store = store;
+        this.stockWriteBehindBuffer = stockWriteBehindBuffer;
+    }
+
+    @Override
+    public ProductResponseDTO getProductById(Long id) {
+        if (!store.isReady()) {
+            return delegate.getProductById(id);
+        }
+        ProductResponseDTO product = store.findById(id);
+        if (product == null) {
+            throw new NoSuchElementException("Product not found with id: " + id);
+        }
+        return withBufferedStock(product);
+    }
+
+    @Override
+    public List<ProductResponseDTO> searchProducts(String category, String material, String color,
+                                                 BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+        if (!store.isReady()) {
+            return delegate.searchProducts(category, material, color, minPrice, maxPrice, inStock);
+        }
+        SearchCriteria criteria = SearchCriteria.of(category, material, color, minPrice, maxPrice, inStock);
+        return withBufferedStock(store.search(criteria, ProductOrder.BY_ID, 0), criteria);
+    }
+
+    @Override
+    public List<ProductResponseDTO> searchProducts(SearchCriteria criteria, ProductOrder order, int limit) {
+        if (!store.isReady()) {
+            return delegate.searchProducts(criteria, order, limit);
+        }
+        return withBufferedStock(store.search(criteria, order, limit), criteria);
+    }
+
+    @Override
+    public QueryResult<ProductResponseDTO> searchProducts(SearchQuery query, ProductOrder order, int limit) {
+        // Planned queries run over the in-memory catalog, or the primary until it is built
+        return delegate.searchProducts(query, order, limit);
+    }
+
+    @Override
+    public List<ProductResponseDTO> getProductsByCategory(String category) {
+        if (!store.isReady()) {
+            return delegate.getProductsByCategory(category);
+        }
+        SearchCriteria criteria = SearchCriteria.of(category, null, null, null, null, null);
+        return withBufferedStock(store.search(criteria, ProductOrder.BY_ID, 0), criteria);
+    }
+
+    @Override
+    public List<ProductResponseDTO> getProductsByCategory(String category, ProductOrder order, int offset, int limit) {
+        if (!store.isReady()) {
+            return delegate.getProductsByCategory(category, order, offset, limit);
+        }
+        // Each shard returns its first offset + limit products; the merge keeps the page
+        int rows = limit > 0 ? offset + limit : 0;
+        SearchCriteria criteria = SearchCriteria.of(category, null, null, null, null, null);
+        List<ProductResponseDTO> products = store.search(criteria, order, rows);
+        return withBufferedStock(products.subList(Math.min(offset, products.size()), products.size()), criteria);
+    }
+
+    @Override
+    public ProductResponseDTO createProduct(ProductRequestDTO productRequest) {
+        return delegate.createProduct(productRequest);
+    }
+
+    @Override
+    public List<ProductResponseDTO> getAllProducts() {
+        return delegate.getAllProducts();
+    }
+
+    @Override
+    public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequest) {
+        return delegate.updateProduct(id, productRequest);
+    }
+
+    @Override
+    public void deleteProduct(Long id) {
+        delegate.deleteProduct(id);
+    }
+
+    @Override
+    public List<ProductResponseDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        return delegate.getProductsByPriceRange(minPrice, maxPrice);
+    }
+
+    @Override
+    public List<ProductResponseDTO> searchByName(String name) {
+        return delegate.searchByName(name);
+    }
+
+    @Override
+    public List<ProductResponseDTO> fuzzySearchByName(String query, int limit) {
+        return delegate.fuzzySearchByName(query, limit);
+    }
+
+    @Override
+    public List<ProductResponseDTO> getSimilarProducts(Long id, int k) {
+        return delegate.getSimilarProducts(id, k);
+    }
+
+    @Override
+    public List<ProductResponseDTO> getProductsByDimensions(Double maxWidth, Double maxHeight, Double maxDepth) {
+        return delegate.getProductsByDimensions(maxWidth, maxHeight, maxDepth);
+    }
+
+    @Override
+    public ProductResponseDTO updateStock(Long id, Integer quantity) {
+        return delegate.updateStock(id, quantity);
+    }
+
+    @Override
+    public ProductResponseDTO takeStock(Long id, int quantity) {
+        return delegate.takeStock(id, quantity);
+    }
+
+    @Override
+    public List<ProductResponseDTO> getInStockProducts() {
+        return delegate.getInStockProducts();
+    }
+
+    @Override
+    public List<ProductResponseDTO> getLowStockProducts(Integer threshold) {
+        return delegate.getLowStockProducts(threshold);
+    }
+
+    @Override
+    public Map<String, List<String>> getProductFilters() {
+        return delegate.getProductFilters();
+    }
+
+    @Override
+    public boolean isProductNameUnique(String name, Long excludeId) {
+        return delegate.isProductNameUnique(name, excludeId);
+    }
+
+    @Override
+    public List<ProductResponseDTO> createProducts(List<ProductRequestDTO> productRequests) {
+        return delegate.createProducts(productRequests);
+    }
+
+    private List<ProductResponseDTO> withBufferedStock(List<ProductResponseDTO> products, SearchCriteria criteria) {
+        List<ProductResponseDTO> result = new ArrayList<>(products.size());
+        for (ProductResponseDTO product : products) {
+            withBufferedStock(product);
+            // The shard filtered on its own stock level, which may be behind the buffered one
+            if (criteria.getInStock() == null || product.isInStock()) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    private ProductResponseDTO withBufferedStock(ProductResponseDTO product) {
+        Integer pendingStock = stockWriteBehindBuffer.getPendingStock(product.getId());
+        if (pendingStock != null) {
+            product.setStock(pendingStock);
+            product.setInStock(pendingStock > 0);
+        }
+        return product;
+    }
+}
@@ -0,0 +1,241 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.dto.StockAvailabilityDTO;
+import com.furniture.ecommerce.repository.ReservationRepository;
+import com.furniture.ecommerce.reservation.Reservation;
+import com.furniture.ecommerce.reservation.ReservationLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Timed stock reservations for checkout.
+ *
+ * <p>A reservation holds units of a product for a while without changing its stock: the available
+ * stock is the stock minus the units held. A hold ends when it is confirmed, which takes its units
+ * out of stock, when it is released, or when it expires. Holds live in a {@link ReservationLedger}
+ * and are mirrored in the {@code stock_reservations} table, from which they are restored on
+ * startup. Each instance holds the reservations it granted.
+ */
+@Component
+public class StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    private final ProductService productService;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final ReservationLedger ledger;
+    private final Counter reserved;
+    private final Counter rejected;
+    private final Counter confirmed;
+    private final Counter released;
+    private final Counter expired;
+
+    /**
+     * Constructor for StockReservationService.
+     *
+     * @param productService reads stock levels and applies confirmed reservations
+     * @param reservationRepository the reservation table
+     * @param transactionManager confirms a reservation and updates the stock in one transaction
+     * @param meterRegistry registry for reservation metrics
+     * @param defaultTtl hold time of reservations that do not ask for one
+     * @param maxTtl longest hold time a reservation may ask for
+     * @param tickMillis expiry resolution
+     * @param wheelSlots slots of the expiry wheel
+     */
+    @Autowired
+    public StockReservationService(ProductService productService,
+                                   ReservationRepository reservationRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${catalog.reservations.default-ttl:15m}") Duration defaultTtl,
+                                   @Value("${catalog.reservations.max-ttl:60m}") Duration maxTtl,
+                                   @Value("${catalog.reservations.tick-ms:1000}") long tickMillis,
+                                   @Value("${catalog.reservations.wheel-slots:512}") int wheelSlots) {
+        this(productService, reservationRepository, new TransactionTemplate(transactionManager), meterRegistry,
+                Clock.systemUTC(), defaultTtl, maxTtl, tickMillis, wheelSlots);
+    }
+
+    StockReservationService(ProductService productService, ReservationRepository reservationRepository,
+                            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, Clock clock,
+                            Duration defaultTtl, Duration maxTtl, long tickMillis, int wheelSlots) {
+        this.productService = productService;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.ledger = new ReservationLedger(clock.millis(), tickMillis, wheelSlots);
+        this.reserved = outcome(meterRegistry, "reserved");
+        this.rejected = outcome(meterRegistry, "rejected");
+        this.confirmed = outcome(meterRegistry, "confirmed");
+        this.released = outcome(meterRegistry, "released");
+        this.expired = outcome(meterRegistry, "expired");
+        Gauge.builder("catalog.reservations.active", ledger, ReservationLedger::size)
+                .description("Reservations currently holding stock")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restore the reservations that were active when the service last stopped.
+     */
+    @PostConstruct
+    public void restore() {
+        Instant now = clock.instant();
+        int lapsed = reservationRepository.deleteExpired(now);
+        List<Reservation> active = reservationRepository.findActive(now);
+        active.forEach(ledger::restore);
+        if (!active.isEmpty() || lapsed > 0) {
+            logger.info("Restored {} stock reservations; {} expired while stopped", active.size(), lapsed);
+        }
+    }
+
+    /**
+     * Hold units of a product.
+     *
+     * @param productId the product ID
+     * @param quantity units to hold
+     * @param ttl how long to hold them, or null for the default
+     * @return the reservation
+     * @throws NoSuchElementException if the product does not exist
+     * @throws IllegalArgumentException if the hold time is longer than allowed
+     * @throws IllegalStateException if fewer units are available than requested
+     */
+    public Reservation reserve(Long productId, int quantity, Duration ttl) {
+        Duration holdTime = ttl != null ? ttl : defaultTtl;
+        if (holdTime.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException("Reservations can be held for at most " + maxTtl.toSeconds()
+                    + " seconds");
+        }
+        int stock = productService.getProductById(productId).getStock();
+        Instant now = clock.instant();
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), productId, quantity, now,
+                now.plus(holdTime));
+        if (!ledger.hold(reservation, stock, reservationRepository::insert)) {
+            rejected.increment();
+            throw new IllegalStateException("Only " + Math.max(0, stock - ledger.held(productId))
+                    + " units of product " + productId + " are available");
+        }
+        reserved.increment();
+        return reservation;
+    }
+
+    /**
+     * Get an active reservation.
+     *
+     * @param productId the product ID
+     * @param reservationId the reservation ID
+     * @return the reservation
+     * @throws NoSuchElementException if the reservation is not active for this product
+     */
+    public Reservation getReservation(Long productId, String reservationId) {
+        Reservation reservation = ledger.get(reservationId);
+        if (reservation == null || reservation.getProductId() != productId) {
+            throw new NoSuchElementException("No active reservation " + reservationId + " for product " + productId);
+        }
+        return reservation;
+    }
+
+    /**
+     * Confirm a reservation: its units are taken out of the product's stock and the hold ends.
+     *
+     * @param productId the product ID
+     * @param reservationId the reservation ID
+     * @return the confirmed reservation
+     * @throws NoSuchElementException if the reservation is not active for this product
+     */
+    public Reservation confirm(Long productId, String reservationId) {
+        getReservation(productId, reservationId);
+        Reservation settled = ledger.settle(reservationId, reservation -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    reservationRepository.delete(reservation.getId());
+                    // Relative and clamped at zero: the stock may have been changed, even lowered under the
+                    // holds, since the reservation was granted
+                    productService.takeStock(productId, reservation.getQuantity());
+                }));
+        if (settled == null) {
+            throw new NoSuchElementException("Reservation " + reservationId + " expired");
+        }
+        confirmed.increment();
+        return settled;
+    }
+
+    /**
+     * Release a reservation, giving its units back.
+     *
+     * @param productId the product ID
+     * @param reservationId the reservation ID
+     * @return the released reservation
+     * @throws NoSuchElementException if the reservation is not active for this product
+     */
+    public Reservation release(Long productId, String reservationId) {
+        getReservation(productId, reservationId);
+        Reservation settled = ledger.settle(reservationId,
+                reservation -> reservationRepository.delete(reservation.getId()));
+        if (settled == null) {
+            throw new NoSuchElementException("Reservation " + reservationId + " expired");
+        }
+        released.increment();
+        return settled;
+    }
+
+    /**
+     * Stock of a product, less the units held by reservations.
+     *
+     * @param productId the product ID
+     * @return stock, reserved and available units
+     * @throws NoSuchElementException if the product does not exist
+     */
+    public StockAvailabilityDTO getAvailability(Long productId) {
+        int stock = productService.getProductById(productId).getStock();
+        int held = ledger.held(productId);
+        return new StockAvailabilityDTO(productId, stock, held, Math.max(0, stock - held));
+    }
+
+    /**
+     * Drop the reservations whose time is up. Runs every tick.
+     */
+    @Scheduled(fixedDelayString = "${catalog.reservations.tick-ms:1000}")
+    public void expireDue() {
+        List<Reservation> due = ledger.expire(clock.millis());
+        if (due.isEmpty()) {
+            return;
+        }
+        expired.increment(due.size());
+        try {
+            reservationRepository.deleteAll(due.stream().map(Reservation::getId).collect(Collectors.toList()));
+        } catch (DataAccessException e) {
+            // The holds are already gone; stale rows are dropped on the next startup
+            logger.warn("Could not delete {} expired reservations: {}", due.size(), e.getMessage());
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("catalog.reservations")
+                .description("Reservation requests and how their holds ended")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
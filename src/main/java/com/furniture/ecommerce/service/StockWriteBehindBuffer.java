@@ -0,0 +1,204 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.event.StockFlushedEvent;
+import com.furniture.ecommerce.repository.ProductBulkLoader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind buffer for stock updates.
+ *
+ * <p>When enabled, {@code PATCH /products/{id}/stock} only records the new quantity here. The
+ * in-memory value is authoritative and overlaid on every product read, and pending values are
+ * flushed to the database in one batched UPDATE every flush interval. Repeated updates of the same
+ * product between two flushes coalesce into a single row write (last writer wins). Pending values
+ * are flushed on shutdown, so only a crash can lose at most one flush interval of stock changes.
+ */
+@Component
+public class StockWriteBehindBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockWriteBehindBuffer.class);
+
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+    private final ProductBulkLoader productBulkLoader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int maxPending;
+    private final Counter received;
+    private final Counter flushed;
+    private final Timer flushTimer;
+
+    /**
+     * Constructor for StockWriteBehindBuffer.
+     *
+     * @param productBulkLoader writes the batched updates
+     * @param eventPublisher announces each completed flush
+     * @param meterRegistry registry for the coalescing metrics
+     * @param enabled whether stock updates are buffered at all
+     * @param maxPending pending products that trigger an early flush
+     */
+    public StockWriteBehindBuffer(ProductBulkLoader productBulkLoader,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${catalog.stock.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${catalog.stock.write-behind.max-pending:10000}") int maxPending) {
+        this.productBulkLoader = productBulkLoader;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.received = Counter.builder("catalog.stock.write-behind.received")
+                .description("Stock updates accepted into the write-behind buffer")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("catalog.stock.write-behind.flushed")
+                .description("Rows written to the database by write-behind flushes")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("catalog.stock.write-behind.flush")
+                .description("Duration of write-behind flushes")
+                .register(meterRegistry);
+        Gauge.builder("catalog.stock.write-behind.pending", pending, Map::size)
+                .description("Products with stock changes not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("catalog.stock.write-behind.coalescing.ratio", this, StockWriteBehindBuffer::coalescingRatio)
+                .description("Stock updates received per database row written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether write-behind mode is enabled.
+     *
+     * @return true if stock updates should go through this buffer
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record a new stock level. It is visible to reads immediately and written on the next flush.
+     *
+     * @param id the product ID
+     * @param quantity the new stock quantity
+     */
+    public void record(Long id, int quantity) {
+        pending.put(id, quantity);
+        received.increment();
+        if (pending.size() >= maxPending) {
+            flush();
+        }
+    }
+
+    /**
+     * Take units out of a buffered stock level, stopping at zero.
+     *
+     * @param id the product ID
+     * @param quantity the units to take
+     * @return true if a level was buffered and has been lowered, false if the database value is current
+     */
+    public boolean take(Long id, int quantity) {
+        // Atomic per key: a concurrent record either lands first and is lowered, or replaces the result.
+        // A flush writing the old level does not drop the new one, which differs from its batch value
+        return !pending.isEmpty()
+                && pending.computeIfPresent(id, (key, stock) -> Math.max(0, stock - quantity)) != null;
+    }
+
+    /**
+     * Drop a buffered stock level that a full product update or deletion has superseded.
+     *
+     * <p>Waits for a flush in progress, which may be writing the level being dropped: once this
+     * returns, no flush writes it, and the caller reads the row with the version the flush gave it.
+     *
+     * @param id the product ID
+     */
+    public void discard(Long id) {
+        // Entries stay pending until written, so an empty buffer means no flush is writing anything
+        if (!pending.isEmpty()) {
+            synchronized (this) {
+                pending.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Get the buffered stock level of a product.
+     *
+     * @param id the product ID
+     * @return the pending quantity, or null if the database value is current
+     */
+    public Integer getPendingStock(Long id) {
+        return pending.isEmpty() ? null : pending.get(id);
+    }
+
+    /**
+     * Write all pending stock levels in one batch. Runs every flush interval and on shutdown.
+     * Excludes {@link #discard} for its whole duration.
+     */
+    @Scheduled(fixedDelayString = "${catalog.stock.write-behind.flush-interval-ms:250}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> batch = new HashMap<>(pending);
+        long started = System.nanoTime();
+        try {
+            int written = productBulkLoader.updateStock(batch);
+            flushed.increment(written);
+        } catch (DataAccessException e) {
+            // Keep the values pending; the next flush retries them
+            logger.error("Write-behind flush of {} stock updates failed: {}", batch.size(), e.getMessage());
+            return;
+        }
+        // Only drop entries that were not overwritten while the batch was being written
+        batch.forEach(pending::remove);
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        eventPublisher.publishEvent(new StockFlushedEvent(batch.keySet()));
+    }
+
+    /**
+     * Write one product's buffered stock level now, ahead of the next flush, for callers that move
+     * or copy its row outside Hibernate. Excludes {@link #flush} and {@link #discard} while it runs.
+     *
+     * @param id the product ID
+     * @throws DataAccessException if the write fails; the level stays pending
+     */
+    public synchronized void flush(Long id) {
+        Integer level = getPendingStock(id);
+        if (level == null) {
+            return;
+        }
+        Map<Long, Integer> batch = Map.of(id, level);
+        flushed.increment(productBulkLoader.updateStock(batch));
+        // A level recorded while this one was being written stays pending
+        pending.remove(id, level);
+        eventPublisher.publishEvent(new StockFlushedEvent(batch.keySet()));
+    }
+
+    /**
+     * Flush everything still pending before the application context closes.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!pending.isEmpty()) {
+            logger.info("Flushing {} pending stock updates before shutdown", pending.size());
+            flush();
+        }
+    }
+
+    private double coalescingRatio() {
+        double rows = flushed.count();
+        return rows == 0 ? 0 : received.count() / rows;
+    }
+}
@@ -0,0 +1,90 @@
+package com.furniture.ecommerce.service;
+
+import java.util.Locale;
+
+/**
+ * The total number of results of a list request, and how far it can be trusted.
+ */
+public final class TotalCount {
+
+    /** How a count was obtained, from most to least reliable. */
+    public enum Accuracy {
+        /** Counted from the current data. */
+        EXACT,
+        /** Counted a short while ago; writes since then are not reflected. */
+        CACHED,
+        /** Estimated from facet counters; may be off either way. */
+        ESTIMATE;
+
+        /**
+         * The value of the {@code X-Total-Count-Accuracy} header.
+         *
+         * @return the lower-case name
+         */
+        public String headerValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final long value;
+    private final Accuracy accuracy;
+
+    private TotalCount(long value, Accuracy accuracy) {
+        this.value = value;
+        this.accuracy = accuracy;
+    }
+
+    /**
+     * An exact count.
+     *
+     * @param value the count
+     * @return the total count
+     */
+    public static TotalCount exact(long value) {
+        return new TotalCount(value, Accuracy.EXACT);
+    }
+
+    /**
+     * A count served from the count cache.
+     *
+     * @param value the count
+     * @return the total count
+     */
+    public static TotalCount cached(long value) {
+        return new TotalCount(value, Accuracy.CACHED);
+    }
+
+    /**
+     * An estimated count.
+     *
+     * @param value the estimate
+     * @return the total count
+     */
+    public static TotalCount estimate(long value) {
+        return new TotalCount(value, Accuracy.ESTIMATE);
+    }
+
+    /**
+     * Add the count of a disjoint result set; the sum is only as accurate as the less accurate part.
+     *
+     * @param other the other count
+     * @return the combined count
+     */
+    public TotalCount plus(TotalCount other) {
+        Accuracy combined = accuracy.compareTo(other.accuracy) >= 0 ? accuracy : other.accuracy;
+        return new TotalCount(value + other.value, combined);
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public Accuracy getAccuracy() {
+        return accuracy;
+    }
+
+    @Override
+    public String toString() {
+        return value + " (" + accuracy.headerValue() + ")";
+    }
+}
@@ -0,0 +1,187 @@
+package com.furniture.ecommerce.shard;
+
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One partition of the catalog: a {@code products} table in its own database, written and queried
+ * with plain JDBC.
+ *
+ * <p>Besides the product columns each row keeps lower-cased copies of category, material and
+ * color, so the case-insensitive filters of a search are plain equality on an indexed column.
+ *
+ * <p>The shard has two such tables. Reads go to the live one; a rebuild fills the other and the
+ * two swap when it is done, so the shard keeps answering from its previous contents meanwhile.
+ */
+final class ProductShard {
+
+    private static final String[] TABLES = {"products", "products_spare"};
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS %1$s ("
+            + "id BIGINT PRIMARY KEY, name VARCHAR(200) NOT NULL, description VARCHAR(5000), "
+            + "category VARCHAR(100) NOT NULL, price NUMERIC(10, 2) NOT NULL, stock INTEGER NOT NULL, "
+            + "width_cm FLOAT(53), height_cm FLOAT(53), depth_cm FLOAT(53), material VARCHAR(100), "
+            + "color VARCHAR(50), image_url VARCHAR(500), created_at TIMESTAMP(6), updated_at TIMESTAMP(6), "
+            + "category_key VARCHAR(100) NOT NULL, material_key VARCHAR(100), color_key VARCHAR(50))",
+        "CREATE INDEX IF NOT EXISTS idx_%1$s_category_price ON %1$s (category_key, price)",
+        "CREATE INDEX IF NOT EXISTS idx_%1$s_price ON %1$s (price)",
+        "CREATE INDEX IF NOT EXISTS idx_%1$s_material ON %1$s (material_key)",
+        "CREATE INDEX IF NOT EXISTS idx_%1$s_color ON %1$s (color_key)"
+    };
+
+    private static final String UPSERT = "MERGE INTO %s (id, name, description, category, price, stock, "
+            + "width_cm, height_cm, depth_cm, material, color, image_url, created_at, updated_at, "
+            + "category_key, material_key, color_key) KEY (id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT = "SELECT id, name, description, category, price, stock, width_cm, height_cm, "
+            + "depth_cm, material, color, image_url, created_at, updated_at FROM %s";
+
+    private static final RowMapper<ProductResponseDTO> ROW_MAPPER = (rs, rowNum) -> new ProductResponseDTO(
+            rs.getLong("id"), rs.getString("name"), rs.getString("description"), rs.getString("category"),
+            rs.getBigDecimal("price"), rs.getInt("stock"), rs.getObject("width_cm", Double.class),
+            rs.getObject("height_cm", Double.class), rs.getObject("depth_cm", Double.class),
+            rs.getString("material"), rs.getString("color"), rs.getString("image_url"),
+            toLocalDateTime(rs.getTimestamp("created_at")), toLocalDateTime(rs.getTimestamp("updated_at")));
+
+    private final String name;
+    private final JdbcTemplate jdbcTemplate;
+    // Indexes into TABLES; they differ while a rebuild writes to the spare table
+    private volatile int live;
+    private volatile int writing;
+
+    ProductShard(String name, DataSource dataSource) {
+        this.name = name;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    DataSource getDataSource() {
+        return jdbcTemplate.getDataSource();
+    }
+
+    void createSchema() {
+        for (String table : TABLES) {
+            for (String statement : SCHEMA) {
+                jdbcTemplate.execute(String.format(Locale.ROOT, statement, table));
+            }
+        }
+    }
+
+    /**
+     * Send writes to an emptied spare table until {@link #finishRebuild}; reads stay on the live one.
+     */
+    void startRebuild() {
+        writing = 1 - live;
+        jdbcTemplate.execute("TRUNCATE TABLE " + TABLES[writing]);
+    }
+
+    /**
+     * Make the rebuilt table the live one. The previous one is kept until the next rebuild empties
+     * it, as searches may still be reading it.
+     */
+    void finishRebuild() {
+        live = writing;
+    }
+
+    void upsert(ProductSnapshot product) {
+        jdbcTemplate.update(writeSql(UPSERT), values(product));
+    }
+
+    void upsertAll(List<ProductSnapshot> products) {
+        List<Object[]> batch = new ArrayList<>(products.size());
+        for (ProductSnapshot product : products) {
+            batch.add(values(product));
+        }
+        jdbcTemplate.batchUpdate(writeSql(UPSERT), batch);
+    }
+
+    void delete(long id) {
+        jdbcTemplate.update(writeSql("DELETE FROM %s WHERE id = ?"), id);
+    }
+
+    ProductResponseDTO findById(long id) {
+        List<ProductResponseDTO> rows = jdbcTemplate.query(readSql(SELECT) + " WHERE id = ?", ROW_MAPPER, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Products matching the criteria, sorted, and at most {@code limit} of them.
+     */
+    List<ProductResponseDTO> search(SearchCriteria criteria, ProductOrder order, int limit) {
+        StringBuilder sql = new StringBuilder(readSql(SELECT)).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        appendEquals(sql, args, "category_key", criteria.getCategory());
+        appendEquals(sql, args, "material_key", criteria.getMaterial());
+        appendEquals(sql, args, "color_key", criteria.getColor());
+        if (criteria.getMinPrice() != null) {
+            sql.append(" AND price >= ?");
+            args.add(criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            sql.append(" AND price <= ?");
+            args.add(criteria.getMaxPrice());
+        }
+        if (criteria.getInStock() != null) {
+            sql.append(" AND stock > 0");
+        }
+        sql.append(" ORDER BY ").append(order.toSql());
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            args.add(limit);
+        }
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    long count() {
+        Long count = jdbcTemplate.queryForObject(readSql("SELECT COUNT(*) FROM %s"), Long.class);
+        return count != null ? count : 0;
+    }
+
+    private String readSql(String template) {
+        return String.format(Locale.ROOT, template, TABLES[live]);
+    }
+
+    private String writeSql(String template) {
+        return String.format(Locale.ROOT, template, TABLES[writing]);
+    }
+
+    private static void appendEquals(StringBuilder sql, List<Object> args, String column, String value) {
+        if (value != null) {
+            sql.append(" AND ").append(column).append(" = ?");
+            args.add(value);
+        }
+    }
+
+    private static Object[] values(ProductSnapshot product) {
+        return new Object[] {
+            product.getId(), product.getName(), product.getDescription(), product.getCategory(), product.getPrice(),
+            product.getStock(), product.getWidth(), product.getHeight(), product.getDepth(), product.getMaterial(),
+            product.getColor(), product.getImageUrl(), product.getCreatedAt(), product.getUpdatedAt(),
+            lower(product.getCategory()), lower(product.getMaterial()), lower(product.getColor())
+        };
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,303 @@
+package com.furniture.ecommerce.shard;
+
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.CatalogIndex;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The catalog partitioned across several databases, by category or by id.
+ *
+ * <p>The store is a {@link CatalogIndex}: the index maintainer loads every product into its shard
+ * on startup and applies each committed change afterwards, so the primary database stays the
+ * system of record and the shards follow it the same way the in-memory indexes do.
+ *
+ * <p>Point reads go straight to the product's shard. A search that can be pinned to one shard
+ * (a category filter under {@link ShardingStrategy#CATEGORY}) runs there on the calling thread;
+ * any other search runs on every shard in parallel, each shard sorting and limiting its own rows,
+ * and the sorted partial results are merged and cut to the limit here.
+ *
+ * <p>A rebuild fills a spare table in each shard and swaps them in when it is complete, so reads
+ * keep seeing the previous catalog until then. The store is {@linkplain #isReady() ready} once the
+ * first rebuild has completed.
+ */
+public class ShardedProductStore implements CatalogIndex, AutoCloseable {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final List<ProductShard> shards;
+    private final ShardingStrategy strategy;
+    private final ThreadPoolExecutor fanOut;
+    // Category sharding cannot derive the shard from the id; ids are routed through this directory.
+    // Reads use shardById; writes go to routing, a new directory while a rebuild is filling one
+    private volatile Map<Long, Integer> shardById = new ConcurrentHashMap<>();
+    private Map<Long, Integer> routing = shardById;
+    private final List<List<ProductSnapshot>> rebuildBatches = new ArrayList<>();
+    private final Timer singleShardTimer;
+    private final Timer scatterGatherTimer;
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    /**
+     * Create a store over empty shards and create their schema.
+     *
+     * @param dataSources one data source per shard; the order fixes the shard numbering
+     * @param strategy how products are assigned to shards
+     * @param queryThreads threads for cross-shard queries; a full queue runs shard queries on the caller
+     * @param meterRegistry registry for shard sizes and query timings
+     */
+    public ShardedProductStore(List<DataSource> dataSources, ShardingStrategy strategy, int queryThreads,
+                               MeterRegistry meterRegistry) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.strategy = strategy;
+        this.shards = new ArrayList<>(dataSources.size());
+        for (DataSource dataSource : dataSources) {
+            ProductShard shard = new ProductShard("shard-" + shards.size(), dataSource);
+            shard.createSchema();
+            shards.add(shard);
+            rebuildBatches.add(new ArrayList<>());
+            Gauge.builder("catalog.shard.products", shard, ProductShard::count)
+                    .description("Products stored in a shard")
+                    .tag("shard", shard.getName())
+                    .register(meterRegistry);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fanOut = new ThreadPoolExecutor(queryThreads, queryThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queryThreads * 16), runnable -> {
+                    Thread thread = new Thread(runnable, "shard-query-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.fanOut.allowCoreThreadTimeOut(true);
+
+        this.singleShardTimer = Timer.builder("catalog.shard.search")
+                .description("Searches over the sharded catalog")
+                .tag("scope", "single")
+                .register(meterRegistry);
+        this.scatterGatherTimer = Timer.builder("catalog.shard.search")
+                .description("Searches over the sharded catalog")
+                .tag("scope", "all")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void clear() {
+        rebuilding = true;
+        routing = new ConcurrentHashMap<>();
+        rebuildBatches.forEach(List::clear);
+        shards.forEach(ProductShard::startRebuild);
+    }
+
+    @Override
+    public synchronized void add(ProductSnapshot product) {
+        int shard = shardOf(product);
+        if (rebuilding) {
+            List<ProductSnapshot> batch = rebuildBatches.get(shard);
+            batch.add(product);
+            if (batch.size() >= REBUILD_BATCH_SIZE) {
+                shards.get(shard).upsertAll(batch);
+                batch.clear();
+            }
+        } else {
+            shards.get(shard).upsert(product);
+        }
+        route(product, shard);
+    }
+
+    @Override
+    public synchronized void update(ProductSnapshot previous, ProductSnapshot current) {
+        // A batch written later must not overwrite the change
+        writeRebuildBatches();
+        int from = shardOf(previous);
+        int to = shardOf(current);
+        // Write the new home first, so a concurrent point read finds the product in one of the two
+        shards.get(to).upsert(current);
+        route(current, to);
+        if (from != to) {
+            shards.get(from).delete(previous.getId());
+        }
+    }
+
+    @Override
+    public synchronized void remove(ProductSnapshot product) {
+        writeRebuildBatches();
+        routing.remove(product.getId());
+        shards.get(shardOf(product)).delete(product.getId());
+    }
+
+    @Override
+    public synchronized void afterRebuild() {
+        writeRebuildBatches();
+        shards.forEach(ProductShard::finishRebuild);
+        shardById = routing;
+        rebuilding = false;
+        ready = true;
+    }
+
+    /**
+     * Whether the shards hold the catalog, which they do once the first rebuild has completed.
+     *
+     * @return true if reads can be answered from the shards
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Read one product from its shard.
+     *
+     * @param id the product id
+     * @return the product, or null if it does not exist
+     */
+    public ProductResponseDTO findById(long id) {
+        Integer shard = strategy == ShardingStrategy.CATEGORY
+                ? shardById.get(id)
+                : Integer.valueOf(strategy.shardOf(id, null, shards.size()));
+        return shard != null ? shards.get(shard).findById(id) : null;
+    }
+
+    /**
+     * Search the catalog.
+     *
+     * @param criteria the filters
+     * @param order the result order
+     * @param limit maximum number of results, or 0 for all
+     * @return the matching products, in order
+     */
+    public List<ProductResponseDTO> search(SearchCriteria criteria, ProductOrder order, int limit) {
+        if (strategy == ShardingStrategy.CATEGORY && criteria.getCategory() != null) {
+            ProductShard shard = shards.get(ShardingStrategy.shardOfCategory(criteria.getCategory(), shards.size()));
+            return singleShardTimer.record(() -> shard.search(criteria, order, limit));
+        }
+        return scatterGatherTimer.record(() -> scatterGather(criteria, order, limit));
+    }
+
+    /**
+     * Get the number of shards.
+     *
+     * @return the shard count
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Get the sharding strategy.
+     *
+     * @return how products are assigned to shards
+     */
+    public ShardingStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Stop the query threads and close the shard data sources that can be closed.
+     *
+     * @throws Exception if a data source fails to close
+     */
+    @Override
+    public void close() throws Exception {
+        fanOut.shutdownNow();
+        for (ProductShard shard : shards) {
+            if (shard.getDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private List<ProductResponseDTO> scatterGather(SearchCriteria criteria, ProductOrder order, int limit) {
+        if (shards.size() == 1) {
+            return shards.get(0).search(criteria, order, limit);
+        }
+        List<CompletableFuture<List<ProductResponseDTO>>> partials = new ArrayList<>(shards.size());
+        for (ProductShard shard : shards) {
+            partials.add(CompletableFuture.supplyAsync(() -> shard.search(criteria, order, limit), fanOut));
+        }
+        List<List<ProductResponseDTO>> results = new ArrayList<>(partials.size());
+        try {
+            for (CompletableFuture<List<ProductResponseDTO>> partial : partials) {
+                results.add(partial.join());
+            }
+        } catch (CompletionException e) {
+            partials.forEach(partial -> partial.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+        return merge(results, order.comparator(), limit);
+    }
+
+    /**
+     * K-way merge of sorted lists, stopping at the limit.
+     */
+    static List<ProductResponseDTO> merge(List<List<ProductResponseDTO>> sortedLists,
+                                          Comparator<ProductResponseDTO> comparator, int limit) {
+        int total = 0;
+        for (List<ProductResponseDTO> list : sortedLists) {
+            total += list.size();
+        }
+        int size = limit > 0 ? Math.min(limit, total) : total;
+        List<ProductResponseDTO> merged = new ArrayList<>(size);
+
+        // Each cursor is {list index, position}; the queue orders cursors by the product they point at
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                (a, b) -> comparator.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1])));
+        for (int i = 0; i < sortedLists.size(); i++) {
+            if (!sortedLists.get(i).isEmpty()) {
+                cursors.add(new int[] {i, 0});
+            }
+        }
+        while (merged.size() < size) {
+            int[] cursor = cursors.poll();
+            List<ProductResponseDTO> list = sortedLists.get(cursor[0]);
+            merged.add(list.get(cursor[1]));
+            cursor[1]++;
+            if (cursor[1] < list.size()) {
+                cursors.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private void writeRebuildBatches() {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<ProductSnapshot> batch = rebuildBatches.get(shard);
+            if (!batch.isEmpty()) {
+                shards.get(shard).upsertAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private int shardOf(ProductSnapshot product) {
+        return strategy.shardOf(product.getId(), product.getCategory(), shards.size());
+    }
+
+    private void route(ProductSnapshot product, int shard) {
+        if (strategy == ShardingStrategy.CATEGORY) {
+            routing.put(product.getId(), shard);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.furniture.ecommerce.shard;
+
+import java.util.Locale;
+
+/**
+ * How products are assigned to shards.
+ */
+public enum ShardingStrategy {
+
+    /**
+     * By a hash of the lower-cased category. A search filtered by category reads a single shard,
+     * but shards are only as even as the category sizes.
+     */
+    CATEGORY,
+
+    /**
+     * By product id modulo the shard count. Shards stay even, every search reads all of them.
+     */
+    ID_HASH;
+
+    /**
+     * The shard a product belongs to.
+     *
+     * @param id the product id
+     * @param category the product category
+     * @param shardCount the number of shards
+     * @return the shard index, from 0 to {@code shardCount - 1}
+     */
+    public int shardOf(long id, String category, int shardCount) {
+        return this == CATEGORY ? shardOfCategory(category, shardCount) : (int) Math.floorMod(id, (long) shardCount);
+    }
+
+    /**
+     * The shard holding every product of a category under {@link #CATEGORY} sharding.
+     *
+     * @param category the category, in any case
+     * @param shardCount the number of shards
+     * @return the shard index
+     */
+    public static int shardOfCategory(String category, int shardCount) {
+        return Math.floorMod(category.trim().toLowerCase(Locale.ROOT).hashCode(), shardCount);
+    }
+}
@@ -0,0 +1,22 @@
+package com.furniture.ecommerce.stream;
+
+import java.io.IOException;
+
+/**
+ * Where a subscriber's events are written; an SSE connection in production.
+ */
+interface EventSink {
+
+    /**
+     * Write one event. May block while the client is not reading.
+     *
+     * @param event the event
+     * @throws IOException if the connection is gone
+     */
+    void send(OutboundEvent event) throws IOException;
+
+    /**
+     * End the stream.
+     */
+    void close();
+}
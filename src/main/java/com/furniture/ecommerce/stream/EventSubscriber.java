@@ -0,0 +1,123 @@
+package com.furniture.ecommerce.stream;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * One open event stream with its filter and its bounded buffer.
+ *
+ * <p>Events are queued without blocking and written by at most one sender task at a time, so a
+ * client that stops reading only ever ties up its own sender. When its buffer is full the
+ * subscriber is disconnected instead of holding back the other streams; clients reconnect and
+ * re-read current state.
+ */
+class EventSubscriber {
+
+    /** Why a subscriber was closed. */
+    enum CloseReason {
+        /** The buffer overflowed because the client did not keep up. */
+        SLOW_CONSUMER,
+        /** Writing failed; the client went away. */
+        DISCONNECTED,
+        /** The server is shutting down or the stream timed out. */
+        CLOSED
+    }
+
+    private final EventSink sink;
+    private final Set<Long> productIds;
+    private final String category;
+    private final BlockingQueue<OutboundEvent> buffer;
+    private final Executor sender;
+    private final BiConsumer<EventSubscriber, CloseReason> onClose;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    EventSubscriber(EventSink sink, Set<Long> productIds, String category, int bufferSize, Executor sender,
+                    BiConsumer<EventSubscriber, CloseReason> onClose) {
+        this.sink = sink;
+        this.productIds = productIds;
+        this.category = category;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.sender = sender;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Whether this stream asked for the event.
+     */
+    boolean matches(OutboundEvent event) {
+        if (event.isHeartbeat()) {
+            return true;
+        }
+        return (productIds.isEmpty() || productIds.contains(event.getProductId()))
+                && (category == null || event.inCategory(category));
+    }
+
+    /**
+     * Queue an event for sending without blocking; disconnects the subscriber if its buffer is full.
+     */
+    void offer(OutboundEvent event) {
+        if (closed.get()) {
+            return;
+        }
+        if (!buffer.offer(event)) {
+            close(CloseReason.SLOW_CONSUMER);
+            return;
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * End the stream.
+     */
+    void close(CloseReason reason) {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            onClose.accept(this, reason);
+            try {
+                // Completing waits for a write in progress, so it must not run on the publishing thread
+                sender.execute(sink::close);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; nothing is being written any more
+                sink.close();
+            }
+        }
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            for (OutboundEvent event = buffer.poll(); event != null && !closed.get(); event = buffer.poll()) {
+                sink.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // IllegalStateException: the response was already completed, e.g. by a timeout
+            close(CloseReason.DISCONNECTED);
+        } finally {
+            draining.set(false);
+        }
+        // An event offered after the last poll but before the flag was cleared still needs a sender
+        if (!buffer.isEmpty() && !closed.get()) {
+            scheduleDrain();
+        }
+    }
+}
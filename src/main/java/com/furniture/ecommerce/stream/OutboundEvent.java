@@ -0,0 +1,54 @@
+package com.furniture.ecommerce.stream;
+
+/**
+ * An event ready to be written to subscribers: serialized once, sent to every matching stream.
+ */
+final class OutboundEvent {
+
+    /** Comment-only event that keeps idle connections open and detects dead ones. */
+    static final OutboundEvent HEARTBEAT = new OutboundEvent(0, null, null, null, null, null);
+
+    private final long sequence;
+    private final String name;
+    private final Long productId;
+    private final String category;
+    private final String previousCategory;
+    private final String json;
+
+    OutboundEvent(long sequence, String name, Long productId, String category, String previousCategory,
+                  String json) {
+        this.sequence = sequence;
+        this.name = name;
+        this.productId = productId;
+        this.category = category;
+        this.previousCategory = previousCategory;
+        this.json = json;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Long getProductId() {
+        return productId;
+    }
+
+    String getJson() {
+        return json;
+    }
+
+    boolean isHeartbeat() {
+        return this == HEARTBEAT;
+    }
+
+    /**
+     * Whether the event concerns a product in the given category, before or after the change.
+     */
+    boolean inCategory(String wanted) {
+        return wanted.equalsIgnoreCase(category) || wanted.equalsIgnoreCase(previousCategory);
+    }
+}
@@ -0,0 +1,306 @@
+package com.furniture.ecommerce.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.ecommerce.dto.ProductEventDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.CatalogIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams committed product changes to Server-Sent Events subscribers.
+ *
+ * <p>Changes arrive through {@link com.furniture.ecommerce.index.CatalogIndexMaintainer} like an
+ * index update, so every event has both the previous and the new state of the product. They are
+ * coalesced per product for one window: ten stock changes of the same product within the window
+ * become one event carrying the last state, and a product created and deleted within the window
+ * produces nothing. At the end of each window the events are serialized once and offered to every
+ * matching subscriber's bounded buffer; subscribers that fall a whole buffer behind are
+ * disconnected. The full catalog load on startup is not streamed.
+ */
+@Component
+public class ProductEventBroadcaster implements CatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventBroadcaster.class);
+
+    private final Set<EventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, PendingChange> pending = new LinkedHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger senderNumber = new AtomicInteger();
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sender;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Counter published;
+    private final Counter coalesced;
+    private final Counter slowConsumers;
+    private volatile boolean rebuilding;
+
+    /**
+     * Constructor for ProductEventBroadcaster.
+     *
+     * @param objectMapper serializes event payloads
+     * @param meterRegistry registry for stream metrics
+     * @param bufferSize events buffered per subscriber before it is disconnected as too slow
+     * @param maxSubscribers open streams before new subscriptions are refused
+     * @param timeoutMinutes lifetime of a stream; clients reconnect automatically
+     */
+    public ProductEventBroadcaster(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                   @Value("${catalog.events.buffer-size:256}") int bufferSize,
+                                   @Value("${catalog.events.max-subscribers:1000}") int maxSubscribers,
+                                   @Value("${catalog.events.timeout-minutes:30}") long timeoutMinutes) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        // Senders only live while a stream has something to write; a stalled client holds one thread
+        // until its buffer overflows or its write fails
+        this.sender = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "product-events-" + senderNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("catalog.events.subscribers", subscribers, Set::size)
+                .description("Open product event streams")
+                .register(meterRegistry);
+        this.published = Counter.builder("catalog.events.published")
+                .description("Product events sent to subscribers after coalescing")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("catalog.events.coalesced")
+                .description("Product changes merged into a pending event for the same product")
+                .register(meterRegistry);
+        this.slowConsumers = Counter.builder("catalog.events.slow.consumers")
+                .description("Event streams disconnected because their buffer overflowed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open an event stream.
+     *
+     * @param productIds only stream changes of these products; empty for all products
+     * @param category only stream changes of products in this category (before or after the change), or null
+     * @return the SSE response
+     * @throws IllegalStateException if the maximum number of streams is open
+     */
+    public SseEmitter subscribe(Set<Long> productIds, String category) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many open event streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        EventSubscriber subscriber = register(new SseEventSink(emitter), productIds, category);
+        emitter.onCompletion(() -> subscriber.close(EventSubscriber.CloseReason.CLOSED));
+        emitter.onTimeout(() -> subscriber.close(EventSubscriber.CloseReason.CLOSED));
+        emitter.onError(error -> subscriber.close(EventSubscriber.CloseReason.DISCONNECTED));
+        return emitter;
+    }
+
+    @Override
+    public void add(ProductSnapshot product) {
+        record(null, product);
+    }
+
+    @Override
+    public void remove(ProductSnapshot product) {
+        record(product, null);
+    }
+
+    @Override
+    public void update(ProductSnapshot previous, ProductSnapshot current) {
+        record(previous, current);
+    }
+
+    @Override
+    public void clear() {
+        // A rebuild replays the whole catalog as additions; those are not changes
+        rebuilding = true;
+        synchronized (pending) {
+            pending.clear();
+        }
+    }
+
+    @Override
+    public void afterRebuild() {
+        rebuilding = false;
+    }
+
+    /**
+     * Send the changes coalesced during the last window to the matching subscribers.
+     */
+    @Scheduled(fixedDelayString = "${catalog.events.coalesce-window-ms:250}")
+    public void flush() {
+        List<PendingChange> changes;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (PendingChange change : changes) {
+            OutboundEvent event = toEvent(change);
+            if (event == null) {
+                continue;
+            }
+            published.increment();
+            for (EventSubscriber subscriber : subscribers) {
+                if (subscriber.matches(event)) {
+                    subscriber.offer(event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Send a keep-alive comment on every stream, so proxies do not close idle streams and dead
+     * clients are noticed.
+     */
+    @Scheduled(fixedDelayString = "${catalog.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(OutboundEvent.HEARTBEAT));
+    }
+
+    /**
+     * Close every stream before the application context closes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.close(EventSubscriber.CloseReason.CLOSED));
+        sender.shutdown();
+    }
+
+    /**
+     * Number of open streams.
+     *
+     * @return the subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    EventSubscriber register(EventSink sink, Set<Long> productIds, String category) {
+        EventSubscriber subscriber = new EventSubscriber(sink, productIds, category, bufferSize, sender,
+                this::unregister);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    private void unregister(EventSubscriber subscriber, EventSubscriber.CloseReason reason) {
+        subscribers.remove(subscriber);
+        if (reason == EventSubscriber.CloseReason.SLOW_CONSUMER) {
+            slowConsumers.increment();
+            logger.info("Disconnected a product event stream that fell {} events behind", bufferSize);
+        }
+    }
+
+    private void record(ProductSnapshot previous, ProductSnapshot current) {
+        if (rebuilding || subscribers.isEmpty()) {
+            return;
+        }
+        Long id = current != null ? current.getId() : previous.getId();
+        synchronized (pending) {
+            PendingChange change = pending.get(id);
+            if (change == null) {
+                pending.put(id, new PendingChange(previous, current));
+            } else {
+                change.current = current;
+                coalesced.increment();
+            }
+        }
+    }
+
+    private OutboundEvent toEvent(PendingChange change) {
+        ProductSnapshot previous = change.previous;
+        ProductSnapshot current = change.current;
+        ProductEventDTO dto = new ProductEventDTO();
+        if (current == null) {
+            if (previous == null) {
+                // Created and deleted within one window
+                return null;
+            }
+            dto.setType("deleted");
+            dto.setProductId(previous.getId());
+            dto.setCategory(previous.getCategory());
+        } else {
+            List<String> changes = previous == null ? null : changes(previous, current);
+            if (changes != null && changes.isEmpty()) {
+                // Changed and changed back within one window
+                return null;
+            }
+            dto.setType(previous == null ? "created" : "updated");
+            dto.setProductId(current.getId());
+            dto.setName(current.getName());
+            dto.setCategory(current.getCategory());
+            dto.setPrice(current.getPrice());
+            dto.setStock(current.getStock());
+            dto.setInStock(current.getStock() > 0);
+            dto.setChanges(changes);
+        }
+        try {
+            return new OutboundEvent(sequence.incrementAndGet(), dto.getType(), dto.getProductId(),
+                    dto.getCategory(), previous != null ? previous.getCategory() : null,
+                    objectMapper.writeValueAsString(dto));
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize product event for product {}: {}", dto.getProductId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<String> changes(ProductSnapshot previous, ProductSnapshot current) {
+        List<String> changes = new ArrayList<>(3);
+        if (previous.getPrice().compareTo(current.getPrice()) != 0) {
+            changes.add("price");
+        }
+        if (previous.getStock() != current.getStock()) {
+            changes.add("stock");
+        }
+        boolean detailsChanged = !Objects.equals(previous.getName(), current.getName())
+                || !Objects.equals(previous.getCategory(), current.getCategory())
+                || !Objects.equals(previous.getMaterial(), current.getMaterial())
+                || !Objects.equals(previous.getColor(), current.getColor())
+                || !Objects.equals(previous.getWidth(), current.getWidth())
+                || !Objects.equals(previous.getHeight(), current.getHeight())
+                || !Objects.equals(previous.getDepth(), current.getDepth());
+        // Previous snapshots carry no description, so an edit of only the description shows up as
+        // a new modification time
+        boolean otherwiseModified = changes.isEmpty()
+                && !Objects.equals(previous.getUpdatedAt(), current.getUpdatedAt());
+        if (detailsChanged || otherwiseModified) {
+            changes.add("details");
+        }
+        return changes;
+    }
+
+    private static final class PendingChange {
+
+        private final ProductSnapshot previous;
+        private ProductSnapshot current;
+
+        PendingChange(ProductSnapshot previous, ProductSnapshot current) {
+            this.previous = previous;
+            this.current = current;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.furniture.ecommerce.stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Writes events to a Server-Sent Events response.
+ */
+class SseEventSink implements EventSink {
+
+    private final SseEmitter emitter;
+
+    SseEventSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(OutboundEvent event) throws IOException {
+        if (event.isHeartbeat()) {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+            return;
+        }
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(event.getSequence()))
+                .name(event.getName())
+                .data(event.getJson(), MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
@@ -0,0 +1,66 @@
+-- Schema for the file-backed persistent profile.
+-- Hibernate only validates against this schema (ddl-auto=validate), so it must stay in sync
+-- with the entity mappings in com.furniture.ecommerce.model.
+CREATE TABLE IF NOT EXISTS products (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(200) NOT NULL,
+    description VARCHAR(5000),
+    category VARCHAR(100) NOT NULL,
+    price NUMERIC(10, 2) NOT NULL,
+    stock INTEGER NOT NULL,
+    width_cm FLOAT(53),
+    height_cm FLOAT(53),
+    depth_cm FLOAT(53),
+    material VARCHAR(100),
+    color VARCHAR(50),
+    image_url VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+-- Columns added after the table was first released are added separately, so databases created
+-- before them get them too
+-- Optimistic locking version
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+-- Lower-cased keys for case-insensitive lookups
+ALTER TABLE products ADD COLUMN IF NOT EXISTS category_key VARCHAR(100) GENERATED ALWAYS AS (LOWER(category));
+ALTER TABLE products ADD COLUMN IF NOT EXISTS name_key VARCHAR(200) GENERATED ALWAYS AS (LOWER(name));
+CREATE INDEX IF NOT EXISTS idx_products_category ON products (category);
+CREATE INDEX IF NOT EXISTS idx_products_material ON products (material);
+CREATE INDEX IF NOT EXISTS idx_products_color ON products (color);
+CREATE INDEX IF NOT EXISTS idx_products_price ON products (price);
+CREATE INDEX IF NOT EXISTS idx_products_updated_at ON products (updated_at);
+CREATE INDEX IF NOT EXISTS idx_products_category_key ON products (category_key);
+CREATE INDEX IF NOT EXISTS idx_products_name_key ON products (name_key);
+
+-- Cold tier for archived products (see ProductArchiveRepository, which also creates it).
+-- Not mapped as an entity, so Hibernate does not validate it.
+CREATE TABLE IF NOT EXISTS products_archive (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(200) NOT NULL,
+    description VARCHAR(5000),
+    category VARCHAR(100) NOT NULL,
+    price NUMERIC(10, 2) NOT NULL,
+    stock INTEGER NOT NULL,
+    width_cm FLOAT(53),
+    height_cm FLOAT(53),
+    depth_cm FLOAT(53),
+    material VARCHAR(100),
+    color VARCHAR(50),
+    image_url VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    version BIGINT DEFAULT 0 NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_products_archive_category ON products_archive (category);
+
+-- Active stock reservations (see ReservationRepository, which also creates it); rows are deleted
+-- when a reservation is confirmed, released or expires.
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id VARCHAR(36) PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_expires_at ON stock_reservations (expires_at);
@@ -0,0 +1,77 @@
+package com.furniture.ecommerce.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void tryAcquire_WhenFullWithoutQueue_ShouldRejectImmediately() throws InterruptedException {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Bulkhead bulkhead = new Bulkhead("scan", 1, 0, 1000, meterRegistry);
+        assertTrue(bulkhead.tryAcquire());
+
+        // When
+        long started = System.nanoTime();
+        boolean admitted = bulkhead.tryAcquire();
+
+        // Then
+        assertFalse(admitted);
+        assertTrue(System.nanoTime() - started < 500_000_000L);
+        assertEquals(1.0, meterRegistry.get("catalog.admission.rejected")
+                .tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void tryAcquire_WhenReleasedWhileQueued_ShouldAdmit() throws InterruptedException {
+        // Given
+        Bulkhead bulkhead = new Bulkhead("write", 1, 1, 5000, new SimpleMeterRegistry());
+        assertTrue(bulkhead.tryAcquire());
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            bulkhead.release();
+        });
+
+        // When
+        releaser.start();
+        boolean admitted = bulkhead.tryAcquire();
+
+        // Then
+        assertTrue(admitted);
+        assertEquals(1, bulkhead.getActive());
+        assertEquals(0, bulkhead.getQueued());
+    }
+
+    @Test
+    void tokenBucket_ShouldAllowBurstThenReportWait() {
+        // Given
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(2, 10, now);
+
+        // When & Then
+        assertEquals(0, bucket.tryConsume(now));
+        assertEquals(0, bucket.tryConsume(now));
+        long wait = bucket.tryConsume(now);
+        assertTrue(wait > 0 && wait <= 100_000_000L);
+        assertEquals(0, bucket.tryConsume(now + 200_000_000L));
+    }
+
+    @Test
+    void classify_ShouldSeparatePointReadsScansAndWrites() {
+        assertEquals(RequestClass.POINT_READ, AdmissionControlInterceptor.classify("GET", "/products/42"));
+        assertEquals(RequestClass.POINT_READ, AdmissionControlInterceptor.classify("GET", "/products/filters"));
+        assertEquals(RequestClass.POINT_READ, AdmissionControlInterceptor.classify("GET", "/products/42/availability"));
+        assertEquals(RequestClass.POINT_READ, AdmissionControlInterceptor.classify("GET", "/products/42/similar"));
+        assertEquals(RequestClass.WRITE, AdmissionControlInterceptor.classify("POST", "/products/42/reservations"));
+        assertEquals(RequestClass.SCAN, AdmissionControlInterceptor.classify("GET", "/products"));
+        assertEquals(RequestClass.SCAN, AdmissionControlInterceptor.classify("GET", "/products/search"));
+        assertEquals(RequestClass.WRITE, AdmissionControlInterceptor.classify("PATCH", "/products/42/stock"));
+    }
+}
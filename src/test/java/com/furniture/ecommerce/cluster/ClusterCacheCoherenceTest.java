@@ -0,0 +1,147 @@
+package com.furniture.ecommerce.cluster;
+
+import com.furniture.ecommerce.config.CacheConfig;
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.repository.ProductBulkLoader;
+import com.furniture.ecommerce.repository.ProductRepository;
+import com.furniture.ecommerce.repository.ProductSecondLevelCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterCacheCoherenceTest {
+
+    @Mock
+    private InvalidationBus bus;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductSecondLevelCache secondLevelCache;
+
+    @Mock
+    private ProductBulkLoader productBulkLoader;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCacheManager cacheManager;
+    private ClusterCacheCoherence coherence;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_CACHE, CacheConfig.PRODUCT_FILTERS_CACHE);
+        coherence = new ClusterCacheCoherence(bus, productRepository, secondLevelCache, cacheManager,
+                productBulkLoader, eventPublisher, meterRegistry, 10, 1, 1000, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        coherence.stop();
+    }
+
+    @Test
+    void onProductChanged_Local_ShouldBroadcastIdAndVersion() {
+        // When
+        coherence.onProductChanged(ProductChangedEvent.saved(ProductSnapshot.of(product(1L, 4L))));
+        coherence.onProductChanged(ProductChangedEvent.deleted(2L));
+        coherence.onProductChanged(ProductChangedEvent.remote(3L, ProductSnapshot.of(product(3L, 1L))));
+
+        // Then
+        verify(bus).publish(List.of(new InvalidationMessage(1L, 4L)));
+        verify(bus).publish(List.of(new InvalidationMessage(2L, InvalidationMessage.DELETED)));
+        verifyNoMoreInteractions(bus);
+    }
+
+    @Test
+    void onMessage_NewerVersion_ShouldEvictAndRepublishTheReloadedProduct() {
+        // Given
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).put(1L, "stale");
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, 5L)));
+
+        // When
+        coherence.onMessage(new InvalidationMessage(1L, 5L));
+
+        // Then
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, timeout(5000)).publishEvent(event.capture());
+        assertTrue(event.getValue().isRemote());
+        assertEquals(5L, event.getValue().getProduct().getVersion());
+        verify(secondLevelCache, atLeastOnce()).evict(Set.of(1L));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(1L));
+    }
+
+    @Test
+    void onMessage_OlderOrRepeatedVersion_ShouldBeIgnored() {
+        // Given
+        coherence.onProductChanged(ProductChangedEvent.saved(ProductSnapshot.of(product(1L, 5L))));
+
+        // When
+        coherence.onMessage(new InvalidationMessage(1L, 4L));
+        coherence.onMessage(new InvalidationMessage(1L, 5L));
+
+        // Then
+        assertEquals(2, meterRegistry.counter("catalog.cluster.invalidations.stale").count());
+        verifyNoInteractions(productRepository, secondLevelCache, eventPublisher);
+    }
+
+    @Test
+    void onMessage_AfterDeletion_ShouldNotResurrectTheProduct() {
+        // Given
+        coherence.onMessage(new InvalidationMessage(1L, InvalidationMessage.DELETED));
+        verify(eventPublisher, timeout(5000)).publishEvent(any(ProductChangedEvent.class));
+
+        // When
+        coherence.onMessage(new InvalidationMessage(1L, 6L));
+
+        // Then
+        assertEquals(1, meterRegistry.counter("catalog.cluster.invalidations.stale").count());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void apply_DatabaseStillOlder_ShouldNotPublishTheOldVersion() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, 4L)));
+
+        // When
+        coherence.apply(new InvalidationMessage(1L, 5L), 1);
+
+        // Then
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static Product product(Long id, Long version) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Sofa " + id);
+        product.setCategory("Sofas");
+        product.setPrice(new BigDecimal("499.00"));
+        product.setStock(2);
+        product.setVersion(version);
+        return product;
+    }
+}
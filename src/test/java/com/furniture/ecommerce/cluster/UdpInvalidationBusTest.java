@@ -0,0 +1,88 @@
+package com.furniture.ecommerce.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UdpInvalidationBusTest {
+
+    private static final InetAddress LOOPBACK = InetAddress.getLoopbackAddress();
+
+    private final List<UdpInvalidationBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        buses.forEach(UdpInvalidationBus::close);
+    }
+
+    @Test
+    void publish_ShouldReachPeersButNotTheSender() throws Exception {
+        // Given
+        BlockingQueue<InvalidationMessage> receivedByPeer = new LinkedBlockingQueue<>();
+        BlockingQueue<InvalidationMessage> receivedBySender = new LinkedBlockingQueue<>();
+        UdpInvalidationBus peer = bus(0, List.of());
+        peer.start(receivedByPeer::add);
+        int senderPort = freePort();
+        UdpInvalidationBus sender = bus(senderPort, List.of(new InetSocketAddress(LOOPBACK, peer.getLocalPort()),
+                new InetSocketAddress(LOOPBACK, senderPort)));
+        sender.start(receivedBySender::add);
+
+        // When
+        sender.publish(List.of(new InvalidationMessage(7L, 3L),
+                new InvalidationMessage(8L, InvalidationMessage.DELETED)));
+
+        // Then
+        assertEquals(new InvalidationMessage(7L, 3L), receivedByPeer.poll(5, TimeUnit.SECONDS));
+        InvalidationMessage deletion = receivedByPeer.poll(5, TimeUnit.SECONDS);
+        assertTrue(deletion.isDeletion());
+        assertEquals(8L, deletion.getProductId());
+        assertNull(receivedBySender.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void publish_LargeBatch_ShouldSplitIntoDatagramsAndDeliverEveryMessage() throws Exception {
+        // Given
+        BlockingQueue<InvalidationMessage> received = new LinkedBlockingQueue<>();
+        UdpInvalidationBus peer = bus(0, List.of());
+        peer.start(received::add);
+        UdpInvalidationBus sender = bus(0, List.of(new InetSocketAddress(LOOPBACK, peer.getLocalPort())));
+        List<InvalidationMessage> batch = new ArrayList<>();
+        for (long id = 1; id <= 150; id++) {
+            batch.add(new InvalidationMessage(id, id * 2));
+        }
+
+        // When
+        sender.publish(batch);
+
+        // Then
+        List<InvalidationMessage> delivered = new ArrayList<>();
+        while (delivered.size() < batch.size()) {
+            InvalidationMessage message = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(message, "only " + delivered.size() + " messages arrived");
+            delivered.add(message);
+        }
+        assertEquals(batch, delivered);
+    }
+
+    private UdpInvalidationBus bus(int port, List<InetSocketAddress> peers) throws Exception {
+        UdpInvalidationBus bus = UdpInvalidationBus.unicast(new InetSocketAddress(LOOPBACK, port), peers);
+        buses.add(bus);
+        return bus;
+    }
+
+    private static int freePort() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket(0, LOOPBACK)) {
+            return socket.getLocalPort();
+        }
+    }
+}
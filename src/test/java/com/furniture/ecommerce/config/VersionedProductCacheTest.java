@@ -0,0 +1,102 @@
+package com.furniture.ecommerce.config;
+
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedProductCacheTest {
+
+    private VersionedProductCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VersionedProductCache("maximumSize=100");
+    }
+
+    @Test
+    void put_OlderVersion_ShouldNotReplaceANewerResponse() {
+        // Given
+        cache.put(1L, response(1L, 4L, 10));
+
+        // When
+        cache.put(1L, response(1L, 3L, 7));
+
+        // Then
+        assertEquals(4L, cached(1L).getVersion());
+        cache.put(1L, response(1L, 5L, 2));
+        assertEquals(5L, cached(1L).getVersion());
+    }
+
+    @Test
+    void put_AfterACommittedChange_ShouldRejectTheSlowReadersStaleResponse() {
+        // Given
+        // A reader loads version 3 and is overtaken by a write committing version 4
+        ProductResponseDTO stale = response(1L, 3L, 7);
+        cache.onProductChanged(ProductChangedEvent.saved(snapshot(1L, 4L)));
+
+        // When
+        cache.put(1L, stale);
+
+        // Then
+        assertNull(cache.get(1L));
+        cache.put(1L, response(1L, 4L, 9));
+        assertEquals(9, cached(1L).getStock());
+    }
+
+    @Test
+    void put_AfterADeletion_ShouldNotResurrectTheProduct() {
+        // When
+        cache.onProductChanged(ProductChangedEvent.deleted(1L));
+        cache.put(1L, response(1L, 3L, 7));
+
+        // Then
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void put_BufferedStock_ShouldNotBeCachedNorLetTheOlderVersionBack() {
+        // Given
+        cache.put(1L, response(1L, 3L, 7));
+
+        // When
+        cache.put(1L, response(1L, null, 2));
+        cache.put(1L, response(1L, 3L, 7));
+
+        // Then
+        assertNull(cache.get(1L));
+        // The flush writes the buffered level as version 4
+        cache.markCommitted(1L, 4L);
+        cache.put(1L, response(1L, 4L, 2));
+        assertEquals(2, cached(1L).getStock());
+    }
+
+    private ProductResponseDTO cached(Long id) {
+        return (ProductResponseDTO) cache.get(id).get();
+    }
+
+    private static ProductResponseDTO response(Long id, Long version, int stock) {
+        ProductResponseDTO response = new ProductResponseDTO();
+        response.setId(id);
+        response.setVersion(version);
+        response.setStock(stock);
+        return response;
+    }
+
+    private static ProductSnapshot snapshot(Long id, Long version) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Sofa");
+        product.setCategory("Sofas");
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStock(1);
+        product.setVersion(version);
+        return ProductSnapshot.of(product);
+    }
+}
@@ -0,0 +1,122 @@
+package com.furniture.ecommerce.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.ecommerce.datasource.StatementCountFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Statement budgets per endpoint, read from the {@code X-Statement-Count} header of the
+ * {@code debug} profile.
+ *
+ * <p>Budgets are for a cold request, where the caches in front of the database miss. They do not
+ * grow with the number of products returned, so a list endpoint that starts loading its products
+ * one by one (an N+1) fails here long before it shows up in production.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("debug")
+class ProductControllerStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void listEndpoints_ShouldRunOneQueryWhateverTheResultSize() throws Exception {
+        // When
+        MockHttpServletResponse all = perform(get("/products"));
+
+        // Then
+        assertTrue(objectMapper.readTree(all.getContentAsString()).size() > 1);
+        assertWithinBudget(all, 1);
+        assertWithinBudget(perform(get("/products/category/Chairs")), 1);
+        assertWithinBudget(perform(get("/products/search").param("material", "leather")), 1);
+        assertWithinBudget(perform(get("/products/price-range").param("minPrice", "100")
+                .param("maxPrice", "900")), 1);
+        assertWithinBudget(perform(get("/products/dimensions").param("maxWidth", "200")), 1);
+        assertWithinBudget(perform(get("/products/in-stock")), 1);
+        assertWithinBudget(perform(get("/products/low-stock").param("threshold", "20")), 1);
+    }
+
+    @Test
+    void limitedSearch_ShouldAddAtMostACountQuery() throws Exception {
+        // When / Then
+        assertWithinBudget(perform(get("/products/search").param("category", "Sofas").param("sort", "price")
+                .param("limit", "1")), 2);
+        assertWithinBudget(perform(get("/products/search").param("color", "black").param("maxPrice", "5000")
+                .param("limit", "1")), 2);
+    }
+
+    @Test
+    void readEndpoints_ShouldStayWithinBudget() throws Exception {
+        // Given
+        long id = createProduct();
+
+        // When / Then
+        assertWithinBudget(perform(get("/products/" + id)), 1);
+        assertWithinBudget(perform(get("/products/" + id)), 0);
+        // Categories, materials and colors
+        assertWithinBudget(perform(get("/products/filters")), 3);
+        assertWithinBudget(perform(get("/products/check-name").param("name", "No Such Product")), 1);
+    }
+
+    @Test
+    void writeEndpoints_ShouldStayWithinBudget() throws Exception {
+        // Given
+        long id = createProduct();
+
+        // When / Then
+        // Load (unless the second-level cache has it) and UPDATE
+        assertWithinBudget(perform(put("/products/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content(productJson("Updated " + UUID.randomUUID()))), 2);
+        assertWithinBudget(perform(patch("/products/" + id + "/stock").param("quantity", "3")), 2);
+        // Load and DELETE; checking existence first used to add a count query
+        assertWithinBudget(perform(delete("/products/" + id)), 2);
+    }
+
+    private long createProduct() throws Exception {
+        MockHttpServletResponse response = perform(post("/products").contentType(MediaType.APPLICATION_JSON)
+                .content(productJson("Budget Chair " + UUID.randomUUID())));
+        // The INSERT returns the generated ID, so nothing else is needed
+        assertWithinBudget(response, 1);
+        return objectMapper.readTree(response.getContentAsString()).get("id").asLong();
+    }
+
+    private String productJson(String name) {
+        return "{\"name\":\"" + name + "\",\"category\":\"Chairs\",\"price\":149.00,\"stock\":12,"
+                + "\"material\":\"Oak\",\"color\":\"Natural\"}";
+    }
+
+    private MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        assertTrue(response.getStatus() < 400, "Request failed with " + response.getStatus() + ": "
+                + response.getContentAsString());
+        return response;
+    }
+
+    private static void assertWithinBudget(MockHttpServletResponse response, int budget) {
+        String header = response.getHeader(StatementCountFilter.STATEMENT_COUNT_HEADER);
+        assertNotNull(header, "No " + StatementCountFilter.STATEMENT_COUNT_HEADER + " header");
+        int statements = Integer.parseInt(header);
+        assertTrue(statements <= budget, "Ran " + statements + " statements, over the budget of " + budget);
+    }
+}
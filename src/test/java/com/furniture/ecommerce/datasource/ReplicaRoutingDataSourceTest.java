@@ -0,0 +1,85 @@
+package com.furniture.ecommerce.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", mock(DataSource.class));
+        replicas.put("replica-2", mock(DataSource.class));
+        routingDataSource = new ReplicaRoutingDataSource(mock(DataSource.class), replicas);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void determineCurrentLookupKey_ForReadWriteTransaction_ShouldUsePrimary() {
+        // Given
+        routingDataSource.setReplicaHealthy("replica-1", true);
+
+        // When
+        Object key = routingDataSource.determineCurrentLookupKey();
+
+        // Then
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, key);
+    }
+
+    @Test
+    void determineCurrentLookupKey_ForReadOnlyTransaction_ShouldRotateOverHealthyReplicas() {
+        // Given
+        routingDataSource.setReplicaHealthy("replica-1", true);
+        routingDataSource.setReplicaHealthy("replica-2", true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Object first = routingDataSource.determineCurrentLookupKey();
+        Object second = routingDataSource.determineCurrentLookupKey();
+
+        // Then
+        assertNotEquals(first, second);
+        assertTrue(first.toString().startsWith("replica-"));
+        assertTrue(second.toString().startsWith("replica-"));
+    }
+
+    @Test
+    void determineCurrentLookupKey_WhenReplicaLags_ShouldSkipIt() {
+        // Given
+        routingDataSource.setReplicaHealthy("replica-1", true);
+        routingDataSource.setReplicaHealthy("replica-2", true);
+        routingDataSource.setReplicaHealthy("replica-1", false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When / Then
+        assertEquals("replica-2", routingDataSource.determineCurrentLookupKey());
+        assertEquals("replica-2", routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_WithoutHealthyReplica_ShouldFallBackToPrimary() {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Object key = routingDataSource.determineCurrentLookupKey();
+
+        // Then
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, key);
+    }
+}
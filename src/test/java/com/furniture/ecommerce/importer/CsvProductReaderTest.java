@@ -0,0 +1,75 @@
+package com.furniture.ecommerce.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvProductReaderTest {
+
+    @Test
+    void next_ShouldMapHeaderColumnsAndHandleQuotedCells() throws IOException {
+        // Given
+        String csv = "name,description,category,price,stock,image_url,ignored\r\n"
+                + "Sofa,\"Big, comfy\nwith \"\"soft\"\" cushions\",Sofas,999.99,3,sofa.jpg,x\r\n";
+
+        // When
+        List<ImportRow> rows = readAll(csv);
+
+        // Then
+        assertEquals(1, rows.size());
+        ImportRow row = rows.get(0);
+        assertFalse(row.isFailed());
+        assertEquals(2, row.getLine());
+        assertEquals("Sofa", row.getRequest().getName());
+        assertEquals("Big, comfy\nwith \"soft\" cushions", row.getRequest().getDescription());
+        assertEquals(new BigDecimal("999.99"), row.getRequest().getPrice());
+        assertEquals(3, row.getRequest().getStock());
+        assertEquals("sofa.jpg", row.getRequest().getImageUrl());
+    }
+
+    @Test
+    void next_ShouldReportLineNumbersAcrossMultiLineCellsAndBlankLines() throws IOException {
+        // Given
+        String csv = "name,description,category,price,stock\n"
+                + "Sofa,\"two\nlines\",Sofas,10,1\n"
+                + "\n"
+                + "Chair,,Chairs,abc,1\n"
+                + "Desk,,Tables,20,\n";
+
+        // When
+        List<ImportRow> rows = readAll(csv);
+
+        // Then
+        assertEquals(3, rows.size());
+        assertEquals(2, rows.get(0).getLine());
+        assertEquals(5, rows.get(1).getLine());
+        assertEquals("Invalid number in column price: 'abc'", rows.get(1).getError());
+        assertEquals(6, rows.get(2).getLine());
+        assertNull(rows.get(2).getRequest().getStock());
+        assertNull(rows.get(2).getRequest().getDescription());
+    }
+
+    @Test
+    void next_WithHeaderOnly_ShouldReturnNoRows() throws IOException {
+        // When & Then
+        assertTrue(readAll("name,price\n").isEmpty());
+        assertTrue(readAll("").isEmpty());
+    }
+
+    private static List<ImportRow> readAll(String csv) throws IOException {
+        List<ImportRow> rows = new ArrayList<>();
+        try (CsvProductReader reader = new CsvProductReader(new BufferedReader(new StringReader(csv)))) {
+            for (ImportRow row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,126 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogIndexMaintainerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CatalogIndex index;
+
+    private CatalogIndexMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        maintainer = new CatalogIndexMaintainer(productRepository, List.of(index));
+    }
+
+    @Test
+    void onProductChanged_OlderVersionAfterANewerOne_ShouldBeDropped() {
+        // Given
+        ProductSnapshot newer = snapshot(1L, 4L, 300);
+        maintainer.onProductChanged(ProductChangedEvent.saved(newer));
+
+        // When
+        // The listener of the earlier transaction runs last
+        maintainer.onProductChanged(ProductChangedEvent.saved(snapshot(1L, 3L, 200)));
+
+        // Then
+        verify(index).add(newer);
+        verify(index, never()).update(any(), any());
+        assertEquals(List.of(new BigDecimal("300")), prices());
+    }
+
+    @Test
+    void onProductChanged_SameVersion_ShouldApplyTheBufferedStockLevel() {
+        // Given
+        maintainer.onProductChanged(ProductChangedEvent.saved(snapshot(1L, 4L, 300)));
+        ProductSnapshot buffered = snapshot(1L, 4L, 300);
+
+        // When
+        maintainer.onProductChanged(ProductChangedEvent.saved(buffered));
+
+        // Then
+        verify(index).update(any(), eq(buffered));
+    }
+
+    @Test
+    void onProductChanged_SaveAfterItsDeletion_ShouldNotBringTheProductBack() {
+        // Given
+        ProductSnapshot product = snapshot(1L, 4L, 300);
+        maintainer.onProductChanged(ProductChangedEvent.saved(product));
+        maintainer.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        // When
+        maintainer.onProductChanged(ProductChangedEvent.saved(snapshot(1L, 5L, 400)));
+
+        // Then
+        verify(index, times(1)).add(any());
+        verify(index).remove(any());
+        assertEquals(0, maintainer.size());
+    }
+
+    @Test
+    void rebuild_ChangesCommittedWhileReadingABatch_ShouldNotBeOverwrittenByItsRows() {
+        // Given
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            // Committed after the batch was read, and applied before it is added
+            maintainer.onProductChanged(ProductChangedEvent.saved(snapshot(1L, 5L, 400)));
+            maintainer.onProductChanged(ProductChangedEvent.deleted(2L));
+            return List.of(product(1L, 4L, 300), product(2L, 4L, 300), product(3L, 4L, 500));
+        });
+
+        // When
+        maintainer.rebuild();
+
+        // Then
+        assertEquals(List.of(new BigDecimal("400"), new BigDecimal("500")), prices());
+        InOrder inOrder = inOrder(index);
+        inOrder.verify(index).clear();
+        inOrder.verify(index, times(2)).add(any());
+        inOrder.verify(index).afterRebuild();
+        verify(index, never()).remove(any());
+    }
+
+    private List<BigDecimal> prices() {
+        List<BigDecimal> prices = new ArrayList<>();
+        maintainer.forEachProduct(product -> prices.add(product.getPrice()));
+        return prices;
+    }
+
+    private static ProductSnapshot snapshot(Long id, Long version, int price) {
+        return ProductSnapshot.of(product(id, version, price));
+    }
+
+    private static Product product(Long id, Long version, int price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Sofa " + id);
+        product.setCategory("Sofas");
+        product.setPrice(new BigDecimal(price));
+        product.setStock(1);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,197 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryListingsTest {
+
+    private static final ProductOrder PRICE_ASC = ProductOrder.parse("price");
+    private static final ProductOrder PRICE_DESC = ProductOrder.parse("price,desc");
+    private static final ProductOrder NEWEST = ProductOrder.parse("createdAt,desc");
+
+    private CategoryListings listings;
+
+    @BeforeEach
+    void setUp() {
+        listings = new CategoryListings(true);
+        listings.clear();
+        listings.add(snapshot(1L, "Sofas", "300", 1));
+        listings.add(snapshot(2L, "Sofas", "100", 3));
+        listings.add(snapshot(3L, "Chairs", "50", 2));
+        listings.add(snapshot(4L, "Sofas", "300", 4));
+        listings.add(snapshot(5L, "Sofas", "200", 2));
+        listings.afterRebuild();
+    }
+
+    @Test
+    void page_ShouldSliceTheCategoryInEachOrder() {
+        // When / Then
+        assertEquals(List.of(1L, 2L, 4L, 5L), listings.page("sofas", ProductOrder.BY_ID, 0, 0));
+        // Equal prices stay in id order, ascending or descending
+        assertEquals(List.of(2L, 5L, 1L, 4L), listings.page("SOFAS", PRICE_ASC, 0, 0));
+        assertEquals(List.of(1L, 4L, 5L, 2L), listings.page("Sofas", PRICE_DESC, 0, 0));
+        assertEquals(List.of(4L, 2L, 5L, 1L), listings.page("Sofas", NEWEST, 0, 0));
+        assertEquals(List.of(5L, 1L), listings.page("Sofas", PRICE_ASC, 1, 2));
+        assertEquals(List.of(), listings.page("Sofas", PRICE_ASC, 10, 2));
+        assertEquals(List.of(), listings.page("Tables", PRICE_ASC, 0, 0));
+        assertEquals(4, listings.size("Sofas"));
+    }
+
+    @Test
+    void page_OrderWithoutAListing_ShouldNotAnswer() {
+        // When / Then
+        assertFalse(listings.supports(ProductOrder.parse("name")));
+        assertNull(listings.page("Sofas", ProductOrder.parse("stock,desc"), 0, 0));
+    }
+
+    @Test
+    void page_DuringRebuild_ShouldNotAnswer() {
+        // When
+        listings.clear();
+        listings.add(snapshot(1L, "Sofas", "300", 1));
+
+        // Then
+        assertFalse(listings.supports(PRICE_ASC));
+        assertNull(listings.page("Sofas", PRICE_ASC, 0, 0));
+        assertNull(listings.size("Sofas"));
+        assertNull(listings.priceRange("Sofas", null, null));
+    }
+
+    @Test
+    void priceRange_ShouldSelectByBinarySearchWithinOneOrEveryCategory() {
+        // When / Then
+        assertEquals(List.of(5L, 1L, 4L), listings.priceRange("sofas", new BigDecimal("150"), null));
+        assertEquals(List.of(2L, 5L), listings.priceRange("Sofas", null, new BigDecimal("299.99")));
+        assertEquals(List.of(1L, 4L), listings.priceRange("Sofas", new BigDecimal("300"), new BigDecimal("300")));
+        assertEquals(List.of(), listings.priceRange("Tables", null, null));
+        assertEquals(Set.of(2L, 3L), Set.copyOf(listings.priceRange(null, null, new BigDecimal("100"))));
+    }
+
+    @Test
+    void priceBounds_ShouldReadTheCheapestAndDearestProductInRange() {
+        // When / Then
+        assertArrayEquals(new long[] {20000, 30000}, listings.priceBounds("sofas", new BigDecimal("150"), null));
+        assertArrayEquals(new long[] {5000, 30000}, listings.priceBounds(null, null, null));
+        assertArrayEquals(new long[0], listings.priceBounds("Sofas", new BigDecimal("301"), null));
+        assertArrayEquals(new long[0], listings.priceBounds("Tables", null, null));
+    }
+
+    @Test
+    void addAndRemove_ShouldKeepEveryOrderSorted() {
+        // When
+        listings.add(snapshot(6L, "Sofas", "150", 5));
+        listings.remove(snapshot(1L, "Sofas", "300", 1));
+
+        // Then
+        assertEquals(List.of(2L, 6L, 5L, 4L), listings.page("Sofas", PRICE_ASC, 0, 0));
+        assertEquals(List.of(4L, 5L, 6L, 2L), listings.page("Sofas", PRICE_DESC, 0, 0));
+        assertEquals(List.of(6L, 4L, 2L, 5L), listings.page("Sofas", NEWEST, 0, 0));
+        assertEquals(List.of(2L, 4L, 5L, 6L), listings.page("Sofas", ProductOrder.BY_ID, 0, 0));
+    }
+
+    @Test
+    void update_ShouldMoveTheProductWithinAndBetweenCategories() {
+        // When
+        listings.update(snapshot(2L, "Sofas", "100", 3), snapshot(2L, "Sofas", "400", 3));
+        listings.update(snapshot(5L, "Sofas", "200", 2), snapshot(5L, "Chairs", "200", 2));
+
+        // Then
+        assertEquals(List.of(1L, 4L, 2L), listings.page("Sofas", PRICE_ASC, 0, 0));
+        assertEquals(List.of(3L, 5L), listings.page("Chairs", PRICE_ASC, 0, 0));
+    }
+
+    @Test
+    void remove_LastProduct_ShouldLeaveAnEmptyCategory() {
+        // When
+        listings.remove(snapshot(3L, "Chairs", "50", 2));
+
+        // Then
+        assertEquals(List.of(), listings.page("Chairs", ProductOrder.BY_ID, 0, 0));
+        assertEquals(0, listings.size("Chairs"));
+    }
+
+    @Test
+    void writes_ToALargeCategory_ShouldKeepPagesSortedAcrossChunks() {
+        // Given
+        // Thousands of products, so the listing is split into several chunks that writes grow and shrink
+        SplittableRandom random = new SplittableRandom(11);
+        Map<Long, ProductSnapshot> beds = new HashMap<>();
+        listings.clear();
+        for (long id = 100; id < 6100; id++) {
+            beds.put(id, bed(id, random));
+            listings.add(beds.get(id));
+        }
+        listings.afterRebuild();
+
+        // When
+        for (long id = 6100; id < 9100; id++) {
+            beds.put(id, bed(id, random));
+            listings.add(beds.get(id));
+        }
+        for (int i = 0; i < 4000; i++) {
+            ProductSnapshot removed = beds.remove(random.nextLong(100, 9100));
+            if (removed != null) {
+                listings.remove(removed);
+            }
+        }
+        for (Long id : List.copyOf(beds.keySet()).subList(0, 1000)) {
+            ProductSnapshot repriced = bed(id, random);
+            listings.update(beds.put(id, repriced), repriced);
+        }
+
+        // Then
+        List<Long> byPrice = beds.values().stream()
+                .sorted(Comparator.comparing(ProductSnapshot::getPrice).thenComparing(ProductSnapshot::getId))
+                .map(ProductSnapshot::getId).toList();
+        assertEquals(beds.size(), listings.size("Beds"));
+        assertEquals(byPrice, listings.page("Beds", PRICE_ASC, 0, 0));
+        assertEquals(byPrice.subList(1500, 3700), listings.page("Beds", PRICE_ASC, 1500, 2200));
+        assertEquals(beds.keySet().stream().sorted().toList(), listings.page("Beds", ProductOrder.BY_ID, 0, 0));
+        Set<Long> from250 = beds.values().stream()
+                .filter(product -> product.getPrice().compareTo(new BigDecimal("250")) >= 0)
+                .map(ProductSnapshot::getId).collect(Collectors.toSet());
+        assertEquals(from250, Set.copyOf(listings.priceRange("Beds", new BigDecimal("250"), null)));
+    }
+
+    @Test
+    void disabled_ShouldNeverAnswer() {
+        // Given
+        CategoryListings disabled = new CategoryListings(false);
+        disabled.clear();
+        disabled.add(snapshot(1L, "Sofas", "300", 1));
+        disabled.afterRebuild();
+
+        // When / Then
+        assertNull(disabled.page("Sofas", ProductOrder.BY_ID, 0, 0));
+    }
+
+    private static ProductSnapshot bed(Long id, SplittableRandom random) {
+        return snapshot(id, "Beds", String.valueOf(random.nextInt(50, 500)), (int) (id % 28) + 1);
+    }
+
+    // Creation days are spread out of id order, so newest-first differs from every other order
+    private static ProductSnapshot snapshot(Long id, String category, String price, int createdDay) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(category + " " + id);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(1);
+        product.setCreatedAt(LocalDateTime.of(2024, 1, createdDay, 12, 0));
+        return ProductSnapshot.of(product);
+    }
+}
@@ -0,0 +1,89 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetCountsTest {
+
+    private FacetCounts counts;
+
+    @BeforeEach
+    void setUp() {
+        counts = new FacetCounts();
+        counts.clear();
+        counts.add(snapshot(1L, "Sofas", "Fabric", "100", 2));
+        counts.add(snapshot(2L, "Sofas", "Leather", "200", 0));
+        counts.add(snapshot(3L, "Chairs", "Oak", "300", 4));
+        counts.add(snapshot(4L, "Chairs", "Fabric", "400", 1));
+        counts.afterRebuild();
+    }
+
+    @Test
+    void exactCount_SingleFacet_ShouldCountWithAndWithoutStock() {
+        // When / Then
+        assertEquals(4L, counts.exactCount(SearchCriteria.of(null, null, null, null, null, null)));
+        assertEquals(2L, counts.exactCount(SearchCriteria.of(" SOFAS", null, null, null, null, null)));
+        assertEquals(1L, counts.exactCount(SearchCriteria.of("sofas", null, null, null, null, true)));
+        assertEquals(2L, counts.exactCount(SearchCriteria.of(null, "fabric", null, null, null, true)));
+        assertEquals(0L, counts.exactCount(SearchCriteria.of("Tables", null, null, null, null, null)));
+    }
+
+    @Test
+    void exactCount_PriceOrSeveralFacets_ShouldDeferToOtherSources() {
+        // When / Then
+        assertNull(counts.exactCount(SearchCriteria.of("Sofas", "Fabric", null, null, null, null)));
+        assertNull(counts.exactCount(SearchCriteria.of("Sofas", null, null, new BigDecimal("150"), null, null)));
+    }
+
+    @Test
+    void exactCount_DuringRebuild_ShouldNotAnswer() {
+        // When
+        counts.clear();
+        counts.add(snapshot(1L, "Sofas", "Fabric", "100", 2));
+
+        // Then
+        assertNull(counts.exactCount(SearchCriteria.of(null, null, null, null, null, null)));
+    }
+
+    @Test
+    void update_ShouldMoveTheProductBetweenFacets() {
+        // When
+        counts.update(snapshot(2L, "Sofas", "Leather", "200", 0).withoutDescription(),
+                snapshot(2L, "Chairs", "Leather", "200", 3));
+
+        // Then
+        assertEquals(1L, counts.exactCount(SearchCriteria.of("Sofas", null, null, null, null, null)));
+        assertEquals(3L, counts.exactCount(SearchCriteria.of("Chairs", null, null, null, null, true)));
+    }
+
+    @Test
+    void estimate_ShouldScaleTheMostSelectiveFacetByTheOtherFilters() {
+        // When
+        long sofasInFabric = counts.estimate(SearchCriteria.of("Sofas", "Fabric", null, null, null, null));
+        long upTo250 = counts.estimate(SearchCriteria.of(null, null, null, null, new BigDecimal("250"), null));
+        long emptyRange = counts.estimate(SearchCriteria.of(null, null, null, new BigDecimal("500"),
+                new BigDecimal("100"), null));
+
+        // Then
+        assertEquals(1, sofasInFabric);
+        assertEquals(2, upTo250);
+        assertEquals(0, emptyRange);
+    }
+
+    private static ProductSnapshot snapshot(Long id, String category, String material, String price, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(category + " " + id);
+        product.setCategory(category);
+        product.setMaterial(material);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        return ProductSnapshot.of(product);
+    }
+}
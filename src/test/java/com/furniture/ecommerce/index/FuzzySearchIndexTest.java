@@ -0,0 +1,81 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzySearchIndexTest {
+
+    private FuzzySearchIndex fuzzySearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        fuzzySearchIndex = new FuzzySearchIndex();
+        fuzzySearchIndex.add(snapshot(1L, "Scandinavian Sofa", "A light sofa in natural oak", 5));
+        fuzzySearchIndex.add(snapshot(2L, "Walnut Dining Table", "Solid walnut with tapered legs", 2));
+        fuzzySearchIndex.add(snapshot(3L, "Scandinavian Armchair", "Matches the scandinavian sofa", 0));
+    }
+
+    @Test
+    void search_WithTypos_ShouldFindProducts() {
+        // When & Then
+        assertEquals(List.of(1L, 3L), fuzzySearchIndex.search("scandanavian sofa", 10));
+        assertEquals(List.of(2L), fuzzySearchIndex.search("walnutt table", 10));
+    }
+
+    @Test
+    void search_ShouldRankExactMatchesFirst() {
+        // Given
+        fuzzySearchIndex.add(snapshot(4L, "Sofas Sectional", "Modular seating", 1));
+
+        // When & Then
+        assertEquals(List.of(4L, 1L, 3L), fuzzySearchIndex.search("sofas", 10));
+        assertEquals(List.of(1L, 3L, 4L), fuzzySearchIndex.search("sofa", 10));
+    }
+
+    @Test
+    void search_ShouldRequireEveryWordAndRespectLimit() {
+        // When & Then
+        assertTrue(fuzzySearchIndex.search("walnut sofa", 10).isEmpty());
+        assertEquals(List.of(1L), fuzzySearchIndex.search("scandinavian", 1));
+        assertTrue(fuzzySearchIndex.search("xyzzy", 10).isEmpty());
+    }
+
+    @Test
+    void search_WithShortWord_ShouldNotAllowEdits() {
+        // When & Then
+        assertTrue(fuzzySearchIndex.search("ak", 10).isEmpty());
+        assertEquals(List.of(1L), fuzzySearchIndex.search("oak", 10));
+    }
+
+    @Test
+    void updateAndRemove_ShouldBeReflectedInResults() {
+        // Given
+        ProductSnapshot previous = snapshot(1L, "Scandinavian Sofa", null, 5);
+
+        // When
+        fuzzySearchIndex.update(previous, snapshot(1L, "Industrial Sofa", "Steel frame", 5));
+        fuzzySearchIndex.remove(snapshot(3L, "Scandinavian Armchair", null, 0));
+
+        // Then
+        assertTrue(fuzzySearchIndex.search("scandinavian", 10).isEmpty());
+        assertEquals(List.of(1L), fuzzySearchIndex.search("industreal", 10));
+    }
+
+    private static ProductSnapshot snapshot(Long id, String name, String description, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setCategory("Living Room");
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStock(stock);
+        return ProductSnapshot.of(product);
+    }
+}
@@ -0,0 +1,111 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private static final SearchCriteria SOFAS = SearchCriteria.of("Sofas", null, null, null, null, null);
+    private static final SearchCriteria CHAIRS = SearchCriteria.of("Chairs", null, null, null, null, null);
+    private static final SearchCriteria IN_STOCK_SOFAS = SearchCriteria.of("sofas", null, null, null, null, true);
+
+    private SimpleMeterRegistry meterRegistry;
+    private SearchResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SearchResultCache(meterRegistry, true, 100, 1000, 30);
+        cache.put(SOFAS, List.of(1L, 2L), cache.currentVersion());
+        cache.put(CHAIRS, List.of(3L), cache.currentVersion());
+        cache.put(IN_STOCK_SOFAS, List.of(1L), cache.currentVersion());
+    }
+
+    @Test
+    void get_ShouldReturnIdsInStoredOrderAndRecordHitRatio() {
+        // When
+        List<Long> hit = cache.get(SearchCriteria.of(" SOFAS ", null, null, null, null, false));
+        List<Long> miss = cache.get(SearchCriteria.of("Tables", null, null, null, null, null));
+
+        // Then
+        assertEquals(List.of(1L, 2L), hit);
+        assertNull(miss);
+        assertEquals(0.5, meterRegistry.get("catalog.search.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void add_ShouldOnlyEvictEntriesMatchingTheNewProduct() {
+        // When
+        cache.add(snapshot(4L, "Sofas", 0));
+
+        // Then
+        assertNull(cache.get(SOFAS));
+        assertEquals(List.of(3L), cache.get(CHAIRS));
+        assertEquals(List.of(1L), cache.get(IN_STOCK_SOFAS));
+        assertEquals(1.0, meterRegistry.get("catalog.search.cache.invalidations").counter().count());
+    }
+
+    @Test
+    void update_WithStockChangeNotCrossingZero_ShouldEvictNothing() {
+        // When
+        cache.update(snapshot(1L, "Sofas", 5), snapshot(1L, "Sofas", 2));
+
+        // Then
+        assertEquals(List.of(1L, 2L), cache.get(SOFAS));
+        assertEquals(List.of(1L), cache.get(IN_STOCK_SOFAS));
+    }
+
+    @Test
+    void update_WhenStockReachesZero_ShouldOnlyEvictInStockEntries() {
+        // When
+        cache.update(snapshot(1L, "Sofas", 5), snapshot(1L, "Sofas", 0));
+
+        // Then
+        assertEquals(List.of(1L, 2L), cache.get(SOFAS));
+        assertNull(cache.get(IN_STOCK_SOFAS));
+        assertEquals(List.of(3L), cache.get(CHAIRS));
+    }
+
+    @Test
+    void update_WhenCategoryChanges_ShouldEvictOldAndNewCategory() {
+        // When
+        cache.update(snapshot(3L, "Chairs", 1), snapshot(3L, "Sofas", 1));
+
+        // Then
+        assertNull(cache.get(SOFAS));
+        assertNull(cache.get(CHAIRS));
+        assertNull(cache.get(IN_STOCK_SOFAS));
+    }
+
+    @Test
+    void put_AfterConcurrentMembershipChange_ShouldNotStoreStaleResult() {
+        // Given
+        SearchCriteria tables = SearchCriteria.of("Tables", null, null, null, null, null);
+        long versionBeforeSearch = cache.currentVersion();
+        cache.add(snapshot(5L, "Tables", 1));
+
+        // When
+        cache.put(tables, List.of(), versionBeforeSearch);
+
+        // Then
+        assertNull(cache.get(tables));
+    }
+
+    private static ProductSnapshot snapshot(Long id, String category, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStock(stock);
+        return ProductSnapshot.of(product);
+    }
+}
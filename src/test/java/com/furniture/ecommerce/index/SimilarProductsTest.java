@@ -0,0 +1,181 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarProductsTest {
+
+    private static final String[] CATEGORIES = {"Sofas", "Chairs", "Tables", "Beds"};
+    private static final String[] MATERIALS = {"Oak", "Fabric", "Leather"};
+    private static final String[] COLORS = {"Black", "White", "Walnut"};
+
+    private SimilarProducts similarProducts;
+    private List<ProductSnapshot> catalog;
+
+    @BeforeEach
+    void setUp() {
+        // A small rebuild threshold, so writes exercise both the tree and the recent list
+        similarProducts = new SimilarProducts(true, 50);
+        similarProducts.clear();
+        catalog = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= 2000; id++) {
+            ProductSnapshot product = snapshot(id, CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    MATERIALS[random.nextInt(MATERIALS.length)], COLORS[random.nextInt(COLORS.length)],
+                    random.nextInt(20, 5000), random.nextInt(30, 250), random.nextInt(0, 5));
+            similarProducts.add(product);
+            catalog.add(product);
+        }
+        similarProducts.afterRebuild();
+    }
+
+    @Test
+    void nearest_ShouldMatchAScanOfEveryProduct() {
+        // When / Then
+        for (long id = 1; id <= 2000; id += 37) {
+            assertEquals(scan(id, 10), similarProducts.nearest(id, 10), "neighbours of " + id);
+        }
+    }
+
+    @Test
+    void nearest_AfterWrites_ShouldReflectThem() {
+        // Given
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 120; i++) {
+            int index = random.nextInt(catalog.size());
+            ProductSnapshot previous = catalog.get(index);
+            ProductSnapshot current = snapshot(previous.getId(), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    previous.getMaterial(), previous.getColor(), random.nextInt(20, 5000), 100, 1);
+            similarProducts.update(previous.withoutDescription(), current);
+            catalog.set(index, current);
+        }
+        ProductSnapshot removed = catalog.remove(0);
+        similarProducts.remove(removed.withoutDescription());
+        ProductSnapshot added = snapshot(5000L, "Sofas", "Oak", "Black", 900, 200, 3);
+        similarProducts.add(added);
+        catalog.add(added);
+
+        // When / Then
+        assertNull(similarProducts.nearest(removed.getId(), 10));
+        assertEquals(scan(5000L, 10), similarProducts.nearest(5000L, 10));
+        for (long id = 2; id <= 2000; id += 53) {
+            assertEquals(scan(id, 10), similarProducts.nearest(id, 10), "neighbours of " + id);
+        }
+    }
+
+    @Test
+    void nearest_WhileTheRebuildIsHeldBack_ShouldAnswerFromTheOldTreeAndSwapItInLater() throws Exception {
+        // Given
+        ExecutorService rebuilder = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        rebuilder.execute(() -> awaitQuietly(release));
+        similarProducts = new SimilarProducts(true, 50, rebuilder);
+        similarProducts.clear();
+        catalog.forEach(similarProducts::add);
+        similarProducts.afterRebuild();
+
+        // When
+        // The rebuild is due after 50 writes and queued behind the held task; the writes do not wait for it
+        List<ProductSnapshot> written = new ArrayList<>();
+        for (long id = 6000; id < 6120; id++) {
+            ProductSnapshot product = snapshot(id, "Sofas", "Oak", "Black", (int) id % 5000, 200, 1);
+            similarProducts.add(product);
+            written.add(product);
+        }
+        catalog.addAll(written);
+
+        // Then
+        assertEquals(scan(6010L, 10), similarProducts.nearest(6010L, 10));
+        release.countDown();
+        rebuilder.shutdown();
+        assertTrue(rebuilder.awaitTermination(10, TimeUnit.SECONDS));
+        for (long id = 6000; id < 6120; id += 17) {
+            assertEquals(scan(id, 10), similarProducts.nearest(id, 10), "neighbours of " + id);
+        }
+        assertEquals(scan(5L, 10), similarProducts.nearest(5L, 10));
+    }
+
+    @Test
+    void nearest_ShouldPreferTheSameCategoryAndASimilarPrice() {
+        // Given
+        similarProducts.clear();
+        similarProducts.add(snapshot(1L, "Sofas", "Fabric", "Grey", 1000, 200, 1));
+        similarProducts.add(snapshot(2L, "Sofas", "Fabric", "Grey", 1100, 200, 1));
+        similarProducts.add(snapshot(3L, "Sofas", "Fabric", "Grey", 4000, 200, 1));
+        similarProducts.add(snapshot(4L, "Chairs", "Fabric", "Grey", 1000, 200, 1));
+        similarProducts.afterRebuild();
+
+        // When / Then
+        assertEquals(List.of(2L, 3L, 4L), similarProducts.nearest(1L, 10));
+        assertEquals(List.of(2L), similarProducts.nearest(1L, 1));
+    }
+
+    @Test
+    void nearest_DuringRebuildOrForUnknownProducts_ShouldNotAnswer() {
+        // When / Then
+        assertNull(similarProducts.nearest(9999L, 10));
+        similarProducts.clear();
+        similarProducts.add(catalog.get(0));
+        assertNull(similarProducts.nearest(catalog.get(0).getId(), 10));
+    }
+
+    @Test
+    void disabled_ShouldNeverAnswer() {
+        // Given
+        SimilarProducts disabled = new SimilarProducts(false, 50);
+        disabled.clear();
+        disabled.add(catalog.get(0));
+        disabled.afterRebuild();
+
+        // When / Then
+        assertNull(disabled.nearest(catalog.get(0).getId(), 10));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Long> scan(long id, int k) {
+        ProductFeatures query = catalog.stream().filter(p -> p.getId() == id).findFirst()
+                .map(ProductFeatures::of).orElseThrow();
+        VantagePointTree.Neighbours neighbours = new VantagePointTree.Neighbours(k);
+        for (ProductSnapshot product : catalog) {
+            if (product.getId() != id) {
+                ProductFeatures candidate = ProductFeatures.of(product);
+                neighbours.offer(candidate, query.distance(candidate));
+            }
+        }
+        return neighbours.ids();
+    }
+
+    private static ProductSnapshot snapshot(Long id, String category, String material, String color,
+                                            int price, int width, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(category + " " + id);
+        product.setCategory(category);
+        product.setMaterial(material);
+        product.setColor(color);
+        product.setPrice(new BigDecimal(price));
+        product.setWidth((double) width);
+        product.setStock(stock);
+        return ProductSnapshot.of(product);
+    }
+}
@@ -0,0 +1,99 @@
+package com.furniture.ecommerce.index;
+
+import com.furniture.ecommerce.dto.SuggestionDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestIndexTest {
+
+    private SuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        suggestIndex = new SuggestIndex();
+        suggestIndex.add(snapshot(1L, "Modern Sofa", "Sofas", "Fabric", 5));
+        suggestIndex.add(snapshot(2L, "Modular Sofa", "Sofas", "Leather", 20));
+        suggestIndex.add(snapshot(3L, "Mod Chair", "Chairs", "Metal", 0));
+    }
+
+    @Test
+    void suggest_ShouldReturnMatchesByDescendingWeight() {
+        // When
+        List<SuggestionDTO> suggestions = suggestIndex.suggest("MOD", 10);
+
+        // Then
+        assertEquals(List.of("Modular Sofa", "Modern Sofa", "Mod Chair"), texts(suggestions));
+        assertEquals(21, suggestions.get(0).getWeight());
+        assertEquals(List.of("name"), suggestions.get(0).getTypes());
+    }
+
+    @Test
+    void suggest_ShouldAggregateCategoryWeightAndRespectLimit() {
+        // When
+        List<SuggestionDTO> suggestions = suggestIndex.suggest("s", 1);
+
+        // Then
+        assertEquals(1, suggestions.size());
+        assertEquals("Sofas", suggestions.get(0).getText());
+        assertEquals(27, suggestions.get(0).getWeight());
+        assertEquals(List.of("category"), suggestions.get(0).getTypes());
+    }
+
+    @Test
+    void update_ShouldMoveProductToItsNewName() {
+        // Given
+        ProductSnapshot previous = snapshot(3L, "Mod Chair", "Chairs", "Metal", 0);
+
+        // When
+        suggestIndex.update(previous, snapshot(3L, "Lounge Chair", "Chairs", "Metal", 0));
+
+        // Then
+        assertEquals(List.of("Modular Sofa", "Modern Sofa"), texts(suggestIndex.suggest("mod", 10)));
+        assertEquals(List.of("Leather", "Lounge Chair"), texts(suggestIndex.suggest("l", 10)));
+    }
+
+    @Test
+    void remove_ShouldPruneTermsAndShrinkIndex() {
+        // Given
+        long termsBefore = suggestIndex.getStats().get("terms");
+
+        // When
+        suggestIndex.remove(snapshot(2L, "Modular Sofa", "Sofas", "Leather", 20));
+
+        // Then
+        assertEquals(List.of("Modern Sofa", "Mod Chair"), texts(suggestIndex.suggest("mod", 10)));
+        assertTrue(suggestIndex.suggest("leather", 10).isEmpty());
+        assertEquals(termsBefore - 2, suggestIndex.getStats().get("terms"));
+        assertEquals(6, suggestIndex.suggest("sofas", 10).get(0).getWeight());
+    }
+
+    @Test
+    void suggest_WithUnknownOrBlankPrefix_ShouldReturnEmpty() {
+        // When & Then
+        assertTrue(suggestIndex.suggest("xyz", 10).isEmpty());
+        assertTrue(suggestIndex.suggest("  ", 10).isEmpty());
+    }
+
+    private static List<String> texts(List<SuggestionDTO> suggestions) {
+        return suggestions.stream().map(SuggestionDTO::getText).collect(Collectors.toList());
+    }
+
+    private static ProductSnapshot snapshot(Long id, String name, String category, String material, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setMaterial(material);
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStock(stock);
+        return ProductSnapshot.of(product);
+    }
+}
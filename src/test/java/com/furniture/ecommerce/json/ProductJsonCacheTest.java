@@ -0,0 +1,129 @@
+package com.furniture.ecommerce.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductJsonCacheTest {
+
+    private ObjectMapper objectMapper;
+    private ProductJsonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cache = new ProductJsonCache(objectMapper, new SimpleMeterRegistry(), true, 1L << 20);
+    }
+
+    @Test
+    void encode_SameVersion_ShouldReuseTheEncodedBytes() throws Exception {
+        // When
+        byte[] first = cache.encode(product(1L, 3L, "Sofa"));
+        byte[] second = cache.encode(product(1L, 3L, "Sofa"));
+
+        // Then
+        assertSame(first, second);
+        assertEquals(objectMapper.writeValueAsString(product(1L, 3L, "Sofa")),
+                new String(first, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void encode_NewerVersion_ShouldReencodeAndOlderVersionShouldNotReplaceIt() throws Exception {
+        // Given
+        cache.encode(product(1L, 3L, "Sofa"));
+
+        // When
+        byte[] newer = cache.encode(product(1L, 4L, "Renamed Sofa"));
+        byte[] older = cache.encode(product(1L, 3L, "Sofa"));
+
+        // Then
+        assertTrue(new String(newer, StandardCharsets.UTF_8).contains("Renamed Sofa"));
+        assertTrue(new String(older, StandardCharsets.UTF_8).contains("\"Sofa\""));
+        assertSame(newer, cache.encode(product(1L, 4L, "Renamed Sofa")));
+    }
+
+    @Test
+    void encode_WithoutVersion_ShouldNotCache() throws Exception {
+        // When
+        cache.encode(product(1L, null, "Sofa"));
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void onProductChanged_ShouldEvictTheProduct() throws Exception {
+        // Given
+        byte[] before = cache.encode(product(1L, 3L, "Sofa"));
+
+        // When
+        cache.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        // Then
+        assertNotSame(before, cache.encode(product(1L, 3L, "Sofa")));
+    }
+
+    @Test
+    void onProductChanged_ShouldKeepEncodingsOfOlderVersionsOut() throws Exception {
+        // Given
+        Product changed = new Product();
+        changed.setId(1L);
+        changed.setName("Renamed Sofa");
+        changed.setCategory("Sofas");
+        changed.setPrice(new BigDecimal("499.00"));
+        changed.setStock(2);
+        changed.setVersion(4L);
+
+        // When
+        cache.onProductChanged(ProductChangedEvent.saved(ProductSnapshot.of(changed)));
+        byte[] stale = cache.encode(product(1L, 3L, "Sofa"));
+
+        // Then
+        assertNotSame(stale, cache.encode(product(1L, 3L, "Sofa")));
+        byte[] current = cache.encode(product(1L, 4L, "Renamed Sofa"));
+        assertSame(current, cache.encode(product(1L, 4L, "Renamed Sofa")));
+    }
+
+    @Test
+    void converter_ShouldWriteListsAsJsonArraysOfTheCachedEncodings() throws Exception {
+        // Given
+        ProductJsonHttpMessageConverter converter = new ProductJsonHttpMessageConverter(cache);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        List<ProductResponseDTO> products = List.of(product(1L, 0L, "Sofa"), product(2L, 0L, "Chair"));
+
+        // When
+        converter.write(products, new ParameterizedTypeReference<List<ProductResponseDTO>>() { }.getType(),
+                MediaType.APPLICATION_JSON, output);
+
+        // Then
+        JsonNode body = objectMapper.readTree(output.getBodyAsString());
+        assertEquals(2, body.size());
+        assertEquals("Chair", body.get(1).get("name").asText());
+        assertFalse(body.get(0).has("version"));
+        assertEquals(MediaType.APPLICATION_JSON, output.getHeaders().getContentType());
+    }
+
+    private static ProductResponseDTO product(Long id, Long version, String name) {
+        ProductResponseDTO product = new ProductResponseDTO(id, name, null, "Sofas", new BigDecimal("499.00"), 2,
+                200.0, 90.0, 95.0, "Fabric", "Gray", null, LocalDateTime.of(2024, 1, 1, 9, 0), null);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,87 @@
+package com.furniture.ecommerce.query;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.FacetCounts;
+import com.furniture.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlannerTest {
+
+    private FacetCounts counts;
+    private QueryPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        counts = new FacetCounts();
+        counts.clear();
+        // Eight sofas and two chairs priced 100 to 1000, one of them oak, every other one in stock
+        for (long id = 1; id <= 10; id++) {
+            counts.add(snapshot(id, id <= 8 ? "Sofas" : "Chairs", id == 3 ? "Oak" : "Fabric",
+                    String.valueOf(id * 100), (int) (id % 2)));
+        }
+        counts.afterRebuild();
+        planner = new QueryPlanner(counts);
+    }
+
+    @Test
+    void plan_ShouldEvaluateTheMostSelectiveCheapTermsFirst() {
+        // When
+        QueryPlan plan = planner.plan(SearchQuery.parse("category:sofas material:oak price:<10000 price:>5000"));
+
+        // Then
+        assertEquals(List.of("price:>5000", "material:oak", "category:sofas", "price:<10000"), terms(plan));
+        assertEquals(0.0, plan.getSteps().get(0).getSelectivity());
+        assertEquals(0.1, plan.getSteps().get(1).getSelectivity(), 1e-9);
+        assertEquals(0.8, plan.getSteps().get(2).getSelectivity(), 1e-9);
+        assertEquals(1.0, plan.getSteps().get(3).getSelectivity());
+        assertEquals(0, plan.getEstimatedRows());
+    }
+
+    @Test
+    void plan_ShouldWeighSelectivityAgainstCost() {
+        // When
+        QueryPlan plan = planner.plan(SearchQuery.parse("name:sofa instock"));
+
+        // Then
+        // The substring match rejects more but costs four times as much as the stock check
+        assertEquals(List.of("stock:>0", "name:sofa"), terms(plan));
+        assertEquals(0.5, plan.getSteps().get(0).getSelectivity(), 1e-9);
+        assertEquals(QueryPlanner.CONTAINS_SELECTIVITY, plan.getSteps().get(1).getSelectivity());
+        assertTrue(plan.isEstimated());
+    }
+
+    @Test
+    void plan_DuringRebuild_ShouldKeepTheWrittenOrder() {
+        // Given
+        counts.clear();
+
+        // When
+        QueryPlan plan = planner.plan(SearchQuery.parse("category:sofas material:oak"));
+
+        // Then
+        assertFalse(plan.isEstimated());
+        assertEquals(List.of("category:sofas", "material:oak"), terms(plan));
+    }
+
+    private static List<String> terms(QueryPlan plan) {
+        return plan.getSteps().stream().map(step -> step.getTerm().toString()).collect(Collectors.toList());
+    }
+
+    private static ProductSnapshot snapshot(Long id, String category, String material, String price, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(category + " " + id);
+        product.setCategory(category);
+        product.setMaterial(material);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        return ProductSnapshot.of(product);
+    }
+}
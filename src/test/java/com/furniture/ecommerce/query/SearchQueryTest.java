@@ -0,0 +1,88 @@
+package com.furniture.ecommerce.query;
+
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchQueryTest {
+
+    @Test
+    void parse_ShouldReadEveryKindOfTerm() {
+        // When
+        SearchQuery query = SearchQuery.parse("Category:Sofas name:\"corner sofa\" price:<=800 width:100..220 instock");
+
+        // Then
+        assertEquals("category:sofas name:\"corner sofa\" price:<=800 width:>=100 width:<=220 stock:>0",
+                query.toString());
+        QueryTerm name = query.getTerms().get(1);
+        assertEquals(QueryTerm.Operator.CONTAINS, name.getOperator());
+        assertEquals(new BigDecimal("800"), query.getTerms().get(2).getNumber());
+    }
+
+    @Test
+    void parse_Blank_ShouldMatchEverything() {
+        // When
+        SearchQuery query = SearchQuery.parse("  ");
+
+        // Then
+        assertTrue(query.getTerms().isEmpty());
+        assertEquals("TRUE", QueryPlan.unplanned(query).toSql(new ArrayList<>()));
+    }
+
+    @Test
+    void parse_MalformedQueries_ShouldBeRejected() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse("sofas"));
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse("category:"));
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse("weight:10"));
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse("price:cheap"));
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse("name:\"corner sofa"));
+        assertThrows(IllegalArgumentException.class, () -> SearchQuery.parse("instock ".repeat(21)));
+    }
+
+    @Test
+    void and_ShouldAddTheOtherFilters() {
+        // Given
+        SearchCriteria criteria = SearchCriteria.of("Sofas", null, null, new BigDecimal("100"), null, true);
+
+        // When
+        SearchQuery query = SearchQuery.parse("material:oak").and(criteria);
+
+        // Then
+        assertEquals("material:oak category:sofas price:>=100 stock:>0", query.toString());
+    }
+
+    @Test
+    void plan_ShouldMatchProductsAndRenderSql() {
+        // Given
+        QueryPlan plan = QueryPlan.unplanned(SearchQuery.parse("category:sofas name:50% price:<800"));
+        List<Object> parameters = new ArrayList<>();
+
+        // When
+        String sql = plan.toSql(parameters);
+
+        // Then
+        assertEquals("LOWER(category) = ? AND LOWER(name) LIKE ? ESCAPE '\\' AND price < ?", sql);
+        assertEquals(List.of("sofas", "%50\\%%", new BigDecimal("800")), parameters);
+        assertTrue(plan.matches(snapshot("Sofas", "Sofa 50% off", "799.99")));
+        assertFalse(plan.matches(snapshot("Sofas", "Sofa 50% off", "800")));
+        assertFalse(plan.matches(snapshot("Chairs", "Chair 50% off", "100")));
+    }
+
+    private static ProductSnapshot snapshot(String category, String name, String price) {
+        Product product = new Product();
+        product.setId(1L);
+        product.setName(name);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(1);
+        return ProductSnapshot.of(product);
+    }
+}
@@ -0,0 +1,87 @@
+package com.furniture.ecommerce.repository;
+
+import com.furniture.ecommerce.config.SyntheticCatalogGenerator;
+import com.furniture.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({ProductBulkLoader.class, ProductSecondLevelCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductBulkLoaderTest {
+
+    @Autowired
+    private ProductBulkLoader productBulkLoader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM products");
+    }
+
+    @Test
+    void load_ShouldInsertEveryProductInBatches() {
+        // When
+        long inserted = productBulkLoader.load(new SyntheticCatalogGenerator(42)::next, 2500, 1000);
+
+        // Then
+        assertEquals(2500, inserted);
+        assertEquals(2500, countProducts());
+    }
+
+    @Test
+    void load_SourceFailure_ShouldRollBackTheUncommittedRows() {
+        // Given
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(42);
+        int[] supplied = new int[1];
+        Supplier<Product> failing = () -> {
+            if (++supplied[0] > 1500) {
+                throw new IllegalStateException("source exhausted");
+            }
+            return generator.next();
+        };
+
+        // When
+        assertThrows(IllegalStateException.class, () -> productBulkLoader.load(failing, 2500, 500));
+
+        // Then
+        // Three batches had been executed but not committed
+        assertEquals(0, countProducts());
+        assertEquals(100, productBulkLoader.load(generator::next, 100, 50));
+        assertEquals(100, countProducts());
+    }
+
+    @Test
+    void updateStock_ShouldWriteEveryLevelAndBumpTheVersions() {
+        // Given
+        productBulkLoader.load(new SyntheticCatalogGenerator(42)::next, 2, 2);
+        Map<Long, Long> before = productBulkLoader.findVersions(
+                jdbcTemplate.queryForList("SELECT id FROM products", Long.class));
+        Long id = before.keySet().iterator().next();
+
+        // When
+        int updated = productBulkLoader.updateStock(Map.of(id, 7, -1L, 3));
+
+        // Then
+        assertEquals(1, updated);
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, id));
+        assertEquals(before.get(id) + 1, productBulkLoader.findVersions(before.keySet()).get(id));
+    }
+
+    private long countProducts() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class);
+    }
+}
@@ -0,0 +1,277 @@
+package com.furniture.ecommerce.repository;
+
+import com.furniture.ecommerce.config.SyntheticCatalogGenerator;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.query.QueryPlan;
+import com.furniture.ecommerce.query.SearchQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query-plan regression tests: every {@link ProductRepository} method runs against a generated
+ * catalog, and each query it sends is replayed under H2's {@code EXPLAIN ANALYZE}.
+ *
+ * <p>Each case states the index its plan must use, or none for queries that are allowed to scan
+ * the table, and a budget of rows scanned. The plans are also kept as snapshots in
+ * {@code src/test/resources/query-plans}, without the row counts, so a change in plan shows up as
+ * a reviewable diff. A case without a snapshot fails like a changed plan. Snapshots are only
+ * written, all of them, by {@code ./gradlew test -PupdateQueryPlans}; commit the result.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductRepositoryQueryPlanTest.RecordingDataSourceConfig.class, ProductBulkLoader.class,
+    ProductSecondLevelCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductRepositoryQueryPlanTest {
+
+    private static final int CATALOG_SIZE = 5000;
+
+    // Selective lookups should touch a small share of the table; a scan blows this budget
+    private static final int INDEX_BUDGET = CATALOG_SIZE / 10;
+
+    // Exactly one pass over the table, plus the cursor's final step: a second pass, such as a
+    // per-row subquery or a query split in two, fails
+    private static final int TABLE_SCAN_BUDGET = CATALOG_SIZE + 1;
+
+    private static final Path SNAPSHOT_DIR = Path.of("src", "test", "resources", "query-plans");
+
+    private static final Pattern INDEX_COMMENT = Pattern.compile("/\\* (PUBLIC\\.[\\w.]+)");
+    private static final Pattern SCAN_COUNT = Pattern.compile("\\s*/\\* scanCount: (\\d+) \\*/");
+
+    private static final LocalDateTime LAST_WEEK = LocalDateTime.now().minusDays(7);
+
+    private static boolean catalogLoaded;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductBulkLoader productBulkLoader;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    static Stream<PlanCase> cases() {
+        return Stream.of(
+            // Derived queries
+            usesIndex("findByCategory", "IDX_PRODUCTS_CATEGORY", r -> r.findByCategory("Desks")),
+            usesIndex("findByMaterial", "IDX_PRODUCTS_MATERIAL", r -> r.findByMaterial("Rattan")),
+            usesIndex("findByColor", "IDX_PRODUCTS_COLOR", r -> r.findByColor("Walnut")),
+            usesIndex("findByPriceBetween", "IDX_PRODUCTS_PRICE",
+                    r -> r.findByPriceBetween(new BigDecimal("2500"), new BigDecimal("10000"))),
+            usesIndex("findByUpdatedAtAfter", "IDX_PRODUCTS_UPDATED_AT", r -> r.findByUpdatedAtAfter(LAST_WEEK)),
+            // Case-insensitive equality goes through the indexed lower-cased key columns
+            usesIndex("findByCategoryIgnoreCase", "IDX_PRODUCTS_CATEGORY_KEY",
+                    r -> r.findByCategoryIgnoreCase("desks")),
+            usesIndex("existsByNameIgnoreCase", "IDX_PRODUCTS_NAME_KEY",
+                    r -> r.existsByNameIgnoreCase("No Such Product")),
+            // A substring can be anywhere in the name, so no index narrows it
+            scansTable("findByNameContainingIgnoreCase", r -> r.findByNameContainingIgnoreCase("oak")),
+            // Most of the catalog is in stock, so these read most of the table anyway
+            scansTable("findByStockGreaterThan", r -> r.findByStockGreaterThan(0)),
+            scansTable("findByStockGreaterThanEqual", r -> r.findByStockGreaterThanEqual(1)),
+            // Optional filters; searches are answered by the in-memory indexes before falling back to these
+            scansTable("searchProducts", r -> r.searchProducts("desks", null, null, null, null, true)),
+            scansTable("countProducts", r -> r.countProducts("desks", null, null, null, null, true)),
+            scansTable("findByMaxDimensions", r -> r.findByMaxDimensions(100.0, null, 60.0)),
+            // Planned q= queries, when not evaluated in memory; the price range is the selective term
+            usesIndex("findIdsByPlan", "IDX_PRODUCTS_PRICE", r -> r.findIdsByPlan(
+                    QueryPlan.unplanned(SearchQuery.parse("price:2500..10000")), ProductOrder.BY_ID)),
+            scansTable("findDistinctCategories", ProductRepository::findDistinctCategories),
+            scansTable("findDistinctMaterials", ProductRepository::findDistinctMaterials),
+            scansTable("findDistinctColors", ProductRepository::findDistinctColors),
+            // Lookups by ID
+            usesIndex("findAllByIdInOrder", "PRIMARY_KEY", r -> r.findAllByIdInOrder(List.of(3L, 1L, 2L))),
+            usesIndex("findById", "PRIMARY_KEY", r -> r.findById(42L)),
+            usesIndex("findByIdForUpdate", "PRIMARY_KEY", r -> r.findByIdForUpdate(42L)),
+            usesIndex("findAllById", "PRIMARY_KEY", r -> r.findAllById(List.of(1L, 2L, 3L))),
+            usesIndex("existsById", "PRIMARY_KEY", r -> r.existsById(42L)),
+            usesIndex("findByIdGreaterThanOrderByIdAsc", "PRIMARY_KEY",
+                    r -> r.findByIdGreaterThanOrderByIdAsc(4000L, Limit.of(100))),
+            scansTable("count", ProductRepository::count)
+        );
+    }
+
+    @BeforeEach
+    void setUp() {
+        if (!catalogLoaded) {
+            productBulkLoader.load(new SyntheticCatalogGenerator(42)::next, CATALOG_SIZE, 1000);
+            // Refresh the column selectivity the optimizer costs plans with
+            new JdbcTemplate(statementRecorder.getTarget()).execute("ANALYZE");
+            catalogLoaded = true;
+        }
+        statementRecorder.clear();
+    }
+
+    @Test
+    void cases_ShouldCoverEveryRepositoryMethod() {
+        // Given
+        Set<String> covered = cases().map(PlanCase::toString).collect(Collectors.toSet());
+
+        // When / Then
+        for (Class<?> repository : List.of(ProductRepository.class, ProductRepositoryCustom.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                assertTrue(covered.contains(method.getName()),
+                        "No query-plan case for " + repository.getSimpleName() + "." + method.getName());
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("cases")
+    void plan_ShouldUseTheExpectedIndexWithinItsRowBudget(PlanCase planCase) throws IOException {
+        // When
+        // In a transaction, which locking reads require
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> planCase.query.accept(productRepository));
+        List<StatementRecorder.RecordedQuery> queries = statementRecorder.getQueries();
+        List<String> plans = new ArrayList<>(queries.size());
+        for (StatementRecorder.RecordedQuery query : queries) {
+            plans.add(explainAnalyze(query));
+        }
+
+        // Then
+        assertFalse(plans.isEmpty(), planCase + " did not query the database");
+        String allPlans = String.join("\n\n", plans);
+        long rowsScanned = 0;
+        for (String plan : plans) {
+            Matcher scanCount = SCAN_COUNT.matcher(plan);
+            while (scanCount.find()) {
+                rowsScanned += Long.parseLong(scanCount.group(1));
+            }
+            if (planCase.index != null) {
+                List<String> indexes = indexesUsed(plan);
+                assertTrue(indexes.stream().anyMatch(index -> index.toUpperCase().contains(planCase.index)),
+                        planCase + " should use " + planCase.index + " but uses " + indexes + ":\n" + plan);
+            }
+        }
+        assertTrue(rowsScanned <= planCase.rowBudget, planCase + " scanned " + rowsScanned
+                + " rows, over its budget of " + planCase.rowBudget + ":\n" + allPlans);
+        assertMatchesSnapshot(planCase.toString(), SCAN_COUNT.matcher(allPlans).replaceAll(""));
+    }
+
+    private String explainAnalyze(StatementRecorder.RecordedQuery query) {
+        List<Object> parameters = query.getParameters();
+        return new JdbcTemplate(statementRecorder.getTarget()).query("EXPLAIN ANALYZE " + query.getSql(),
+                statement -> {
+                    for (int i = 0; i < parameters.size(); i++) {
+                        statement.setObject(i + 1, parameters.get(i));
+                    }
+                },
+                rs -> {
+                    rs.next();
+                    return rs.getString(1);
+                });
+    }
+
+    private static List<String> indexesUsed(String plan) {
+        List<String> indexes = new ArrayList<>();
+        Matcher matcher = INDEX_COMMENT.matcher(plan);
+        while (matcher.find()) {
+            indexes.add(matcher.group(1));
+        }
+        return indexes;
+    }
+
+    private static void assertMatchesSnapshot(String name, String plan) throws IOException {
+        Path snapshot = SNAPSHOT_DIR.resolve(name + ".txt");
+        String actual = plan.strip() + "\n";
+        if (Boolean.getBoolean("queryplan.update")) {
+            Files.createDirectories(SNAPSHOT_DIR);
+            Files.writeString(snapshot, actual, StandardCharsets.UTF_8);
+            return;
+        }
+        assertTrue(Files.exists(snapshot), "No plan snapshot for " + name + "; run with -PupdateQueryPlans, review "
+                + snapshot + " and commit it:\n" + actual);
+        String expected = Files.readString(snapshot, StandardCharsets.UTF_8).replace("\r\n", "\n");
+        assertEquals(expected, actual, "Plan of " + name + " changed; review it and rerun with "
+                + "-PupdateQueryPlans to accept it");
+    }
+
+    private static PlanCase usesIndex(String method, String index, Consumer<ProductRepository> query) {
+        return new PlanCase(method, index, INDEX_BUDGET, query);
+    }
+
+    private static PlanCase scansTable(String method, Consumer<ProductRepository> query) {
+        return new PlanCase(method, null, TABLE_SCAN_BUDGET, query);
+    }
+
+    /**
+     * A repository method call with the index its plan must use and the rows it may scan.
+     */
+    static final class PlanCase {
+
+        private final String method;
+        private final String index;
+        private final long rowBudget;
+        private final Consumer<ProductRepository> query;
+
+        PlanCase(String method, String index, long rowBudget, Consumer<ProductRepository> query) {
+            this.method = method;
+            this.index = index;
+            this.rowBudget = rowBudget;
+            this.query = query;
+        }
+
+        @Override
+        public String toString() {
+            return method;
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingDataSourceConfig {
+
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder(new DriverManagerDataSource(
+                    "jdbc:h2:mem:queryplans;DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+
+        @Bean
+        DataSource dataSource(StatementRecorder statementRecorder) {
+            return statementRecorder.dataSource();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.furniture.ecommerce.repository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wraps a data source to record every query executed through a prepared statement, together with
+ * its bound parameters, so the query can be replayed under {@code EXPLAIN ANALYZE}.
+ */
+final class StatementRecorder {
+
+    private final DataSource target;
+    private final List<RecordedQuery> queries = new CopyOnWriteArrayList<>();
+
+    StatementRecorder(DataSource target) {
+        this.target = target;
+    }
+
+    /**
+     * The unwrapped data source, whose statements are not recorded.
+     */
+    DataSource getTarget() {
+        return target;
+    }
+
+    /**
+     * A data source that records the queries run on its connections.
+     */
+    DataSource dataSource() {
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? connection(connection) : result;
+        });
+    }
+
+    List<RecordedQuery> getQueries() {
+        return List.copyOf(queries);
+    }
+
+    void clear() {
+        queries.clear();
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return preparedStatement(statement, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement preparedStatement(PreparedStatement statement, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("executeQuery")) {
+                queries.add(new RecordedQuery(sql, new ArrayList<>(parameters.values())));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(),
+                new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A query as it was sent to the database, with its parameters in index order.
+     */
+    static final class RecordedQuery {
+
+        private final String sql;
+        private final List<Object> parameters;
+
+        RecordedQuery(String sql, List<Object> parameters) {
+            this.sql = sql;
+            this.parameters = Collections.unmodifiableList(parameters);
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        List<Object> getParameters() {
+            return parameters;
+        }
+    }
+}
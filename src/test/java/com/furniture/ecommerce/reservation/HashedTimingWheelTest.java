@@ -0,0 +1,85 @@
+package com.furniture.ecommerce.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(1_000L, 100L, 8);
+
+    @Test
+    void advance_ShouldExpireOnlyTimeoutsDueByThen() {
+        // Given
+        wheel.schedule("a", 1_250L);
+        wheel.schedule("b", 1_300L);
+        wheel.schedule("c", 1_900L);
+
+        // When / Then
+        // Deadlines round up to the next tick, so "a" is due at 1300
+        assertEquals(List.of(), wheel.advance(1_299L));
+        assertEquals(List.of("a", "b"), wheel.advance(1_300L).stream().sorted().toList());
+        assertEquals(List.of("c"), wheel.advance(2_000L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ShouldKeepTimeoutsForLaterTurnsOfTheWheel() {
+        // Given
+        // Eight slots of 100 ms: 1200 and 2000 share a slot, a turn apart
+        wheel.schedule("soon", 1_200L);
+        wheel.schedule("next-turn", 2_000L);
+
+        // When / Then
+        assertEquals(List.of("soon"), wheel.advance(1_500L));
+        assertEquals(List.of(), wheel.advance(1_999L));
+        assertEquals(List.of("next-turn"), wheel.advance(2_000L));
+    }
+
+    @Test
+    void advance_AfterALongPause_ShouldExpireEverythingDue() {
+        // Given
+        wheel.schedule("a", 1_100L);
+        wheel.schedule("b", 3_700L);
+        wheel.schedule("c", 9_000L);
+
+        // When
+        List<String> expired = wheel.advance(5_000L);
+
+        // Then
+        assertEquals(List.of("a", "b"), expired.stream().sorted().toList());
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void schedule_PastDeadline_ShouldExpireOnTheNextSweep() {
+        // Given
+        wheel.advance(1_500L);
+
+        // When
+        wheel.schedule("late", 1_100L);
+
+        // Then
+        assertEquals(List.of("late"), wheel.advance(1_600L));
+    }
+
+    @Test
+    void cancel_ShouldRemoveThePendingTimeoutOnce() {
+        // Given
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("a", 1_200L);
+        wheel.schedule("b", 1_200L);
+
+        // When / Then
+        assertTrue(wheel.cancel(timeout));
+        assertFalse(wheel.cancel(timeout));
+        assertEquals(List.of("b"), wheel.advance(1_200L));
+    }
+
+    @Test
+    void constructor_SlotCountNotAPowerOfTwo_ShouldThrow() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<String>(0L, 100L, 6));
+    }
+}
@@ -0,0 +1,112 @@
+package com.furniture.ecommerce.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationLedgerTest {
+
+    private static final long START = 1_000_000L;
+
+    private final ReservationLedger ledger = new ReservationLedger(START, 1_000L, 64);
+    private final List<Reservation> persisted = new ArrayList<>();
+
+    @Test
+    void hold_ShouldGrantOnlyWhatTheStockCovers() {
+        // When / Then
+        assertTrue(ledger.hold(reservation("r1", 1L, 3, 60), 5, persisted::add));
+        assertFalse(ledger.hold(reservation("r2", 1L, 3, 60), 5, persisted::add));
+        assertTrue(ledger.hold(reservation("r3", 1L, 2, 60), 5, persisted::add));
+        assertTrue(ledger.hold(reservation("r4", 2L, 5, 60), 5, persisted::add));
+
+        assertEquals(5, ledger.held(1L));
+        assertEquals(5, ledger.held(2L));
+        assertEquals(List.of("r1", "r3", "r4"), persisted.stream().map(Reservation::getId).toList());
+    }
+
+    @Test
+    void hold_PersistFails_ShouldHoldNothing() {
+        // When
+        assertThrows(IllegalStateException.class, () -> ledger.hold(reservation("r1", 1L, 3, 60), 5, r -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        // Then
+        assertEquals(0, ledger.held(1L));
+        assertNull(ledger.get("r1"));
+    }
+
+    @Test
+    void settle_ShouldRunTheActionAndDropTheHoldOnce() {
+        // Given
+        ledger.hold(reservation("r1", 1L, 3, 60), 5, persisted::add);
+        List<String> settled = new ArrayList<>();
+
+        // When
+        Reservation reservation = ledger.settle("r1", r -> settled.add(r.getId()));
+
+        // Then
+        assertEquals("r1", reservation.getId());
+        assertEquals(List.of("r1"), settled);
+        assertEquals(0, ledger.held(1L));
+        assertNull(ledger.settle("r1", r -> settled.add(r.getId())));
+        assertEquals(1, settled.size());
+        // Cancelled, so it no longer expires
+        assertEquals(List.of(), ledger.expire(START + 120_000L));
+    }
+
+    @Test
+    void settle_ActionFails_ShouldKeepTheReservation() {
+        // Given
+        ledger.hold(reservation("r1", 1L, 3, 60), 5, persisted::add);
+
+        // When
+        assertThrows(IllegalStateException.class, () -> ledger.settle("r1", r -> {
+            throw new IllegalStateException("conflict");
+        }));
+
+        // Then
+        assertNotNull(ledger.get("r1"));
+        assertEquals(3, ledger.held(1L));
+    }
+
+    @Test
+    void expire_ShouldReleaseTheUnitsOfReservationsDue() {
+        // Given
+        ledger.hold(reservation("short", 1L, 2, 10), 5, persisted::add);
+        ledger.hold(reservation("long", 1L, 3, 600), 5, persisted::add);
+
+        // When
+        List<Reservation> expired = ledger.expire(START + 10_000L);
+
+        // Then
+        assertEquals(List.of("short"), expired.stream().map(Reservation::getId).toList());
+        assertEquals(3, ledger.held(1L));
+        assertNull(ledger.settle("short", r -> fail("expired reservations cannot be settled")));
+        assertEquals(1, ledger.size());
+    }
+
+    @Test
+    void restore_ShouldHoldWithoutCheckingStockAndIgnoreDuplicates() {
+        // Given
+        Reservation stored = reservation("r1", 1L, 4, 60);
+
+        // When
+        ledger.restore(stored);
+        ledger.restore(stored);
+
+        // Then
+        assertEquals(4, ledger.held(1L));
+        assertEquals(1, ledger.size());
+        assertEquals(List.of("r1"), ledger.expire(START + 60_000L).stream().map(Reservation::getId).toList());
+    }
+
+    private static Reservation reservation(String id, long productId, int quantity, long ttlSeconds) {
+        Instant createdAt = Instant.ofEpochMilli(START);
+        return new Reservation(id, productId, quantity, createdAt, createdAt.plusSeconds(ttlSeconds));
+    }
+}
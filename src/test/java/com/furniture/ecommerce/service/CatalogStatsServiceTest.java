@@ -0,0 +1,146 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.dto.CatalogStatsDTO;
+import com.furniture.ecommerce.dto.CategoryStatsDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.CatalogIndexMaintainer;
+import com.furniture.ecommerce.index.CategoryListings;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogStatsServiceTest {
+
+    @Mock
+    private CatalogIndexMaintainer catalogIndexMaintainer;
+
+    @Mock
+    private CategoryListings categoryListings;
+
+    @InjectMocks
+    private CatalogStatsService catalogStatsService;
+
+    @BeforeEach
+    void setUp() {
+        List<ProductSnapshot> catalog = List.of(
+                snapshot(1L, "Sofas", "Fabric", "120.00", 2),
+                snapshot(2L, "Sofas", "Leather", "180.50", 0),
+                snapshot(3L, "Sofas", "Fabric", "250.00", 1),
+                snapshot(4L, "Chairs", "Wood", "45.99", 10));
+        lenient().doAnswer(invocation -> {
+            Consumer<ProductSnapshot> visitor = invocation.getArgument(0);
+            catalog.forEach(visitor);
+            return null;
+        }).when(catalogIndexMaintainer).forEachProduct(any());
+        // Listings not built yet, unless a test says otherwise
+        lenient().when(categoryListings.priceRange(any(), any(), any())).thenReturn(null);
+    }
+
+    @Test
+    void getStats_ShouldAggregatePerCategoryInOnePass() {
+        // When
+        CatalogStatsDTO stats = catalogStatsService.getStats(
+                SearchCriteria.of(null, null, null, null, null, null), new BigDecimal("100"));
+
+        // Then
+        assertEquals(4, stats.getTotal().getProductCount());
+        assertEquals(List.of("Chairs", "Sofas"),
+                stats.getCategories().stream().map(CategoryStatsDTO::getCategory).toList());
+        CategoryStatsDTO sofas = stats.getCategories().get(1);
+        assertEquals(3, sofas.getProductCount());
+        assertEquals(new BigDecimal("120.00"), sofas.getMinPrice());
+        assertEquals(new BigDecimal("250.00"), sofas.getMaxPrice());
+        assertEquals(new BigDecimal("183.50"), sofas.getAveragePrice());
+        assertEquals(3, sofas.getTotalStock());
+        assertEquals(new BigDecimal("490.00"), sofas.getStockValue());
+        assertEquals(2, sofas.getPriceHistogram().size());
+        assertEquals(new BigDecimal("100.00"), sofas.getPriceHistogram().get(0).getFrom());
+        assertEquals(2, sofas.getPriceHistogram().get(0).getCount());
+        assertEquals(new BigDecimal("200.00"), sofas.getPriceHistogram().get(1).getFrom());
+        assertEquals(1, sofas.getPriceHistogram().get(1).getCount());
+    }
+
+    @Test
+    void getStats_ShouldApplySearchCriteria() {
+        // When
+        CatalogStatsDTO stats = catalogStatsService.getStats(
+                SearchCriteria.of(" SOFAS ", "fabric", null, null, null, true), new BigDecimal("50"));
+
+        // Then
+        assertEquals(1, stats.getCategories().size());
+        assertEquals(2, stats.getTotal().getProductCount());
+        assertEquals(new BigDecimal("185.00"), stats.getTotal().getAveragePrice());
+    }
+
+    @Test
+    void getStats_WithACategory_ShouldOnlyVisitTheListedProducts() {
+        // Given
+        ProductSnapshot listed = snapshot(3L, "Sofas", "Fabric", "250.00", 1);
+        when(categoryListings.priceRange(eq("sofas"), any(), isNull())).thenReturn(List.of(3L));
+        doAnswer(invocation -> {
+            assertEquals(List.of(3L), invocation.getArgument(0));
+            Consumer<ProductSnapshot> visitor = invocation.getArgument(1);
+            visitor.accept(listed);
+            return null;
+        }).when(catalogIndexMaintainer).forEachProduct(anyList(), any());
+
+        // When
+        CatalogStatsDTO stats = catalogStatsService.getStats(
+                SearchCriteria.of("Sofas", null, null, new BigDecimal("200"), null, null), new BigDecimal("50"));
+
+        // Then
+        assertEquals(1, stats.getTotal().getProductCount());
+        verify(catalogIndexMaintainer, never()).forEachProduct(any());
+    }
+
+    @Test
+    void getStats_WithInvalidBucketWidth_ShouldThrowException() {
+        // Given
+        SearchCriteria all = SearchCriteria.of(null, null, null, null, null, null);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> catalogStatsService.getStats(all, BigDecimal.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> catalogStatsService.getStats(all, new BigDecimal("0.001")));
+    }
+
+    @Test
+    void getStats_WithBucketWidthTooSmallForThePriceRange_ShouldThrowBeforeThePass() {
+        // Given
+        SearchCriteria all = SearchCriteria.of(null, null, null, null, null, null);
+        when(categoryListings.priceBounds(null, null, null)).thenReturn(new long[] {4599, 25000});
+
+        // When & Then
+        // 45.99 to 250.00 in steps of 0.20 is 1,021 buckets
+        assertThrows(IllegalArgumentException.class, () -> catalogStatsService.getStats(all, new BigDecimal("0.20")));
+        verify(catalogIndexMaintainer, never()).forEachProduct(any());
+    }
+
+    private static ProductSnapshot snapshot(Long id, String category, String material, String price, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(category + " " + id);
+        product.setCategory(category);
+        product.setMaterial(material);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        return ProductSnapshot.of(product);
+    }
+}
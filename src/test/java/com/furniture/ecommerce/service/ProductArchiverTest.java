@@ -0,0 +1,179 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.config.CacheConfig;
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.repository.ProductArchiveRepository;
+import com.furniture.ecommerce.repository.ProductRepository;
+import com.furniture.ecommerce.repository.ProductSecondLevelCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductArchiverTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockWriteBehindBuffer stockWriteBehindBuffer;
+
+    @Mock
+    private ProductSecondLevelCache secondLevelCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ProductArchiveRepository archiveRepository;
+    private ProductArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, name VARCHAR(200) NOT NULL, "
+                + "description VARCHAR(5000), category VARCHAR(100) NOT NULL, price NUMERIC(10, 2) NOT NULL, "
+                + "stock INTEGER NOT NULL, width_cm FLOAT(53), height_cm FLOAT(53), depth_cm FLOAT(53), "
+                + "material VARCHAR(100), color VARCHAR(50), image_url VARCHAR(500), "
+                + "created_at TIMESTAMP(6) NOT NULL, updated_at TIMESTAMP(6), version BIGINT DEFAULT 0 NOT NULL)");
+        archiveRepository = new ProductArchiveRepository(jdbcTemplate);
+        archiveRepository.createSchema();
+        meterRegistry = new SimpleMeterRegistry();
+        archiver = new ProductArchiver(archiveRepository, productRepository, stockWriteBehindBuffer,
+                secondLevelCache, new ConcurrentMapCacheManager(CacheConfig.PRODUCTS_CACHE,
+                        CacheConfig.PRODUCT_FILTERS_CACHE), eventPublisher, meterRegistry, true, 180, 2, 10);
+    }
+
+    @Test
+    void archiveDue_ShouldMoveOnlyProductsOutOfStockPastTheCutoff() {
+        // Given
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(400);
+        insert(1L, "Sofas", 0, longAgo);
+        insert(2L, "Sofas", 0, LocalDateTime.now().minusDays(3));
+        insert(3L, "Chairs", 5, longAgo);
+        insert(4L, "Chairs", 0, longAgo);
+        insert(5L, "Beds", 0, longAgo);
+        insert(6L, "Beds", 0, longAgo);
+        when(stockWriteBehindBuffer.getPendingStock(anyLong())).thenReturn(null);
+        when(stockWriteBehindBuffer.getPendingStock(4L)).thenReturn(3);
+        when(productRepository.count()).thenReturn(3L);
+
+        // When
+        int moved = archiver.archiveDue();
+
+        // Then
+        assertEquals(3, moved);
+        assertEquals(List.of(2L, 3L, 4L), jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id", Long.class));
+        assertEquals(3, archiveRepository.count());
+        ArgumentCaptor<ProductChangedEvent> events = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(ProductChangedEvent::isDeleted));
+        assertEquals(3.0, meterRegistry.get("catalog.archive.products").tag("tier", "cold").gauge().value());
+        assertEquals(3.0, meterRegistry.get("catalog.archive.products").tag("tier", "hot").gauge().value());
+    }
+
+    @Test
+    void archive_ShouldMoveADiscontinuedProductWhateverItsStock() {
+        // Given
+        insert(1L, "Sofas", 12, LocalDateTime.now());
+
+        // When
+        ProductResponseDTO archived = archiver.archive(1L);
+
+        // Then
+        assertTrue(archived.isArchived());
+        assertEquals(12, archived.getStock());
+        assertNull(archived.getVersion());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class));
+        verify(secondLevelCache).evict(List.of(1L));
+        assertThrows(NoSuchElementException.class, () -> archiver.archive(1L));
+    }
+
+    @Test
+    void archive_WithABufferedStockLevel_ShouldArchiveItInsteadOfTheStoredStock() {
+        // Given
+        insert(1L, "Sofas", 12, LocalDateTime.now());
+        doAnswer(invocation -> jdbcTemplate.update("UPDATE products SET stock = 4 WHERE id = 1"))
+                .when(stockWriteBehindBuffer).flush(1L);
+
+        // When
+        ProductResponseDTO archived = archiver.archive(1L);
+
+        // Then
+        assertEquals(4, archived.getStock());
+        InOrder inOrder = inOrder(stockWriteBehindBuffer);
+        inOrder.verify(stockWriteBehindBuffer).flush(1L);
+        inOrder.verify(stockWriteBehindBuffer).discard(1L);
+    }
+
+    @Test
+    void searchArchived_ShouldApplyTheSearchFilters() {
+        // Given
+        insert(1L, "Sofas", 0, LocalDateTime.now());
+        insert(2L, "Chairs", 0, LocalDateTime.now());
+        insert(3L, "Sofas", 0, LocalDateTime.now());
+        archiver.archive(1L);
+        archiver.archive(2L);
+        archiver.archive(3L);
+
+        // When
+        List<ProductResponseDTO> result = archiver.searchArchived(
+                SearchCriteria.of(" SOFAS", null, null, null, null, null), ProductOrder.parse("id,desc"), 0);
+
+        // Then
+        assertEquals(List.of(3L, 1L), ids(result));
+    }
+
+    @Test
+    void combine_ShouldMergeBothTiersInOrderWithinTheLimit() {
+        // Given
+        List<ProductResponseDTO> hot = List.of(dto(1L, "100"), dto(4L, "400"));
+        List<ProductResponseDTO> archived = List.of(dto(2L, "200"), dto(3L, "300"));
+
+        // When
+        List<ProductResponseDTO> combined = ProductArchiver.combine(hot, archived, ProductOrder.parse("price,desc"), 3);
+
+        // Then
+        assertEquals(List.of(4L, 3L, 2L), ids(combined));
+    }
+
+    private void insert(Long id, String category, int stock, LocalDateTime updatedAt) {
+        jdbcTemplate.update("INSERT INTO products (id, name, category, price, stock, created_at, updated_at, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, 1)", id, category + " " + id, category, new BigDecimal("100.00"),
+                stock, Timestamp.valueOf(updatedAt.minusDays(1)), Timestamp.valueOf(updatedAt));
+    }
+
+    private static ProductResponseDTO dto(Long id, String price) {
+        return new ProductResponseDTO(id, "Product " + id, null, "Sofas", new BigDecimal(price), 1,
+                null, null, null, null, null, null, null, null);
+    }
+
+    private static List<Long> ids(List<ProductResponseDTO> products) {
+        return products.stream().map(ProductResponseDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,102 @@
+package com.furniture.ecommerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.ecommerce.dto.ImportJobDTO;
+import com.furniture.ecommerce.importer.ImportFormat;
+import com.furniture.ecommerce.importer.ImportJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    @TempDir
+    Path tempDir;
+
+    private ProductImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new ProductImportService(productService,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                new SimpleMeterRegistry(), 2, 1, 1, 2, 100, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void run_ShouldWriteValidRowsInChunksAndReportInvalidOnes() throws IOException {
+        // Given
+        Path file = write("products.csv", "name,category,price,stock\n"
+                + "Sofa,Sofas,100,1\n"
+                + "Chair,Chairs,-5,1\n"
+                + "Desk,Tables,200,2\n"
+                + ",Tables,50,1\n"
+                + "Lamp,Lighting,30,4\n");
+        ImportJob job = new ImportJob(ImportFormat.CSV, "products.csv", Files.size(file), 100);
+
+        // When
+        importService.run(job, file);
+
+        // Then
+        ImportJobDTO status = ImportJobDTO.fromJob(job);
+        assertEquals("COMPLETED", status.getStatus());
+        assertEquals(100, status.getPercentComplete());
+        assertEquals(5, status.getRowsRead());
+        assertEquals(3, status.getRowsImported());
+        assertEquals(2, status.getRowsFailed());
+        assertEquals(List.of(3L, 5L), status.getErrors().stream().map(e -> e.getLine()).toList());
+        verify(productService, times(3)).createProducts(anyList());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void run_WhenChunkWriteFails_ShouldRetryRowsIndividually() throws IOException {
+        // Given
+        Path file = write("products.ndjson", "{\"name\":\"Sofa\",\"category\":\"Sofas\",\"price\":100,\"stock\":1}\n"
+                + "{\"name\":\"Chair\",\"category\":\"Chairs\",\"price\":50,\"stock\":1}\n");
+        when(productService.createProducts(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(productService.createProduct(any()))
+                .thenReturn(null)
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+        ImportJob job = new ImportJob(ImportFormat.NDJSON, "products.ndjson", Files.size(file), 100);
+
+        // When
+        importService.run(job, file);
+
+        // Then
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(1, job.getRowsImported());
+        assertEquals(1, job.getRowsFailed());
+        assertEquals(2, job.getErrors().get(0).getLine());
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+}
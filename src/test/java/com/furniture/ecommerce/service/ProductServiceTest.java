@@ -2,21 +2,37 @@ package com.furniture.ecommerce.service;
 
 import com.furniture.ecommerce.dto.ProductRequestDTO;
 import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductChangedEvent;
+import com.furniture.ecommerce.index.CategoryListings;
+import com.furniture.ecommerce.index.FuzzySearchIndex;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.index.SearchResultCache;
+import com.furniture.ecommerce.index.SimilarProducts;
 import com.furniture.ecommerce.model.Product;
+import com.furniture.ecommerce.query.QueryExecutor;
+import com.furniture.ecommerce.query.QueryPlan;
+import com.furniture.ecommerce.query.QueryResult;
+import com.furniture.ecommerce.query.SearchQuery;
 import com.furniture.ecommerce.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +41,27 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
     
+    @Mock
+    private StockWriteBehindBuffer stockWriteBehindBuffer;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private FuzzySearchIndex fuzzySearchIndex;
+    
+    @Mock
+    private SearchResultCache searchResultCache;
+    
+    @Mock
+    private CategoryListings categoryListings;
+    
+    @Mock
+    private QueryExecutor queryExecutor;
+    
+    @Mock
+    private SimilarProducts similarProducts;
+    
     @InjectMocks
     private ProductServiceImpl productService;
     
@@ -119,27 +156,251 @@ class ProductServiceTest {
         verify(productRepository, never()).save(any());
     }
     
+    @Test
+    void updateProduct_ShouldDiscardBufferedStockBeforeLoadingTheProduct() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.of(sampleProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(sampleProduct);
+        
+        // When
+        productService.updateProduct(1L, validProductRequest);
+        
+        // Then
+        // A flush still writing the buffered level completes inside discard, before the load reads its version
+        InOrder inOrder = inOrder(stockWriteBehindBuffer, productRepository);
+        inOrder.verify(stockWriteBehindBuffer).discard(1L);
+        inOrder.verify(productRepository).findById(1L);
+        inOrder.verify(productRepository).save(sampleProduct);
+    }
+    
+    @Test
+    void getLowStockProducts_ShouldFlushBufferedStockAndFilterOnTheEffectiveLevel() {
+        // Given
+        Product soldOut = new Product();
+        soldOut.setId(2L);
+        soldOut.setName("Sold Out Chair");
+        soldOut.setCategory("Chairs");
+        soldOut.setPrice(new BigDecimal("99.99"));
+        soldOut.setStock(3);
+        sampleProduct.setStock(4);
+        when(stockWriteBehindBuffer.isEnabled()).thenReturn(true);
+        when(productRepository.findByStockGreaterThanEqual(1)).thenReturn(List.of(sampleProduct, soldOut));
+        when(stockWriteBehindBuffer.getPendingStock(anyLong())).thenReturn(null);
+        // Sold out after the flush, before the query's rows are filtered
+        when(stockWriteBehindBuffer.getPendingStock(2L)).thenReturn(0);
+        
+        // When
+        List<ProductResponseDTO> result = productService.getLowStockProducts(5);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+        InOrder inOrder = inOrder(stockWriteBehindBuffer, productRepository);
+        inOrder.verify(stockWriteBehindBuffer).flush();
+        inOrder.verify(productRepository).findByStockGreaterThanEqual(1);
+    }
+    
+    @Test
+    void getInStockProducts_ShouldFlushBufferedStockBeforeQuerying() {
+        // Given
+        when(stockWriteBehindBuffer.isEnabled()).thenReturn(true);
+        when(productRepository.findByStockGreaterThan(0)).thenReturn(List.of(sampleProduct));
+        when(stockWriteBehindBuffer.getPendingStock(1L)).thenReturn(null);
+        
+        // When
+        List<ProductResponseDTO> result = productService.getInStockProducts();
+        
+        // Then
+        assertEquals(1, result.size());
+        InOrder inOrder = inOrder(stockWriteBehindBuffer, productRepository);
+        inOrder.verify(stockWriteBehindBuffer).flush();
+        inOrder.verify(productRepository).findByStockGreaterThan(0);
+    }
+    
     @Test
     void deleteProduct_WithExistingId_ShouldDelete() {
         // Given
-        when(productRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(sampleProduct));
         
         // When
         productService.deleteProduct(1L);
         
         // Then
-        verify(productRepository, times(1)).deleteById(1L);
+        verify(productRepository, times(1)).delete(sampleProduct);
+        verify(productRepository, never()).existsById(any());
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertTrue(event.getValue().isDeleted());
+        assertEquals(1L, event.getValue().getProductId());
     }
     
     @Test
     void deleteProduct_WithNonExistingId_ShouldThrowException() {
         // Given
-        when(productRepository.existsById(999L)).thenReturn(false);
+        when(productRepository.findById(999L)).thenReturn(Optional.empty());
         
         // When & Then
         assertThrows(NoSuchElementException.class, () -> {
             productService.deleteProduct(999L);
         });
-        verify(productRepository, never()).deleteById(any());
+        verify(productRepository, never()).delete(any());
+    }
+    
+    @Test
+    void fuzzySearchByName_ShouldKeepIndexRankingAndSkipMissingProducts() {
+        // Given
+        Product other = new Product();
+        other.setId(2L);
+        other.setName("Scandinavian Sofa");
+        other.setCategory("Sofas");
+        other.setPrice(new BigDecimal("899.00"));
+        other.setStock(3);
+        when(fuzzySearchIndex.search("scandanavian sofa", 10)).thenReturn(List.of(2L, 3L, 1L));
+        when(productRepository.findAllByIdInOrder(List.of(2L, 3L, 1L))).thenReturn(List.of(other, sampleProduct));
+        
+        // When
+        List<ProductResponseDTO> result = productService.fuzzySearchByName("scandanavian sofa", 10);
+        
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+    }
+    
+    @Test
+    void getSimilarProducts_FromIndex_ShouldLoadNeighboursInOrder() {
+        // Given
+        when(similarProducts.nearest(2L, 5)).thenReturn(List.of(1L));
+        when(productRepository.findAllByIdInOrder(List.of(1L))).thenReturn(List.of(sampleProduct));
+        
+        // When
+        List<ProductResponseDTO> result = productService.getSimilarProducts(2L, 5);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+        verify(productRepository, never()).findByCategoryIgnoreCase(any());
+    }
+    
+    @Test
+    void getSimilarProducts_WithoutIndex_ShouldRankTheProductsCategory() {
+        // Given
+        Product close = new Product();
+        close.setId(2L);
+        close.setCategory("Sofas");
+        close.setPrice(new BigDecimal("1099.00"));
+        Product far = new Product();
+        far.setId(3L);
+        far.setCategory("Sofas");
+        far.setPrice(new BigDecimal("4999.00"));
+        when(similarProducts.nearest(1L, 1)).thenReturn(null);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(sampleProduct));
+        when(productRepository.findByCategoryIgnoreCase("Sofas")).thenReturn(List.of(far, sampleProduct, close));
+        when(productRepository.findAllByIdInOrder(List.of(2L))).thenReturn(List.of(close));
+        
+        // When
+        List<ProductResponseDTO> result = productService.getSimilarProducts(1L, 1);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getId());
+    }
+    
+    @Test
+    void getSimilarProducts_UnknownProduct_ShouldThrow() {
+        // Given
+        when(similarProducts.nearest(99L, 10)).thenReturn(null);
+        when(productRepository.findById(99L)).thenReturn(Optional.empty());
+        
+        // When / Then
+        assertThrows(NoSuchElementException.class, () -> productService.getSimilarProducts(99L, 10));
+    }
+    
+    @Test
+    void getProductsByCategory_WithListing_ShouldLoadTheSliceWithoutQuerying() {
+        // Given
+        ProductOrder order = ProductOrder.parse("price,desc");
+        when(categoryListings.page("Sofas", order, 20, 10)).thenReturn(List.of(1L));
+        when(productRepository.findAllByIdInOrder(List.of(1L))).thenReturn(List.of(sampleProduct));
+        
+        // When
+        List<ProductResponseDTO> result = productService.getProductsByCategory("Sofas", order, 20, 10);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+        verify(productRepository, never()).findByCategoryIgnoreCase(any());
+    }
+    
+    @Test
+    void getProductsByCategory_WithoutListing_ShouldQuerySortAndSlice() {
+        // Given
+        Product cheaper = new Product();
+        cheaper.setId(2L);
+        cheaper.setName("Compact Sofa");
+        cheaper.setCategory("Sofas");
+        cheaper.setPrice(new BigDecimal("499.00"));
+        cheaper.setStock(5);
+        ProductOrder order = ProductOrder.parse("name");
+        when(categoryListings.page("sofas", order, 1, 5)).thenReturn(null);
+        when(productRepository.findByCategoryIgnoreCase("sofas")).thenReturn(List.of(sampleProduct, cheaper));
+        
+        // When
+        List<ProductResponseDTO> result = productService.getProductsByCategory("sofas", order, 1, 5);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+    }
+    
+    @Test
+    void searchProducts_WithQuery_ShouldLoadMatchesInOrderAndKeepTheTotal() {
+        // Given
+        SearchQuery query = SearchQuery.parse("category:sofas price:<800");
+        QueryResult<Long> matches = new QueryResult<>(List.of(1L), 7, QueryPlan.unplanned(query));
+        when(queryExecutor.execute(query, ProductOrder.BY_ID, 1)).thenReturn(matches);
+        when(productRepository.findAllByIdInOrder(List.of(1L))).thenReturn(List.of(sampleProduct));
+        
+        // When
+        QueryResult<ProductResponseDTO> result = productService.searchProducts(query, ProductOrder.BY_ID, 1);
+        
+        // Then
+        assertEquals(1, result.getItems().size());
+        assertEquals(1L, result.getItems().get(0).getId());
+        assertEquals(7, result.getTotal());
+        assertSame(matches.getPlan(), result.getPlan());
+    }
+    
+    @Test
+    void searchProducts_OnCacheHit_ShouldLoadCachedIdsWithoutQuerying() {
+        // Given
+        SearchCriteria criteria = SearchCriteria.of(" Sofas ", null, null, null, null, true);
+        when(searchResultCache.get(criteria)).thenReturn(List.of(1L));
+        when(productRepository.findAllByIdInOrder(List.of(1L))).thenReturn(List.of(sampleProduct));
+        
+        // When
+        List<ProductResponseDTO> result = productService.searchProducts("sofas", null, null, null, null, true);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+        verify(productRepository, never()).searchProducts(any(), any(), any(), any(), any(), any());
+    }
+    
+    @Test
+    void searchProducts_OnCacheMiss_ShouldQueryAndCacheIds() {
+        // Given
+        SearchCriteria criteria = SearchCriteria.of("Sofas", null, null, null, null, false);
+        when(searchResultCache.get(criteria)).thenReturn(null);
+        when(searchResultCache.currentVersion()).thenReturn(7L);
+        when(productRepository.searchProducts("sofas", null, null, null, null, null))
+                .thenReturn(List.of(sampleProduct));
+        
+        // When
+        List<ProductResponseDTO> result = productService.searchProducts("Sofas", null, null, null, null, false);
+        
+        // Then
+        assertEquals(1, result.size());
+        verify(searchResultCache, times(1)).put(criteria, List.of(1L), 7L);
     }
-} 
+}
@@ -0,0 +1,92 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.shard.ShardedProductStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedProductServiceTest {
+
+    @Mock
+    private ProductService delegate;
+
+    @Mock
+    private ShardedProductStore store;
+
+    @Mock
+    private StockWriteBehindBuffer stockWriteBehindBuffer;
+
+    private ShardedProductService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ShardedProductService(delegate, store, stockWriteBehindBuffer);
+    }
+
+    @Test
+    void getProductById_ShouldOverlayTheBufferedStockLevel() {
+        // Given
+        when(store.isReady()).thenReturn(true);
+        when(store.findById(1L)).thenReturn(product(1L, 5));
+        when(stockWriteBehindBuffer.getPendingStock(1L)).thenReturn(0);
+
+        // When
+        ProductResponseDTO product = service.getProductById(1L);
+
+        // Then
+        assertEquals(0, product.getStock());
+        assertFalse(product.isInStock());
+    }
+
+    @Test
+    void searchProducts_InStock_ShouldDropProductsSoldOutInTheBuffer() {
+        // Given
+        SearchCriteria criteria = SearchCriteria.of("Sofas", null, null, null, null, true);
+        when(store.isReady()).thenReturn(true);
+        when(store.search(criteria, ProductOrder.BY_ID, 10)).thenReturn(List.of(product(1L, 5), product(2L, 3)));
+        when(stockWriteBehindBuffer.getPendingStock(anyLong())).thenReturn(null);
+        when(stockWriteBehindBuffer.getPendingStock(2L)).thenReturn(0);
+
+        // When
+        List<ProductResponseDTO> result = service.searchProducts(criteria, ProductOrder.BY_ID, 10);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+    }
+
+    @Test
+    void getProductById_BeforeTheShardsAreFilled_ShouldReadThePrimary() {
+        // Given
+        ProductResponseDTO primary = product(1L, 5);
+        when(store.isReady()).thenReturn(false);
+        when(delegate.getProductById(1L)).thenReturn(primary);
+
+        // When
+        ProductResponseDTO product = service.getProductById(1L);
+
+        // Then
+        assertSame(primary, product);
+        verify(store, never()).findById(anyLong());
+        verify(store, never()).search(any(), any(), anyInt());
+    }
+
+    private static ProductResponseDTO product(Long id, int stock) {
+        return new ProductResponseDTO(id, "Sofa " + id, null, "Sofas", new BigDecimal("500"), stock,
+                null, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,113 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.dto.ProductRequestDTO;
+import com.furniture.ecommerce.repository.ReservationRepository;
+import com.furniture.ecommerce.reservation.Reservation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void confirm_ConcurrentlyOnTwoInstances_ShouldTakeEveryConfirmedUnit() throws Exception {
+        // Given
+        // Each instance serializes its own confirmations; only the database orders the two
+        StockReservationService otherInstance = new StockReservationService(productService, reservationRepository,
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry(), Clock.systemUTC(),
+                Duration.ofMinutes(15), Duration.ofMinutes(60), 1000, 512);
+        long id = createProduct(100);
+        List<Reservation> here = reserve(stockReservationService, id, 10);
+        List<Reservation> there = reserve(otherInstance, id, 10);
+
+        // When
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<Void> confirmHere = CompletableFuture.runAsync(() -> confirmAll(stockReservationService,
+                id, here, start));
+        CompletableFuture<Void> confirmThere = CompletableFuture.runAsync(() -> confirmAll(otherInstance, id,
+                there, start));
+        start.countDown();
+        CompletableFuture.allOf(confirmHere, confirmThere).get(30, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(40, jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, id));
+        assertEquals(40, productService.getProductById(id).getStock());
+    }
+
+    @Test
+    void confirm_AfterTheStockWasLoweredUnderTheHolds_ShouldStopAtZero() {
+        // Given
+        long id = createProduct(10);
+        Reservation reservation = stockReservationService.reserve(id, 8, null);
+        productService.updateStock(id, 5);
+
+        // When
+        stockReservationService.confirm(id, reservation.getId());
+
+        // Then
+        assertEquals(0, productService.getProductById(id).getStock());
+        assertEquals(0, stockReservationService.getAvailability(id).getReserved());
+    }
+
+    private long createProduct(int stock) {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName("Reserved Sofa " + UUID.randomUUID());
+        request.setCategory("Sofas");
+        request.setPrice(new BigDecimal("499.00"));
+        request.setStock(stock);
+        return productService.createProduct(request).getId();
+    }
+
+    private static List<Reservation> reserve(StockReservationService service, long id, int count) {
+        List<Reservation> reservations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reservations.add(service.reserve(id, 3, null));
+        }
+        return reservations;
+    }
+
+    private static void confirmAll(StockReservationService service, long id, List<Reservation> reservations,
+                                   CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        for (Reservation reservation : reservations) {
+            service.confirm(id, reservation.getId());
+        }
+    }
+}
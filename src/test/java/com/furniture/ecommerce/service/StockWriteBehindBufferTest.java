@@ -0,0 +1,182 @@
+package com.furniture.ecommerce.service;
+
+import com.furniture.ecommerce.event.StockFlushedEvent;
+import com.furniture.ecommerce.repository.ProductBulkLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockWriteBehindBufferTest {
+
+    @Mock
+    private ProductBulkLoader productBulkLoader;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StockWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new StockWriteBehindBuffer(productBulkLoader, eventPublisher, meterRegistry, true, 1000);
+    }
+
+    @Test
+    void record_ShouldBeVisibleBeforeFlush() {
+        // When
+        buffer.record(1L, 7);
+
+        // Then
+        assertEquals(7, buffer.getPendingStock(1L));
+        assertNull(buffer.getPendingStock(2L));
+        verifyNoInteractions(productBulkLoader);
+    }
+
+    @Test
+    void flush_WithRepeatedUpdates_ShouldWriteLastValueOnce() {
+        // Given
+        when(productBulkLoader.updateStock(anyMap())).thenReturn(2);
+        buffer.record(1L, 10);
+        buffer.record(1L, 9);
+        buffer.record(1L, 8);
+        buffer.record(2L, 3);
+
+        // When
+        buffer.flush();
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, Integer>> batch = ArgumentCaptor.forClass(Map.class);
+        verify(productBulkLoader, times(1)).updateStock(batch.capture());
+        assertEquals(Map.of(1L, 8, 2L, 3), batch.getValue());
+        assertNull(buffer.getPendingStock(1L));
+        assertEquals(2.0, meterRegistry.get("catalog.stock.write-behind.coalescing.ratio").gauge().value());
+        ArgumentCaptor<StockFlushedEvent> flushed = ArgumentCaptor.forClass(StockFlushedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(flushed.capture());
+        assertEquals(Set.of(1L, 2L), flushed.getValue().getProductIds());
+    }
+
+    @Test
+    void flush_WhenDatabaseFails_ShouldKeepValuesPending() {
+        // Given
+        when(productBulkLoader.updateStock(anyMap())).thenThrow(new DataAccessResourceFailureException("down"));
+        buffer.record(1L, 5);
+
+        // When
+        buffer.flush();
+
+        // Then
+        assertEquals(5, buffer.getPendingStock(1L));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void take_ShouldLowerOnlyABufferedLevelAndStopAtZero() {
+        // Given
+        buffer.record(1L, 5);
+
+        // When / Then
+        assertTrue(buffer.take(1L, 3));
+        assertEquals(2, buffer.getPendingStock(1L));
+        assertTrue(buffer.take(1L, 3));
+        assertEquals(0, buffer.getPendingStock(1L));
+        assertFalse(buffer.take(2L, 1));
+        assertNull(buffer.getPendingStock(2L));
+    }
+
+    @Test
+    void discard_DuringAFlush_ShouldWaitUntilTheBufferedLevelIsWritten() throws Exception {
+        // Given
+        // A product update discards the level while the flush is writing it
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productBulkLoader.updateStock(anyMap())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+        buffer.record(1L, 5);
+        Thread flusher = new Thread(buffer::flush);
+        flusher.start();
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<Void> discard = CompletableFuture.runAsync(() -> buffer.discard(1L));
+
+        // Then
+        assertThrows(TimeoutException.class, () -> discard.get(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        discard.get(5, TimeUnit.SECONDS);
+        flusher.join(5000);
+        assertNull(buffer.getPendingStock(1L));
+        buffer.flush();
+        verify(productBulkLoader, times(1)).updateStock(anyMap());
+    }
+
+    @Test
+    void discard_BeforeAFlush_ShouldKeepTheLevelOutOfTheBatch() {
+        // Given
+        buffer.record(1L, 5);
+        buffer.record(2L, 6);
+
+        // When
+        buffer.discard(1L);
+        buffer.flush();
+
+        // Then
+        verify(productBulkLoader, times(1)).updateStock(Map.of(2L, 6));
+    }
+
+    @Test
+    void flushOne_ShouldWriteOnlyThatProductsLevel() {
+        // Given
+        when(productBulkLoader.updateStock(anyMap())).thenReturn(1);
+        buffer.record(1L, 4);
+        buffer.record(2L, 6);
+
+        // When
+        buffer.flush(1L);
+        buffer.flush(3L);
+
+        // Then
+        verify(productBulkLoader, times(1)).updateStock(Map.of(1L, 4));
+        assertNull(buffer.getPendingStock(1L));
+        assertEquals(6, buffer.getPendingStock(2L));
+        ArgumentCaptor<StockFlushedEvent> flushed = ArgumentCaptor.forClass(StockFlushedEvent.class);
+        verify(eventPublisher).publishEvent(flushed.capture());
+        assertEquals(Set.of(1L), flushed.getValue().getProductIds());
+    }
+
+    @Test
+    void flushOnShutdown_ShouldWritePendingValues() {
+        // Given
+        when(productBulkLoader.updateStock(anyMap())).thenReturn(1);
+        buffer.record(1L, 4);
+
+        // When
+        buffer.flushOnShutdown();
+
+        // Then
+        verify(productBulkLoader, times(1)).updateStock(Map.of(1L, 4));
+    }
+}
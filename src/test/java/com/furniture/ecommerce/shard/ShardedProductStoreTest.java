@@ -0,0 +1,213 @@
+package com.furniture.ecommerce.shard;
+
+import com.furniture.ecommerce.dto.ProductResponseDTO;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.index.ProductOrder;
+import com.furniture.ecommerce.index.SearchCriteria;
+import com.furniture.ecommerce.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedProductStoreTest {
+
+    private static final SearchCriteria ALL = SearchCriteria.of(null, null, null, null, null, null);
+
+    private ShardedProductStore store;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void search_AcrossShards_ShouldMergeSortedResultsAndApplyLimit() {
+        // Given
+        store = newStore(3, ShardingStrategy.ID_HASH);
+        load(product(1L, "Sofas", "500", 2), product(2L, "Chairs", "120", 0), product(3L, "Tables", "900", 4),
+                product(4L, "Sofas", "750", 1), product(5L, "Beds", "900", 3), product(6L, "Chairs", "80", 9));
+
+        // When
+        List<ProductResponseDTO> result = store.search(ALL, ProductOrder.parse("price,desc"), 4);
+
+        // Then
+        assertEquals(List.of(3L, 5L, 4L, 1L), ids(result));
+    }
+
+    @Test
+    void search_WithFilters_ShouldMatchLikeTheRepositoryQuery() {
+        // Given
+        store = newStore(2, ShardingStrategy.ID_HASH);
+        load(product(1L, "Sofas", "500", 2), product(2L, "sofas", "650", 0), product(3L, "Sofas", "1200", 5),
+                product(4L, "Chairs", "550", 1));
+
+        // When
+        List<ProductResponseDTO> result = store.search(
+                SearchCriteria.of(" SOFAS", null, null, new BigDecimal("400"), new BigDecimal("1000"), true),
+                ProductOrder.BY_ID, 0);
+
+        // Then
+        assertEquals(List.of(1L), ids(result));
+    }
+
+    @Test
+    void findById_ShouldReadTheProductFromItsShard() {
+        // Given
+        store = newStore(4, ShardingStrategy.CATEGORY);
+        load(product(1L, "Sofas", "500", 2), product(2L, "Chairs", "120", 0));
+
+        // When
+        ProductResponseDTO found = store.findById(2L);
+        ProductResponseDTO missing = store.findById(99L);
+
+        // Then
+        assertEquals("Chairs", found.getCategory());
+        assertEquals(0, new BigDecimal("120").compareTo(found.getPrice()));
+        assertFalse(found.isInStock());
+        assertNull(missing);
+    }
+
+    @Test
+    void update_WithCategoryChange_ShouldMoveTheProductToItsNewShard() {
+        // Given
+        store = newStore(8, ShardingStrategy.CATEGORY);
+        ProductSnapshot sofa = product(1L, "Sofas", "500", 2);
+        load(sofa);
+        String newCategory = categoryOnAnotherShard("Sofas", 8);
+
+        // When
+        store.update(sofa.withoutDescription(), product(1L, newCategory, "500", 2));
+
+        // Then
+        assertEquals(newCategory, store.findById(1L).getCategory());
+        assertTrue(store.search(SearchCriteria.of("Sofas", null, null, null, null, null),
+                ProductOrder.BY_ID, 0).isEmpty());
+        assertEquals(List.of(1L), ids(store.search(SearchCriteria.of(newCategory, null, null, null, null, null),
+                ProductOrder.BY_ID, 0)));
+    }
+
+    @Test
+    void remove_ShouldDeleteTheProduct() {
+        // Given
+        store = newStore(2, ShardingStrategy.CATEGORY);
+        ProductSnapshot sofa = product(1L, "Sofas", "500", 2);
+        load(sofa, product(2L, "Chairs", "120", 0));
+
+        // When
+        store.remove(sofa.withoutDescription());
+
+        // Then
+        assertNull(store.findById(1L));
+        assertEquals(List.of(2L), ids(store.search(ALL, ProductOrder.BY_ID, 0)));
+    }
+
+    @Test
+    void clear_ShouldKeepServingThePreviousCatalogUntilTheRebuildCompletes() {
+        // Given
+        store = newStore(2, ShardingStrategy.CATEGORY);
+        load(product(1L, "Sofas", "500", 2), product(2L, "Chairs", "120", 0));
+
+        // When
+        store.clear();
+        store.add(product(1L, "Sofas", "450", 2));
+        store.add(product(3L, "Beds", "900", 1));
+        List<Long> duringRebuild = ids(store.search(ALL, ProductOrder.BY_ID, 0));
+        ProductResponseDTO chairDuringRebuild = store.findById(2L);
+        store.afterRebuild();
+
+        // Then
+        assertEquals(List.of(1L, 2L), duringRebuild);
+        assertNotNull(chairDuringRebuild);
+        assertEquals(List.of(1L, 3L), ids(store.search(ALL, ProductOrder.BY_ID, 0)));
+        assertEquals(0, new BigDecimal("450").compareTo(store.findById(1L).getPrice()));
+        assertNull(store.findById(2L));
+    }
+
+    @Test
+    void update_DuringRebuild_ShouldNotBeOverwrittenByTheRebuildBatch() {
+        // Given
+        store = newStore(1, ShardingStrategy.ID_HASH);
+        ProductSnapshot read = product(1L, "Sofas", "500", 2);
+        store.clear();
+        store.add(read);
+
+        // When
+        store.update(read.withoutDescription(), product(1L, "Sofas", "500", 0));
+        store.afterRebuild();
+
+        // Then
+        assertEquals(0, store.findById(1L).getStock());
+    }
+
+    @Test
+    void merge_ShouldInterleaveSortedListsAndBreakTiesById() {
+        // Given
+        List<ProductResponseDTO> first = List.of(dto(1L, "100"), dto(4L, "300"));
+        List<ProductResponseDTO> second = List.of(dto(2L, "100"), dto(3L, "200"), dto(5L, "300"));
+
+        // When
+        List<ProductResponseDTO> merged = ShardedProductStore.merge(
+                List.of(first, List.of(), second), ProductOrder.parse("price").comparator(), 0);
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(merged));
+    }
+
+    private static ShardedProductStore newStore(int shardCount, ShardingStrategy strategy) {
+        List<DataSource> dataSources = new ArrayList<>();
+        String name = UUID.randomUUID().toString();
+        for (int i = 0; i < shardCount; i++) {
+            dataSources.add(new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + i + ";DB_CLOSE_DELAY=-1"));
+        }
+        return new ShardedProductStore(dataSources, strategy, 4, new SimpleMeterRegistry());
+    }
+
+    private void load(ProductSnapshot... products) {
+        store.clear();
+        for (ProductSnapshot product : products) {
+            store.add(product);
+        }
+        store.afterRebuild();
+    }
+
+    private static String categoryOnAnotherShard(String category, int shardCount) {
+        int shard = ShardingStrategy.shardOfCategory(category, shardCount);
+        for (String candidate : List.of("Chairs", "Tables", "Beds", "Desks", "Storage", "Lighting", "Rugs")) {
+            if (ShardingStrategy.shardOfCategory(candidate, shardCount) != shard) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Every candidate category hashes to shard " + shard);
+    }
+
+    private static ProductSnapshot product(Long id, String category, String price, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(category + " " + id);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        return ProductSnapshot.of(product);
+    }
+
+    private static ProductResponseDTO dto(Long id, String price) {
+        return new ProductResponseDTO(id, "Product " + id, null, "Sofas", new BigDecimal(price), 1,
+                null, null, null, null, null, null, null, null);
+    }
+
+    private static List<Long> ids(List<ProductResponseDTO> products) {
+        return products.stream().map(ProductResponseDTO::getId).collect(Collectors.toList());
+    }
+}
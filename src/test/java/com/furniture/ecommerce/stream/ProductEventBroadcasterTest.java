@@ -0,0 +1,163 @@
+package com.furniture.ecommerce.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.ecommerce.event.ProductSnapshot;
+import com.furniture.ecommerce.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductEventBroadcasterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new ProductEventBroadcaster(new ObjectMapper(), meterRegistry, 4, 10, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void flush_ShouldCoalesceChangesOfTheSameProductIntoOneEvent() throws InterruptedException {
+        // Given
+        RecordingSink sink = new RecordingSink();
+        broadcaster.register(sink, Set.of(), null);
+        broadcaster.update(snapshot(1L, "Sofas", "100.00", 5), snapshot(1L, "Sofas", "100.00", 4));
+        broadcaster.update(snapshot(1L, "Sofas", "100.00", 4), snapshot(1L, "Sofas", "90.00", 3));
+
+        // When
+        broadcaster.flush();
+
+        // Then
+        OutboundEvent event = sink.next();
+        assertEquals("updated", event.getName());
+        assertTrue(event.getJson().contains("\"stock\":3"));
+        assertTrue(event.getJson().contains("\"changes\":[\"price\",\"stock\"]"));
+        assertNull(sink.events.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(1.0, meterRegistry.get("catalog.events.coalesced").counter().count());
+    }
+
+    @Test
+    void flush_ShouldOnlySendMatchingEventsAndDropCreateThenDelete() throws InterruptedException {
+        // Given
+        RecordingSink chairs = new RecordingSink();
+        RecordingSink product2 = new RecordingSink();
+        broadcaster.register(chairs, Set.of(), "chairs");
+        broadcaster.register(product2, Set.of(2L), null);
+        broadcaster.add(snapshot(1L, "Sofas", "100.00", 1));
+        broadcaster.remove(snapshot(1L, "Sofas", "100.00", 1));
+        broadcaster.update(snapshot(2L, "Sofas", "50.00", 1), snapshot(2L, "Chairs", "50.00", 1));
+        broadcaster.remove(snapshot(3L, "Chairs", "20.00", 0));
+
+        // When
+        broadcaster.flush();
+
+        // Then
+        assertEquals(2L, chairs.next().getProductId());
+        OutboundEvent deleted = chairs.next();
+        assertEquals("deleted", deleted.getName());
+        assertEquals(3L, deleted.getProductId());
+        assertEquals(2L, product2.next().getProductId());
+        assertNull(product2.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void clear_ShouldNotStreamTheRebuild() {
+        // Given
+        RecordingSink sink = new RecordingSink();
+        broadcaster.register(sink, Set.of(), null);
+
+        // When
+        broadcaster.clear();
+        broadcaster.add(snapshot(1L, "Sofas", "100.00", 1));
+        broadcaster.afterRebuild();
+        broadcaster.flush();
+
+        // Then
+        assertEquals(0.0, meterRegistry.get("catalog.events.published").counter().count());
+    }
+
+    @Test
+    void offer_WhenSubscriberStopsReading_ShouldDisconnectItWithoutBlocking() throws InterruptedException {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink stalled = new RecordingSink(release);
+        RecordingSink healthy = new RecordingSink();
+        EventSubscriber slow = broadcaster.register(stalled, Set.of(), null);
+        broadcaster.register(healthy, Set.of(), null);
+
+        // When
+        for (long id = 1; id <= 10; id++) {
+            broadcaster.add(snapshot(id, "Sofas", "100.00", 1));
+            broadcaster.flush();
+            // A reader that keeps up; its buffer is as small as the stalled one's
+            assertNotNull(healthy.next());
+        }
+
+        // Then
+        assertTrue(slow.isClosed());
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("catalog.events.slow.consumers").counter().count());
+        release.countDown();
+    }
+
+    private static ProductSnapshot snapshot(Long id, String category, String price, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setCategory(category);
+        product.setPrice(new BigDecimal(price));
+        product.setStock(stock);
+        return ProductSnapshot.of(product);
+    }
+
+    private static final class RecordingSink implements EventSink {
+
+        private final BlockingQueue<OutboundEvent> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+
+        RecordingSink() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(OutboundEvent event) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        OutboundEvent next() throws InterruptedException {
+            OutboundEvent event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "expected an event");
+            return event;
+        }
+    }
+}